@@ -142,6 +142,20 @@ public class Configs {
   )
   public boolean compression;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      label = "Max In-Flight Requests",
+      description = "Number of requests a batch is split into and sent in parallel, round robin over the active " +
+        "SDC RPC connections. Each request is retried on its own.",
+      displayPosition = 120,
+      group = "ADVANCED",
+      min = 1,
+      max = 100
+  )
+  public int maxInFlightRequests = 1;
+
   // This flag indicates that connection validation must apply the retry and backoff.
   boolean retryDuringValidation = false;
 
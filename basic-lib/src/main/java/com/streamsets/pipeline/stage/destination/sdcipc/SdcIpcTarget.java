@@ -15,7 +15,11 @@
  */
 package com.streamsets.pipeline.stage.destination.sdcipc;
 
+import com.codahale.metrics.Timer;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.math.IntMath;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.OnRecordError;
 import com.streamsets.pipeline.api.Record;
@@ -30,12 +34,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.RoundingMode;
 import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class SdcIpcTarget extends BaseTarget {
   private static final Logger LOG = LoggerFactory.getLogger(SdcIpcTarget.class);
@@ -45,12 +57,15 @@ public class SdcIpcTarget extends BaseTarget {
   final List<String> standByHostPorts;
   final List<String> activeHostPorts;
   int lastActive;
+  private final Map<String, Timer> latencyTimers;
+  private ExecutorService sendExecutor;
 
   public SdcIpcTarget(Configs config) {
     this.config = config;
     standByHostPorts = new ArrayList<>();
     activeHostPorts = new ArrayList<>();
     lastActive = -1;
+    latencyTimers = new HashMap<>();
   }
 
   @Override
@@ -60,6 +75,15 @@ public class SdcIpcTarget extends BaseTarget {
     issues.addAll(config.init(getContext()));
     if (issues.isEmpty()) {
       initializeHostPortsLists();
+      for (String hostPort : config.hostPorts) {
+        latencyTimers.put(hostPort, getContext().createTimer("Request Latency " + hostPort));
+      }
+      if (config.maxInFlightRequests > 1) {
+        sendExecutor = Executors.newFixedThreadPool(
+            config.maxInFlightRequests,
+            new ThreadFactoryBuilder().setNameFormat("SDC RPC Sender - %d").setDaemon(true).build()
+        );
+      }
     }
     return issues;
   }
@@ -93,7 +117,7 @@ public class SdcIpcTarget extends BaseTarget {
     }
   }
 
-  String getHostPort(boolean previousOneHadError) {
+  synchronized String getHostPort(boolean previousOneHadError) {
     if (activeHostPorts.size() == 1) {
       return activeHostPorts.get(0);
     } else {
@@ -113,8 +137,8 @@ public class SdcIpcTarget extends BaseTarget {
     }
   }
 
-  HttpURLConnection createWriteConnection(boolean isRetry) throws IOException, StageException {
-    HttpURLConnection  conn = config.createConnection(getHostPort(isRetry));
+  HttpURLConnection createWriteConnection(String hostPort) throws IOException, StageException {
+    HttpURLConnection  conn = config.createConnection(hostPort);
     conn.setRequestMethod("POST");
     conn.setRequestProperty(Constants.CONTENT_TYPE_HEADER, Constants.APPLICATION_BINARY);
     conn.setRequestProperty(Constants.X_SDC_JSON1_FRAGMENTABLE_HEADER, "true");
@@ -126,18 +150,74 @@ public class SdcIpcTarget extends BaseTarget {
 
   @Override
   public void write(Batch batch) throws StageException {
+    List<Record> records = Lists.newArrayList(batch.getRecords());
+    List<List<Record>> requests = split(records);
+    List<String> errorReasons = new ArrayList<>(requests.size());
+    if (requests.size() == 1) {
+      errorReasons.add(send(batch, records));
+    } else {
+      List<Future<String>> futures = new ArrayList<>(requests.size());
+      for (List<Record> request : requests) {
+        futures.add(sendExecutor.submit(() -> send(batch, request)));
+      }
+      for (Future<String> future : futures) {
+        try {
+          errorReasons.add(future.get());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          throw new StageException(Errors.IPC_DEST_20, ex.toString(), ex);
+        } catch (ExecutionException ex) {
+          Throwables.propagateIfPossible(ex.getCause(), StageException.class);
+          throw new StageException(Errors.IPC_DEST_20, ex.getCause().toString(), ex.getCause());
+        }
+      }
+    }
+    for (int i = 0; i < requests.size(); i++) {
+      String errorReason = errorReasons.get(i);
+      if (errorReason != null) {
+        OnRecordError onErrorRecord = getContext().getOnErrorRecord();
+        // this branch only happens when the pipeline error handling strategy is "send to RPC". if we can't forward to
+        // that pipeline, then it's a pipeline-stopping problem.
+        if (onErrorRecord == null) {
+          throw new StageException(Errors.IPC_DEST_20, errorReason);
+        }
+
+        errorRecordHandler.onError(
+            requests.get(i),
+            new StageException(
+                Errors.IPC_DEST_20,
+                errorReason
+            )
+        );
+      }
+    }
+  }
+
+  // splits the batch in up to maxInFlightRequests requests of about the same size
+  List<List<Record>> split(List<Record> records) {
+    if (records.size() <= 1 || config.maxInFlightRequests <= 1) {
+      return Collections.singletonList(records);
+    }
+    return Lists.partition(records, IntMath.divide(records.size(), config.maxInFlightRequests, RoundingMode.CEILING));
+  }
+
+  // returns null if the records were written out, the reason of the last failure otherwise
+  String send(Batch batch, List<Record> records) throws StageException {
     ContextExtensions ext = (ContextExtensions) getContext();
     boolean ok = false;
     int retryCount = 0;
     String errorReason = null;
-    HttpURLConnection conn = null;
 
     while (!ok && retryCount <= config.retriesPerBatch) {
       LOG.debug("Writing out batch for entity '{}' and offset '{}' retry '{}'", batch.getSourceEntity(), batch.getSourceOffset(), retryCount);
       config.backOffWait(retryCount);
 
+      // a failed attempt must only disconnect its own connection, a previous one is back in the keep-alive cache
+      HttpURLConnection conn = null;
       try {
-        conn = createWriteConnection(retryCount > 0);
+        String hostPort = getHostPort(retryCount > 0);
+        long start = System.nanoTime();
+        conn = createWriteConnection(hostPort);
         if (config.compression) {
           conn.setRequestProperty(Constants.X_SDC_COMPRESSION_HEADER, Constants.SNAPPY_COMPRESSION);
         }
@@ -146,20 +226,25 @@ public class SdcIpcTarget extends BaseTarget {
           os = new SnappyFramedOutputStream(os);
         }
         RecordWriter writer = ext.createRecordWriter(os);
-        Iterator<Record> it = batch.getRecords();
-        while (it.hasNext()) {
-          Record record = it.next();
+        for (Record record : records) {
           writer.write(record);
         }
         writer.close();
         os.close();
-        ok = conn.getResponseCode() == HttpURLConnection.HTTP_OK;
+        int responseCode = conn.getResponseCode();
+        ok = responseCode == HttpURLConnection.HTTP_OK;
         if (!ok) {
-          errorReason = conn.getResponseMessage();
+          // the reason phrase is optional, the status code is not
+          errorReason = conn.getResponseMessage() != null ? conn.getResponseMessage() : "HTTP " + responseCode;
           LOG.warn("Batch for entity '{}' and offset '{}' could not be written out: {}", batch.getSourceEntity(), batch.getSourceOffset(), errorReason);
         } else {
           LOG.debug("Batch for entity '{}' and offset '{}' written out on retry '{}'", batch.getSourceEntity(), batch.getSourceOffset(), retryCount);
         }
+        consumeResponse(conn, ok);
+        Timer latencyTimer = latencyTimers.get(hostPort);
+        if (latencyTimer != null) {
+          latencyTimer.update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
       } catch (IOException ex) {
         errorReason = ex.toString();
         LOG.warn("Batch for entity '{}' and offset '{}' could not be written out: {}", batch.getSourceEntity(), batch.getSourceOffset(), errorReason, ex);
@@ -170,22 +255,29 @@ public class SdcIpcTarget extends BaseTarget {
       }
       retryCount++;
     }
-    if (!ok) {
-      OnRecordError onErrorRecord = getContext().getOnErrorRecord();
-      // this branch only happens when the pipeline error handling strategy is "send to RPC". if we can't forward to
-      // that pipeline, then it's a pipeline-stopping problem.
-      if (onErrorRecord == null) {
-        throw new StageException(Errors.IPC_DEST_20, errorReason);
+    return ok ? null : errorReason;
+  }
+
+  // reading the response to the end and closing it hands the connection back to the JDK keep-alive cache, the next
+  // request to the same host reuses it instead of opening a new one.
+  private static void consumeResponse(HttpURLConnection conn, boolean ok) throws IOException {
+    try (InputStream is = ok ? conn.getInputStream() : conn.getErrorStream()) {
+      if (is != null) {
+        byte[] buffer = new byte[1024];
+        while (is.read(buffer) > -1) {
+          // discarding response body
+        }
       }
+    }
+  }
 
-      errorRecordHandler.onError(
-          Lists.newArrayList(batch.getRecords()),
-          new StageException(
-              Errors.IPC_DEST_20,
-              errorReason
-          )
-      );
+  @Override
+  public void destroy() {
+    if (sendExecutor != null) {
+      sendExecutor.shutdownNow();
+      sendExecutor = null;
     }
+    super.destroy();
   }
 
 }
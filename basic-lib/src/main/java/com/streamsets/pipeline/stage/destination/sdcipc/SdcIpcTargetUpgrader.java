@@ -38,6 +38,12 @@ public class SdcIpcTargetUpgrader implements StageUpgrader {
             "sslEnabled",
             "tlsEnabled"
         );
+        if (toVersion == 2) {
+          break;
+        }
+        // fall through
+      case 2:
+        configs.add(new Config("config.maxInFlightRequests", 1));
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
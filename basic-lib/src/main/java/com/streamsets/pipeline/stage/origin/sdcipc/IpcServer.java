@@ -15,8 +15,7 @@
  */
 package com.streamsets.pipeline.stage.origin.sdcipc;
 
-import com.streamsets.pipeline.api.Record;
-import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.api.PushSource;
 import com.streamsets.pipeline.lib.tls.TlsConfigBean;
 import com.streamsets.pipeline.stage.destination.sdcipc.Constants;
 import org.eclipse.jetty.server.Connector;
@@ -44,26 +43,22 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.EnumSet;
-import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings({"squid:S2095", "squid:S00112"})
 public class IpcServer {
   private static final Logger LOG = LoggerFactory.getLogger(IpcServer.class);
 
-  private final Stage.Context context;
+  private final PushSource.Context context;
   private final Configs configs;
+  private final int maxConcurrentRequests;
   private Server httpServer;
-  private final BlockingQueue<List<Record>> queue;
   private IpcServlet servlet;
 
-  public IpcServer(Stage.Context context, Configs configs) {
+  public IpcServer(PushSource.Context context, Configs configs, int maxConcurrentRequests) {
     this.context = context;
     this.configs = configs;
-    queue = new SynchronousQueue<>();
+    this.maxConcurrentRequests = maxConcurrentRequests;
   }
 
   private int getJettyServerMinimumThreads() {
@@ -77,9 +72,11 @@ public class IpcServer {
   }
 
   public void start() throws Exception {
-    int numberOfThreads = getJettyServerMinimumThreads();
+    // a thread per concurrent batch, requests waiting for a thread are queued by Jetty up to the queue capacity
+    int numberOfThreads = getJettyServerMinimumThreads() + maxConcurrentRequests;
+    int queueCapacity = Math.max(20, maxConcurrentRequests);
     QueuedThreadPool threadPool = new QueuedThreadPool(numberOfThreads, numberOfThreads, 60000,
-                                                       new ArrayBlockingQueue<Runnable>(20));
+                                                       new ArrayBlockingQueue<Runnable>(queueCapacity));
     threadPool.setName("sdcipc-server");
     threadPool.setDaemon(true);
     Server server = new Server(threadPool);
@@ -108,7 +105,7 @@ public class IpcServer {
     connector.setPort(configs.port);
     server.setConnectors(new Connector[]{connector});
 
-    servlet = new IpcServlet(context, configs, queue);
+    servlet = new IpcServlet(context, configs, maxConcurrentRequests);
     ServletContextHandler contextHandler = new ServletContextHandler();
     contextHandler.addFilter(DisableTraceFilter.class, "/*", EnumSet.allOf(DispatcherType.class));
     contextHandler.addServlet(new ServletHolder(new PingServlet()), Constants.PING_PATH);
@@ -159,8 +156,6 @@ public class IpcServer {
             Thread.sleep(50);
           }
           if (servlet.isInPost()) {
-            // release the queue before forcing a shutdown
-            cancelBatch();
             LOG.warn("Servlet not completing POST after 30secs, forcing a shutdown");
           }
         } catch (InterruptedException ex) {
@@ -175,24 +170,4 @@ public class IpcServer {
     }
   }
 
-  public List<Record> poll(long secs) throws InterruptedException {
-    return queue.poll(secs, TimeUnit.SECONDS);
-  }
-
-  public void cancelBatch() {
-    LOG.debug("Cancel batch");
-    servlet.batchCancelled();
-    synchronized (queue) {
-      queue.notify();
-    }
-  }
-
-  public void doneWithBatch() {
-    LOG.debug("Done with batch");
-    servlet.batchDone();
-    synchronized (queue) {
-      queue.notify();
-    }
-  }
-
 }
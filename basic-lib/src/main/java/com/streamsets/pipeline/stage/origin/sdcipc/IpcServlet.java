@@ -15,8 +15,10 @@
  */
 package com.streamsets.pipeline.stage.origin.sdcipc;
 
+import com.streamsets.pipeline.api.BatchContext;
+import com.streamsets.pipeline.api.BatchMaker;
+import com.streamsets.pipeline.api.PushSource;
 import com.streamsets.pipeline.api.Record;
-import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.ext.ContextExtensions;
 import com.streamsets.pipeline.api.ext.RecordReader;
@@ -32,28 +34,26 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @SuppressWarnings({"squid:S2226", "squid:S1989", "squid:S1948"})
 public class IpcServlet extends HttpServlet {
   private static final Logger LOG = LoggerFactory.getLogger(IpcServlet.class);
 
-  private final Stage.Context context;
+  private final PushSource.Context context;
   private final Configs configs;
   private final int maxObjectLen;
-  private final BlockingQueue<List<Record>> queue;
-  private volatile boolean batchDone;
-  private volatile boolean batchCancelled;
+  // one permit per pipeline runner, requests beyond it are rejected instead of waiting for a runner
+  private final Semaphore admission;
+  private final AtomicInteger inPost = new AtomicInteger();
   private volatile boolean shuttingDown;
-  private volatile boolean inPost;
 
-  public IpcServlet(Stage.Context context, Configs configs, BlockingQueue<List<Record>> queue) {
+  public IpcServlet(PushSource.Context context, Configs configs, int maxConcurrentRequests) {
     this.context = context;
     this.configs = configs;
     maxObjectLen = this.configs.maxRecordSize * 1000 * 1000;
-    this.queue = queue;
+    admission = new Semaphore(maxConcurrentRequests);
   }
 
   private String resolveAppId() throws IOException {
@@ -78,9 +78,8 @@ public class IpcServlet extends HttpServlet {
   }
 
   @Override
-  protected synchronized void doPost(HttpServletRequest req, HttpServletResponse resp)
-      throws ServletException, IOException {
-    inPost = true;
+  protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+    inPost.incrementAndGet();
     LOG.debug("Got connection from '{}'", req.getRemoteAddr());
 
     try {
@@ -98,6 +97,9 @@ public class IpcServlet extends HttpServlet {
         } else if (!resolveAppId().equals(appId)) {
           LOG.warn("IPC from '{}' invalid appId '{}', rejected", req.getRemoteAddr(), appId);
           resp.sendError(HttpServletResponse.SC_FORBIDDEN, "Invalid 'appId'");
+        } else if (!admission.tryAcquire()) {
+          LOG.debug("IPC from '{}' rejected, all the pipeline runners are busy", req.getRemoteAddr());
+          resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many concurrent requests");
         } else {
           try (InputStream in = req.getInputStream()) {
             InputStream is = in;
@@ -115,63 +117,49 @@ public class IpcServlet extends HttpServlet {
               }
             }
             if (processRequest) {
-              RecordReader reader = ((ContextExtensions) context).createRecordReader(is, 0, maxObjectLen);
-
-              List<Record> records = new ArrayList<>();
-              Record record = reader.readRecord();
-              while (record != null) {
-                records.add(record);
-                record = reader.readRecord();
-              }
-              LOG.debug("Got '{}' records from '{}'", records.size(), req.getRemoteAddr());
-              batchDone = false;
-              batchCancelled = false;
-              queue.add(records);
-              synchronized (queue) {
-                LOG.debug("Waiting for signal of batch completion");
-                while (!(batchDone || batchCancelled)) {
-                  queue.wait();
-                }
-                if (batchDone) {
-                  LOG.debug("Batch done");
-                  resp.setStatus(HttpServletResponse.SC_OK);
-                } else {
-                  // Batch cancelled
-                  LOG.debug("Batch cancelled: {}", batchCancelled);
-                  resp.setStatus(HttpServletResponse.SC_GONE);
-                }
-              }
+              processBatch(req, resp, is);
             }
           } catch (IOException ex) {
             LOG.warn("Error while reading records: {}", ex.toString(), ex);
             resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, ex.toString());
-          } catch (InterruptedException ex) {
-            LOG.warn("Pipeline stopped while waiting for completion for batch from '{}'", req.getRemoteAddr());
-            resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
-                "Pipeline stopped while waiting for batch completion");
-            Thread.currentThread().interrupt();
+          } finally {
+            admission.release();
           }
         }
       }
     } finally {
-      inPost = false;
+      inPost.decrementAndGet();
     }
   }
 
-  public void setShuttingDown() {
-    shuttingDown = true;
-  }
-
-  public void batchDone() {
-    batchDone = true;
+  // records are added to the batch as they are read, while the rest of the request body is still arriving
+  private void processBatch(HttpServletRequest req, HttpServletResponse resp, InputStream is) throws IOException {
+    BatchContext batchContext = context.startBatch();
+    BatchMaker batchMaker = batchContext.getBatchMaker();
+    RecordReader reader = ((ContextExtensions) context).createRecordReader(is, 0, maxObjectLen);
+    int count = 0;
+    Record record = reader.readRecord();
+    while (record != null) {
+      batchMaker.addRecord(record);
+      count++;
+      record = reader.readRecord();
+    }
+    LOG.debug("Got '{}' records from '{}'", count, req.getRemoteAddr());
+    if (context.processBatch(batchContext)) {
+      LOG.debug("Batch done");
+      resp.setStatus(HttpServletResponse.SC_OK);
+    } else {
+      LOG.debug("Batch from '{}' could not be processed", req.getRemoteAddr());
+      resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Batch could not be processed");
+    }
   }
 
-  public void batchCancelled() {
-    batchCancelled = true;
+  public void setShuttingDown() {
+    shuttingDown = true;
   }
 
   public boolean isInPost() {
-    return inPost;
+    return inPost.get() > 0;
   }
 
 }
@@ -15,17 +15,18 @@
  */
 package com.streamsets.pipeline.stage.origin.sdcipc;
 
+import com.streamsets.pipeline.api.ConfigDef;
 import com.streamsets.pipeline.api.ConfigDefBean;
 import com.streamsets.pipeline.api.ConfigGroups;
 import com.streamsets.pipeline.api.ExecutionMode;
 import com.streamsets.pipeline.api.GenerateResourceBundle;
 import com.streamsets.pipeline.api.HideConfigs;
-import com.streamsets.pipeline.api.Source;
+import com.streamsets.pipeline.api.PushSource;
 import com.streamsets.pipeline.api.StageDef;
-import com.streamsets.pipeline.configurablestage.DSourceOffsetCommitter;
+import com.streamsets.pipeline.configurablestage.DPushSource;
 
 @StageDef(
-    version = 2,
+    version = 3,
     label = "SDC RPC",
     execution = ExecutionMode.STANDALONE,
     description = "Receives records via SDC RPC from a Data Collector pipeline that uses an SDC RPC destination",
@@ -35,19 +36,34 @@ import com.streamsets.pipeline.configurablestage.DSourceOffsetCommitter;
 )
 @ConfigGroups(Groups.class)
 @HideConfigs({
+    "configs.maxWaitTimeSecs",
     "configs.tlsConfigBean.trustStoreFilePath",
     "configs.tlsConfigBean.trustStoreType",
     "configs.tlsConfigBean.trustStorePassword",
     "configs.tlsConfigBean.trustStoreAlgorithm"
 })
 @GenerateResourceBundle
-public class SdcIpcDSource extends DSourceOffsetCommitter {
+public class SdcIpcDSource extends DPushSource {
 
   @ConfigDefBean
   public Configs configs;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "10",
+      label = "Max Concurrent Requests",
+      description = "Maximum number of requests processed at the same time, each request is processed as a batch " +
+          "by its own pipeline runner. Requests beyond this limit are rejected and retried by the destination.",
+      displayPosition = 40,
+      group = "RPC",
+      min = 1,
+      max = 200
+  )
+  public int maxConcurrentRequests;
+
   @Override
-  protected Source createSource() {
-    return new SdcIpcSource(configs);
+  protected PushSource createPushSource() {
+    return new SdcIpcSource(configs, maxConcurrentRequests);
   }
 }
@@ -15,26 +15,29 @@
  */
 package com.streamsets.pipeline.stage.origin.sdcipc;
 
-import com.streamsets.pipeline.api.BatchMaker;
-import com.streamsets.pipeline.api.OffsetCommitter;
-import com.streamsets.pipeline.api.Record;
-import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.StageException;
-import com.streamsets.pipeline.api.base.BaseSource;
+import com.streamsets.pipeline.api.base.BasePushSource;
+import com.streamsets.pipeline.lib.util.ThreadUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.Map;
 
-public class SdcIpcSource extends BaseSource implements OffsetCommitter {
+/**
+ * Receives batches from SDC RPC destinations. Each request is processed as a batch by the Jetty thread that received
+ * it, up to <code>maxConcurrentRequests</code> requests are processed at the same time.
+ */
+public class SdcIpcSource extends BasePushSource {
   private static final Logger LOG = LoggerFactory.getLogger(SdcIpcSource.class);
 
   private final Configs configs;
+  private final int maxConcurrentRequests;
   private IpcServer ipcServer;
-  private long counter;
 
-  public SdcIpcSource(Configs configs) {
+  public SdcIpcSource(Configs configs, int maxConcurrentRequests) {
     this.configs = configs;
+    this.maxConcurrentRequests = maxConcurrentRequests;
   }
 
   @Override
@@ -42,14 +45,7 @@ public class SdcIpcSource extends BaseSource implements OffsetCommitter {
     List<ConfigIssue> issues = super.init();
     issues.addAll(configs.init(getContext()));
     if (issues.isEmpty()) {
-      ipcServer = new IpcServer(getContext(), configs);
-      try {
-        ipcServer.start();
-      } catch (Exception ex) {
-        Stage.ConfigIssue issue = getContext().createConfigIssue(null, null, Errors.IPC_ORIG_20, ex.toString());
-        LOG.warn(issue.toString(), ex);
-        issues.add(issue);
-      }
+      ipcServer = new IpcServer(getContext(), configs, maxConcurrentRequests);
     }
     return issues;
   }
@@ -63,28 +59,25 @@ public class SdcIpcSource extends BaseSource implements OffsetCommitter {
   }
 
   @Override
-  public String produce(String lastSourceOffset, int maxBatchSize, BatchMaker batchMaker) throws StageException {
-    try {
-      List<Record> records = ipcServer.poll(configs.maxWaitTimeSecs);
-      if (records != null) {
-        LOG.debug("Got '{}' records", records.size());
-        for (Record record : records) {
-          batchMaker.addRecord(record);
-        }
-      } else {
-        LOG.debug("No records after '{}'secs, dispatching empty batch", configs.maxWaitTimeSecs);
-      }
-    } catch (InterruptedException ex) {
-      LOG.debug("Interrupted while waiting for records");
-      ipcServer.cancelBatch();
-    }
-    return "::ipc::" + (counter++) + System.currentTimeMillis();
+  public int getNumberOfThreads() {
+    return maxConcurrentRequests;
   }
 
   @Override
-  public void commit(String offset) throws StageException {
-    LOG.debug("Notifying IpcServer that batch is done");
-    ipcServer.doneWithBatch();
+  public void produce(Map<String, String> lastOffsets, int maxBatchSize) throws StageException {
+    try {
+      ipcServer.start();
+    } catch (Exception ex) {
+      LOG.warn("Could not start IPC server: {}", ex.toString(), ex);
+      throw new StageException(Errors.IPC_ORIG_20, ex.toString(), ex);
+    }
+    try {
+      while (!getContext().isStopped()) {
+        ThreadUtil.sleep(100);
+      }
+    } finally {
+      ipcServer.stop();
+    }
   }
 
 }
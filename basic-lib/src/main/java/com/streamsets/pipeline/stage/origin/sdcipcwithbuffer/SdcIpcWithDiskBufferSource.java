@@ -21,9 +21,9 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.api.ext.ContextExtensions;
 import com.streamsets.pipeline.api.ext.RecordReader;
-import com.streamsets.pipeline.lib.fragmentqueue.FileFragmentQueue;
 import com.streamsets.pipeline.lib.fragmentqueue.FragmentQueue;
 import com.streamsets.pipeline.lib.fragmentqueue.MemoryBufferFragmentQueue;
+import com.streamsets.pipeline.lib.fragmentqueue.SegmentedFileFragmentQueue;
 import com.streamsets.pipeline.lib.http.HttpConfigs;
 import com.streamsets.pipeline.lib.http.HttpReceiverWithFragmenterWriter;
 import com.streamsets.pipeline.lib.httpsource.AbstractHttpServerSource;
@@ -50,7 +50,7 @@ public class SdcIpcWithDiskBufferSource extends AbstractHttpServerSource<HttpRec
     super(httpConfigs, new HttpReceiverWithFragmenterWriter(IPC_PATH,
         httpConfigs,
         new SdcIpcRequestFragmenter(),
-        new MemoryBufferFragmentQueue(maxFragmentsInMemory, new FileFragmentQueue(maxDiskSpaceMB))
+        new MemoryBufferFragmentQueue(maxFragmentsInMemory, new SegmentedFileFragmentQueue(maxDiskSpaceMB))
     ));
     queue = (FragmentQueue) getReceiver().getWriter();
     this.waitTimeForEmptyBatches = waitTimeForEmptyBatches;
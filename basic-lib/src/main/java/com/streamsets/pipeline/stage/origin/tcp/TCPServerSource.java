@@ -17,6 +17,7 @@ package com.streamsets.pipeline.stage.origin.tcp;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.BasePushSource;
@@ -30,6 +31,9 @@ import com.streamsets.pipeline.lib.parser.net.DataFormatParserDecoder;
 import com.streamsets.pipeline.lib.parser.net.DelimitedLengthFieldBasedFrameDecoder;
 import com.streamsets.pipeline.lib.parser.net.netflow.NetflowCommonDecoder;
 import com.streamsets.pipeline.lib.parser.net.netflow.NetflowDataParserFactory;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowSetTemplate;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowSetTemplateCacheKey;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9Decoder;
 import com.streamsets.pipeline.lib.parser.net.syslog.SyslogDecoder;
 import com.streamsets.pipeline.lib.parser.net.syslog.SyslogFramingMode;
 import com.streamsets.pipeline.lib.util.ThreadUtil;
@@ -77,6 +81,8 @@ public class TCPServerSource extends BasePushSource {
 
   private boolean privilegedPortUsage;
   private DataParserFactory parserFactory;
+  // NetFlow templates are shared by all the connections
+  private Cache<FlowSetTemplateCacheKey, FlowSetTemplate> netflowTemplateCache;
 
   private final TCPServerSourceConfig config;
 
@@ -415,8 +421,7 @@ public class TCPServerSource extends BasePushSource {
       case NETFLOW:
         decoderChain.add(new NetflowCommonDecoder(
             config.netflowOutputValuesMode,
-            config.maxTemplateCacheSize,
-            config.templateCacheTimeoutMs
+            this::getNetflowTemplateCache
         ));
         break;
       case SYSLOG:
@@ -477,6 +482,16 @@ public class TCPServerSource extends BasePushSource {
     return decoderChain;
   }
 
+  private synchronized Cache<FlowSetTemplateCacheKey, FlowSetTemplate> getNetflowTemplateCache() {
+    if (netflowTemplateCache == null) {
+      netflowTemplateCache = NetflowV9Decoder.buildTemplateCache(
+          config.maxTemplateCacheSize,
+          config.templateCacheTimeoutMs
+      );
+    }
+    return netflowTemplateCache;
+  }
+
   private void validateDelimiterBasedFrameDecoder(
       List<ConfigIssue> issues,
       String recordSeparatorStr,
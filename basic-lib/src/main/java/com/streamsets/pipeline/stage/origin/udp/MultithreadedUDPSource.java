@@ -84,7 +84,9 @@ public class MultithreadedUDPSource extends BasePushSource {
       final List<InetSocketAddress> addresses = configs.getAddresses();
       if (!addresses.isEmpty()) {
         final Map<String, Object> gaugeMap = getContext().createGauge(PACKET_QUEUE_GAUGE_NAME).getValue();
-        handler = new PacketQueueUDPHandler(gaugeMap, packetQueueSize);
+        // with epoll every thread binds its own channel to each address, otherwise there is one channel per address
+        final int numReadingThreads = configs.enableEpoll ? addresses.size() * configs.numThreads : addresses.size();
+        handler = new PacketQueueUDPHandler(gaugeMap, packetQueueSize, numWorkerThreads, numReadingThreads);
         udpServer = new UDPConsumingServer(configs.enableEpoll, configs.numThreads, addresses, handler);
         try {
           udpServer.listen();
@@ -157,11 +159,11 @@ public class MultithreadedUDPSource extends BasePushSource {
                 long start = System.currentTimeMillis();
                 //ParseResult result = incomingQueue.poll(remainingTime, TimeUnit.MILLISECONDS);
 
-                final DatagramPacket packet = handler.getPacketQueue().poll(remainingTime, TimeUnit.MILLISECONDS);
+                final DatagramPacket packet = handler.poll(threadNumber, remainingTime, TimeUnit.MILLISECONDS);
                 List<Record> records = null;
                 if (packet != null) {
                   if (LOG.isTraceEnabled()) {
-                    LOG.trace("Took packet; new size: {}", handler.getPacketQueue().size());
+                    LOG.trace("Took packet; new size: {}", handler.getPacketQueueSize(threadNumber));
                   }
 
                   try {
@@ -207,6 +209,7 @@ public class MultithreadedUDPSource extends BasePushSource {
                 Thread.currentThread().interrupt();
               }
             }
+            handler.releasePackets(threadNumber);
           }
         };
         allFutures.add(completionService.submit(runnable, null));
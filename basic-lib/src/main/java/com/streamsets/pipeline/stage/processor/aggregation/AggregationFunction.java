@@ -17,10 +17,12 @@ package com.streamsets.pipeline.stage.processor.aggregation;
 
 import com.streamsets.pipeline.api.Label;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.Aggregator;
+import com.streamsets.pipeline.stage.processor.aggregation.aggregator.ApproxCountDistinctAggregator;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.CountAggregator;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.DoubleAvgAggregator;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.DoubleMaxAggregator;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.DoubleMinAggregator;
+import com.streamsets.pipeline.stage.processor.aggregation.aggregator.DoubleQuantileAggregator;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.DoubleStdDevAggregator;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.DoubleSumAggregator;
 import com.streamsets.pipeline.stage.processor.aggregation.aggregator.LongAvgAggregator;
@@ -39,6 +41,11 @@ public enum AggregationFunction implements Label {
   MAX_INTEGER("MAX (int)", LongMaxAggregator.class),
   SUM_DOUBLE("SUM (double)", DoubleSumAggregator.class),
   SUM_INTEGER("SUM (int)", LongSumAggregator.class),
+  APPROX_COUNT_DISTINCT("COUNT DISTINCT (approximate)", ApproxCountDistinctAggregator.class),
+  P50_DOUBLE("Median (approximate)", DoubleQuantileAggregator.P50.class),
+  P90_DOUBLE("90th Percentile (approximate)", DoubleQuantileAggregator.P90.class),
+  P95_DOUBLE("95th Percentile (approximate)", DoubleQuantileAggregator.P95.class),
+  P99_DOUBLE("99th Percentile (approximate)", DoubleQuantileAggregator.P99.class),
   ;
 
   private final String label;
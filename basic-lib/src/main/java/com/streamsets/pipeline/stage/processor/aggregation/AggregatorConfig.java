@@ -104,7 +104,8 @@ public class AggregatorConfig {
       evaluation = ConfigDef.Evaluation.EXPLICIT,
       group = "AGGREGATIONS",
       dependsOn = "aggregationFunction",
-      triggeredByValue = {"AVG_DOUBLE", "AVG_INTEGER", "STD_DEV", "MIN_DOUBLE", "MIN_INTEGER", "MAX_DOUBLE", "MAX_INTEGER", "SUM_DOUBLE", "SUM_INTEGER"}
+      triggeredByValue = {"AVG_DOUBLE", "AVG_INTEGER", "STD_DEV", "MIN_DOUBLE", "MIN_INTEGER", "MAX_DOUBLE", "MAX_INTEGER", "SUM_DOUBLE", "SUM_INTEGER",
+          "APPROX_COUNT_DISTINCT", "P50_DOUBLE", "P90_DOUBLE", "P95_DOUBLE", "P99_DOUBLE"}
   )
   public String aggregationExpression;
 
@@ -27,7 +27,8 @@ package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
  * AggregatorDataProvider to the Aggregator.
  *
  * @param <A> aggregator concrete class.
- * @param <T> valueType (a Number subclass) of the aggregated value.
+ * @param <T> valueType of the values being aggregated. Usually a Number subclass, but sketch-backed aggregators such
+ * as {@link ApproxCountDistinctAggregator} aggregate arbitrary values.
  */
 public abstract class Aggregator<A extends Aggregator, T> {
 
@@ -49,7 +50,7 @@ public abstract class Aggregator<A extends Aggregator, T> {
   }
 
   private final String name;
-  private final Class<? extends Number> valueType;
+  private final Class<?> valueType;
   private AggregatorDataProvider dataProvider;
 
   /**
@@ -57,17 +58,17 @@ public abstract class Aggregator<A extends Aggregator, T> {
    *  @param valueType type of the aggregated value.
    * @param name aggregator name.
    */
-  public Aggregator(Class<? extends Number> valueType, String name) {
+  public Aggregator(Class<?> valueType, String name) {
     this.valueType = valueType;
     this.name = name;
   }
 
   /**
-   * Returns the numeric type this aggregator aggregates.
+   * Returns the type this aggregator aggregates, typically Long or Double.
    *
-   * @return the numeric type this aggregator aggregates.
+   * @return the type this aggregator aggregates.
    */
-  public Class<? extends Number> getValueType() {
+  public Class<?> getValueType() {
     return valueType;
   }
 
@@ -21,7 +21,8 @@ package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
  * Each Aggregator has its own AggregatorData implementation.
  *
  * @param <A> aggregator concrete class.
- * @param <T> valueType (a Number subclass) of the aggregated value.
+ * @param <T> valueType of the values being aggregated. Usually a Number subclass, but sketch-backed aggregators such
+ * as {@link ApproxCountDistinctAggregator} aggregate arbitrary values.
  */
 public abstract class AggregatorData<A extends Aggregator, T> {
   private final String name;
@@ -41,7 +41,12 @@ public class Aggregators {
       LongMaxAggregator.class,
       DoubleStdDevAggregator.class,
       DoubleSumAggregator.class,
-      LongSumAggregator.class
+      LongSumAggregator.class,
+      ApproxCountDistinctAggregator.class,
+      DoubleQuantileAggregator.P50.class,
+      DoubleQuantileAggregator.P90.class,
+      DoubleQuantileAggregator.P95.class,
+      DoubleQuantileAggregator.P99.class
   );
 
   private static final Map<Class<? extends SimpleAggregator>, Constructor<? extends SimpleAggregator>> CONSTRUCTORS =
@@ -109,7 +114,7 @@ public class Aggregators {
    * @param klass the aggregator class.
    * @return the unit type of an aggregator value.
    */
-  <A extends SimpleAggregator, T> Class<? extends Number> getAggregatorUnit(Class<A> klass) {
+  <A extends SimpleAggregator, T> Class<?> getAggregatorUnit(Class<A> klass) {
     try {
       A aggregator = (A) CONSTRUCTORS.get(klass).newInstance("forAggregatorTypeDiscoveryOnly");
       return aggregator.getValueType();
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
+
+import com.streamsets.pipeline.api.impl.Utils;
+
+/**
+ * Approximate distinct count aggregator backed by a {@link HyperLogLog} sketch.
+ * <p/>
+ * Values are hashed using their String representation, memory per aggregator (or group-by element) is fixed.
+ */
+public class ApproxCountDistinctAggregator extends SimpleAggregator<ApproxCountDistinctAggregator, Object> {
+
+  public static class ApproxCountDistinctAggregatable implements Aggregatable<ApproxCountDistinctAggregator> {
+    private String name;
+    private byte[] registers;
+    private long count;
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    public ApproxCountDistinctAggregatable setName(String name) {
+      this.name = name;
+      return this;
+    }
+
+    public byte[] getRegisters() {
+      return registers;
+    }
+
+    public ApproxCountDistinctAggregatable setRegisters(byte[] registers) {
+      this.registers = registers;
+      return this;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public ApproxCountDistinctAggregatable setCount(long count) {
+      this.count = count;
+      return this;
+    }
+  }
+
+  private class Data extends AggregatorData<ApproxCountDistinctAggregator, Object> {
+    private final HyperLogLog sketch;
+
+    public Data(String name, long time) {
+      super(name, time);
+      sketch = new HyperLogLog();
+    }
+
+    @Override
+    public String getName() {
+      return ApproxCountDistinctAggregator.this.getName();
+    }
+
+    @Override
+    public synchronized void process(Object value) {
+      sketch.add(value);
+    }
+
+    @Override
+    public synchronized Long get() {
+      return sketch.estimate();
+    }
+
+    @Override
+    public synchronized Aggregatable<ApproxCountDistinctAggregator> getAggregatable() {
+      return new ApproxCountDistinctAggregatable()
+          .setName(getName())
+          .setRegisters(sketch.getRegisters())
+          .setCount(sketch.estimate());
+    }
+
+    @Override
+    public void aggregate(Aggregatable<ApproxCountDistinctAggregator> aggregatable) {
+      Utils.checkNotNull(aggregatable, "aggregatable");
+      Utils.checkArgument(
+          getName().equals(aggregatable.getName()),
+          Utils.formatL("Aggregable '{}' does not match this aggregation '{}", aggregatable.getName(), getName())
+      );
+      Utils.checkArgument(aggregatable instanceof ApproxCountDistinctAggregatable, Utils.formatL(
+          "Aggregatable '{}' is a '{}' it should be '{}'",
+          getName(),
+          aggregatable.getClass().getSimpleName(),
+          ApproxCountDistinctAggregatable.class.getSimpleName()
+      ));
+      synchronized (this) {
+        sketch.merge(((ApproxCountDistinctAggregatable) aggregatable).getRegisters());
+      }
+    }
+  }
+
+  public ApproxCountDistinctAggregator(String name) {
+    super(String.class, name);
+  }
+
+  @Override
+  public AggregatorData createAggregatorData(long timeWindowMillis) {
+    return new Data(getName(), timeWindowMillis);
+  }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
+
+import com.streamsets.pipeline.api.impl.Utils;
+
+/**
+ * Approximate quantile aggregator backed by a {@link QuantileSketch}.
+ * <p/>
+ * The sketch is independent of the quantile being reported, aggregatables of any quantile aggregator can be
+ * aggregated by any other quantile aggregator. Memory per aggregator (or group-by element) is bounded.
+ */
+public abstract class DoubleQuantileAggregator extends SimpleAggregator<DoubleQuantileAggregator, Double> {
+
+  public static class P50 extends DoubleQuantileAggregator {
+    public P50(String name) {
+      super(name, 0.50);
+    }
+  }
+
+  public static class P90 extends DoubleQuantileAggregator {
+    public P90(String name) {
+      super(name, 0.90);
+    }
+  }
+
+  public static class P95 extends DoubleQuantileAggregator {
+    public P95(String name) {
+      super(name, 0.95);
+    }
+  }
+
+  public static class P99 extends DoubleQuantileAggregator {
+    public P99(String name) {
+      super(name, 0.99);
+    }
+  }
+
+  public static class DoubleQuantileAggregatable implements Aggregatable<DoubleQuantileAggregator> {
+    private String name;
+    private double quantile;
+    private Double value;
+    private long count;
+    private double min;
+    private double max;
+    private long zeroCount;
+    private int positiveOffset;
+    private long[] positiveCounts;
+    private int negativeOffset;
+    private long[] negativeCounts;
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    public DoubleQuantileAggregatable setName(String name) {
+      this.name = name;
+      return this;
+    }
+
+    public double getQuantile() {
+      return quantile;
+    }
+
+    public DoubleQuantileAggregatable setQuantile(double quantile) {
+      this.quantile = quantile;
+      return this;
+    }
+
+    public Double getValue() {
+      return value;
+    }
+
+    public DoubleQuantileAggregatable setValue(Double value) {
+      this.value = value;
+      return this;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public DoubleQuantileAggregatable setCount(long count) {
+      this.count = count;
+      return this;
+    }
+
+    public double getMin() {
+      return min;
+    }
+
+    public DoubleQuantileAggregatable setMin(double min) {
+      this.min = min;
+      return this;
+    }
+
+    public double getMax() {
+      return max;
+    }
+
+    public DoubleQuantileAggregatable setMax(double max) {
+      this.max = max;
+      return this;
+    }
+
+    public long getZeroCount() {
+      return zeroCount;
+    }
+
+    public DoubleQuantileAggregatable setZeroCount(long zeroCount) {
+      this.zeroCount = zeroCount;
+      return this;
+    }
+
+    public int getPositiveOffset() {
+      return positiveOffset;
+    }
+
+    public DoubleQuantileAggregatable setPositiveOffset(int positiveOffset) {
+      this.positiveOffset = positiveOffset;
+      return this;
+    }
+
+    public long[] getPositiveCounts() {
+      return positiveCounts;
+    }
+
+    public DoubleQuantileAggregatable setPositiveCounts(long[] positiveCounts) {
+      this.positiveCounts = positiveCounts;
+      return this;
+    }
+
+    public int getNegativeOffset() {
+      return negativeOffset;
+    }
+
+    public DoubleQuantileAggregatable setNegativeOffset(int negativeOffset) {
+      this.negativeOffset = negativeOffset;
+      return this;
+    }
+
+    public long[] getNegativeCounts() {
+      return negativeCounts;
+    }
+
+    public DoubleQuantileAggregatable setNegativeCounts(long[] negativeCounts) {
+      this.negativeCounts = negativeCounts;
+      return this;
+    }
+  }
+
+  private class Data extends AggregatorData<DoubleQuantileAggregator, Double> {
+    private final QuantileSketch sketch;
+
+    public Data(String name, long time) {
+      super(name, time);
+      sketch = new QuantileSketch();
+    }
+
+    @Override
+    public String getName() {
+      return DoubleQuantileAggregator.this.getName();
+    }
+
+    @Override
+    public synchronized void process(Double value) {
+      if (value != null) {
+        sketch.add(value);
+      }
+    }
+
+    @Override
+    public synchronized Double get() {
+      return sketch.getQuantile(quantile);
+    }
+
+    @Override
+    public synchronized Aggregatable<DoubleQuantileAggregator> getAggregatable() {
+      return new DoubleQuantileAggregatable()
+          .setName(getName())
+          .setQuantile(quantile)
+          .setValue(get())
+          .setCount(sketch.getCount())
+          .setMin(sketch.getMin())
+          .setMax(sketch.getMax())
+          .setZeroCount(sketch.getZeroCount())
+          .setPositiveOffset(sketch.getPositive().getMinIndex())
+          .setPositiveCounts(sketch.getPositive().getCounts())
+          .setNegativeOffset(sketch.getNegative().getMinIndex())
+          .setNegativeCounts(sketch.getNegative().getCounts());
+    }
+
+    @Override
+    public void aggregate(Aggregatable<DoubleQuantileAggregator> aggregatable) {
+      Utils.checkNotNull(aggregatable, "aggregatable");
+      Utils.checkArgument(
+          getName().equals(aggregatable.getName()),
+          Utils.formatL("Aggregable '{}' does not match this aggregation '{}", aggregatable.getName(), getName())
+      );
+      Utils.checkArgument(aggregatable instanceof DoubleQuantileAggregatable, Utils.formatL(
+          "Aggregatable '{}' is a '{}' it should be '{}'",
+          getName(),
+          aggregatable.getClass().getSimpleName(),
+          DoubleQuantileAggregatable.class.getSimpleName()
+      ));
+      DoubleQuantileAggregatable other = (DoubleQuantileAggregatable) aggregatable;
+      synchronized (this) {
+        sketch.merge(
+            other.getPositiveOffset(),
+            other.getPositiveCounts(),
+            other.getNegativeOffset(),
+            other.getNegativeCounts(),
+            other.getZeroCount(),
+            other.getMin(),
+            other.getMax()
+        );
+      }
+    }
+  }
+
+  private final double quantile;
+
+  protected DoubleQuantileAggregator(String name, double quantile) {
+    super(Double.class, name);
+    Utils.checkArgument(quantile >= 0 && quantile <= 1, Utils.formatL("Invalid quantile '{}'", quantile));
+    this.quantile = quantile;
+  }
+
+  /**
+   * Returns the quantile reported by the aggregator.
+   *
+   * @return the quantile reported by the aggregator, between 0 and 1.
+   */
+  public double getQuantile() {
+    return quantile;
+  }
+
+  @Override
+  public AggregatorData createAggregatorData(long timeWindowMillis) {
+    return new Data(getName(), timeWindowMillis);
+  }
+
+}
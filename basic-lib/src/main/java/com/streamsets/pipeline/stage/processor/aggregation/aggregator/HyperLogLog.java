@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog cardinality sketch with a fixed number of one byte registers.
+ * <p/>
+ * Memory is fixed at <code>2^precision</code> bytes regardless of the number of values added, and two sketches with
+ * the same precision are merged by taking the register-wise maximum.
+ * <p/>
+ * This class is not thread safe, callers must synchronize access.
+ */
+class HyperLogLog {
+  static final int DEFAULT_PRECISION = 12;
+
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private final int precision;
+  private final byte[] registers;
+
+  HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  HyperLogLog(int precision) {
+    Utils.checkArgument(precision >= 4 && precision <= 16, Utils.formatL("Invalid precision '{}'", precision));
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  int getPrecision() {
+    return precision;
+  }
+
+  /**
+   * Returns a copy of the registers, suitable to be merged with {@link #merge(byte[])}.
+   */
+  byte[] getRegisters() {
+    return registers.clone();
+  }
+
+  void add(Object value) {
+    if (value != null) {
+      addHash(HASH.hashBytes(value.toString().getBytes(StandardCharsets.UTF_8)).asLong());
+    }
+  }
+
+  void addHash(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    // the remaining bits, with a sentinel so the rank is bounded when they are all zero
+    long rest = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+    if (rank > registers[index]) {
+      registers[index] = rank;
+    }
+  }
+
+  void merge(byte[] otherRegisters) {
+    Utils.checkArgument(
+        otherRegisters.length == registers.length,
+        Utils.formatL("Cannot merge sketch with '{}' registers into sketch with '{}'", otherRegisters.length, registers.length)
+    );
+    for (int i = 0; i < registers.length; i++) {
+      if (otherRegisters[i] > registers[i]) {
+        registers[i] = otherRegisters[i];
+      }
+    }
+  }
+
+  long estimate() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1d / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+    double estimate = alpha(m) * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      // small range correction, linear counting
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  private static double alpha(int m) {
+    switch (m) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+
+}
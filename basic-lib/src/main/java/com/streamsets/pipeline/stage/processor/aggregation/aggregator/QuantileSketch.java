@@ -0,0 +1,258 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
+
+import com.streamsets.pipeline.api.impl.Utils;
+
+/**
+ * Mergeable quantile sketch using logarithmically sized buckets (HDR histogram style).
+ * <p/>
+ * Every value is counted in the bucket <code>ceil(log_gamma(|value|))</code>, which guarantees the given relative
+ * accuracy for any quantile. The number of buckets per sign is bounded, when the bound is reached the lowest buckets
+ * are collapsed, trading accuracy of the lowest quantiles to keep memory fixed.
+ * <p/>
+ * Two sketches with the same relative accuracy are merged by adding their bucket counts.
+ * <p/>
+ * This class is not thread safe, callers must synchronize access.
+ */
+class QuantileSketch {
+  static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+  static final int DEFAULT_MAX_BUCKETS = 2048;
+
+  private static final int BUCKETS_CHUNK = 64;
+  // values closer to zero than this are counted as zero
+  private static final double MIN_INDEXABLE_VALUE = 1e-12;
+
+  /**
+   * Bounded, lazily allocated, range of bucket counts.
+   */
+  static class Store {
+    private final int maxBuckets;
+    private long[] counts;
+    private int offset;
+    private int minIndex;
+    private int maxIndex;
+    private long total;
+
+    Store(int maxBuckets) {
+      this.maxBuckets = maxBuckets;
+    }
+
+    boolean isEmpty() {
+      return total == 0;
+    }
+
+    long getTotal() {
+      return total;
+    }
+
+    int getMinIndex() {
+      return minIndex;
+    }
+
+    /**
+     * Returns the bucket counts from the lowest to the highest non empty bucket.
+     */
+    long[] getCounts() {
+      if (isEmpty()) {
+        return new long[0];
+      }
+      long[] copy = new long[maxIndex - minIndex + 1];
+      System.arraycopy(counts, minIndex - offset, copy, 0, copy.length);
+      return copy;
+    }
+
+    long getCount(int index) {
+      return (isEmpty() || index < minIndex || index > maxIndex) ? 0 : counts[index - offset];
+    }
+
+    int getMaxIndex() {
+      return maxIndex;
+    }
+
+    void add(int index, long count) {
+      if (count == 0) {
+        return;
+      }
+      if (isEmpty()) {
+        minIndex = index;
+        maxIndex = index;
+      }
+      int low = Math.min(minIndex, index);
+      int high = Math.max(maxIndex, index);
+      if (high - low + 1 > maxBuckets) {
+        low = high - maxBuckets + 1;
+        index = Math.max(index, low);
+      }
+      long collapsed = 0;
+      if (counts == null || low < offset || high >= offset + counts.length) {
+        int length = Math.min(maxBuckets, (high - low + BUCKETS_CHUNK) / BUCKETS_CHUNK * BUCKETS_CHUNK);
+        int newOffset = low - (length - (high - low + 1)) / 2;
+        long[] newCounts = new long[length];
+        if (counts != null) {
+          for (int i = minIndex; i <= maxIndex; i++) {
+            long c = counts[i - offset];
+            if (i < low) {
+              collapsed += c;
+            } else {
+              newCounts[i - newOffset] = c;
+            }
+          }
+        }
+        counts = newCounts;
+        offset = newOffset;
+      } else {
+        for (int i = minIndex; i < low; i++) {
+          collapsed += counts[i - offset];
+          counts[i - offset] = 0;
+        }
+      }
+      counts[low - offset] += collapsed;
+      counts[index - offset] += count;
+      minIndex = low;
+      maxIndex = high;
+      total += count;
+    }
+
+    void merge(int otherMinIndex, long[] otherCounts) {
+      for (int i = 0; i < otherCounts.length; i++) {
+        add(otherMinIndex + i, otherCounts[i]);
+      }
+    }
+  }
+
+  private final double gamma;
+  private final double logGamma;
+  private final Store positive;
+  private final Store negative;
+  private long zeroCount;
+  private double min;
+  private double max;
+
+  QuantileSketch() {
+    this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKETS);
+  }
+
+  QuantileSketch(double relativeAccuracy, int maxBuckets) {
+    Utils.checkArgument(
+        relativeAccuracy > 0 && relativeAccuracy < 1,
+        Utils.formatL("Invalid relative accuracy '{}'", relativeAccuracy)
+    );
+    gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+    logGamma = Math.log(gamma);
+    positive = new Store(maxBuckets);
+    negative = new Store(maxBuckets);
+    min = Double.POSITIVE_INFINITY;
+    max = Double.NEGATIVE_INFINITY;
+  }
+
+  Store getPositive() {
+    return positive;
+  }
+
+  Store getNegative() {
+    return negative;
+  }
+
+  long getZeroCount() {
+    return zeroCount;
+  }
+
+  long getCount() {
+    return positive.getTotal() + negative.getTotal() + zeroCount;
+  }
+
+  double getMin() {
+    return min;
+  }
+
+  double getMax() {
+    return max;
+  }
+
+  void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (value > MIN_INDEXABLE_VALUE) {
+      positive.add(index(value), 1);
+    } else if (value < -MIN_INDEXABLE_VALUE) {
+      negative.add(index(-value), 1);
+    } else {
+      zeroCount++;
+    }
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  void merge(
+      int positiveMinIndex,
+      long[] positiveCounts,
+      int negativeMinIndex,
+      long[] negativeCounts,
+      long otherZeroCount,
+      double otherMin,
+      double otherMax
+  ) {
+    positive.merge(positiveMinIndex, positiveCounts);
+    negative.merge(negativeMinIndex, negativeCounts);
+    zeroCount += otherZeroCount;
+    min = Math.min(min, otherMin);
+    max = Math.max(max, otherMax);
+  }
+
+  /**
+   * Returns the estimated value at the given quantile, or <code>null</code> if the sketch is empty.
+   *
+   * @param quantile quantile, between 0 and 1.
+   */
+  Double getQuantile(double quantile) {
+    long count = getCount();
+    if (count == 0) {
+      return null;
+    }
+    long rank = (long) Math.floor(quantile * (count - 1));
+    double value;
+    long seen = 0;
+    if (rank < negative.getTotal()) {
+      // negative values, in ascending order, are in the highest buckets first
+      int index = negative.getMaxIndex();
+      while ((seen += negative.getCount(index)) <= rank) {
+        index--;
+      }
+      value = -value(index);
+    } else if (rank < negative.getTotal() + zeroCount) {
+      value = 0;
+    } else {
+      seen = negative.getTotal() + zeroCount;
+      int index = positive.getMinIndex();
+      while ((seen += positive.getCount(index)) <= rank) {
+        index++;
+      }
+      value = value(index);
+    }
+    return Math.max(min, Math.min(max, value));
+  }
+
+  private int index(double value) {
+    return (int) Math.ceil(Math.log(value) / logGamma);
+  }
+
+  private double value(int index) {
+    return 2 * Math.pow(gamma, index) / (gamma + 1);
+  }
+
+}
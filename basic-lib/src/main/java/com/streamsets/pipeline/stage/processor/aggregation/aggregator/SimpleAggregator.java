@@ -25,7 +25,7 @@ public abstract class SimpleAggregator<A extends SimpleAggregator, T> extends Ag
    *  @param type type of the aggregator value.
    * @param name name of the aggregator.
    */
-  protected SimpleAggregator(Class<? extends Number> type, String name) {
+  protected SimpleAggregator(Class<?> type, String name) {
     super(type, name);
   }
 
@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.stage.processor.dedup;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.hash.HashCode;
@@ -40,6 +41,9 @@ import java.util.concurrent.TimeUnit;
 public class DeDupProcessor extends RecordProcessor {
   private static final long MEMORY_USAGE_PER_HASH = 85;
   private static final String CACHE_KEY = "cache";
+  // gauge and key the data collector reads the memory retained by a stage from
+  private static final String MEMORY_USAGE_GAUGE = "Memory Usage";
+  private static final String RETAINED_BYTES = "Retained Bytes";
   private static final Logger LOG = LoggerFactory.getLogger(DeDupProcessor.class);
 
   private final  int recordCountWindow;
@@ -61,6 +65,7 @@ public class DeDupProcessor extends RecordProcessor {
   private HashFunction hasher;
   private HashingUtil.RecordFunnel funnel;
   private Cache<HashCode, HashCode> hashCache;
+  private Map<String, Object> memoryUsage;
   private XEvictingQueue<HashCode> hashBuffer;
   private String uniqueLane;
   private String duplicateLane;
@@ -112,6 +117,13 @@ public class DeDupProcessor extends RecordProcessor {
         } else {
           hashCache = (Cache<HashCode, HashCode>) runnerSharedMap.get(CACHE_KEY);
         }
+        // the gauge is shared by the pipeline runners, like the cache
+        Gauge<Map<String, Object>> gauge = getContext().getGauge(MEMORY_USAGE_GAUGE);
+        if (gauge == null) {
+          gauge = getContext().createGauge(MEMORY_USAGE_GAUGE);
+          gauge.getValue().put(RETAINED_BYTES, 0L);
+        }
+        memoryUsage = gauge.getValue();
       }
       cacheCleaner = new CacheCleaner(hashCache, "DeDupProcessor", 10 * 60 * 1000);
 
@@ -150,6 +162,7 @@ public class DeDupProcessor extends RecordProcessor {
       cacheCleaner.periodicCleanUp();
     }
     super.process(batch, batchMaker);
+    memoryUsage.put(RETAINED_BYTES, MEMORY_USAGE_PER_HASH * hashCache.size());
   }
 
   @Override
@@ -148,14 +148,16 @@ public class LogParserDProcessor extends DProcessor {
 
   @ConfigDef(
     required = true,
-    type = ConfigDef.Type.STRING,
+    type = ConfigDef.Type.TEXT,
     defaultValue = "%{COMMONAPACHELOG}",
     label = "Grok Pattern",
-    description = "The grok pattern which is used to parse the log line.",
+    description = "The grok patterns which are used to parse the log line, one per line. The first matching pattern " +
+        "is used.",
     displayPosition = 100,
     group = "LOG",
     dependsOn = "logMode",
-    triggeredByValue = "GROK"
+    triggeredByValue = "GROK",
+    mode = ConfigDef.Mode.PLAIN_TEXT
   )
   public String grokPattern;
 
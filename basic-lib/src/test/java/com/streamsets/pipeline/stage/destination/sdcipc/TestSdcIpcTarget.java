@@ -48,12 +48,19 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.ProtocolException;
 import java.security.KeyPair;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class TestSdcIpcTarget {
 
@@ -278,6 +285,47 @@ public class TestSdcIpcTarget {
     testWriteError(false, true);
   }
 
+  @Test
+  public void testRetryDoesNotDisconnectPreviousConnection() throws Exception {
+    HttpURLConnection conn = Mockito.mock(MockHttpURLConnection.class);
+    HttpURLConnection retryConn = Mockito.mock(MockHttpURLConnection.class);
+    ForTestConfigs config = new ForTestConfigs(conn);
+    config.appId = () -> "appId";
+    config.connectionTimeOutMs = 100;
+    config.readTimeOutMs = 200;
+    config.hostPorts = ImmutableList.of("localhost:10000");
+    config.retriesPerBatch = 1;
+    config.tlsConfigBean.tlsEnabled = false;
+    config.tlsConfigBean.trustStoreFilePath = "";
+    config.tlsConfigBean.trustStorePassword = () -> "";
+    config.hostVerification = true;
+
+    Mockito.when(conn.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+    Mockito.when(conn.getHeaderField(Mockito.eq(Constants.X_SDC_PING_HEADER))).thenReturn(Constants.X_SDC_PING_VALUE);
+    Mockito.when(conn.getOutputStream()).thenReturn(new ByteArrayOutputStream());
+    // the retry fails before it has a connection
+    Mockito.doThrow(new ProtocolException()).when(retryConn).setRequestMethod(Mockito.anyString());
+
+    SdcIpcTarget target = new SdcIpcTarget(config);
+    TargetRunner runner = new TargetRunner.Builder(SdcIpcDTarget.class, target).setOnRecordError(OnRecordError.TO_ERROR)
+                                                                              .build();
+    try {
+      runner.runInit();
+
+      // the first attempt gets an error response, its connection goes back to the keep-alive cache
+      Mockito.when(conn.getResponseCode()).thenAnswer(invocation -> {
+        config.conn = retryConn;
+        return HttpURLConnection.HTTP_BAD_REQUEST;
+      });
+
+      runner.runWrite(ImmutableList.of(RecordCreator.create()));
+      Assert.assertEquals(1, runner.getErrorRecords().size());
+      Mockito.verify(conn, Mockito.never()).disconnect();
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
   private static class ReceiverServlet extends HttpServlet {
     boolean compressedData;
 
@@ -508,5 +556,114 @@ public class TestSdcIpcTarget {
     }
   }
 
+  @Test
+  public void testSplit() throws Exception {
+    Configs config = new Configs();
+    SdcIpcTarget target = new SdcIpcTarget(config);
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      records.add(RecordCreator.create());
+    }
+
+    Assert.assertEquals(1, target.split(records).size());
+
+    config.maxInFlightRequests = 3;
+    List<List<Record>> requests = target.split(records);
+    Assert.assertEquals(3, requests.size());
+    Assert.assertEquals(4, requests.get(0).size());
+    Assert.assertEquals(4, requests.get(1).size());
+    Assert.assertEquals(2, requests.get(2).size());
+
+    Assert.assertEquals(1, target.split(records.subList(0, 1)).size());
+    Assert.assertEquals(1, target.split(new ArrayList<>()).size());
+  }
+
+  private static class ConcurrentReceiverServlet extends ReceiverServlet {
+    private final CyclicBarrier barrier;
+    final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<>());
+    final AtomicInteger requests = new AtomicInteger();
+
+    ConcurrentReceiverServlet(int parties) {
+      barrier = new CyclicBarrier(parties);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+      try {
+        // every request of the batch must be in flight at the same time
+        barrier.await(5, TimeUnit.SECONDS);
+      } catch (Exception ex) {
+        resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        return;
+      }
+      requests.incrementAndGet();
+      clientPorts.add(req.getRemotePort());
+      super.doPost(req, resp);
+    }
+  }
+
+  private void testInFlightRequests(int maxInFlightRequests) throws Exception {
+    Server server = new Server(0);
+    ServletContextHandler context = new ServletContextHandler();
+    ConcurrentReceiverServlet servlet = new ConcurrentReceiverServlet(maxInFlightRequests);
+    context.addServlet(new ServletHolder(servlet), Constants.IPC_PATH);
+    context.setContextPath("/");
+    server.setHandler(context);
+    try {
+      server.start();
+
+      String hostPort = "localhost:" + server.getURI().getPort();
+      Configs config = new Configs();
+      config.appId = () -> "appId";
+      config.connectionTimeOutMs = 1000;
+      config.readTimeOutMs = 10000;
+      config.hostPorts = ImmutableList.of(hostPort);
+      config.retriesPerBatch = 0;
+      config.tlsConfigBean.tlsEnabled = false;
+      config.hostVerification = true;
+      config.compression = true;
+      config.maxInFlightRequests = maxInFlightRequests;
+
+      SdcIpcTarget target = new SdcIpcTarget(config);
+      TargetRunner runner = new TargetRunner.Builder(SdcIpcDTarget.class, target)
+          .setOnRecordError(OnRecordError.TO_ERROR).build();
+      try {
+        runner.runInit();
+        List<Record> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+          records.add(RecordCreator.create());
+        }
+        for (int i = 0; i < 3; i++) {
+          runner.runWrite(records);
+        }
+        Assert.assertTrue(runner.getErrorRecords().isEmpty());
+        Assert.assertTrue(runner.getErrors().isEmpty());
+        Assert.assertEquals(3 * maxInFlightRequests, servlet.requests.get());
+        Assert.assertTrue(servlet.compressedData);
+
+        // connections are kept alive and reused by the following batches
+        Assert.assertEquals(maxInFlightRequests, servlet.clientPorts.size());
+
+        Assert.assertEquals(
+            3 * maxInFlightRequests,
+            runner.getContext().getTimer("Request Latency " + hostPort).getCount()
+        );
+      } finally {
+        runner.runDestroy();
+      }
+    } finally {
+      server.stop();
+    }
+  }
+
+  @Test
+  public void testSingleInFlightRequest() throws Exception {
+    testInFlightRequests(1);
+  }
+
+  @Test
+  public void testMultipleInFlightRequests() throws Exception {
+    testInFlightRequests(3);
+  }
 
 }
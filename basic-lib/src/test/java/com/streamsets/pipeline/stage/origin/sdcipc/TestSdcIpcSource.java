@@ -18,14 +18,12 @@ package com.streamsets.pipeline.stage.origin.sdcipc;
 import com.google.common.collect.ImmutableList;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
-import com.streamsets.pipeline.api.Source;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.credential.CredentialValue;
 import com.streamsets.pipeline.api.ext.ContextExtensions;
 import com.streamsets.pipeline.api.ext.RecordWriter;
+import com.streamsets.pipeline.sdk.PushSourceRunner;
 import com.streamsets.pipeline.sdk.RecordCreator;
-import com.streamsets.pipeline.sdk.SourceRunner;
-import com.streamsets.pipeline.sdk.StageRunner;
 import com.streamsets.pipeline.stage.destination.sdcipc.Constants;
 import com.streamsets.pipeline.stage.util.tls.TLSTestUtils;
 import com.streamsets.testing.NetworkUtils;
@@ -40,9 +38,12 @@ import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.security.KeyPair;
 import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -76,10 +77,15 @@ public class TestSdcIpcSource {
     configs.tlsConfigBean.keyStorePassword = () -> "keystore";
     configs.port = randomPort;
     configs.maxWaitTimeSecs = 2;
-    Source source = new SdcIpcSource(configs);
-    final SourceRunner runner = new SourceRunner.Builder(SdcIpcDSource.class, source).addOutputLane("lane").build();
+    SdcIpcSource source = new SdcIpcSource(configs, 1);
+    final PushSourceRunner runner = new PushSourceRunner.Builder(SdcIpcDSource.class, source)
+        .addOutputLane("lane")
+        .build();
     try {
       runner.runInit();
+      final List<Record> received = Collections.synchronizedList(new ArrayList<>());
+      runner.runProduce(Collections.emptyMap(), 10, output -> received.addAll(output.getRecords().get("lane")));
+      NetworkUtils.waitForStartUp(hostname, configs.port, 100, 100);
 
       ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
 
@@ -113,15 +119,12 @@ public class TestSdcIpcSource {
                              trustStore.toString(), "truststore", compressed, records);
         }
       });
-      StageRunner.Output output = runner.runProduce(null, 10);
-      Assert.assertNotNull(output.getNewOffset());
-      Assert.assertEquals(2, output.getRecords().get("lane").size());
+      Assert.assertTrue(future.get(5, TimeUnit.SECONDS));
+      Assert.assertEquals(2, received.size());
       Assert.assertTrue(runner.getErrorRecords().isEmpty());
       Assert.assertTrue(runner.getErrors().isEmpty());
-      Assert.assertTrue(output.getRecords().get("lane").get(0).get().getValueAsBoolean());
-      Assert.assertFalse(output.getRecords().get("lane").get(1).get().getValueAsBoolean());
-
-      Assert.assertTrue(future.get(5, TimeUnit.SECONDS));
+      Assert.assertTrue(received.get(0).get().getValueAsBoolean());
+      Assert.assertFalse(received.get(1).get().getValueAsBoolean());
 
       //invalid IPC
       future = executor.submit(new Callable<Boolean>() {
@@ -145,7 +148,64 @@ public class TestSdcIpcSource {
                                              trustStore.toString(), "truststore");
       Assert.assertEquals(HttpURLConnection.HTTP_OK, conn.getResponseCode());
 
+      runner.setStop();
+      runner.waitOnProduce();
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testConcurrentRequests() throws Exception {
+    final Configs configs = new Configs();
+    configs.appId = () -> "appId";
+    configs.port = NetworkUtils.getRandomPort();
+    configs.maxWaitTimeSecs = 2;
+    SdcIpcSource source = new SdcIpcSource(configs, 2);
+    final PushSourceRunner runner = new PushSourceRunner.Builder(SdcIpcDSource.class, source)
+        .addOutputLane("lane")
+        .build();
+    final String hostPort = TLSTestUtils.getHostname() + ":" + configs.port;
+    final CountDownLatch inBatch = new CountDownLatch(2);
+    final CountDownLatch release = new CountDownLatch(1);
+    ScheduledExecutorService executor = Executors.newScheduledThreadPool(3);
+    try {
+      runner.runInit();
+      Assert.assertEquals(2, source.getNumberOfThreads());
+      runner.runProduce(Collections.emptyMap(), 10, output -> {
+        inBatch.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      NetworkUtils.waitForStartUp(TLSTestUtils.getHostname(), configs.port, 100, 100);
+
+      Callable<Boolean> send = () -> {
+        Record record = RecordCreator.create();
+        record.set(Field.create(true));
+        return sendRecords(configs.appId, runner.getContext(), hostPort, false, null, null, false,
+            ImmutableList.of(record));
+      };
+
+      // both requests are processed at the same time, by different runners
+      Future<Boolean> first = executor.submit(send);
+      Future<Boolean> second = executor.submit(send);
+      Assert.assertTrue(inBatch.await(10, TimeUnit.SECONDS));
+
+      // no runner left, the request is rejected
+      Assert.assertFalse(executor.submit(send).get(5, TimeUnit.SECONDS));
+
+      release.countDown();
+      Assert.assertTrue(first.get(5, TimeUnit.SECONDS));
+      Assert.assertTrue(second.get(5, TimeUnit.SECONDS));
+
+      runner.setStop();
+      runner.waitOnProduce();
     } finally {
+      release.countDown();
+      executor.shutdownNow();
       runner.runDestroy();
     }
   }
@@ -164,7 +224,7 @@ public class TestSdcIpcSource {
     // always valid to be able to init the config
     config.appId = () -> "appId";
     config.connectionTimeOutMs = 1000;
-    config.readTimeOutMs = 1000;
+    config.readTimeOutMs = 5000;
     config.hostPorts = ImmutableList.of(hostPort);
     config.tlsConfigBean.tlsEnabled = ssl;
     config.hostVerification = false;
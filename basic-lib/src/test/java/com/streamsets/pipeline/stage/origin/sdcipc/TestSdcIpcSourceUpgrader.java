@@ -15,9 +15,14 @@
  */
 package com.streamsets.pipeline.stage.origin.sdcipc;
 
+import com.streamsets.pipeline.api.Config;
 import com.streamsets.pipeline.stage.util.tls.TlsConfigBeanUpgraderTestUtil;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class TestSdcIpcSourceUpgrader {
 
   @Test
@@ -28,4 +33,13 @@ public class TestSdcIpcSourceUpgrader {
         2
     );
   }
+
+  @Test
+  public void testV2ToV3() throws Exception {
+    List<Config> configs = new ArrayList<>();
+    configs = new SdcIpcSourceUpgrader().upgrade("l", "s", "i", 2, 3, configs);
+    Assert.assertEquals(1, configs.size());
+    Assert.assertEquals("maxConcurrentRequests", configs.get(0).getName());
+    Assert.assertEquals(10, configs.get(0).getValue());
+  }
 }
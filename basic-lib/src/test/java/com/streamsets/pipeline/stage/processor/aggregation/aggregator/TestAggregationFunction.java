@@ -80,4 +80,22 @@ public class TestAggregationFunction {
     Assert.assertEquals("SUM (int)", AggregationFunction.SUM_INTEGER.getLabel());
     Assert.assertEquals(LongSumAggregator.class, AggregationFunction.SUM_INTEGER.getAggregatorClass());
   }
+
+  @Test
+  public void testApproxCountDistinct() {
+    Assert.assertEquals("COUNT DISTINCT (approximate)", AggregationFunction.APPROX_COUNT_DISTINCT.getLabel());
+    Assert.assertEquals(
+        ApproxCountDistinctAggregator.class,
+        AggregationFunction.APPROX_COUNT_DISTINCT.getAggregatorClass()
+    );
+  }
+
+  @Test
+  public void testQuantiles() {
+    Assert.assertEquals("Median (approximate)", AggregationFunction.P50_DOUBLE.getLabel());
+    Assert.assertEquals(DoubleQuantileAggregator.P50.class, AggregationFunction.P50_DOUBLE.getAggregatorClass());
+    Assert.assertEquals(DoubleQuantileAggregator.P90.class, AggregationFunction.P90_DOUBLE.getAggregatorClass());
+    Assert.assertEquals(DoubleQuantileAggregator.P95.class, AggregationFunction.P95_DOUBLE.getAggregatorClass());
+    Assert.assertEquals(DoubleQuantileAggregator.P99.class, AggregationFunction.P99_DOUBLE.getAggregatorClass());
+  }
 }
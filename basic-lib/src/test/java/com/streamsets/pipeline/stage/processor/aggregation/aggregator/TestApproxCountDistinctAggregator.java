@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
+
+import com.streamsets.pipeline.stage.processor.aggregation.WindowType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestApproxCountDistinctAggregator {
+
+  @Test
+  public void testAggregator() {
+    Aggregators aggregators = new Aggregators(2, WindowType.ROLLING);
+    ApproxCountDistinctAggregator aggregator = aggregators.createSimple("a", ApproxCountDistinctAggregator.class);
+    aggregators.start(1);
+
+    Aggregators aggregatorsA = new Aggregators(2, WindowType.ROLLING);
+    ApproxCountDistinctAggregator aggregatorA = aggregatorsA.createSimple("a", ApproxCountDistinctAggregator.class);
+    aggregatorsA.start(1);
+
+    Assert.assertEquals("a", aggregator.getName());
+    Assert.assertEquals(String.class, aggregator.getValueType());
+    Assert.assertNotNull(aggregator.createAggregatorData(1L));
+
+    Assert.assertEquals(0L, aggregator.get());
+
+    aggregator.process("a");
+    aggregator.process("a");
+    aggregator.process(null);
+    Assert.assertEquals(1L, aggregator.get());
+
+    for (int i = 0; i < 10000; i++) {
+      aggregator.process("user" + i);
+    }
+    Assert.assertEquals(10001d, ((Long) aggregator.get()).doubleValue(), 10001 * 0.05);
+
+    Assert.assertEquals("a", aggregator.getAggregatable().getName());
+    Assert.assertEquals(
+        ApproxCountDistinctAggregator.ApproxCountDistinctAggregatable.class.getSimpleName(),
+        aggregator.getAggregatable().getType()
+    );
+
+    // overlapping values must not be double counted when merging
+    for (int i = 5000; i < 20000; i++) {
+      aggregatorA.process("user" + i);
+    }
+    aggregatorA.aggregate(aggregator.getAggregatable());
+    Assert.assertEquals(20001d, ((Long) aggregatorA.get()).doubleValue(), 20001 * 0.05);
+
+    aggregatorsA.stop();
+
+    aggregators.stop();
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.aggregation.aggregator;
+
+import com.streamsets.pipeline.stage.processor.aggregation.WindowType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestDoubleQuantileAggregator {
+
+  @Test
+  public void testAggregator() {
+    Aggregators aggregators = new Aggregators(2, WindowType.ROLLING);
+    DoubleQuantileAggregator aggregator = aggregators.createSimple("a", DoubleQuantileAggregator.P99.class);
+    aggregators.start(1);
+
+    Aggregators aggregatorsA = new Aggregators(2, WindowType.ROLLING);
+    DoubleQuantileAggregator aggregatorA = aggregatorsA.createSimple("a", DoubleQuantileAggregator.P50.class);
+    aggregatorsA.start(1);
+
+    Assert.assertEquals("a", aggregator.getName());
+    Assert.assertEquals(0.99, aggregator.getQuantile(), 0.0001);
+    Assert.assertNotNull(aggregator.createAggregatorData(1L));
+
+    Assert.assertNull(aggregator.get());
+
+    aggregator.process(5d);
+    Assert.assertEquals(5d, (Double) aggregator.get(), 0.0001);
+
+    for (int i = 1; i <= 1000; i++) {
+      aggregator.process((double) i);
+    }
+    Assert.assertEquals(990d, (Double) aggregator.get(), 990 * 0.02);
+
+    Assert.assertEquals("a", aggregator.getAggregatable().getName());
+    Assert.assertEquals(
+        DoubleQuantileAggregator.DoubleQuantileAggregatable.class.getSimpleName(),
+        aggregator.getAggregatable().getType()
+    );
+    Assert.assertEquals(1001L, ((DoubleQuantileAggregator.DoubleQuantileAggregatable) aggregator.getAggregatable()).getCount());
+
+    for (int i = -1000; i <= 0; i++) {
+      aggregatorA.process((double) i);
+    }
+    Assert.assertEquals(-500d, (Double) aggregatorA.get(), 500 * 0.02);
+
+    aggregatorA.aggregate(aggregator.getAggregatable());
+    Assert.assertEquals(2002L, ((DoubleQuantileAggregator.DoubleQuantileAggregatable) aggregatorA.getAggregatable()).getCount());
+    Assert.assertEquals(0d, (Double) aggregatorA.get(), 1);
+
+    aggregatorsA.stop();
+
+    aggregators.stop();
+  }
+
+  @Test
+  public void testBoundedBuckets() {
+    QuantileSketch sketch = new QuantileSketch(0.01, 128);
+    for (int i = 0; i < 100; i++) {
+      sketch.add(Math.pow(10, i % 12));
+    }
+    Assert.assertEquals(100, sketch.getCount());
+    Assert.assertTrue(sketch.getPositive().getCounts().length <= 128);
+    Assert.assertEquals(1e11, sketch.getQuantile(1), 1e11 * 0.02);
+  }
+
+}
@@ -131,6 +131,27 @@ public class TestDeDupProcessor {
     }
   }
 
+  @Test
+  public void testReportedMemoryUsage() throws Exception {
+    Processor processor = new DeDupProcessor(4, 1, SelectFields.ALL_FIELDS, Collections.EMPTY_LIST);
+    ProcessorRunner runner = new ProcessorRunner.Builder(DeDupDProcessor.class, processor)
+        .addOutputLane("unique")
+        .addOutputLane("duplicate")
+        .build();
+    runner.runInit();
+    try {
+      Assert.assertEquals(0L, runner.getContext().getGauge("Memory Usage").getValue().get("Retained Bytes"));
+
+      List<Record> input = ImmutableList.of(createRecordWithValue("a"), createRecordWithValue("b"),
+          createRecordWithValue("a"));
+      runner.runProcess(input);
+      // 2 unique hashes retained
+      Assert.assertEquals(170L, runner.getContext().getGauge("Memory Usage").getValue().get("Retained Bytes"));
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
   @Test
   public void testUniqueSingleBatchSpecifiedFields() throws Exception {
     Processor processor = new DeDupProcessor(4, 1, SelectFields.SPECIFIED_FIELDS, Arrays.asList("/value"));
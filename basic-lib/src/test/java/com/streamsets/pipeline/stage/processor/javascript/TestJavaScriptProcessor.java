@@ -611,4 +611,20 @@ public class TestJavaScriptProcessor {
     );
     ScriptingProcessorTestUtil.verifyErrorRecordErrorSink(JavaScriptDProcessor.class, processor);
   }
+
+  @Test
+  public void testUnchangedFieldsPreserved() throws Exception {
+    Processor processor = new JavaScriptProcessor(
+        ProcessingMode.RECORD,
+        "for (var i = 0; i < records.length; i++) {\n" +
+        "  records[i].value['changed'] = 2;\n" +
+        "  var newRecord = sdcFunctions.createRecord('id');\n" +
+        "  newRecord.value = records[i].value['nested'];\n" +
+        "  output.write(records[i]);\n" +
+        "  output.write(newRecord);\n" +
+        "}"
+    );
+    ScriptingProcessorTestUtil.verifyUnchangedFieldsPreserved(JavaScriptDProcessor.class, processor);
+  }
+
 }
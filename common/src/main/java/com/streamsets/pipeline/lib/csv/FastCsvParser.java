@@ -0,0 +1,505 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.csv;
+
+import com.streamsets.pipeline.api.ext.io.ObjectLengthException;
+import com.streamsets.pipeline.api.ext.io.OverrunException;
+import com.streamsets.pipeline.api.ext.io.OverrunReader;
+import com.streamsets.pipeline.api.impl.Utils;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.io.IOUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Delimited data parser producing the same columns and reader positions as {@link OverrunCsvParser}, without going
+ * through commons-csv.
+ * <p/>
+ * The input is read in blocks and each block is scanned for delimiters, quotes, escapes and line breaks, the text in
+ * between is copied in bulk. Column strings are created once per column, straight from the scanned characters.
+ * <p/>
+ * Formats with a comment marker are not supported, see {@link #isSupported(CSVFormat)}.
+ */
+public class FastCsvParser implements Closeable, AutoCloseable {
+  // same as the buffer commons-csv reads through, keeps the reader overrun accounting the same
+  private static final int BUFFER_SIZE = 8192;
+  private static final char CR = '\r';
+  private static final char LF = '\n';
+  private static final int END_OF_STREAM = -1;
+  private static final int UNDEFINED = -2;
+  // value of the disabled quote and escape characters
+  private static final char DISABLED = '\ufffe';
+
+  // token types
+  private static final int TOKEN = 0;
+  private static final int END_OF_RECORD = 1;
+  // end of the stream, the last token of the record was read
+  private static final int END_OF_STREAM_READY = 2;
+  // end of the stream, there is no token
+  private static final int END_OF_STREAM_EMPTY = 3;
+
+  private final OverrunReader reader;
+  private final char delimiter;
+  private final char quote;
+  private final char escape;
+  private final boolean ignoreEmptyLines;
+  private final boolean ignoreSurroundingSpaces;
+  private final boolean trim;
+  private final boolean trailingDelimiter;
+  private final String nullString;
+  private final int maxObjectLen;
+  private final String[] headers;
+
+  private final char[] buffer = new char[BUFFER_SIZE];
+  private int bufferPos;
+  private int bufferLimit;
+  // reader position of the first character of the buffer
+  private long bufferStart;
+  private int lastChar = UNDEFINED;
+  private long eolCounter;
+  private boolean endOfStream;
+
+  // characters of the column being parsed
+  private char[] column = new char[256];
+  private int columnLength;
+  private final List<String> columns = new ArrayList<>();
+
+  private boolean started;
+  private String[] nextRecord;
+  private long nextRecordStart;
+  private long currentPos;
+  private boolean overrun;
+  private boolean closed;
+
+  /**
+   * Returns if the format can be parsed by this parser, formats with a comment marker, a header or the same quote and
+   * escape characters can't.
+   */
+  public static boolean isSupported(CSVFormat format) {
+    return format.getCommentMarker() == null
+        && format.getHeader() == null
+        && (format.getEscapeCharacter() == null || !format.getEscapeCharacter().equals(format.getQuoteCharacter()));
+  }
+
+  public FastCsvParser(
+      OverrunReader reader,
+      CSVFormat format,
+      long initialPosition,
+      int skipStartLines,
+      int maxObjectLen
+  ) throws IOException {
+    Utils.checkNotNull(reader, "reader");
+    Utils.checkNotNull(format, "format");
+    Utils.checkArgument(isSupported(format), Utils.formatL("Unsupported format '{}'", format));
+    Utils.checkArgument(initialPosition >= 0, "initialPosition must be greater or equal than zero");
+    Utils.checkArgument(skipStartLines >= 0, "skipStartLines must be greater or equal than zero");
+    this.reader = reader;
+    delimiter = format.getDelimiter();
+    quote = format.getQuoteCharacter() != null ? format.getQuoteCharacter() : DISABLED;
+    escape = format.getEscapeCharacter() != null ? format.getEscapeCharacter() : DISABLED;
+    ignoreEmptyLines = format.getIgnoreEmptyLines();
+    ignoreSurroundingSpaces = format.getIgnoreSurroundingSpaces();
+    trim = format.getTrim();
+    trailingDelimiter = format.getTrailingDelimiter();
+    nullString = format.getNullString();
+    this.maxObjectLen = maxObjectLen;
+    reader.setEnabled(true);
+
+    currentPos = initialPosition;
+    if (initialPosition == 0) {
+      if (skipStartLines > 0) {
+        skipLines(skipStartLines);
+        currentPos = getPosition();
+      }
+      headers = format.getSkipHeaderRecord() ? read() : null;
+    } else if (format.getSkipHeaderRecord()) {
+      headers = read();
+      while (getReaderPosition() < initialPosition && read() != null) {
+      }
+      if (getReaderPosition() != initialPosition) {
+        throw new IOException(Utils.format("Could not position reader at position '{}', got '{}' instead",
+            initialPosition, getReaderPosition()));
+      }
+    } else {
+      IOUtils.skipFully(reader, initialPosition);
+      bufferStart = initialPosition;
+      headers = null;
+    }
+  }
+
+  private void skipLines(int lines) throws IOException {
+    int skipped = 0;
+    while (skipped < lines) {
+      int c = reader.read();
+      if (c == END_OF_STREAM) {
+        throw new IOException(Utils.format("Could not skip '{}' lines, reached EOF", lines));
+      }
+      // this is enough to handle \n and \r\n EOL files
+      if (c == LF) {
+        skipped++;
+      }
+      bufferStart++;
+    }
+  }
+
+  public String[] getHeaders() {
+    return headers;
+  }
+
+  public long getReaderPosition() {
+    return currentPos;
+  }
+
+  /**
+   * Returns the columns of the next record, or null at the end of the data.
+   */
+  public String[] read() throws IOException {
+    if (closed) {
+      throw new IOException("Parser has been closed");
+    }
+    // records are read one ahead, the position of a record is known once the next one starts
+    if (!started) {
+      started = true;
+      nextRecord = readAhead();
+    }
+    String[] record = nextRecord;
+    if (nextRecord != null) {
+      nextRecord = readAhead();
+    }
+    long prevPos = currentPos;
+    currentPos = (nextRecord != null) ? nextRecordStart : bufferStart + bufferLimit;
+    if (maxObjectLen > -1 && currentPos - prevPos > maxObjectLen) {
+      throw new ObjectLengthException(Utils.format(
+          "CSV Object at offset '{}' exceeds max length '{}'", prevPos, maxObjectLen), prevPos);
+    }
+    return record;
+  }
+
+  private String[] readAhead() throws IOException {
+    if (overrun) {
+      throw new IOException("The parser is unusable, the underlying reader had an overrun");
+    }
+    reader.resetCount();
+    nextRecordStart = getPosition();
+    try {
+      return nextRecord();
+    } catch (OverrunException ex) {
+      overrun = true;
+      throw ex;
+    } catch (IOException ex) {
+      // parsing errors surface the way they do with commons-csv's record iterator
+      throw new IllegalStateException(ex.getClass().getSimpleName() + " reading next record: " + ex.toString(), ex);
+    }
+  }
+
+  private String[] nextRecord() throws IOException {
+    columns.clear();
+    int type;
+    do {
+      type = nextToken();
+      if (type == TOKEN) {
+        addColumn(false);
+      } else if (type == END_OF_RECORD || type == END_OF_STREAM_READY) {
+        addColumn(true);
+      }
+    } while (type == TOKEN);
+    return columns.isEmpty() ? null : columns.toArray(new String[columns.size()]);
+  }
+
+  private void addColumn(boolean last) {
+    String value = new String(column, 0, columnLength);
+    if (trim) {
+      value = value.trim();
+    }
+    if (last && value.isEmpty() && trailingDelimiter) {
+      return;
+    }
+    columns.add(nullString != null && value.equals(nullString) ? null : value);
+  }
+
+  private long getPosition() {
+    return bufferStart + bufferPos;
+  }
+
+  private boolean fill() throws IOException {
+    if (endOfStream) {
+      return false;
+    }
+    bufferStart += bufferLimit;
+    bufferPos = 0;
+    bufferLimit = 0;
+    int read;
+    do {
+      read = reader.read(buffer, 0, buffer.length);
+    } while (read == 0);
+    if (read < 0) {
+      endOfStream = true;
+      return false;
+    }
+    bufferLimit = read;
+    return true;
+  }
+
+  private int read1() throws IOException {
+    if (bufferPos == bufferLimit && !fill()) {
+      lastChar = END_OF_STREAM;
+      return END_OF_STREAM;
+    }
+    char c = buffer[bufferPos++];
+    if (c == CR || (c == LF && lastChar != CR)) {
+      eolCounter++;
+    }
+    lastChar = c;
+    return c;
+  }
+
+  private int lookAhead() throws IOException {
+    if (bufferPos == bufferLimit && !fill()) {
+      return END_OF_STREAM;
+    }
+    return buffer[bufferPos];
+  }
+
+  private long getCurrentLineNumber() {
+    if (lastChar == CR || lastChar == LF || lastChar == UNDEFINED || lastChar == END_OF_STREAM) {
+      return eolCounter;
+    }
+    return eolCounter + 1;
+  }
+
+  /**
+   * Consumes the LF of a CR LF line break, returns if the character is a line break.
+   */
+  private boolean readEndOfLine(int c) throws IOException {
+    if (c == CR && lookAhead() == LF) {
+      c = read1();
+    }
+    return c == LF || c == CR;
+  }
+
+  private static boolean isStartOfLine(int c) {
+    return c == LF || c == CR || c == UNDEFINED;
+  }
+
+  private boolean isWhitespace(int c) {
+    return c != delimiter && Character.isWhitespace((char) c);
+  }
+
+  private int nextToken() throws IOException {
+    int last = lastChar;
+    int c = read1();
+    boolean eol = readEndOfLine(c);
+    if (ignoreEmptyLines) {
+      while (eol && isStartOfLine(last)) {
+        last = c;
+        c = read1();
+        eol = readEndOfLine(c);
+        if (c == END_OF_STREAM) {
+          return END_OF_STREAM_EMPTY;
+        }
+      }
+    }
+    if (last == END_OF_STREAM || (last != delimiter && c == END_OF_STREAM)) {
+      return END_OF_STREAM_EMPTY;
+    }
+    columnLength = 0;
+    if (ignoreSurroundingSpaces) {
+      while (isWhitespace(c) && !eol) {
+        c = read1();
+        eol = readEndOfLine(c);
+      }
+    }
+    if (c == delimiter) {
+      return TOKEN;
+    } else if (eol) {
+      return END_OF_RECORD;
+    } else if (c == quote) {
+      return parseEncapsulatedToken();
+    } else if (c == END_OF_STREAM) {
+      return END_OF_STREAM_READY;
+    }
+    return parseSimpleToken(c);
+  }
+
+  private int parseSimpleToken(int c) throws IOException {
+    int type;
+    while (true) {
+      if (readEndOfLine(c)) {
+        type = END_OF_RECORD;
+        break;
+      } else if (c == END_OF_STREAM) {
+        type = END_OF_STREAM_READY;
+        break;
+      } else if (c == delimiter) {
+        type = TOKEN;
+        break;
+      } else if (c == escape) {
+        appendEscape(c);
+      } else {
+        append((char) c);
+        scanSimple();
+      }
+      c = read1();
+    }
+    if (ignoreSurroundingSpaces) {
+      while (columnLength > 0 && Character.isWhitespace(column[columnLength - 1])) {
+        columnLength--;
+      }
+    }
+    return type;
+  }
+
+  /**
+   * Copies the plain characters following in the buffer up to the next delimiter, escape or line break.
+   */
+  private void scanSimple() {
+    int start = bufferPos;
+    int i = start;
+    while (i < bufferLimit) {
+      char c = buffer[i];
+      if (c == delimiter || c == escape || c == CR || c == LF) {
+        break;
+      }
+      i++;
+    }
+    if (i > start) {
+      append(buffer, start, i - start);
+      bufferPos = i;
+      lastChar = buffer[i - 1];
+    }
+  }
+
+  private int parseEncapsulatedToken() throws IOException {
+    long startLineNumber = getCurrentLineNumber();
+    while (true) {
+      int c = read1();
+      if (c == escape) {
+        appendEscape(c);
+      } else if (c == quote) {
+        if (lookAhead() == quote) {
+          append((char) read1());
+        } else {
+          while (true) {
+            c = read1();
+            if (c == delimiter) {
+              return TOKEN;
+            } else if (c == END_OF_STREAM) {
+              return END_OF_STREAM_READY;
+            } else if (readEndOfLine(c)) {
+              return END_OF_RECORD;
+            } else if (!isWhitespace(c)) {
+              throw new IOException("(line " + getCurrentLineNumber() +
+                  ") invalid char between encapsulated token and delimiter");
+            }
+          }
+        }
+      } else if (c == END_OF_STREAM) {
+        throw new IOException("(startline " + startLineNumber + ") EOF reached before encapsulated token finished");
+      } else {
+        append((char) c);
+        scanEncapsulated();
+      }
+    }
+  }
+
+  /**
+   * Copies the plain characters following in the buffer up to the next quote, escape or line break.
+   */
+  private void scanEncapsulated() {
+    int start = bufferPos;
+    int i = start;
+    while (i < bufferLimit) {
+      char c = buffer[i];
+      if (c == quote || c == escape || c == CR || c == LF) {
+        break;
+      }
+      i++;
+    }
+    if (i > start) {
+      append(buffer, start, i - start);
+      bufferPos = i;
+      lastChar = buffer[i - 1];
+    }
+  }
+
+  private void appendEscape(int escapeChar) throws IOException {
+    int c = read1();
+    switch (c) {
+      case 'r':
+        append(CR);
+        break;
+      case 'n':
+        append(LF);
+        break;
+      case 't':
+        append('\t');
+        break;
+      case 'b':
+        append('\b');
+        break;
+      case 'f':
+        append('\f');
+        break;
+      case CR:
+      case LF:
+      case '\f':
+      case '\t':
+      case '\b':
+        append((char) c);
+        break;
+      case END_OF_STREAM:
+        throw new IOException("EOF whilst processing escape sequence");
+      default:
+        if (c == delimiter || c == escape || c == quote) {
+          append((char) c);
+        } else {
+          // not an escape sequence, both characters are kept
+          append((char) escapeChar);
+          append((char) c);
+        }
+    }
+  }
+
+  private void append(char c) {
+    if (columnLength == column.length) {
+      column = Arrays.copyOf(column, column.length * 2);
+    }
+    column[columnLength++] = c;
+  }
+
+  private void append(char[] chars, int offset, int length) {
+    if (columnLength + length > column.length) {
+      column = Arrays.copyOf(column, Math.max(column.length * 2, columnLength + length));
+    }
+    System.arraycopy(chars, offset, column, columnLength, length);
+    columnLength += length;
+  }
+
+  @Override
+  public void close() {
+    try {
+      closed = true;
+      reader.close();
+    } catch (IOException ex) {
+      //NOP
+    }
+  }
+
+}
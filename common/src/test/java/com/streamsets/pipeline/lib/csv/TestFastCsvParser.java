@@ -0,0 +1,208 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.csv;
+
+import com.streamsets.pipeline.api.ext.io.ObjectLengthException;
+import com.streamsets.pipeline.api.ext.io.OverrunException;
+import com.streamsets.pipeline.api.ext.io.OverrunReader;
+import org.apache.commons.csv.CSVFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.Random;
+
+public class TestFastCsvParser {
+
+  private OverrunReader getReader(String name) throws Exception {
+    InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(name);
+    return (is != null) ? new OverrunReader(new InputStreamReader(is), 0, false, false) : null;
+  }
+
+  private static OverrunReader getReader(String data, int readLimit) {
+    return new OverrunReader(new StringReader(data), readLimit, false, false);
+  }
+
+  @Test
+  public void testSupportedFormats() {
+    Assert.assertTrue(FastCsvParser.isSupported(CSVFormat.DEFAULT));
+    Assert.assertTrue(FastCsvParser.isSupported(CSVFormat.EXCEL));
+    Assert.assertTrue(FastCsvParser.isSupported(CSVFormat.MYSQL));
+    Assert.assertTrue(FastCsvParser.isSupported(CSVFormat.TDF));
+    Assert.assertTrue(FastCsvParser.isSupported(CSVFormat.DEFAULT.withHeader((String[]) null)));
+    Assert.assertFalse(FastCsvParser.isSupported(CSVFormat.DEFAULT.withCommentMarker('#')));
+    Assert.assertFalse(FastCsvParser.isSupported(CSVFormat.DEFAULT.withHeader("a", "b")));
+    Assert.assertFalse(FastCsvParser.isSupported(CSVFormat.DEFAULT.withEscape('"')));
+  }
+
+  @Test
+  public void testParserHeaders() throws Exception {
+    try (FastCsvParser parser = new FastCsvParser(getReader("TestCsvParser-default.csv"),
+        CSVFormat.DEFAULT.withHeader((String[]) null).withSkipHeaderRecord(true), 0, 0, -1)) {
+      Assert.assertArrayEquals(new String[]{"h1", "h2", "h3", "h4"}, parser.getHeaders());
+    }
+    try (FastCsvParser parser = new FastCsvParser(getReader("TestCsvParser-default.csv"), CSVFormat.DEFAULT, 0, 0, -1)) {
+      Assert.assertNull(parser.getHeaders());
+    }
+  }
+
+  @Test
+  public void testParserRecordsFromOffset() throws Exception {
+    CSVFormat format = CSVFormat.DEFAULT.withHeader((String[]) null).withSkipHeaderRecord(true);
+    try (FastCsvParser parser = new FastCsvParser(getReader("TestCsvParser-default.csv"), format, 0, 0, -1)) {
+      Assert.assertEquals(12, parser.getReaderPosition());
+      Assert.assertArrayEquals(new String[]{"a", "b", "c", "d"}, parser.read());
+      Assert.assertEquals(20, parser.getReaderPosition());
+      Assert.assertArrayEquals(new String[]{"w", "x", "y", "z", "extra"}, parser.read());
+      Assert.assertEquals(33, parser.getReaderPosition());
+      Assert.assertNull(parser.read());
+      Assert.assertEquals(33, parser.getReaderPosition());
+    }
+    try (FastCsvParser parser = new FastCsvParser(getReader("TestCsvParser-default.csv"), format, 20, 0, -1)) {
+      Assert.assertArrayEquals(new String[]{"h1", "h2", "h3", "h4"}, parser.getHeaders());
+      Assert.assertEquals(20, parser.getReaderPosition());
+      Assert.assertArrayEquals(new String[]{"w", "x", "y", "z", "extra"}, parser.read());
+      Assert.assertEquals(33, parser.getReaderPosition());
+      Assert.assertNull(parser.read());
+    }
+    try (FastCsvParser parser = new FastCsvParser(getReader("TestCsvParser-default.csv"), CSVFormat.DEFAULT, 20, 0, -1)) {
+      Assert.assertEquals(20, parser.getReaderPosition());
+      Assert.assertArrayEquals(new String[]{"w", "x", "y", "z", "extra"}, parser.read());
+      Assert.assertEquals(33, parser.getReaderPosition());
+    }
+  }
+
+  @Test
+  public void testQuotesAndEscapes() throws Exception {
+    String data = "\"a,1\",\"b\"\"2\",c\\,3\r\n\"multi\nline\",,\"\"\n";
+    CSVFormat format = CSVFormat.DEFAULT.withEscape('\\');
+    try (FastCsvParser parser = new FastCsvParser(getReader(data, 0), format, 0, 0, -1)) {
+      Assert.assertArrayEquals(new String[]{"a,1", "b\"2", "c,3"}, parser.read());
+      Assert.assertEquals(19, parser.getReaderPosition());
+      Assert.assertArrayEquals(new String[]{"multi\nline", "", ""}, parser.read());
+      Assert.assertEquals(data.length(), parser.getReaderPosition());
+      Assert.assertNull(parser.read());
+    }
+  }
+
+  @Test
+  public void testMaxObjectLen() throws Exception {
+    try (FastCsvParser parser = new FastCsvParser(getReader("a,b,c\naa,bb,cc\ne,f,g\n", 0), CSVFormat.DEFAULT, 0, 0, 6)) {
+      Assert.assertArrayEquals(new String[]{"a", "b", "c"}, parser.read());
+      Assert.assertEquals(6, parser.getReaderPosition());
+      try {
+        parser.read();
+        Assert.fail();
+      } catch (ObjectLengthException ex) {
+      }
+      Assert.assertEquals(15, parser.getReaderPosition());
+      Assert.assertArrayEquals(new String[]{"e", "f", "g"}, parser.read());
+      Assert.assertNull(parser.read());
+    }
+  }
+
+  @Test
+  public void testSkipLines() throws Exception {
+    try (FastCsvParser parser = new FastCsvParser(getReader("foo\nbar\r\na,b,c\naa,bb,cc\n", 0), CSVFormat.DEFAULT,
+        0, 2, -1)) {
+      Assert.assertEquals(9, parser.getReaderPosition());
+      Assert.assertArrayEquals(new String[]{"a", "b", "c"}, parser.read());
+      Assert.assertEquals(15, parser.getReaderPosition());
+      Assert.assertArrayEquals(new String[]{"aa", "bb", "cc"}, parser.read());
+      Assert.assertEquals(24, parser.getReaderPosition());
+      Assert.assertNull(parser.read());
+    }
+  }
+
+  @Test
+  public void testOverrun() throws Exception {
+    StringBuilder sb = new StringBuilder("a,b\n\"");
+    for (int i = 0; i < 20000; i++) {
+      sb.append('x');
+    }
+    sb.append("\"\n");
+    try (FastCsvParser parser = new FastCsvParser(getReader(sb.toString(), 10000), CSVFormat.DEFAULT, 0, 0, -1)) {
+      try {
+        parser.read();
+        Assert.fail();
+      } catch (OverrunException ex) {
+      }
+      try {
+        parser.read();
+        Assert.fail();
+      } catch (IOException ex) {
+        Assert.assertFalse(ex instanceof OverrunException);
+      }
+    }
+  }
+
+  @Test
+  public void testSameAsCommonsCsv() throws Exception {
+    CSVFormat[] formats = {
+        CSVFormat.DEFAULT,
+        CSVFormat.EXCEL,
+        CSVFormat.MYSQL,
+        CSVFormat.TDF,
+        CSVFormat.DEFAULT.withEscape('\\').withIgnoreSurroundingSpaces().withNullString("N"),
+        CSVFormat.DEFAULT.withHeader((String[]) null).withSkipHeaderRecord(true).withIgnoreEmptyLines(false)
+    };
+    char[] alphabet = {'a', 'b', ' ', ',', '\t', '"', '\\', '\n', '\r', 'N'};
+    Random random = new Random(1);
+    for (int i = 0; i < 500; i++) {
+      StringBuilder sb = new StringBuilder();
+      int length = random.nextInt(200);
+      for (int c = 0; c < length; c++) {
+        sb.append(alphabet[random.nextInt(alphabet.length)]);
+      }
+      String data = sb.toString();
+      CSVFormat format = formats[i % formats.length];
+      try (
+          OverrunCsvParser expected = new OverrunCsvParser(getReader(data, 0), format, 0, 0, -1);
+          FastCsvParser actual = new FastCsvParser(getReader(data, 0), format, 0, 0, -1)
+      ) {
+        Assert.assertArrayEquals(data, expected.getHeaders(), actual.getHeaders());
+        String[] record;
+        do {
+          record = read(expected);
+          Assert.assertArrayEquals(data, record, read(actual));
+          Assert.assertEquals(data, expected.getReaderPosition(), actual.getReaderPosition());
+        } while (record != null);
+      } catch (IllegalStateException ex) {
+        // invalid data, commons-csv fails while positioning on the first record
+      }
+    }
+  }
+
+  private static String[] read(OverrunCsvParser parser) throws IOException {
+    try {
+      return parser.read();
+    } catch (IllegalStateException ex) {
+      return new String[]{ex.getMessage()};
+    }
+  }
+
+  private static String[] read(FastCsvParser parser) throws IOException {
+    try {
+      return parser.read();
+    } catch (IllegalStateException ex) {
+      return new String[]{ex.getMessage()};
+    }
+  }
+
+}
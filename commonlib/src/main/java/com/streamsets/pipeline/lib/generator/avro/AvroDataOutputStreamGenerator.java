@@ -20,13 +20,14 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
 import com.streamsets.pipeline.lib.util.AvroJavaSnappyCodec;
 import com.streamsets.pipeline.lib.util.AvroSchemaHelper;
-import com.streamsets.pipeline.lib.util.AvroTypeUtil;
 import org.apache.avro.Schema;
 import org.apache.avro.file.CodecFactory;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
 
 import java.io.Closeable;
 import java.io.Flushable;
@@ -44,6 +45,9 @@ public class AvroDataOutputStreamGenerator extends BaseAvroDataGenerator {
   private OutputStream outputStream;
   private String compressionCodec;
   private DataFileWriter<GenericRecord> dataFileWriter;
+  // records are encoded here and appended to the data file already encoded
+  private final EncodedRecordBuffer encodedRecord = new EncodedRecordBuffer();
+  private BinaryEncoder encoder;
 
   public AvroDataOutputStreamGenerator(
       boolean schemaInHeader,
@@ -65,16 +69,19 @@ public class AvroDataOutputStreamGenerator extends BaseAvroDataGenerator {
 
   @Override
   protected void initializeWriter() throws IOException {
-    DatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
-    dataFileWriter = new DataFileWriter<>(datumWriter);
+    DatumWriter<GenericRecord> genericDatumWriter = new GenericDatumWriter<>(schema);
+    dataFileWriter = new DataFileWriter<>(genericDatumWriter);
     dataFileWriter.setCodec(CodecFactory.fromString(compressionCodec));
     dataFileWriter.create(schema, outputStream);
+    encoder = EncoderFactory.get().directBinaryEncoder(encodedRecord, null);
   }
 
   @Override
   protected void writeRecord(Record record) throws IOException, DataGeneratorException {
     try {
-      dataFileWriter.append((GenericRecord)AvroTypeUtil.sdcRecordToAvro(record, schema, defaultValueMap));
+      encodedRecord.reset();
+      fieldWriter.write(record, encoder);
+      dataFileWriter.appendEncoded(encodedRecord.toByteBuffer());
     } catch (StageException e) {
       throw new DataGeneratorException(e.getErrorCode(), e.getParams()); // params includes cause
     }
@@ -19,11 +19,8 @@ import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
 import com.streamsets.pipeline.lib.util.AvroSchemaHelper;
-import com.streamsets.pipeline.lib.util.AvroTypeUtil;
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.BinaryEncoder;
-import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.EncoderFactory;
 
 import java.io.Closeable;
@@ -34,9 +31,11 @@ import java.util.Map;
 
 public class AvroMessageGenerator extends BaseAvroDataGenerator {
 
-  private DatumWriter<Object> datumWriter;
   private BinaryEncoder binaryEncoder;
   private final OutputStream outputStream;
+  // records are encoded here and written out only once fully encoded
+  private final EncodedRecordBuffer encodedRecord = new EncodedRecordBuffer();
+  private final BinaryEncoder recordEncoder = EncoderFactory.get().directBinaryEncoder(encodedRecord, null);
 
   public AvroMessageGenerator(
       boolean schemaInHeader,
@@ -58,7 +57,7 @@ public class AvroMessageGenerator extends BaseAvroDataGenerator {
 
   @Override
   protected void initializeWriter() {
-    datumWriter = new GenericDatumWriter<>(schema);
+    // records are encoded by the field writer, the encoder writes them to the output stream
   }
 
   @Override
@@ -72,10 +71,9 @@ public class AvroMessageGenerator extends BaseAvroDataGenerator {
   @Override
   public void writeRecord(Record record) throws IOException, DataGeneratorException {
     try {
-      datumWriter.write(
-          AvroTypeUtil.sdcRecordToAvro(record, schema, defaultValueMap),
-          binaryEncoder
-      );
+      encodedRecord.reset();
+      fieldWriter.write(record, recordEncoder);
+      binaryEncoder.writeFixed(encodedRecord.toByteBuffer());
     } catch (StageException e) {
       throw new DataGeneratorException(e.getErrorCode(), e.getParams()); // params includes cause
     }
@@ -18,6 +18,8 @@ package com.streamsets.pipeline.lib.generator.avro;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
+import com.streamsets.pipeline.lib.util.AvroFieldWriter;
+import com.streamsets.pipeline.lib.util.AvroSchemaCache;
 import com.streamsets.pipeline.lib.util.AvroSchemaHelper;
 import com.streamsets.pipeline.lib.util.AvroTypeUtil;
 import com.streamsets.pipeline.lib.util.SchemaRegistryException;
@@ -28,7 +30,6 @@ import org.slf4j.LoggerFactory;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.Map;
 
 /**
@@ -76,9 +77,9 @@ abstract public class BaseAvroDataGenerator implements DataGenerator {
   protected boolean schemaInHeader;
 
   /**
-   * Hashcode of the schema that was used to initialize the writer if getting schema from header
+   * JSON of the schema that was used to initialize the writer if getting schema from header
    */
-  private int schemaHashCode;
+  private String headerSchema;
 
   /**
    * Avro schema, can be null on creation, will be filled with value before calling initializeWriter()
@@ -95,6 +96,11 @@ abstract public class BaseAvroDataGenerator implements DataGenerator {
    */
   protected Map<String, Object> defaultValueMap;
 
+  /**
+   * Writer encoding the records with the schema, available in initializeWriter().
+   */
+  protected AvroFieldWriter fieldWriter;
+
   /**
    * Subject of the schema.
    */
@@ -133,6 +139,9 @@ abstract public class BaseAvroDataGenerator implements DataGenerator {
   }
 
   protected void initialize() throws IOException {
+    if (fieldWriter == null) {
+      fieldWriter = new AvroFieldWriter(schema, defaultValueMap);
+    }
     initializeWriter();
 
     // Schema registration is delayed with using it in header until this point
@@ -152,10 +161,12 @@ abstract public class BaseAvroDataGenerator implements DataGenerator {
   }
 
   private void initializeSchemaFromRecord(Record record) throws IOException, DataGeneratorException {
-    String jsonSchema = AvroTypeUtil.getAvroSchemaFromHeader(record, AVRO_SCHEMA_HEADER);
-    schemaHashCode = jsonSchema.hashCode();
-    schema = AvroTypeUtil.parseSchema(jsonSchema);
-    defaultValueMap = AvroTypeUtil.getDefaultValuesFromSchema(schema, new HashSet<String>());
+    headerSchema = AvroTypeUtil.getAvroSchemaFromHeader(record, AVRO_SCHEMA_HEADER);
+    // Schemas in headers are shared by many records and generators, they are parsed once per process
+    AvroSchemaCache.Entry entry = AvroSchemaCache.get(headerSchema);
+    schema = entry.getSchema();
+    defaultValueMap = entry.getDefaultValues();
+    fieldWriter = entry.getWriter();
     initialize();
   }
 
@@ -166,7 +177,7 @@ abstract public class BaseAvroDataGenerator implements DataGenerator {
         initializeSchemaFromRecord(record);
       } else {
         String newAvroSchema = AvroTypeUtil.getAvroSchemaFromHeader(record, AVRO_SCHEMA_HEADER);
-        if (schemaHashCode != newAvroSchema.hashCode()) {
+        if (!headerSchema.equals(newAvroSchema)) {
           LOG.error(
               "Record {} has a different schema. Expected: {}  Actual(Initialized): {}",
               record.getHeader().getSourceId(),
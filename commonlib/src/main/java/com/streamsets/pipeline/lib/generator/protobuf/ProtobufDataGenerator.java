@@ -15,38 +15,24 @@
  */
 package com.streamsets.pipeline.lib.generator.protobuf;
 
-import com.google.protobuf.Descriptors;
-import com.google.protobuf.DynamicMessage;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorException;
-import com.streamsets.pipeline.lib.util.ProtobufTypeUtil;
+import com.streamsets.pipeline.lib.util.ProtobufFieldCodec;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.Map;
-import java.util.Set;
 
 public class ProtobufDataGenerator implements DataGenerator {
 
   private final OutputStream outputStream;
-  private final Descriptors.Descriptor descriptor;
+  private final ProtobufFieldCodec codec;
   private final boolean isDelimited;
   private boolean closed;
-  private final Map<String, Set<Descriptors.FieldDescriptor>> messageTypeToExtensionMap;
-  private final Map<String, Object> defaultValueMap;
 
-  public ProtobufDataGenerator(
-      OutputStream outputStream,
-      Descriptors.Descriptor descriptor,
-      Map<String, Set<Descriptors.FieldDescriptor>> messageTypeToExtensionMap,
-      Map<String, Object> defaultValueMap,
-      boolean isDelimited
-  ) {
+  public ProtobufDataGenerator(OutputStream outputStream, ProtobufFieldCodec codec, boolean isDelimited) {
     this.outputStream = outputStream;
-    this.descriptor = descriptor;
-    this.messageTypeToExtensionMap = messageTypeToExtensionMap;
-    this.defaultValueMap = defaultValueMap;
+    this.codec = codec;
     this.isDelimited = isDelimited;
   }
 
@@ -55,17 +41,7 @@ public class ProtobufDataGenerator implements DataGenerator {
     if (closed) {
       throw new IOException("generator has been closed");
     }
-    DynamicMessage message = ProtobufTypeUtil.sdcFieldToProtobufMsg(
-        record,
-        descriptor,
-        messageTypeToExtensionMap,
-        defaultValueMap
-    );
-    if (isDelimited) {
-      message.writeDelimitedTo(outputStream);
-    } else {
-      message.writeTo(outputStream);
-    }
+    codec.write(record, outputStream, isDelimited);
   }
 
   @Override
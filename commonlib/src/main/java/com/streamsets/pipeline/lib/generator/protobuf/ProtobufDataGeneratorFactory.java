@@ -21,6 +21,7 @@ import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.lib.generator.DataGenerator;
 import com.streamsets.pipeline.lib.generator.DataGeneratorFactory;
 import com.streamsets.pipeline.lib.util.ProtobufConstants;
+import com.streamsets.pipeline.lib.util.ProtobufFieldCodec;
 import com.streamsets.pipeline.lib.util.ProtobufTypeUtil;
 
 import java.io.IOException;
@@ -53,6 +54,8 @@ public class ProtobufDataGeneratorFactory extends DataGeneratorFactory {
   // that is accessible via the configured Protobuf descriptor file
   private final Map<String, Set<Descriptors.FieldDescriptor>> messageTypeToExtensionMap;
   private final Map<String, Object> defaultValueMap;
+  // compiled once, shared by all the generators of the factory
+  private final ProtobufFieldCodec codec;
 
   public ProtobufDataGeneratorFactory(Settings settings) throws StageException {
     super(settings);
@@ -69,17 +72,12 @@ public class ProtobufDataGeneratorFactory extends DataGeneratorFactory {
         messageTypeToExtensionMap,
         defaultValueMap
     );
+    codec = new ProtobufFieldCodec(descriptor, messageTypeToExtensionMap, defaultValueMap);
   }
 
   @Override
   public DataGenerator getGenerator(OutputStream os) throws IOException {
-    return new ProtobufDataGenerator(
-        os,
-        descriptor,
-        messageTypeToExtensionMap,
-        defaultValueMap,
-        isDelimited
-    );
+    return new ProtobufDataGenerator(os, codec, isDelimited);
   }
 
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.io;
+
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Input stream reading its underlying stream ahead in a background thread.
+ * <p/>
+ * The background thread fills up to <code>buffers</code> buffers while the stream is consumed, overlapping for
+ * example decompression with the parsing of the decompressed data. The bytes are returned exactly as read from the
+ * underlying stream. Buffers are recycled, reading does not allocate.
+ * <p/>
+ * The stream must be consumed by a single thread. Closing it stops the background thread and closes the underlying
+ * stream.
+ */
+public class ReadAheadInputStream extends InputStream {
+
+  private static class Chunk {
+    private final byte[] buffer;
+    private final int length;
+    private final IOException error;
+
+    Chunk(byte[] buffer, int length, IOException error) {
+      this.buffer = buffer;
+      this.length = length;
+      this.error = error;
+    }
+  }
+
+  private static final long CLOSE_WAIT_MILLIS = 1000;
+  private static final Chunk EOF = new Chunk(null, -1, null);
+
+  private final InputStream inputStream;
+  private final BlockingQueue<byte[]> free;
+  private final BlockingQueue<Chunk> filled;
+  private final Thread reader;
+  private volatile boolean closed;
+  private Chunk current;
+  private int position;
+
+  /**
+   * @param inputStream underlying stream.
+   * @param bufferSize size of each read ahead buffer.
+   * @param buffers number of read ahead buffers.
+   * @param name name of the background thread.
+   */
+  public ReadAheadInputStream(InputStream inputStream, int bufferSize, int buffers, String name) {
+    Utils.checkArgument(bufferSize > 0, Utils.formatL("Invalid buffer size '{}'", bufferSize));
+    Utils.checkArgument(buffers > 0, Utils.formatL("Invalid number of buffers '{}'", buffers));
+    this.inputStream = inputStream;
+    free = new ArrayBlockingQueue<>(buffers);
+    for (int i = 0; i < buffers; i++) {
+      free.add(new byte[bufferSize]);
+    }
+    // room for the EOF or error marker on top of the buffers
+    filled = new ArrayBlockingQueue<>(buffers + 1);
+    reader = new Thread(this::readAhead, name);
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  private void readAhead() {
+    try {
+      while (!closed) {
+        byte[] buffer = free.take();
+        int read = inputStream.read(buffer);
+        while (read == 0) {
+          read = inputStream.read(buffer);
+        }
+        // there is always room, a chunk holds one of the buffers
+        filled.offer(read == -1 ? EOF : new Chunk(buffer, read, null));
+        if (read == -1) {
+          return;
+        }
+      }
+    } catch (InterruptedException ex) {
+      // closed
+    } catch (IOException | RuntimeException ex) {
+      if (!closed) {
+        filled.offer(new Chunk(null, -1, ex instanceof IOException ? (IOException) ex : new IOException(ex)));
+      }
+    }
+  }
+
+  // returns false at the end of the stream
+  private boolean fill() throws IOException {
+    if (closed) {
+      throw new IOException("Stream closed");
+    }
+    if (current != null && position < current.length) {
+      return true;
+    }
+    if (current == EOF) {
+      return false;
+    }
+    if (current != null) {
+      free.add(current.buffer);
+    }
+    try {
+      current = filled.take();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for data");
+    }
+    position = 0;
+    if (current.error != null) {
+      IOException error = current.error;
+      current = EOF;
+      throw error;
+    }
+    return current != EOF;
+  }
+
+  @Override
+  public int read() throws IOException {
+    return fill() ? current.buffer[position++] & 0xFF : -1;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (!fill()) {
+      return -1;
+    }
+    int read = Math.min(len, current.length - position);
+    System.arraycopy(current.buffer, position, b, off, read);
+    position += read;
+    return read;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return current != null && current != EOF ? current.length - position : 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      reader.interrupt();
+      try {
+        // the underlying stream is not thread safe, giving the background thread the chance to finish its read
+        reader.join(CLOSE_WAIT_MILLIS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      inputStream.close();
+    }
+  }
+
+}
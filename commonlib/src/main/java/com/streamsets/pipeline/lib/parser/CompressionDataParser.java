@@ -21,6 +21,7 @@ import com.streamsets.pipeline.api.ext.DataCollectorServices;
 import com.streamsets.pipeline.api.ext.json.JsonMapper;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.config.Compression;
+import com.streamsets.pipeline.lib.io.ReadAheadInputStream;
 import org.apache.commons.compress.archivers.ArchiveEntry;
 import org.apache.commons.compress.archivers.ArchiveException;
 import org.apache.commons.compress.archivers.ArchiveInputStream;
@@ -45,6 +46,8 @@ public class CompressionDataParser extends AbstractDataParser {
   public static final String PATH_SEPARATOR = "/";
 
   private static final boolean DECOMPRESS_UNTIL_EOF = true;
+  private static final int READ_AHEAD_BUFFER_SIZE = 64 * 1024;
+  private static final int READ_AHEAD_BUFFERS = 4;
 
   private final InputStream is;
   private final String id;
@@ -247,15 +250,23 @@ public class CompressionDataParser extends AbstractDataParser {
     @VisibleForTesting
     static class CompressorInput implements CompressionDataParser.CompressionInput {
 
+      private final InputStream decompressedInputStream;
       private InputStream inputStream;
 
       public CompressorInput(InputStream inputStream) throws IOException {
         try {
-          this.inputStream = new CompressorStreamFactory(DECOMPRESS_UNTIL_EOF).createCompressorInputStream(
-              new BufferedInputStream(inputStream));
+          // decompressing in a background thread while the records are parsed
+          decompressedInputStream = new ReadAheadInputStream(
+              new CompressorStreamFactory(DECOMPRESS_UNTIL_EOF).createCompressorInputStream(
+                  new BufferedInputStream(inputStream)),
+              READ_AHEAD_BUFFER_SIZE,
+              READ_AHEAD_BUFFERS,
+              "Decompressor"
+          );
         } catch (CompressorException e) {
           throw new IOException(e);
         }
+        this.inputStream = decompressedInputStream;
       }
 
       @Override
@@ -287,9 +298,8 @@ public class CompressionDataParser extends AbstractDataParser {
 
       @Override
       public void close() throws IOException {
-        if(inputStream != null) {
-          inputStream.close();
-        }
+        // closing it even if it was handed out, stopping the decompressor thread
+        decompressedInputStream.close();
       }
     }
 
@@ -403,6 +413,7 @@ public class CompressionDataParser extends AbstractDataParser {
         if(archiveInputStream != null) {
           archiveInputStream.close();
         }
+        compressionInput.close();
       }
 
       private void seekToOffset(Map<String, Object> archiveInputOffset) throws IOException {
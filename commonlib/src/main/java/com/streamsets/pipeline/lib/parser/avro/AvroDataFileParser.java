@@ -15,20 +15,17 @@
  */
 package com.streamsets.pipeline.lib.parser.avro;
 
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.ProtoConfigurableEntity;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.parser.AbstractDataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
 import com.streamsets.pipeline.lib.util.AvroJavaSnappyCodec;
-import com.streamsets.pipeline.lib.util.AvroTypeUtil;
+import com.streamsets.pipeline.lib.util.AvroFieldReader;
 import com.streamsets.pipeline.stage.common.HeaderAttributeConstants;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileReader;
-import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericRecord;
-import org.apache.avro.io.DatumReader;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -47,7 +44,8 @@ public class AvroDataFileParser extends AbstractDataParser {
   private final SeekableOverrunFileInputStream sin;
   private long previousSync;
   private long recordCount;
-  private final DataFileReader<GenericRecord> dataFileReader;
+  private final AvroFieldReader datumReader;
+  private final DataFileReader<Field> dataFileReader;
   private boolean eof;
   private ProtoConfigurableEntity.Context context;
 
@@ -55,7 +53,7 @@ public class AvroDataFileParser extends AbstractDataParser {
     throws IOException {
     this.context = context;
     this.file = file;
-    DatumReader<GenericRecord> datumReader = new GenericDatumReader<>(schema, schema, GenericData.get());
+    datumReader = new AvroFieldReader(schema);
     sin = new SeekableOverrunFileInputStream(
       new FileInputStream(file), maxObjectLength, true);
     dataFileReader = new DataFileReader<>(sin, datumReader);
@@ -88,11 +86,13 @@ public class AvroDataFileParser extends AbstractDataParser {
         previousSync = dataFileReader.previousSync();
         recordCount = 0;
       }
-      GenericRecord avroRecord = dataFileReader.next();
+      Record record = context.createRecord(
+          file.getName() + OFFSET_SEPARATOR + previousSync + OFFSET_SEPARATOR + (recordCount + 1)
+      );
+      datumReader.setRecord(record);
+      record.set(dataFileReader.next());
       recordCount++;
-      Record record = context.createRecord(file.getName() + OFFSET_SEPARATOR + previousSync + OFFSET_SEPARATOR + recordCount);
-      record.set(AvroTypeUtil.avroToSdcField(record, avroRecord.getSchema(), avroRecord));
-      record.getHeader().setAttribute(HeaderAttributeConstants.AVRO_SCHEMA, avroRecord.getSchema().toString());
+      record.getHeader().setAttribute(HeaderAttributeConstants.AVRO_SCHEMA, datumReader.getSchemaJson());
       return record;
     }
     eof = true;
@@ -105,6 +105,7 @@ public class AvroDataFileParser extends AbstractDataParser {
     while(count < recordCount) {
       if(dataFileReader.hasNext()) {
         sin.resetCount();
+        datumReader.setRecord(null);
         dataFileReader.next();
         count++;
       } else {
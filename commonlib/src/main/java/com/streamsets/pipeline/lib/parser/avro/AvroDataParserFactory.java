@@ -15,9 +15,6 @@
  */
 package com.streamsets.pipeline.lib.parser.avro;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableSet;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.config.OriginAvroSchemaSource;
@@ -40,7 +37,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 
 import static com.streamsets.pipeline.lib.util.AvroSchemaHelper.ID_SIZE;
 import static com.streamsets.pipeline.lib.util.AvroSchemaHelper.MAGIC_BYTE_SIZE;
@@ -78,7 +74,6 @@ public class AvroDataParserFactory extends DataParserFactory {
   private final OriginAvroSchemaSource schemaSource;
   private final AvroSchemaHelper schemaHelper;
   private Schema schema;
-  LoadingCache<Integer, Schema> schemas;
 
   public AvroDataParserFactory(Settings settings) throws SchemaRegistryException {
     super(settings);
@@ -89,15 +84,6 @@ public class AvroDataParserFactory extends DataParserFactory {
     int schemaId = settings.getConfig(SCHEMA_ID_KEY);
     final String subject = settings.getConfig(SUBJECT_KEY);
 
-    schemas = CacheBuilder.newBuilder()
-      .maximumSize(100)
-      .build(new CacheLoader<Integer, Schema>() {
-        @Override
-        public Schema load(Integer schemaId) throws Exception {
-          return schemaHelper.loadFromRegistry(schemaId);
-        }
-      });
-
     switch (schemaSource) {
       // Load from the registry now if it was specified automatically,
       // otherwise we'll try to load schema from the records themselves
@@ -148,8 +134,8 @@ public class AvroDataParserFactory extends DataParserFactory {
       Schema recordSchema = schema;
       try {
         if (detectedSchemaId.isPresent()) {
-          // Load the schema for this id from cache
-          recordSchema = schemas.get(detectedSchemaId.get());
+          // Load the schema for this id, the helper caches them
+          recordSchema = schemaHelper.loadFromRegistry(detectedSchemaId.get());
 
           // Strip the embedded ID
           remaining = Arrays.copyOfRange(data, MAGIC_BYTE_SIZE + ID_SIZE, data.length);
@@ -157,7 +143,7 @@ public class AvroDataParserFactory extends DataParserFactory {
           remaining = data;
         }
         return new AvroMessageParser(getSettings().getContext(), recordSchema, remaining, id, schemaSource);
-      } catch (IOException | ExecutionException e) {
+      } catch (IOException | SchemaRegistryException e) {
         throw new DataParserException(Errors.DATA_PARSER_03, e.toString(), e);
       }
     }
@@ -15,34 +15,29 @@
  */
 package com.streamsets.pipeline.lib.parser.avro;
 
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.ProtoConfigurableEntity;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.config.OriginAvroSchemaSource;
 import com.streamsets.pipeline.lib.parser.AbstractDataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
-import com.streamsets.pipeline.lib.util.AvroTypeUtil;
+import com.streamsets.pipeline.lib.util.AvroFieldReader;
 import com.streamsets.pipeline.stage.common.HeaderAttributeConstants;
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.SeekableByteArrayInput;
-import org.apache.avro.generic.GenericData;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.BinaryDecoder;
-import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 
 public class AvroMessageParser extends AbstractDataParser {
 
   private final OriginAvroSchemaSource schemaSource;
-  private DatumReader<GenericRecord> datumReader;
-  private DataFileReader<GenericRecord> dataFileReader;
+  private AvroFieldReader datumReader;
+  private DataFileReader<Field> dataFileReader;
   private BinaryDecoder decoder;
-  private GenericData.Record avroRecord;
   private boolean eof;
   private final ProtoConfigurableEntity.Context context;
   private final String messageId;
@@ -58,43 +53,43 @@ public class AvroMessageParser extends AbstractDataParser {
     this.messageId = messageId;
     this.schemaSource = schemaSource;
 
-    datumReader = new GenericDatumReader<>(schema); //Reader schema argument is optional
+    datumReader = new AvroFieldReader(schema); //Reader schema argument is optional
     if(schemaSource == OriginAvroSchemaSource.SOURCE) {
       dataFileReader = new DataFileReader<>(new SeekableByteArrayInput(message), datumReader);
     } else {
-      decoder = DecoderFactory.get().binaryDecoder(new ByteArrayInputStream(message), null);
-      avroRecord = new GenericData.Record(schema);
+      decoder = DecoderFactory.get().binaryDecoder(message, null);
     }
   }
 
   @Override
   public Record parse() throws IOException, DataParserException {
-    GenericRecord genericRecord;
-    Record record = null;
+    Record record = context.createRecord(messageId);
+    Field field;
     if(schemaSource == OriginAvroSchemaSource.SOURCE) {
-      genericRecord = parseMessageWithSchema();
+      field = parseMessageWithSchema(record);
     } else {
-      genericRecord = parseMessageWithoutSchema();
+      field = parseMessageWithoutSchema(record);
     }
-    if(genericRecord != null) {
-      record = context.createRecord(messageId);
-      record.set(AvroTypeUtil.avroToSdcField(record, genericRecord.getSchema(), genericRecord));
-      record.getHeader().setAttribute(HeaderAttributeConstants.AVRO_SCHEMA, genericRecord.getSchema().toString());
+    if(field == null) {
+      return null;
     }
+    record.set(field);
+    record.getHeader().setAttribute(HeaderAttributeConstants.AVRO_SCHEMA, datumReader.getSchemaJson());
     return record;
   }
 
-  private GenericRecord parseMessageWithSchema() {
+  private Field parseMessageWithSchema(Record record) {
     if(dataFileReader.hasNext()) {
+      datumReader.setRecord(record);
       return dataFileReader.next();
     }
     eof = true;
     return null;
   }
 
-  private GenericRecord parseMessageWithoutSchema() throws IOException {
+  private Field parseMessageWithoutSchema(Record record) throws IOException {
     try {
-      return datumReader.read(avroRecord, decoder);
+      return datumReader.read(record, decoder);
     } catch (EOFException e) {
       eof = true;
     }
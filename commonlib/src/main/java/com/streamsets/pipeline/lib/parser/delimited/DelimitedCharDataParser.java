@@ -24,6 +24,7 @@ import com.streamsets.pipeline.api.ext.io.OverrunReader;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.config.CsvHeader;
 import com.streamsets.pipeline.config.CsvRecordType;
+import com.streamsets.pipeline.lib.csv.FastCsvParser;
 import com.streamsets.pipeline.lib.csv.OverrunCsvParser;
 import com.streamsets.pipeline.lib.parser.AbstractDataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
@@ -40,6 +41,8 @@ import java.util.Map;
 public class DelimitedCharDataParser extends AbstractDataParser {
   private final ProtoConfigurableEntity.Context context;
   private final String readerId;
+  // formats FastCsvParser supports are parsed by it, others by commons-csv
+  private final FastCsvParser fastParser;
   private final OverrunCsvParser parser;
   private final DelimitedDataParserSettings settings;
 
@@ -69,14 +72,26 @@ public class DelimitedCharDataParser extends AbstractDataParser {
       default:
         throw new ParserRuntimeException(Utils.format("Unknown header error: {}", settings.getHeader()));
     }
-    parser = new OverrunCsvParser(
-        reader,
-        settings.getFormat(),
-        readerOffset,
-        settings.getSkipStartLines(),
-        settings.getMaxObjectLen()
-    );
-    String[] hs = parser.getHeaders();
+    if (FastCsvParser.isSupported(settings.getFormat())) {
+      fastParser = new FastCsvParser(
+          reader,
+          settings.getFormat(),
+          readerOffset,
+          settings.getSkipStartLines(),
+          settings.getMaxObjectLen()
+      );
+      parser = null;
+    } else {
+      fastParser = null;
+      parser = new OverrunCsvParser(
+          reader,
+          settings.getFormat(),
+          readerOffset,
+          settings.getSkipStartLines(),
+          settings.getMaxObjectLen()
+      );
+    }
+    String[] hs = (fastParser != null) ? fastParser.getHeaders() : parser.getHeaders();
     if (settings.getHeader() != CsvHeader.IGNORE_HEADER && hs != null) {
       headers = new ArrayList<>();
       for (String h : hs) {
@@ -88,8 +103,8 @@ public class DelimitedCharDataParser extends AbstractDataParser {
   @Override
   public Record parse() throws IOException, DataParserException {
     Record record = null;
-    long offset = parser.getReaderPosition();
-    String[] columns = parser.read();
+    long offset = getReaderPosition();
+    String[] columns = (fastParser != null) ? fastParser.read() : parser.read();
     if (columns != null) {
       record = createRecord(offset, columns);
     } else {
@@ -173,12 +188,20 @@ public class DelimitedCharDataParser extends AbstractDataParser {
 
   @Override
   public String getOffset() {
-    return eof ? String.valueOf(-1) : String.valueOf(parser.getReaderPosition());
+    return eof ? String.valueOf(-1) : String.valueOf(getReaderPosition());
+  }
+
+  private long getReaderPosition() {
+    return (fastParser != null) ? fastParser.getReaderPosition() : parser.getReaderPosition();
   }
 
   @Override
   public void close() throws IOException {
-    parser.close();
+    if (fastParser != null) {
+      fastParser.close();
+    } else {
+      parser.close();
+    }
   }
 
 }
@@ -0,0 +1,534 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser.log;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.lib.parser.shaded.com.google.code.regexp.Pattern;
+import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.dictionary.GrokDictionary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.regex.Matcher;
+
+/**
+ * Matches log lines against a list of grok expressions, the first expression matching a line is used.
+ * <p/>
+ * The literals every match of an expression must contain are taken from its regex when it is compiled. Each line is
+ * scanned once for all the literals of all the expressions, and only the expressions whose literals were all found
+ * are evaluated. Expressions without literals are always evaluated.
+ * <p/>
+ * Instances are immutable and can be shared by parsers running in different threads.
+ */
+public final class GrokMatcher {
+
+  private final String[] expressions;
+  private final java.util.regex.Pattern[] patterns;
+  private final String[][] groupNames;
+  private final int[][] groupIndexes;
+  // ids of the literals each pattern requires, null if there is a single pattern
+  private final int[][] requiredLiterals;
+  private final LiteralScanner scanner;
+
+  /**
+   * Splits the value of a grok pattern config, which has one expression per line. Blank lines are ignored.
+   */
+  public static List<String> splitExpressions(String value) {
+    List<String> expressions = new ArrayList<>();
+    for (String line : value.split("\\r?\\n")) {
+      if (!line.trim().isEmpty()) {
+        expressions.add(line);
+      }
+    }
+    return expressions.isEmpty() ? Collections.singletonList(value) : expressions;
+  }
+
+  /**
+   * Compiles the given grok expressions, the dictionary must have been bound.
+   */
+  public static GrokMatcher compile(GrokDictionary dictionary, List<String> expressions) {
+    List<Pattern> patterns = new ArrayList<>(expressions.size());
+    for (String expression : expressions) {
+      patterns.add(Pattern.compile(dictionary.digestExpression(expression)));
+    }
+    return new GrokMatcher(expressions, patterns);
+  }
+
+  private GrokMatcher(List<String> expressions, List<Pattern> namedPatterns) {
+    int count = namedPatterns.size();
+    this.expressions = expressions.toArray(new String[count]);
+    patterns = new java.util.regex.Pattern[count];
+    groupNames = new String[count][];
+    groupIndexes = new int[count][];
+    for (int i = 0; i < count; i++) {
+      Pattern pattern = namedPatterns.get(i);
+      patterns[i] = pattern.pattern();
+      List<String> names = pattern.groupNames();
+      groupNames[i] = names.toArray(new String[names.size()]);
+      groupIndexes[i] = new int[names.size()];
+      for (int g = 0; g < names.size(); g++) {
+        // capture groups start at 1 in the matcher, the pattern index is 0 based
+        groupIndexes[i][g] = pattern.indexOf(names.get(g)) + 1;
+      }
+    }
+
+    if (count > 1) {
+      List<String> literals = new ArrayList<>();
+      Map<String, Integer> literalIds = new HashMap<>();
+      requiredLiterals = new int[count][];
+      for (int i = 0; i < count; i++) {
+        Set<String> required = new LinkedHashSet<>(requiredLiterals(patterns[i].pattern()));
+        requiredLiterals[i] = new int[required.size()];
+        int r = 0;
+        for (String literal : required) {
+          Integer id = literalIds.get(literal);
+          if (id == null) {
+            id = literals.size();
+            literalIds.put(literal, id);
+            literals.add(literal);
+          }
+          requiredLiterals[i][r++] = id;
+        }
+      }
+      scanner = literals.isEmpty() ? null : new LiteralScanner(literals);
+    } else {
+      requiredLiterals = null;
+      scanner = null;
+    }
+  }
+
+  public int getExpressionCount() {
+    return expressions.length;
+  }
+
+  public String getExpression(int index) {
+    return expressions[index];
+  }
+
+  /**
+   * Puts the named groups of the first expression matching the line in the given map.
+   *
+   * @return the index of the matching expression, or -1 if no expression matches the line.
+   */
+  public int match(CharSequence line, Map<String, Field> fields) {
+    long[] found = (scanner != null) ? scanner.scan(line) : null;
+    for (int i = 0; i < patterns.length; i++) {
+      if (found != null && !containsAll(found, requiredLiterals[i])) {
+        continue;
+      }
+      Matcher matcher = patterns[i].matcher(line);
+      if (matcher.find()) {
+        String[] names = groupNames[i];
+        int[] indexes = groupIndexes[i];
+        for (int g = 0; g < names.length; g++) {
+          fields.put(names[g], Field.create(matcher.group(indexes[g])));
+        }
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean containsAll(long[] found, int[] literals) {
+    for (int literal : literals) {
+      if ((found[literal >>> 6] & (1L << literal)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns literals any match of the given regex contains, not necessarily all of them. Returns an empty list if
+   * the regex uses constructs that are not understood, like inline flags.
+   */
+  @VisibleForTesting
+  static List<String> requiredLiterals(String regex) {
+    try {
+      return new RegexLiterals(regex).parse();
+    } catch (UnsupportedOperationException | NumberFormatException ex) {
+      return Collections.emptyList();
+    }
+  }
+
+  /**
+   * Walks a regex collecting the literal runs found outside of alternations, optional groups and quantified atoms.
+   */
+  private static final class RegexLiterals {
+    private final String regex;
+    private int pos;
+
+    RegexLiterals(String regex) {
+      this.regex = regex;
+    }
+
+    List<String> parse() {
+      List<String> literals = parseSequence();
+      if (pos < regex.length()) {
+        // unbalanced closing parenthesis
+        throw new UnsupportedOperationException();
+      }
+      return literals;
+    }
+
+    private List<String> parseSequence() {
+      List<String> literals = new ArrayList<>();
+      StringBuilder run = new StringBuilder();
+      boolean alternation = false;
+      while (pos < regex.length()) {
+        char c = regex.charAt(pos);
+        if (c == ')') {
+          break;
+        }
+        switch (c) {
+          case '|':
+            alternation = true;
+            pos++;
+            flush(run, literals);
+            break;
+          case '(':
+            flush(run, literals);
+            List<String> group = parseGroup();
+            if (!skipQuantifier()) {
+              literals.addAll(group);
+            }
+            break;
+          case '[':
+            flush(run, literals);
+            skipClass();
+            skipQuantifier();
+            break;
+          case '.':
+          case '^':
+          case '$':
+            flush(run, literals);
+            pos++;
+            skipQuantifier();
+            break;
+          case '*':
+          case '+':
+          case '?':
+          case '{':
+            throw new UnsupportedOperationException();
+          case '\\':
+            char escaped = parseEscape();
+            if (escaped == 0) {
+              flush(run, literals);
+              skipQuantifier();
+            } else {
+              appendLiteral(escaped, run, literals);
+            }
+            break;
+          default:
+            pos++;
+            appendLiteral(c, run, literals);
+            break;
+        }
+      }
+      flush(run, literals);
+      return alternation ? new ArrayList<>() : literals;
+    }
+
+    private void appendLiteral(char c, StringBuilder run, List<String> literals) {
+      if (pos < regex.length() && isQuantifier(regex.charAt(pos))) {
+        boolean optional = skipQuantifier();
+        if (!optional) {
+          run.append(c);
+        }
+        flush(run, literals);
+      } else {
+        run.append(c);
+      }
+    }
+
+    private static void flush(StringBuilder run, List<String> literals) {
+      if (run.length() > 0) {
+        literals.add(run.toString());
+        run.setLength(0);
+      }
+    }
+
+    private List<String> parseGroup() {
+      pos++;
+      boolean required = true;
+      if (regex.startsWith("?", pos)) {
+        if (regex.startsWith("?:", pos)) {
+          pos += 2;
+        } else if (regex.startsWith("?<", pos) && pos + 2 < regex.length()
+            && Character.isLetter(regex.charAt(pos + 2))) {
+          int end = regex.indexOf('>', pos);
+          if (end < 0) {
+            throw new UnsupportedOperationException();
+          }
+          pos = end + 1;
+        } else if (regex.startsWith("?=", pos) || regex.startsWith("?!", pos) || regex.startsWith("?>", pos)) {
+          required = false;
+          pos += 2;
+        } else if (regex.startsWith("?<=", pos) || regex.startsWith("?<!", pos)) {
+          required = false;
+          pos += 3;
+        } else {
+          // inline flags change how literals match
+          throw new UnsupportedOperationException();
+        }
+      }
+      List<String> literals = parseSequence();
+      if (pos >= regex.length()) {
+        throw new UnsupportedOperationException();
+      }
+      pos++;
+      return required ? literals : new ArrayList<>();
+    }
+
+    private void skipClass() {
+      int depth = 0;
+      while (pos < regex.length()) {
+        char c = regex.charAt(pos++);
+        if (c == '\\') {
+          pos++;
+        } else if (c == '[') {
+          depth++;
+          // a ']' right after the opening bracket or its negation is a literal
+          if (regex.startsWith("^", pos)) {
+            pos++;
+          }
+          if (regex.startsWith("]", pos)) {
+            pos++;
+          }
+        } else if (c == ']' && --depth == 0) {
+          return;
+        }
+      }
+      throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the escaped literal character, or 0 if the escape is not a literal.
+     */
+    private char parseEscape() {
+      if (pos + 1 >= regex.length()) {
+        throw new UnsupportedOperationException();
+      }
+      char c = regex.charAt(pos + 1);
+      pos += 2;
+      switch (c) {
+        case 't':
+          return '\t';
+        case 'n':
+          return '\n';
+        case 'r':
+          return '\r';
+        case 'f':
+          return '\f';
+        case 'a':
+          return '\u0007';
+        case 'e':
+          return '\u001B';
+        case 'd':
+        case 'D':
+        case 's':
+        case 'S':
+        case 'w':
+        case 'W':
+        case 'b':
+        case 'B':
+        case 'A':
+        case 'G':
+        case 'Z':
+        case 'z':
+        case 'h':
+        case 'H':
+        case 'v':
+        case 'V':
+        case 'R':
+          return 0;
+        default:
+          if (Character.isLetterOrDigit(c)) {
+            // back references, quoting, code points and properties
+            throw new UnsupportedOperationException();
+          }
+          return c;
+      }
+    }
+
+    private static boolean isQuantifier(char c) {
+      return c == '*' || c == '+' || c == '?' || c == '{';
+    }
+
+    /**
+     * Skips the quantifier at the current position if any, returns if it allows zero occurrences.
+     */
+    private boolean skipQuantifier() {
+      if (pos >= regex.length() || !isQuantifier(regex.charAt(pos))) {
+        return false;
+      }
+      char c = regex.charAt(pos++);
+      boolean optional;
+      if (c == '{') {
+        int end = regex.indexOf('}', pos);
+        if (end < 0) {
+          throw new UnsupportedOperationException();
+        }
+        String min = regex.substring(pos, end).split(",", -1)[0].trim();
+        optional = min.isEmpty() || Integer.parseInt(min) == 0;
+        pos = end + 1;
+      } else {
+        optional = c != '+';
+      }
+      // reluctant and possessive quantifiers
+      if (pos < regex.length() && (regex.charAt(pos) == '?' || regex.charAt(pos) == '+')) {
+        pos++;
+      }
+      return optional;
+    }
+  }
+
+  /**
+   * Aho-Corasick automaton finding all the occurrences of a set of literals in one pass.
+   */
+  private static final class LiteralScanner {
+    private final int literalCount;
+    // symbol 0 is any character not in a literal
+    private final int width;
+    private final int[] asciiSymbols = new int[128];
+    private final Map<Character, Integer> symbols = new HashMap<>();
+    // transitions, indexed by state * alphabet size + symbol
+    private final int[] transitions;
+    // ids of the literals ending at each state, including the ones reached through failure links
+    private final int[][] outputs;
+
+    LiteralScanner(List<String> literals) {
+      literalCount = literals.size();
+      StringBuilder chars = new StringBuilder();
+      for (String literal : literals) {
+        for (int i = 0; i < literal.length(); i++) {
+          char c = literal.charAt(i);
+          if (symbolOf(c) == 0) {
+            chars.append(c);
+            int symbol = chars.length();
+            if (c < 128) {
+              asciiSymbols[c] = symbol;
+            } else {
+              symbols.put(c, symbol);
+            }
+          }
+        }
+      }
+      width = chars.length() + 1;
+
+      // trie, -1 for missing children
+      List<int[]> children = new ArrayList<>();
+      List<List<Integer>> ends = new ArrayList<>();
+      children.add(newNode(width));
+      ends.add(new ArrayList<>());
+      for (int id = 0; id < literals.size(); id++) {
+        String literal = literals.get(id);
+        int state = 0;
+        for (int i = 0; i < literal.length(); i++) {
+          int symbol = symbolOf(literal.charAt(i));
+          if (children.get(state)[symbol] < 0) {
+            children.get(state)[symbol] = children.size();
+            children.add(newNode(width));
+            ends.add(new ArrayList<>());
+          }
+          state = children.get(state)[symbol];
+        }
+        ends.get(state).add(id);
+      }
+
+      // breadth first, completing the transitions with the failure links
+      int states = children.size();
+      transitions = new int[states * width];
+      outputs = new int[states][];
+      int[] failure = new int[states];
+      Queue<Integer> queue = new ArrayDeque<>();
+      for (int symbol = 0; symbol < width; symbol++) {
+        int child = children.get(0)[symbol];
+        transitions[symbol] = Math.max(child, 0);
+        if (child > 0) {
+          failure[child] = 0;
+          queue.add(child);
+        }
+      }
+      outputs[0] = new int[0];
+      while (!queue.isEmpty()) {
+        int state = queue.poll();
+        List<Integer> output = new ArrayList<>(ends.get(state));
+        for (int id : outputs[failure[state]]) {
+          output.add(id);
+        }
+        outputs[state] = toArray(output);
+        for (int symbol = 0; symbol < width; symbol++) {
+          int child = children.get(state)[symbol];
+          int fallback = transitions[failure[state] * width + symbol];
+          if (child > 0) {
+            transitions[state * width + symbol] = child;
+            failure[child] = fallback;
+            queue.add(child);
+          } else {
+            transitions[state * width + symbol] = fallback;
+          }
+        }
+      }
+    }
+
+    private static int[] newNode(int width) {
+      int[] node = new int[width];
+      Arrays.fill(node, -1);
+      return node;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+      int[] array = new int[list.size()];
+      for (int i = 0; i < array.length; i++) {
+        array[i] = list.get(i);
+      }
+      return array;
+    }
+
+    private int symbolOf(char c) {
+      if (c < 128) {
+        return asciiSymbols[c];
+      }
+      Integer symbol = symbols.get(c);
+      return (symbol != null) ? symbol : 0;
+    }
+
+    /**
+     * Returns a bit set with the ids of the literals found in the given text.
+     */
+    long[] scan(CharSequence text) {
+      long[] found = new long[(literalCount + 63) >>> 6];
+      int state = 0;
+      for (int i = 0; i < text.length(); i++) {
+        state = transitions[state * width + symbolOf(text.charAt(i))];
+        for (int id : outputs[state]) {
+          found[id >>> 6] |= 1L << id;
+        }
+      }
+      return found;
+    }
+  }
+
+}
@@ -19,7 +19,6 @@ import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.ProtoConfigurableEntity;
 import com.streamsets.pipeline.api.ext.io.OverrunReader;
 import com.streamsets.pipeline.lib.parser.DataParserException;
-import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util.Grok;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 
 import java.io.IOException;
@@ -28,7 +27,7 @@ import java.util.Map;
 
 public class GrokParser extends LogCharDataParser {
 
-  private final Grok compiledPattern;
+  private final GrokMatcher grokMatcher;
   private final String formatName;
 
   public GrokParser(
@@ -39,27 +38,23 @@ public class GrokParser extends LogCharDataParser {
       int maxObjectLen,
       boolean retainOriginalText,
       int maxStackTraceLines,
-      Grok compiledPattern,
+      GrokMatcher grokMatcher,
       String formatName,
       GenericObjectPool<StringBuilder> currentLineBuilderPool,
       GenericObjectPool<StringBuilder> previousLineBuilderPool
   ) throws IOException {
     super(context, readerId, reader, readerOffset, maxObjectLen, retainOriginalText, maxStackTraceLines, currentLineBuilderPool, previousLineBuilderPool);
-    this.compiledPattern = compiledPattern;
+    this.grokMatcher = grokMatcher;
     this.formatName = formatName;
   }
 
   @Override
   public Map<String, Field> parseLogLine(StringBuilder logLine) throws DataParserException {
-    Map<String, String> namedGroupToValuesMap = compiledPattern.extractNamedGroups(logLine.toString());
-    if(namedGroupToValuesMap == null) {
+    Map<String, Field> map = new LinkedHashMap<>();
+    if (grokMatcher.match(logLine, map) < 0) {
       //Did not match
       handleNoMatch(logLine.toString());
     }
-    Map<String, Field> map = new LinkedHashMap<>();
-    for(Map.Entry<String, String> e : namedGroupToValuesMap.entrySet()) {
-      map.put(e.getKey(), Field.create(e.getValue()));
-    }
     return map;
   }
 
@@ -246,7 +246,9 @@ public class LogDataFormatValidator {
         grokDictionary.addDictionary(new StringReader(grokPatternDefinition));
       }
       grokDictionary.bind();
-      grokDictionary.compileExpression(grokPattern);
+      for (String expression : GrokMatcher.splitExpressions(grokPattern)) {
+        grokDictionary.compileExpression(expression);
+      }
     } catch (GrokCompilationException|IOException e){
       issues.add(
         context.createConfigIssue(
@@ -16,6 +16,7 @@
 package com.streamsets.pipeline.lib.parser.log;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.streamsets.pipeline.api.ProtoConfigurableEntity;
@@ -27,7 +28,6 @@ import com.streamsets.pipeline.lib.parser.DataParserFactory;
 import com.streamsets.pipeline.lib.parser.DataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
 import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.dictionary.GrokDictionary;
-import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.util.Grok;
 import org.apache.commons.pool2.impl.GenericObjectPool;
 
 import java.io.IOException;
@@ -164,7 +164,7 @@ public class LogDataParserFactory extends DataParserFactory {
             createPattern(regex), fieldPathToGroup, currentLineBuilderPool, previousLineBuilderPool);
         case GROK:
           return new GrokParser(context, id, reader, offset, maxObjectLen, retainOriginalText,
-            getMaxStackTraceLines(), createGrok(grokPattern, grokDictionaries), "Grok Format",
+            getMaxStackTraceLines(), createGrok(GrokMatcher.splitExpressions(grokPattern), grokDictionaries), "Grok Format",
             currentLineBuilderPool, previousLineBuilderPool);
         case LOG4J:
           return new GrokParser(context, id, reader, offset, maxObjectLen, retainOriginalText,
@@ -202,9 +202,14 @@ public class LogDataParserFactory extends DataParserFactory {
   }
 
   @VisibleForTesting
-  private Grok createGrok(String grokPattern, List<String> dictionaries) {
-    if(regexToPatternMap.containsKey(grokPattern)) {
-      return (Grok) regexToPatternMap.get(grokPattern);
+  private GrokMatcher createGrok(String grokPattern, List<String> dictionaries) {
+    return createGrok(Collections.singletonList(grokPattern), dictionaries);
+  }
+
+  private GrokMatcher createGrok(List<String> grokPatterns, List<String> dictionaries) {
+    String key = Joiner.on('\n').join(grokPatterns);
+    if(regexToPatternMap.containsKey(key)) {
+      return (GrokMatcher) regexToPatternMap.get(key);
     }
     GrokDictionary grokDictionary = new GrokDictionary();
     //Add grok patterns and Java patterns by default
@@ -227,8 +232,8 @@ public class LogDataParserFactory extends DataParserFactory {
     }
     // Resolve all expressions loaded
     grokDictionary.bind();
-    Grok grok = grokDictionary.compileExpression(grokPattern);
-    regexToPatternMap.put(grokPattern, grok);
+    GrokMatcher grok = GrokMatcher.compile(grokDictionary, grokPatterns);
+    regexToPatternMap.put(key, grok);
     return grok;
   }
 
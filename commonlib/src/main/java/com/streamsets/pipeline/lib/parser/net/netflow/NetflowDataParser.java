@@ -18,6 +18,7 @@ package com.streamsets.pipeline.lib.parser.net.netflow;
 import com.streamsets.pipeline.api.ProtoConfigurableEntity;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.lib.parser.net.BaseNetworkMessageDataParser;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9TemplateCacheProvider;
 import io.netty.buffer.ByteBuf;
 
 import java.io.InputStream;
@@ -42,6 +43,20 @@ public class NetflowDataParser extends BaseNetworkMessageDataParser<BaseNetflowM
     netflowDecoder = new NetflowCommonDecoder(outputValuesMode, maxTemplateCacheSize, templateCacheTimeoutMs);
   }
 
+  public NetflowDataParser(
+      ProtoConfigurableEntity.Context context,
+      String readerId,
+      InputStream inputStream,
+      Long readerOffset,
+      int maxObjectLen,
+      Charset charset,
+      OutputValuesMode outputValuesMode,
+      NetflowV9TemplateCacheProvider templateCacheProvider
+  ) {
+    super(context, readerId, inputStream, readerOffset, maxObjectLen, charset);
+    netflowDecoder = new NetflowCommonDecoder(outputValuesMode, templateCacheProvider);
+  }
+
   @Override
   protected String getTypeName() {
     return "netflow";
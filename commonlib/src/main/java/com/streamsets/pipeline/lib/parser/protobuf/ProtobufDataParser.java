@@ -15,55 +15,46 @@
  */
 package com.streamsets.pipeline.lib.parser.protobuf;
 
-import com.google.protobuf.Descriptors;
-import com.google.protobuf.DynamicMessage;
-import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.streamsets.pipeline.api.ProtoConfigurableEntity;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.lib.io.OverrunInputStream;
 import com.streamsets.pipeline.lib.parser.AbstractDataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
-import com.streamsets.pipeline.lib.util.ProtobufTypeUtil;
+import com.streamsets.pipeline.lib.util.ProtobufFieldCodec;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Map;
-import java.util.Set;
+import java.util.Arrays;
 
 public class ProtobufDataParser extends AbstractDataParser {
 
   private static final String OFFSET_SEPARATOR = "::";
+  private static final int INITIAL_BUFFER_SIZE = 4096;
 
   private boolean eof;
   private final ProtoConfigurableEntity.Context context;
-  private final DynamicMessage.Builder builder;
   private final OverrunInputStream inputStream;
   private final String messageId;
-  private final Descriptors.Descriptor descriptor;
-  // this map holds extensions that are defined for each of the message types present in the all the file descriptors
-  // that is accessible via the configured Protobuf descriptor file
-  private final Map<String, Set<Descriptors.FieldDescriptor>> messageTypeToExtensionMap;
-  private final ExtensionRegistry extensionRegistry;
+  private final ProtobufFieldCodec codec;
   private final boolean isDelimited;
+  // holds the delimited message being parsed, reused across messages
+  private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
 
   public ProtobufDataParser(
       ProtoConfigurableEntity.Context context,
       String messageId,
-      Descriptors.Descriptor descriptor,
-      Map<String, Set<Descriptors.FieldDescriptor>> messageTypeToExtensionMap,
-      ExtensionRegistry extensionRegistry,
+      ProtobufFieldCodec codec,
       InputStream inputStream,
       String readerOffset,
       int maxObjectLength,
       boolean isDelimited
-  ) throws IOException, Descriptors.DescriptorValidationException, DataParserException {
+  ) throws IOException, DataParserException {
     this.context = context;
     this.inputStream = new OverrunInputStream(inputStream, maxObjectLength, true);
     this.messageId = messageId;
-    this.messageTypeToExtensionMap = messageTypeToExtensionMap;
-    this.extensionRegistry = extensionRegistry;
-    this.descriptor = descriptor;
-    this.builder = DynamicMessage.newBuilder(descriptor);
+    this.codec = codec;
     this.isDelimited = isDelimited;
 
     // skip to the required location
@@ -75,34 +66,59 @@ public class ProtobufDataParser extends AbstractDataParser {
 
   @Override
   public Record parse() throws IOException, DataParserException {
-    DynamicMessage message;
     long pos = inputStream.getPos();
     inputStream.resetCount();
+    CodedInputStream input;
     if (!isDelimited) {
       if (!eof) {
-        builder.mergeFrom(inputStream, extensionRegistry);
+        input = CodedInputStream.newInstance(inputStream);
         // Set EOF since non-delimited can only contain a single message.
         eof = true;
       } else {
         return null;
       }
     } else {
-      if (!builder.mergeDelimitedFrom(inputStream, extensionRegistry)) {
+      int firstByte = inputStream.read();
+      if (firstByte == -1) {
         // No more messages to process in this stream.
         eof = true;
         return null;
       }
+      int size = CodedInputStream.readRawVarint32(firstByte, inputStream);
+      if (size < 0) {
+        throw new InvalidProtocolBufferException("CodedInputStream encountered an embedded string or message " +
+            "which claimed to have negative size.");
+      }
+      readMessage(size);
+      input = CodedInputStream.newInstance(buffer, 0, size);
     }
-    message = builder.build();
-    // If the message does not contain required fields then the above call throws UninitializedMessageException
+    Record record = context.createRecord(messageId + OFFSET_SEPARATOR + pos);
+    // If the message does not contain required fields then the codec throws UninitializedMessageException
     // with a message similar to the following:
     // com.google.protobuf.UninitializedMessageException: Message missing required fields: phone[0].type
-    builder.clear();
-    Record record = context.createRecord(messageId + OFFSET_SEPARATOR + pos);
-    record.set(ProtobufTypeUtil.protobufToSdcField(record, "", descriptor, messageTypeToExtensionMap, message));
+    record.set(codec.read(record, input));
     return record;
   }
 
+  /**
+   * Reads a delimited message into the buffer, growing the buffer as data arrives so that a corrupted size does not
+   * allocate more than the stream holds.
+   */
+  private void readMessage(int size) throws IOException {
+    int read = 0;
+    while (read < size) {
+      if (read == buffer.length) {
+        buffer = Arrays.copyOf(buffer, (int) Math.min(size, buffer.length * 2L));
+      }
+      int n = inputStream.read(buffer, read, Math.min(buffer.length, size) - read);
+      if (n < 0) {
+        throw new InvalidProtocolBufferException("While parsing a protocol message, the input ended unexpectedly " +
+            "in the middle of a field.");
+      }
+      read += n;
+    }
+  }
+
   @Override
   public String getOffset() throws DataParserException {
     return eof ? String.valueOf(-1) : String.valueOf(inputStream.getPos());
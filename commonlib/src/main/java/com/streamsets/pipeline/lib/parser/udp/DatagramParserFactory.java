@@ -15,6 +15,7 @@
  */
 package com.streamsets.pipeline.lib.parser.udp;
 
+import com.google.common.cache.Cache;
 import com.google.common.collect.ImmutableSet;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.config.DatagramMode;
@@ -22,6 +23,9 @@ import com.streamsets.pipeline.lib.parser.DataParser;
 import com.streamsets.pipeline.lib.parser.DataParserException;
 import com.streamsets.pipeline.lib.parser.DataParserFactory;
 import com.streamsets.pipeline.lib.parser.net.netflow.NetflowDataParserFactory;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowSetTemplate;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowSetTemplateCacheKey;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9Decoder;
 import com.streamsets.pipeline.lib.parser.udp.collectd.CollectdParser;
 import com.streamsets.pipeline.lib.parser.udp.netflow.NetflowParser;
 import com.streamsets.pipeline.lib.parser.udp.syslog.SyslogParser;
@@ -68,10 +72,20 @@ public class DatagramParserFactory extends DataParserFactory {
   }
 
   private final DatagramMode datagramMode;
+  // NetFlow templates are shared by all the parsers of the factory
+  private final Cache<FlowSetTemplateCacheKey, FlowSetTemplate> flowSetTemplateCache;
 
   public DatagramParserFactory(Settings settings) {
     super(settings);
     datagramMode = settings.getMode(DatagramMode.class);
+    if (datagramMode == DatagramMode.NETFLOW) {
+      flowSetTemplateCache = NetflowV9Decoder.buildTemplateCache(
+          settings.getConfig(NetflowDataParserFactory.MAX_TEMPLATE_CACHE_SIZE_KEY),
+          settings.getConfig(NetflowDataParserFactory.TEMPLATE_CACHE_TIMEOUT_MS_KEY)
+      );
+    } else {
+      flowSetTemplateCache = null;
+    }
   }
 
   @Override
@@ -89,8 +103,7 @@ public class DatagramParserFactory extends DataParserFactory {
         parser = new NetflowParser(
             settings.getContext(),
             settings.getConfig(NetflowDataParserFactory.OUTPUT_VALUES_MODE_KEY),
-            settings.getConfig(NetflowDataParserFactory.MAX_TEMPLATE_CACHE_SIZE_KEY),
-            settings.getConfig(NetflowDataParserFactory.TEMPLATE_CACHE_TIMEOUT_MS_KEY)
+            flowSetTemplateCache
         );
         break;
       case COLLECTD:
@@ -30,11 +30,13 @@ import java.util.List;
 
 public class SyslogParser extends AbstractParser {
   private final Charset charset;
+  private final SyslogDecoder decoder;
   private long recordId = 0;
 
   public SyslogParser(ProtoConfigurableEntity.Context context, Charset charset) {
     super(context);
     this.charset = charset;
+    this.decoder = new SyslogDecoder(charset);
   }
 
   public Record buildRecord(SyslogMessage message) {
@@ -51,7 +53,7 @@ public class SyslogParser extends AbstractParser {
     List<Record> records = new LinkedList<>();
     List<SyslogMessage> messages = new LinkedList<>();
     try {
-      new SyslogDecoder(charset).decodeStandaloneBuffer(buf, messages, sender, recipient);
+      decoder.decodeStandaloneBuffer(buf, messages, sender, recipient);
       for (SyslogMessage message : messages) {
         records.add(buildRecord(message));
       }
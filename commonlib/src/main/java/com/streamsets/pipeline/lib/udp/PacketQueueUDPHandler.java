@@ -15,17 +15,23 @@
  */
 package com.streamsets.pipeline.lib.udp;
 
+import com.streamsets.pipeline.api.impl.Utils;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.DatagramPacket;
+import io.netty.util.concurrent.FastThreadLocal;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 @ChannelHandler.Sharable
 public class PacketQueueUDPHandler extends SimpleChannelInboundHandler<DatagramPacket> {
@@ -35,20 +41,76 @@ public class PacketQueueUDPHandler extends SimpleChannelInboundHandler<DatagramP
   public static final String GAUGE_NUM_DROPPED_PACKETS = "Dropped Packets";
   public static final String GAUGE_NUM_QUEUED_PACKETS = "Queued Packets";
 
+  /**
+   * State of a thread reading packets (a channel event loop), only accessed by that thread.
+   */
+  private static class Producer {
+    private final int[] queues;
+    private int next;
+    private long queued;
+    private long dropped;
+
+    Producer(int[] queues) {
+      this.queues = queues;
+    }
+  }
+
   private final Map<String, Object> gaugeMap;
-  private AtomicLong droppedPacketCount = new AtomicLong();
-  private AtomicLong queuedPacketCount = new AtomicLong();
+  private final AtomicLong droppedPacketCount = new AtomicLong();
+  private final AtomicLong queuedPacketCount = new AtomicLong();
+  private final AtomicInteger producerCount = new AtomicInteger();
 
-  private final BlockingDeque<DatagramPacket> queue;
+  private final List<PacketRing<DatagramPacket>> queues;
+  private final int numProducers;
+  private final FastThreadLocal<Producer> producer = new FastThreadLocal<Producer>() {
+    @Override
+    protected Producer initialValue() {
+      return createProducer(producerCount.getAndIncrement());
+    }
+  };
 
   public PacketQueueUDPHandler(Map<String, Object> gaugeMap, int packetQueueSize) {
+    this(gaugeMap, packetQueueSize, 1, 1);
+  }
+
+  /**
+   * Creates a handler queueing packets in one bounded queue per consumer.
+   * <p/>
+   * Each thread reading packets is assigned a fixed subset of the queues, when there are at least as many queues as
+   * reading threads every queue has a single producer and a single consumer.
+   *
+   * @param gaugeMap gauge to report queue statistics to.
+   * @param packetQueueSize total capacity, split evenly between the queues.
+   * @param numQueues number of queues, one per consumer thread.
+   * @param numProducers expected number of threads reading packets (event loops with a bound channel).
+   */
+  public PacketQueueUDPHandler(Map<String, Object> gaugeMap, int packetQueueSize, int numQueues, int numProducers) {
+    Utils.checkArgument(numQueues > 0, Utils.formatL("Invalid number of queues '{}'", numQueues));
+    Utils.checkArgument(numProducers > 0, Utils.formatL("Invalid number of producers '{}'", numProducers));
     this.gaugeMap = gaugeMap;
+    this.numProducers = numProducers;
 
-    queue = new LinkedBlockingDeque<>(packetQueueSize);
+    int queueCapacity = Math.max(1, (packetQueueSize + numQueues - 1) / numQueues);
+    List<PacketRing<DatagramPacket>> rings = new ArrayList<>(numQueues);
+    for (int i = 0; i < numQueues; i++) {
+      rings.add(new PacketRing<>(queueCapacity));
+    }
+    queues = Collections.unmodifiableList(rings);
+  }
+
+  private Producer createProducer(int ordinal) {
+    int slot = ordinal % numProducers;
+    int[] assigned = IntStream.range(0, queues.size()).filter(i -> i % numProducers == slot).toArray();
+    if (assigned.length == 0) {
+      // fewer queues than producers, queues are shared
+      assigned = new int[] {slot % queues.size()};
+    }
+    return new Producer(assigned);
   }
 
   @Override
   public void channelReadComplete(ChannelHandlerContext ctx) {
+    updateGauges(producer.get());
     ctx.flush();
   }
 
@@ -60,19 +122,66 @@ public class PacketQueueUDPHandler extends SimpleChannelInboundHandler<DatagramP
 
   @Override
   protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket packet) throws Exception {
+    Producer p = producer.get();
+    PacketRing<DatagramPacket> queue = queues.get(p.queues[p.next]);
+    if (++p.next == p.queues.length) {
+      p.next = 0;
+    }
     packet.retain();
-    final boolean succeeded = queue.offer(packet);
-    if (succeeded) {
-      gaugeMap.put(GAUGE_NUM_QUEUED_PACKETS, queuedPacketCount.incrementAndGet());
-      gaugeMap.put(GAUGE_PACKET_QUEUE_SIZE, queue.size());
+    if (queue.offer(packet)) {
+      p.queued++;
     } else {
-      gaugeMap.put(GAUGE_NUM_DROPPED_PACKETS, droppedPacketCount.incrementAndGet());
+      p.dropped++;
       // allow Netty to collect the buffer
       packet.release();
     }
   }
 
-  public BlockingDeque<DatagramPacket> getPacketQueue() {
-    return queue;
+  // gauges are updated once per read loop, not for every packet
+  private void updateGauges(Producer p) {
+    if (p.queued > 0) {
+      gaugeMap.put(GAUGE_NUM_QUEUED_PACKETS, queuedPacketCount.addAndGet(p.queued));
+      p.queued = 0;
+    }
+    if (p.dropped > 0) {
+      gaugeMap.put(GAUGE_NUM_DROPPED_PACKETS, droppedPacketCount.addAndGet(p.dropped));
+      p.dropped = 0;
+    }
+    gaugeMap.put(GAUGE_PACKET_QUEUE_SIZE, getPacketQueueSize());
+  }
+
+  public int getNumPacketQueues() {
+    return queues.size();
+  }
+
+  /**
+   * Returns the next packet of the given queue, waiting up to the given time if the queue is empty.
+   * <p/>
+   * A queue must only be polled by a single thread.
+   */
+  public DatagramPacket poll(int queue, long timeout, TimeUnit unit) throws InterruptedException {
+    return queues.get(queue).poll(timeout, unit);
+  }
+
+  public int getPacketQueueSize(int queue) {
+    return queues.get(queue).size();
+  }
+
+  public int getPacketQueueSize() {
+    int size = 0;
+    for (PacketRing<DatagramPacket> queue : queues) {
+      size += queue.size();
+    }
+    return size;
+  }
+
+  /**
+   * Releases the packets left in the given queue, must be called by the thread polling the queue or once it is done.
+   */
+  public void releasePackets(int queue) {
+    DatagramPacket packet;
+    while ((packet = queues.get(queue).poll()) != null) {
+      packet.release();
+    }
   }
 }
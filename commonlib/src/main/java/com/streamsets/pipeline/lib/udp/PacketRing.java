@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.udp;
+
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded ring buffer with a single consumer.
+ * <p/>
+ * Elements are stored in a preallocated array, offering and polling do not allocate. Producers are serialized by a
+ * producer lock that is never taken by the consumer, with a single producer thread the lock is uncontended.
+ * <p/>
+ * {@link #poll()} and {@link #poll(long, TimeUnit)} must always be called from the same thread.
+ *
+ * @param <E> element type.
+ */
+final class PacketRing<E> {
+  private final Object[] buffer;
+  private final Object producerLock = new Object();
+  // sequence of the next element to poll, written by the consumer only
+  private final AtomicLong head = new AtomicLong();
+  // sequence of the next element to offer, written by the producers only
+  private final AtomicLong tail = new AtomicLong();
+  private volatile Thread waitingConsumer;
+
+  PacketRing(int capacity) {
+    Utils.checkArgument(capacity > 0, Utils.formatL("Invalid capacity '{}'", capacity));
+    buffer = new Object[capacity];
+  }
+
+  int capacity() {
+    return buffer.length;
+  }
+
+  int size() {
+    long h = head.get();
+    return (int) (tail.get() - h);
+  }
+
+  boolean offer(E element) {
+    synchronized (producerLock) {
+      long t = tail.get();
+      if (t - head.get() >= buffer.length) {
+        return false;
+      }
+      buffer[(int) (t % buffer.length)] = element;
+      tail.set(t + 1);
+    }
+    Thread consumer = waitingConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  E poll() {
+    long h = head.get();
+    if (h >= tail.get()) {
+      return null;
+    }
+    int index = (int) (h % buffer.length);
+    E element = (E) buffer[index];
+    buffer[index] = null;
+    head.lazySet(h + 1);
+    return element;
+  }
+
+  E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    E element = poll();
+    if (element != null) {
+      return element;
+    }
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    waitingConsumer = Thread.currentThread();
+    try {
+      while ((element = poll()) == null) {
+        if (Thread.interrupted()) {
+          throw new InterruptedException();
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return null;
+        }
+        LockSupport.parkNanos(this, remaining);
+      }
+      return element;
+    } finally {
+      waitingConsumer = null;
+    }
+  }
+
+}
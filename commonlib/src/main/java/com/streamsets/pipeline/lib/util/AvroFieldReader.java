@@ -0,0 +1,354 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.stage.common.HeaderAttributeConstants;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.ResolvingDecoder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Decodes Avro binary data straight into {@link Field}s, without building generic Avro objects first.
+ * <p/>
+ * The fields are the same {@link AvroTypeUtil#avroToSdcField(Record, Schema, Object)} creates from the generic
+ * objects, including the union type index header attributes. A decoding plan is compiled once per schema and shared
+ * by all readers.
+ * <p/>
+ * When the data was written with a different schema than the reader's, it is resolved against the reader's schema
+ * the same way {@link org.apache.avro.generic.GenericDatumReader} does.
+ */
+public class AvroFieldReader implements DatumReader<Field> {
+
+  private static final Cache<Schema, FieldDecoder> PLANS = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+  private final Schema readerSchema;
+  private Schema writerSchema;
+  private FieldDecoder plan;
+  private ResolvingDecoder resolver;
+  private String schemaJson;
+  private Record record;
+
+  /**
+   * @param schema reader schema, or null to read data with the schema it was written with.
+   */
+  public AvroFieldReader(Schema schema) {
+    this.readerSchema = schema;
+    this.writerSchema = schema;
+  }
+
+  @Override
+  public void setSchema(Schema schema) {
+    writerSchema = schema;
+    plan = null;
+    resolver = null;
+    schemaJson = null;
+  }
+
+  /**
+   * Returns the schema of the fields read.
+   */
+  public Schema getSchema() {
+    return readerSchema != null ? readerSchema : writerSchema;
+  }
+
+  /**
+   * Returns the JSON representation of {@link #getSchema()}.
+   */
+  public String getSchemaJson() {
+    if (schemaJson == null) {
+      schemaJson = getSchema().toString();
+    }
+    return schemaJson;
+  }
+
+  /**
+   * Sets the record the next datum is read for, union type indexes are set as its header attributes. If null the
+   * union type indexes are discarded.
+   */
+  public void setRecord(Record record) {
+    this.record = record;
+  }
+
+  /**
+   * Reads a datum for the given record.
+   */
+  public Field read(Record record, Decoder in) throws IOException {
+    setRecord(record);
+    return read((Field) null, in);
+  }
+
+  @Override
+  public Field read(Field reuse, Decoder in) throws IOException {
+    if (plan == null) {
+      Schema schema = getSchema();
+      plan = getPlan(schema);
+      if (!schema.equals(writerSchema)) {
+        resolver = DecoderFactory.get().resolvingDecoder(writerSchema, schema, null);
+      }
+    }
+    if (resolver == null) {
+      return plan.decode(record, "", in);
+    }
+    resolver.configure(in);
+    Field field = plan.decode(record, "", resolver);
+    resolver.drain();
+    return field;
+  }
+
+  private static FieldDecoder getPlan(Schema schema) throws IOException {
+    try {
+      return PLANS.get(schema, () -> compile(schema, new HashMap<>()));
+    } catch (ExecutionException ex) {
+      throw new IOException(ex.getCause());
+    }
+  }
+
+  /**
+   * Decodes one value, <code>path</code> is the value's field path in the Avro data, null if there is no union within
+   * the value.
+   */
+  private interface FieldDecoder {
+    Field decode(Record record, String path, Decoder in) throws IOException;
+  }
+
+  /**
+   * Compiles the decoder of the given schema, <code>records</code> holds the decoders of the records being compiled
+   * to allow recursive schemas.
+   */
+  private static FieldDecoder compile(Schema schema, Map<String, FieldDecoder> records) {
+    String logicalType = schema.getProp(AvroTypeUtil.LOGICAL_TYPE);
+    if (logicalType != null && !logicalType.isEmpty()) {
+      FieldDecoder decoder = compileLogicalType(schema, logicalType);
+      if (decoder != null) {
+        return decoder;
+      }
+    }
+
+    switch (schema.getType()) {
+      case UNION:
+        return compileUnion(schema, records);
+      case RECORD:
+        return compileRecord(schema, records);
+      case ARRAY:
+        FieldDecoder elementDecoder = compile(schema.getElementType(), records);
+        boolean elementPath = AvroTypeUtil.hasUnion(schema.getElementType());
+        return (record, path, in) -> {
+          List<Field> list = new ArrayList<>();
+          for (long count = in.readArrayStart(); count != 0; count = in.arrayNext()) {
+            for (long i = 0; i < count; i++) {
+              String elementFieldPath = elementPath ? path + "[" + list.size() + "]" : null;
+              list.add(elementDecoder.decode(record, elementFieldPath, in));
+            }
+          }
+          return Field.create(list);
+        };
+      case MAP:
+        FieldDecoder valueDecoder = compile(schema.getValueType(), records);
+        boolean valuePath = AvroTypeUtil.hasUnion(schema.getValueType());
+        return (record, path, in) -> {
+          Map<String, Field> map = new LinkedHashMap<>();
+          for (long count = in.readMapStart(); count != 0; count = in.mapNext()) {
+            for (long i = 0; i < count; i++) {
+              String key = in.readString();
+              map.put(key, valueDecoder.decode(record, valuePath ? path + "/" + key : null, in));
+            }
+          }
+          return Field.create(map);
+        };
+      case BOOLEAN:
+        return (record, path, in) -> Field.create(in.readBoolean());
+      case BYTES:
+        return (record, path, in) -> Field.create(readBytes(in));
+      case DOUBLE:
+        return (record, path, in) -> Field.create(in.readDouble());
+      case ENUM:
+        List<String> symbols = schema.getEnumSymbols();
+        return (record, path, in) -> Field.create(symbols.get(in.readEnum()));
+      case FIXED:
+        int size = schema.getFixedSize();
+        return (record, path, in) -> {
+          byte[] bytes = new byte[size];
+          in.readFixed(bytes, 0, size);
+          return Field.create(bytes);
+        };
+      case FLOAT:
+        return (record, path, in) -> Field.create(in.readFloat());
+      case INT:
+        return (record, path, in) -> Field.create(in.readInt());
+      case LONG:
+        return (record, path, in) -> Field.create(in.readLong());
+      case NULL:
+        Field.Type nullType = AvroTypeUtil.getFieldType(schema);
+        return (record, path, in) -> {
+          in.readNull();
+          return Field.create(nullType, null);
+        };
+      case STRING:
+        return (record, path, in) -> Field.create(in.readString());
+      default:
+        throw new IllegalStateException("Unexpected schema type " + schema.getType());
+    }
+  }
+
+  private static FieldDecoder compileLogicalType(Schema schema, String logicalType) {
+    FieldDecoder decoder;
+    switch (logicalType) {
+      case AvroTypeUtil.LOGICAL_TYPE_DECIMAL:
+        if (schema.getType() != Schema.Type.BYTES) {
+          return unexpectedPhysicalType("decimal", schema);
+        }
+        int scale = schema.getJsonProp(AvroTypeUtil.LOGICAL_TYPE_ATTR_SCALE).asInt();
+        String scaleAttribute = String.valueOf(scale);
+        String precisionAttribute =
+            String.valueOf(schema.getJsonProp(AvroTypeUtil.LOGICAL_TYPE_ATTR_PRECISION).asInt());
+        return (record, path, in) -> {
+          Field field = Field.create(new BigDecimal(new BigInteger(readBytes(in)), scale));
+          field.setAttribute(HeaderAttributeConstants.ATTR_SCALE, scaleAttribute);
+          field.setAttribute(HeaderAttributeConstants.ATTR_PRECISION, precisionAttribute);
+          field.setAttribute(AvroTypeUtil.FIELD_ATTRIBUTE_TYPE, logicalType);
+          return field;
+        };
+      case AvroTypeUtil.LOGICAL_TYPE_DATE:
+        if (schema.getType() != Schema.Type.INT) {
+          return unexpectedPhysicalType("date", schema);
+        }
+        decoder = (record, path, in) -> Field.createDate(new Date(AvroTypeUtil.daysToMillis(in.readInt())));
+        break;
+      case AvroTypeUtil.LOGICAL_TYPE_TIME_MILLIS:
+        if (schema.getType() != Schema.Type.INT) {
+          return unexpectedPhysicalType("time millis", schema);
+        }
+        decoder = (record, path, in) -> Field.create(Field.Type.TIME, (long) in.readInt());
+        break;
+      case AvroTypeUtil.LOGICAL_TYPE_TIMESTAMP_MILLIS:
+        if (schema.getType() != Schema.Type.LONG) {
+          return unexpectedPhysicalType("timestamp millis", schema);
+        }
+        decoder = (record, path, in) -> Field.create(Field.Type.DATETIME, in.readLong());
+        break;
+      case AvroTypeUtil.LOGICAL_TYPE_TIME_MICROS:
+      case AvroTypeUtil.LOGICAL_TYPE_TIMESTAMP_MICROS:
+        if (schema.getType() != Schema.Type.LONG) {
+          return unexpectedPhysicalType(
+              logicalType.equals(AvroTypeUtil.LOGICAL_TYPE_TIME_MICROS) ? "time micros" : "timestamp micros",
+              schema
+          );
+        }
+        // We don't have a better type to represent microseconds
+        decoder = (record, path, in) -> Field.create(in.readLong());
+        break;
+      default:
+        return null;
+    }
+    return (record, path, in) -> {
+      Field field = decoder.decode(record, path, in);
+      field.setAttribute(AvroTypeUtil.FIELD_ATTRIBUTE_TYPE, logicalType);
+      return field;
+    };
+  }
+
+  private static FieldDecoder unexpectedPhysicalType(String logicalType, Schema schema) {
+    return (record, path, in) -> {
+      throw new IllegalStateException(
+          "Unexpected physical type for logical " + logicalType + " type: " + schema.getType()
+      );
+    };
+  }
+
+  private static FieldDecoder compileUnion(Schema schema, Map<String, FieldDecoder> records) {
+    List<Schema> unionTypes = schema.getTypes();
+    FieldDecoder[] branches = new FieldDecoder[unionTypes.size()];
+    for (int i = 0; i < branches.length; i++) {
+      branches[i] = compile(unionTypes.get(i), records);
+    }
+    // Special case for unions of [null, actual type], nulls are typed after the actual type
+    Field.Type nullType = unionTypes.size() == 2 && unionTypes.get(0).getType() == Schema.Type.NULL ?
+        AvroTypeUtil.getFieldType(unionTypes.get(1)) : null;
+    return (record, path, in) -> {
+      int typeIndex = in.readIndex();
+      if (typeIndex == 0 && nullType != null) {
+        in.readNull();
+        return Field.create(nullType, null);
+      }
+      if (record != null) {
+        record.getHeader().setAttribute(AvroTypeUtil.AVRO_UNION_TYPE_INDEX_PREFIX + path, String.valueOf(typeIndex));
+      }
+      return branches[typeIndex].decode(record, path, in);
+    };
+  }
+
+  private static FieldDecoder compileRecord(Schema schema, Map<String, FieldDecoder> records) {
+    FieldDecoder compiled = records.get(schema.getFullName());
+    if (compiled != null) {
+      return compiled;
+    }
+    List<Schema.Field> fields = schema.getFields();
+    String[] names = new String[fields.size()];
+    String[] fieldPaths = new String[fields.size()];
+    FieldDecoder[] decoders = new FieldDecoder[fields.size()];
+    FieldDecoder decoder = (record, path, in) -> {
+      Map<String, Field> map = new HashMap<>();
+      if (in instanceof ResolvingDecoder) {
+        for (Schema.Field field : ((ResolvingDecoder) in).readFieldOrder()) {
+          int pos = field.pos();
+          map.put(names[pos], decoders[pos].decode(record, fieldPath(path, fieldPaths[pos]), in));
+        }
+      } else {
+        for (int pos = 0; pos < decoders.length; pos++) {
+          map.put(names[pos], decoders[pos].decode(record, fieldPath(path, fieldPaths[pos]), in));
+        }
+      }
+      return Field.create(map);
+    };
+    records.put(schema.getFullName(), decoder);
+    for (Schema.Field field : fields) {
+      names[field.pos()] = field.name();
+      fieldPaths[field.pos()] = AvroTypeUtil.hasUnion(field.schema()) ? "/" + field.name() : null;
+      decoders[field.pos()] = compile(field.schema(), records);
+    }
+    return decoder;
+  }
+
+  private static String fieldPath(String path, String relativePath) {
+    return relativePath == null ? null : path + relativePath;
+  }
+
+  private static byte[] readBytes(Decoder in) throws IOException {
+    ByteBuffer buffer = in.readBytes(null);
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.StageException;
+import com.streamsets.pipeline.lib.generator.DataGeneratorException;
+import com.streamsets.pipeline.lib.generator.avro.Errors;
+import org.apache.avro.Schema;
+import org.apache.avro.UnresolvedUnionException;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Encodes records to Avro binary data straight from their {@link Field}s, without building generic Avro objects
+ * first.
+ * <p/>
+ * The data is the same {@link AvroTypeUtil#sdcRecordToAvro(Record, Schema, Map)} converts the record to, unions are
+ * resolved with the record's union type index header attributes and missing fields get the schema's default values.
+ * An encoding plan is compiled once per schema and shared by all writers.
+ */
+public class AvroFieldWriter {
+
+  private static final Cache<Schema, FieldEncoder> PLANS = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+  private final Schema schema;
+  private final Map<String, Object> defaultValueMap;
+  private FieldEncoder plan;
+
+  /**
+   * @param schema schema to write the records with.
+   * @param defaultValueMap default values of the schema, see {@link AvroTypeUtil#getDefaultValuesFromSchema}.
+   */
+  public AvroFieldWriter(Schema schema, Map<String, Object> defaultValueMap) {
+    this.schema = schema;
+    this.defaultValueMap = defaultValueMap;
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Writes the root field of the record.
+   */
+  public void write(Record record, Encoder out) throws StageException, IOException {
+    if (plan == null) {
+      try {
+        plan = PLANS.get(schema, () -> compile(schema, null, new HashMap<>()));
+      } catch (ExecutionException ex) {
+        throw new IOException(ex.getCause());
+      }
+    }
+    plan.encode(this, record, record.get(), "", out);
+  }
+
+  /**
+   * Encodes one value, <code>path</code> is the value's field path in the Avro data, null if there is no union within
+   * the value. Null fields are encoded as Avro nulls.
+   */
+  private interface FieldEncoder {
+    void encode(AvroFieldWriter writer, Record record, Field field, String path, Encoder out)
+        throws StageException, IOException;
+  }
+
+  /**
+   * Encodes one non null value.
+   */
+  private interface ValueEncoder {
+    void encode(AvroFieldWriter writer, Record record, Field field, String path, Encoder out)
+        throws StageException, IOException;
+  }
+
+  /**
+   * Compiles the encoder of the given schema, <code>recordField</code> is the record field the schema is the one
+   * of, if any. <code>records</code> holds the encoders of the records being compiled to allow recursive schemas.
+   */
+  private static FieldEncoder compile(Schema schema, Schema.Field recordField, Map<String, FieldEncoder> records) {
+    if (schema.getType() == Schema.Type.UNION) {
+      return compileUnion(schema, records);
+    }
+    if (schema.getType() == Schema.Type.RECORD && records.containsKey(schema.getFullName())) {
+      return records.get(schema.getFullName());
+    }
+    ValueEncoder encoder = compileValue(schema, recordField, records);
+    Schema.Type type = schema.getType();
+    return (writer, record, field, path, out) -> {
+      if (field == null || field.getValue() == null) {
+        if (type != Schema.Type.NULL) {
+          throw new NullPointerException("null of " + type.getName() + " in " + path);
+        }
+        out.writeNull();
+      } else {
+        encoder.encode(writer, record, field, path, out);
+      }
+    };
+  }
+
+  private static ValueEncoder compileValue(
+      Schema schema,
+      Schema.Field recordField,
+      Map<String, FieldEncoder> records
+  ) {
+    // Logical types can be set on the record field instead of the field's schema
+    String logicalType = schema.getProp(AvroTypeUtil.LOGICAL_TYPE);
+    if (logicalType == null && recordField != null) {
+      logicalType = recordField.getProp(AvroTypeUtil.LOGICAL_TYPE);
+    }
+    if (logicalType != null && !logicalType.isEmpty()) {
+      ValueEncoder encoder = compileLogicalType(schema, logicalType);
+      if (encoder != null) {
+        return encoder;
+      }
+    }
+
+    switch (schema.getType()) {
+      case RECORD:
+        return compileRecord(schema, records);
+      case ARRAY:
+        FieldEncoder elementEncoder = compile(schema.getElementType(), null, records);
+        boolean elementPath = AvroTypeUtil.hasUnion(schema.getElementType());
+        return (writer, record, field, path, out) -> {
+          List<Field> list = field.getValueAsList();
+          out.writeArrayStart();
+          out.setItemCount(list.size());
+          for (int i = 0; i < list.size(); i++) {
+            out.startItem();
+            elementEncoder.encode(writer, record, list.get(i), elementPath ? path + "[" + i + "]" : null, out);
+          }
+          out.writeArrayEnd();
+        };
+      case MAP:
+        FieldEncoder valueEncoder = compile(schema.getValueType(), null, records);
+        boolean valuePath = AvroTypeUtil.hasUnion(schema.getValueType());
+        return (writer, record, field, path, out) -> {
+          Map<String, Field> map = field.getValueAsMap();
+          out.writeMapStart();
+          out.setItemCount(map.size());
+          for (Map.Entry<String, Field> entry : map.entrySet()) {
+            out.startItem();
+            out.writeString(entry.getKey());
+            valueEncoder.encode(writer, record, entry.getValue(), valuePath ? path + "/" + entry.getKey() : null, out);
+          }
+          out.writeMapEnd();
+        };
+      case BOOLEAN:
+        return (writer, record, field, path, out) -> out.writeBoolean(field.getValueAsBoolean());
+      case BYTES:
+        return (writer, record, field, path, out) -> out.writeBytes(field.getValueAsByteArray());
+      case DOUBLE:
+        return (writer, record, field, path, out) -> out.writeDouble(field.getValueAsDouble());
+      case ENUM:
+        return (writer, record, field, path, out) -> out.writeEnum(schema.getEnumOrdinal(field.getValueAsString()));
+      case FIXED:
+        int size = schema.getFixedSize();
+        return (writer, record, field, path, out) -> out.writeFixed(field.getValueAsByteArray(), 0, size);
+      case FLOAT:
+        return (writer, record, field, path, out) -> out.writeFloat(field.getValueAsFloat());
+      case INT:
+        return (writer, record, field, path, out) -> out.writeInt(field.getValueAsInteger());
+      case LONG:
+        return (writer, record, field, path, out) -> out.writeLong(field.getValueAsLong());
+      case NULL:
+        return (writer, record, field, path, out) -> out.writeNull();
+      case STRING:
+        return (writer, record, field, path, out) -> out.writeString(field.getValueAsString());
+      default:
+        throw new IllegalStateException("Unexpected schema type " + schema.getType());
+    }
+  }
+
+  private static ValueEncoder compileLogicalType(Schema schema, String logicalType) {
+    Schema.Type expected;
+    ValueEncoder encoder;
+    switch (logicalType) {
+      case AvroTypeUtil.LOGICAL_TYPE_DECIMAL:
+        expected = Schema.Type.BYTES;
+        encoder = (writer, record, field, path, out) ->
+            out.writeBytes(field.getValueAsDecimal().unscaledValue().toByteArray());
+        break;
+      case AvroTypeUtil.LOGICAL_TYPE_DATE:
+        expected = Schema.Type.INT;
+        encoder = (writer, record, field, path, out) ->
+            out.writeInt(AvroTypeUtil.millisToDays(field.getValueAsDate().getTime()));
+        break;
+      case AvroTypeUtil.LOGICAL_TYPE_TIME_MILLIS:
+        expected = Schema.Type.INT;
+        encoder = (writer, record, field, path, out) -> out.writeInt((int) field.getValueAsTime().getTime());
+        break;
+      case AvroTypeUtil.LOGICAL_TYPE_TIMESTAMP_MILLIS:
+        expected = Schema.Type.LONG;
+        encoder = (writer, record, field, path, out) -> out.writeLong(field.getValueAsDatetime().getTime());
+        break;
+      case AvroTypeUtil.LOGICAL_TYPE_TIME_MICROS:
+      case AvroTypeUtil.LOGICAL_TYPE_TIMESTAMP_MICROS:
+        expected = Schema.Type.LONG;
+        encoder = (writer, record, field, path, out) -> out.writeLong(field.getValueAsLong());
+        break;
+      default:
+        return null;
+    }
+    if (schema.getType() != expected) {
+      return (writer, record, field, path, out) -> {
+        throw new IllegalStateException(
+            "Unexpected physical type for logical " + logicalType + " type: " + schema.getType()
+        );
+      };
+    }
+    return encoder;
+  }
+
+  private static FieldEncoder compileUnion(Schema schema, Map<String, FieldEncoder> records) {
+    List<Schema> unionTypes = schema.getTypes();
+    FieldEncoder[] branches = new FieldEncoder[unionTypes.size()];
+    int nullIndex = -1;
+    for (int i = 0; i < branches.length; i++) {
+      Schema unionType = unionTypes.get(i);
+      if (unionType.getType() == Schema.Type.NULL) {
+        nullIndex = i;
+      }
+      branches[i] = compile(unionType, null, records);
+    }
+    int nullTypeIndex = nullIndex;
+    return (writer, record, field, path, out) -> {
+      if (field == null || field.getValue() == null) {
+        if (nullTypeIndex < 0) {
+          throw new UnresolvedUnionException(schema, null);
+        }
+        out.writeIndex(nullTypeIndex);
+        out.writeNull();
+      } else {
+        int typeIndex = AvroTypeUtil.resolveUnionIndex(record, field, path, schema);
+        out.writeIndex(typeIndex);
+        branches[typeIndex].encode(writer, record, field, path, out);
+      }
+    };
+  }
+
+  private static ValueEncoder compileRecord(Schema schema, Map<String, FieldEncoder> records) {
+    List<Schema.Field> fields = schema.getFields();
+    RecordFieldEncoder[] encoders = new RecordFieldEncoder[fields.size()];
+    ValueEncoder encoder = (writer, record, field, path, out) -> {
+      Map<String, Field> map = field.getValueAsMap();
+      for (RecordFieldEncoder fieldEncoder : encoders) {
+        fieldEncoder.encode(writer, record, map, path, out);
+      }
+    };
+    // null records are encoded by the field encoder, records are never null within themselves
+    records.put(schema.getFullName(), (writer, record, field, path, out) -> {
+      if (field == null || field.getValue() == null) {
+        throw new NullPointerException("null of record in " + path);
+      }
+      encoder.encode(writer, record, field, path, out);
+    });
+    for (Schema.Field field : fields) {
+      encoders[field.pos()] = new RecordFieldEncoder(schema, field, compile(field.schema(), field, records));
+    }
+    return encoder;
+  }
+
+  /**
+   * Encodes a field of a record, with its default value if the record does not have it.
+   */
+  private static class RecordFieldEncoder {
+    private final String name;
+    private final String relativePath;
+    private final String defaultValueKey;
+    private final Schema schema;
+    private final boolean nullable;
+    private final FieldEncoder encoder;
+    // built upfront, encoders are shared by the threads using the same schema
+    private final DatumWriter<Object> defaultValueWriter;
+
+    RecordFieldEncoder(Schema recordSchema, Schema.Field field, FieldEncoder encoder) {
+      this.name = field.name();
+      this.relativePath = AvroTypeUtil.hasUnion(field.schema()) ? "/" + field.name() : null;
+      this.defaultValueKey = recordSchema.getFullName() + AvroTypeUtil.SCHEMA_PATH_SEPARATOR + field.name();
+      this.schema = field.schema();
+      // DatumWriter can handle writing null value for the Union and Null types
+      this.nullable = schema.getType() == Schema.Type.UNION || schema.getType() == Schema.Type.NULL;
+      this.encoder = encoder;
+      this.defaultValueWriter = new GenericDatumWriter<>(schema);
+    }
+
+    void encode(AvroFieldWriter writer, Record record, Map<String, Field> map, String path, Encoder out)
+        throws StageException, IOException {
+      Map<String, Object> defaultValueMap = writer.defaultValueMap;
+      // If the record does not contain the field, use the default value from the schema.
+      // If no default value was specified for the field and record does not contain it, then it is an error record.
+      if (!map.containsKey(name)) {
+        if (!defaultValueMap.containsKey(defaultValueKey)) {
+          throw new DataGeneratorException(Errors.AVRO_GENERATOR_00, record.getHeader().getSourceId(), defaultValueKey);
+        }
+        writeDefaultValue(defaultValueMap.get(defaultValueKey), out);
+        return;
+      }
+      Field field = map.get(name);
+      if (field == null || field.getValue() == null) {
+        // If value in record is null and there is no default value specified, send to error.
+        if (defaultValueMap.containsKey(defaultValueKey)) {
+          writeDefaultValue(defaultValueMap.get(defaultValueKey), out);
+          return;
+        } else if (!nullable) {
+          throw new DataGeneratorException(Errors.AVRO_GENERATOR_01, record.getHeader().getSourceId(), defaultValueKey);
+        }
+      }
+      encoder.encode(writer, record, field, relativePath == null ? null : path + relativePath, out);
+    }
+
+    private void writeDefaultValue(Object value, Encoder out) throws IOException {
+      defaultValueWriter.write(value, out);
+    }
+  }
+
+}
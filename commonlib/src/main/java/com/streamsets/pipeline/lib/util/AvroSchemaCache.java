@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.avro.Schema;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Process wide cache of the Avro schemas records carry in their headers.
+ * <p/>
+ * Parsing a schema and collecting its default values is expensive compared to writing a record, the cache keeps the
+ * parsed schema, its default values and a {@link AvroFieldWriter} for it, keyed by the schema's JSON. All generators
+ * share the entries, they are immutable.
+ */
+public final class AvroSchemaCache {
+
+  private static final Cache<String, Entry> SCHEMAS = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+  private AvroSchemaCache() {}
+
+  /**
+   * Parsed schema and what is derived from it.
+   */
+  public static final class Entry {
+    private final String json;
+    private final Schema schema;
+    private final Map<String, Object> defaultValues;
+    private final AvroFieldWriter writer;
+
+    private Entry(String json) throws IOException {
+      this.json = json;
+      schema = AvroTypeUtil.parseSchema(json);
+      defaultValues = Collections.unmodifiableMap(
+          AvroTypeUtil.getDefaultValuesFromSchema(schema, new HashSet<String>())
+      );
+      writer = new AvroFieldWriter(schema, defaultValues);
+    }
+
+    public String getJson() {
+      return json;
+    }
+
+    public Schema getSchema() {
+      return schema;
+    }
+
+    /**
+     * Returns the schema default values, see {@link AvroTypeUtil#getDefaultValuesFromSchema}.
+     */
+    public Map<String, Object> getDefaultValues() {
+      return defaultValues;
+    }
+
+    /**
+     * Returns a writer for the schema and its default values, it can be used by several threads.
+     */
+    public AvroFieldWriter getWriter() {
+      return writer;
+    }
+  }
+
+  /**
+   * Returns the entry of the given JSON schema, parsing it if it is not cached.
+   *
+   * @throws IOException if the default values of the schema can't be read.
+   * @throws org.apache.avro.SchemaParseException if the schema is not valid.
+   */
+  public static Entry get(String json) throws IOException {
+    try {
+      return SCHEMAS.get(json, () -> new Entry(json));
+    } catch (ExecutionException ex) {
+      throw new IOException(ex.getCause());
+    } catch (UncheckedExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw ex;
+    }
+  }
+
+}
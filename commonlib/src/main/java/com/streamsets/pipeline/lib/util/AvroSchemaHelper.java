@@ -34,6 +34,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
@@ -77,6 +79,9 @@ public class AvroSchemaHelper {
 
   private final Cache<String, Integer> schemaIdCache;
 
+  // Schemas never change for a given id, lookups for ids already seen don't reach the (synchronized) registry client
+  private final ConcurrentMap<Integer, Schema> schemasById = new ConcurrentHashMap<>();
+
   /**
    * AvroSchemaHelper constructor. DataFactory settings should be passed in for parsing.
    * @param settings DataFactory settings.
@@ -192,11 +197,19 @@ public class AvroSchemaHelper {
    * @throws SchemaRegistryException if there is an error with the registry client
    */
   public Schema loadFromRegistry(int id) throws SchemaRegistryException {
-    try {
-      return registryClient.getByID(id);
-    } catch (IOException | RestClientException e) {
-      throw new SchemaRegistryException(e);
+    Schema schema = schemasById.get(id);
+    if (schema == null) {
+      try {
+        schema = registryClient.getByID(id);
+      } catch (IOException | RestClientException e) {
+        throw new SchemaRegistryException(e);
+      }
+      Schema previous = schemasById.putIfAbsent(id, schema);
+      if (previous != null) {
+        schema = previous;
+      }
     }
+    return schema;
   }
 
   /**
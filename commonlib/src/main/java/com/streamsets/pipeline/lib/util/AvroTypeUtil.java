@@ -42,6 +42,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -115,7 +116,7 @@ public class AvroTypeUtil {
    *
    * This function has been copied from Apache Hive project.
    */
-  private static int millisToDays(long millisLocal) {
+  static int millisToDays(long millisLocal) {
     // We assume millisLocal is midnight of some date. What we are basically trying to do
     // here is go from local-midnight to UTC-midnight (or whatever time that happens to be).
     long millisUtc = millisLocal + localTimeZone.getOffset(millisLocal);
@@ -334,44 +335,7 @@ public class AvroTypeUtil {
     }
     Object obj;
     if (schema.getType() == Schema.Type.UNION) {
-      String fieldPathAttribute = record.getHeader().getAttribute(AVRO_UNION_TYPE_INDEX_PREFIX + avroFieldPath);
-      List<Schema> unionTypes = schema.getTypes();
-
-      if (fieldPathAttribute != null && !fieldPathAttribute.isEmpty()) {
-        int typeIndex = Integer.parseInt(fieldPathAttribute);
-        schema = unionTypes.get(typeIndex);
-      } else if(unionTypes.size() == 2 && unionTypes.get(0).getType() == Schema.Type.NULL) {
-        // Special case where we have union of null and actual type (which is very common) - since we know that the
-        // column is not null, expect the union's second type.
-        schema = unionTypes.get(1);
-      } else {
-        //Record does not have the avro union type index which means this record was not created from avro data.
-        //try our best to resolve the union type.
-        Object object = JsonUtil.fieldToJsonObject(record, field);
-
-        // Avro GenericData expects certain encoding for some types
-        if(field.getType() == Field.Type.DECIMAL || field.getType() ==  Field.Type.BYTE_ARRAY) {
-          object = ByteBuffer.wrap(new byte[]{});
-        }
-        if(field.getType() == Field.Type.DATE) {
-          object = 0;
-        }
-
-        try {
-          int typeIndex = GenericData.get().resolveUnion(schema, object);
-          schema = schema.getTypes().get(typeIndex);
-        } catch (AvroRuntimeException e) {
-          //Avro could not resolve schema. Make a best effort resolve
-          Schema match = bestEffortResolve(schema, field, object);
-          if(match == null) {
-            String objectType = object == null ? "null" : object.getClass().getName();
-            throw new StageException(CommonError.CMN_0106, avroFieldPath, field.getType().name(), objectType, e.toString(),
-                e);
-          } else {
-            schema = match;
-          }
-        }
-      }
+      schema = schema.getTypes().get(resolveUnionIndex(record, field, avroFieldPath, schema));
     }
 
     // Logical types
@@ -537,7 +501,83 @@ public class AvroTypeUtil {
     return obj;
   }
 
-  private static Field.Type getFieldType(Schema schema) {
+  /**
+   * Returns the index of the union type the given non null field is to be written as.
+   */
+  static int resolveUnionIndex(
+      Record record,
+      Field field,
+      String avroFieldPath,
+      Schema schema
+  ) throws StageException {
+    String fieldPathAttribute = record.getHeader().getAttribute(AVRO_UNION_TYPE_INDEX_PREFIX + avroFieldPath);
+    List<Schema> unionTypes = schema.getTypes();
+
+    if (fieldPathAttribute != null && !fieldPathAttribute.isEmpty()) {
+      return Integer.parseInt(fieldPathAttribute);
+    } else if(unionTypes.size() == 2 && unionTypes.get(0).getType() == Schema.Type.NULL) {
+      // Special case where we have union of null and actual type (which is very common) - since we know that the
+      // column is not null, expect the union's second type.
+      return 1;
+    }
+    //Record does not have the avro union type index which means this record was not created from avro data.
+    //try our best to resolve the union type.
+    Object object = JsonUtil.fieldToJsonObject(record, field);
+
+    // Avro GenericData expects certain encoding for some types
+    if(field.getType() == Field.Type.DECIMAL || field.getType() ==  Field.Type.BYTE_ARRAY) {
+      object = ByteBuffer.wrap(new byte[]{});
+    }
+    if(field.getType() == Field.Type.DATE) {
+      object = 0;
+    }
+
+    try {
+      return GenericData.get().resolveUnion(schema, object);
+    } catch (AvroRuntimeException e) {
+      //Avro could not resolve schema. Make a best effort resolve
+      Schema match = bestEffortResolve(schema, field, object);
+      if(match == null) {
+        String objectType = object == null ? "null" : object.getClass().getName();
+        throw new StageException(CommonError.CMN_0106, avroFieldPath, field.getType().name(), objectType, e.toString(),
+            e);
+      }
+      return unionTypes.indexOf(match);
+    }
+  }
+
+  /**
+   * Returns whether data of the given schema can contain unions.
+   */
+  static boolean hasUnion(Schema schema) {
+    return hasUnion(schema, new HashSet<>());
+  }
+
+  private static boolean hasUnion(Schema schema, Set<String> visitedRecords) {
+    switch (schema.getType()) {
+      case UNION:
+        return true;
+      case ARRAY:
+        return hasUnion(schema.getElementType(), visitedRecords);
+      case MAP:
+        return hasUnion(schema.getValueType(), visitedRecords);
+      case RECORD:
+        // a record within itself has the same fields, they are already being checked
+        if (!visitedRecords.add(schema.getFullName())) {
+          return false;
+        }
+        for (Schema.Field field : schema.getFields()) {
+          if (hasUnion(field.schema(), visitedRecords)) {
+            return true;
+          }
+        }
+        return false;
+      default:
+        return false;
+    }
+  }
+
+  static Field.Type getFieldType(Schema schema) {
     String logicalType = schema.getProp(LOGICAL_TYPE);
     if(logicalType != null && !logicalType.isEmpty()) {
       switch (logicalType) {
@@ -0,0 +1,1071 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.ExtensionRegistry;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.UninitializedMessageException;
+import com.google.protobuf.UnknownFieldSet;
+import com.google.protobuf.WireFormat;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.Utils;
+import com.streamsets.pipeline.lib.generator.DataGeneratorException;
+import com.streamsets.pipeline.lib.parser.DataParserException;
+import com.streamsets.pipeline.lib.parser.protobuf.Errors;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes protobuf wire format straight from and to {@link Field}s, without building {@link DynamicMessage}s.
+ * <p/>
+ * The fields read are the ones {@link ProtobufTypeUtil#protobufToSdcField} creates from the parsed message, and the
+ * data written is the serialized message {@link ProtobufTypeUtil#sdcFieldToProtobufMsg} creates, including
+ * extensions, default values and the unknown fields kept in the record header.
+ * <p/>
+ * A codec is compiled once for a message type and the message types it references, it can be used by several
+ * threads.
+ */
+public class ProtobufFieldCodec {
+  private static final String FORWARD_SLASH = "/";
+  private static final String KEY = "key";
+  private static final String VALUE = "value";
+  // same as CodedInputStream's default
+  private static final int RECURSION_LIMIT = 100;
+  // field numbers up to this one are looked up in an array
+  private static final int MAX_INDEXED_FIELD_NUMBER = 1024;
+  // lower 3 bits of a tag
+  private static final int TAG_TYPE_MASK = 7;
+
+  private final Map<String, Set<Descriptors.FieldDescriptor>> messageTypeToExtensionMap;
+  private final Map<String, Object> defaultValueMap;
+  // only used for groups, which are read as dynamic messages
+  private final ExtensionRegistry extensionRegistry;
+  private final Map<Descriptors.Descriptor, MessageCodec> messageCodecs = new HashMap<>();
+  private final MessageCodec rootCodec;
+
+  /**
+   * @param descriptor message type of the data.
+   * @param messageTypeToExtensionMap protobuf extensions by message type.
+   * @param defaultValueMap protobuf default field values.
+   */
+  public ProtobufFieldCodec(
+      Descriptors.Descriptor descriptor,
+      Map<String, Set<Descriptors.FieldDescriptor>> messageTypeToExtensionMap,
+      Map<String, Object> defaultValueMap
+  ) {
+    this.messageTypeToExtensionMap = messageTypeToExtensionMap;
+    this.defaultValueMap = defaultValueMap;
+    extensionRegistry = ExtensionRegistry.newInstance();
+    for (Set<Descriptors.FieldDescriptor> extensions : messageTypeToExtensionMap.values()) {
+      for (Descriptors.FieldDescriptor extension : extensions) {
+        extensionRegistry.add(extension);
+      }
+    }
+    rootCodec = compile(descriptor);
+  }
+
+  public Descriptors.Descriptor getDescriptor() {
+    return rootCodec.descriptor;
+  }
+
+  private MessageCodec compile(Descriptors.Descriptor descriptor) {
+    MessageCodec codec = messageCodecs.get(descriptor);
+    if (codec == null) {
+      codec = new MessageCodec(descriptor);
+      // registered before compiling the fields to allow recursive message types
+      messageCodecs.put(descriptor, codec);
+      codec.compileFields();
+    }
+    return codec;
+  }
+
+  /**
+   * Reads a message until the end of the input.
+   *
+   * @param record record the message is read for, unknown fields are kept in its header.
+   * @param in message data.
+   * @return the message as a <code>MAP</code> field.
+   * @throws UninitializedMessageException if the message misses required fields.
+   */
+  public Field read(Record record, CodedInputStream in) throws IOException, DataParserException {
+    MessageState state = new MessageState(rootCodec);
+    readMessage(state, in, 0);
+    in.checkLastTagWas(0);
+    List<String> missingFields = new ArrayList<>();
+    findMissingFields(state, "", missingFields);
+    if (!missingFields.isEmpty()) {
+      throw new UninitializedMessageException(missingFields);
+    }
+    return toField(state, record, new StringBuilder());
+  }
+
+  /**
+   * Writes the root field of the record as a message.
+   *
+   * @param record record to write.
+   * @param out stream to write the message to.
+   * @param delimited whether the message is preceded by its size.
+   */
+  public void write(Record record, OutputStream out, boolean delimited) throws IOException, DataGeneratorException {
+    WriteContext context = new WriteContext(record);
+    Field root = record.get();
+    if (root == null) {
+      throw new NullPointerException(Utils.format("Record '{}' has no root field", record.getHeader().getSourceId()));
+    }
+    MessageBuffer buffer = context.getBuffer(0);
+    writeMessage(context, rootCodec, root.getValueAsMap(), buffer.stream, 0);
+    buffer.stream.flush();
+    CodedOutputStream output = CodedOutputStream.newInstance(out, buffer.size() + 5);
+    if (delimited) {
+      output.writeUInt32NoTag(buffer.size());
+    }
+    buffer.writeTo(output);
+    output.flush();
+  }
+
+  /**
+   * Compiled message type.
+   */
+  private final class MessageCodec {
+    private final Descriptors.Descriptor descriptor;
+    private final boolean proto3;
+    // proto3 messages discard unknown fields
+    private final boolean keepUnknownFields;
+    // declared fields followed by the extensions, the index of a field is its slot
+    private FieldCodec[] fields;
+    private int declaredFields;
+    // fields by field number, the order they are serialized in
+    private FieldCodec[] writeOrder;
+    private FieldCodec[] fieldsByNumber;
+    private Map<Integer, FieldCodec> fieldsByLargeNumber;
+
+    private MessageCodec(Descriptors.Descriptor descriptor) {
+      this.descriptor = descriptor;
+      proto3 = descriptor.getFile().getSyntax() == Descriptors.FileDescriptor.Syntax.PROTO3;
+      keepUnknownFields = !proto3;
+    }
+
+    private void compileFields() {
+      List<Descriptors.FieldDescriptor> descriptors = new ArrayList<>(descriptor.getFields());
+      declaredFields = descriptors.size();
+      Set<Descriptors.FieldDescriptor> extensions = messageTypeToExtensionMap.get(descriptor.getFullName());
+      if (extensions != null) {
+        descriptors.addAll(extensions);
+      }
+      fields = new FieldCodec[descriptors.size()];
+      int maxNumber = 0;
+      for (int i = 0; i < fields.length; i++) {
+        fields[i] = new FieldCodec(this, descriptors.get(i), i);
+        maxNumber = Math.max(maxNumber, fields[i].number);
+      }
+      fieldsByNumber = new FieldCodec[Math.min(maxNumber, MAX_INDEXED_FIELD_NUMBER) + 1];
+      fieldsByLargeNumber = new HashMap<>();
+      for (FieldCodec field : fields) {
+        if (field.number < fieldsByNumber.length) {
+          fieldsByNumber[field.number] = field;
+        } else {
+          fieldsByLargeNumber.put(field.number, field);
+        }
+      }
+      writeOrder = Arrays.copyOf(fields, fields.length);
+      Arrays.sort(writeOrder, Comparator.comparingInt(field -> field.number));
+      // compiled last, referenced message types may refer back to this one
+      for (FieldCodec field : fields) {
+        field.compileReferences();
+      }
+    }
+
+    private FieldCodec getField(int number) {
+      return number < fieldsByNumber.length ? fieldsByNumber[number] : fieldsByLargeNumber.get(number);
+    }
+
+    private boolean isExtension(FieldCodec field) {
+      return field.slot >= declaredFields;
+    }
+  }
+
+  /**
+   * Compiled field of a message type.
+   */
+  private final class FieldCodec {
+    private final Descriptors.FieldDescriptor descriptor;
+    private final int slot;
+    private final int number;
+    private final String name;
+    private final Descriptors.FieldDescriptor.Type type;
+    private final Descriptors.FieldDescriptor.JavaType javaType;
+    private final int wireType;
+    private final boolean repeated;
+    private final boolean packable;
+    private final boolean packed;
+    private final boolean mapField;
+    private final boolean required;
+    private final boolean optional;
+    private final boolean proto3;
+    // index of the field's oneof in its message type, -1 if it isn't part of one
+    private final int oneof;
+    // proto3 singular fields set to their default value are cleared
+    private final boolean clearDefault;
+    private final Object defaultValue;
+    private final byte[] defaultBytes;
+    private final String defaultValueKey;
+    private MessageCodec messageCodec;
+    private FieldCodec mapKey;
+    private FieldCodec mapValue;
+
+    private FieldCodec(MessageCodec message, Descriptors.FieldDescriptor descriptor, int slot) {
+      this.descriptor = descriptor;
+      this.slot = slot;
+      number = descriptor.getNumber();
+      name = descriptor.getName();
+      type = descriptor.getType();
+      javaType = descriptor.getJavaType();
+      wireType = descriptor.getLiteType().getWireType();
+      repeated = descriptor.isRepeated();
+      packable = repeated && descriptor.isPackable();
+      packed = descriptor.isPacked();
+      mapField = descriptor.isMapField();
+      required = descriptor.isRequired();
+      optional = descriptor.isOptional();
+      proto3 = message.proto3;
+      oneof = descriptor.getContainingOneof() != null ? descriptor.getContainingOneof().getIndex() : -1;
+      clearDefault = proto3 && !repeated && oneof < 0 && javaType != Descriptors.FieldDescriptor.JavaType.MESSAGE;
+      defaultValue = javaType != Descriptors.FieldDescriptor.JavaType.MESSAGE ? descriptor.getDefaultValue() : null;
+      defaultBytes = defaultValue instanceof ByteString ? ((ByteString) defaultValue).toByteArray() : null;
+      defaultValueKey = message.descriptor.getFullName() + "." + name;
+    }
+
+    private void compileReferences() {
+      if (javaType == Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+        messageCodec = compile(descriptor.getMessageType());
+        if (mapField) {
+          mapKey = messageCodec.fields[descriptor.getMessageType().findFieldByName(KEY).getIndex()];
+          mapValue = messageCodec.fields[descriptor.getMessageType().findFieldByName(VALUE).getIndex()];
+        }
+      }
+    }
+
+    /**
+     * Field of a message without a value for this field.
+     */
+    private Field createAbsentField() throws DataParserException {
+      Object value = null;
+      // get default values only for optional fields and non-message types
+      if (optional && javaType != Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+        value = defaultValue;
+      }
+      return Field.create(ProtobufTypeUtil.getFieldType(javaType), value);
+    }
+
+    private boolean isDefault(Object value) {
+      if (value instanceof byte[]) {
+        return Arrays.equals((byte[]) value, defaultBytes);
+      }
+      if (value instanceof Descriptors.EnumValueDescriptor) {
+        return ((Descriptors.EnumValueDescriptor) value).getNumber()
+            == ((Descriptors.EnumValueDescriptor) defaultValue).getNumber();
+      }
+      return value.equals(defaultValue);
+    }
+
+    /**
+     * Reads a value with the given tag, returns false if the wire type is not the one of the field.
+     */
+    private boolean read(MessageState state, int tag, CodedInputStream in, int depth) throws IOException {
+      int tagWireType = tag & TAG_TYPE_MASK;
+      if (tagWireType == wireType) {
+        readValue(state, in, depth);
+        return true;
+      }
+      // parsers must accept packed and unpacked data for all packable fields
+      if (packable && tagWireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+        int limit = in.pushLimit(in.readRawVarint32());
+        while (in.getBytesUntilLimit() > 0) {
+          readValue(state, in, depth);
+        }
+        in.popLimit(limit);
+        return true;
+      }
+      return false;
+    }
+
+    private void readValue(MessageState state, CodedInputStream in, int depth) throws IOException {
+      Object value;
+      switch (type) {
+        case MESSAGE:
+          MessageState message = null;
+          if (!repeated && state.values[slot] instanceof MessageState) {
+            // a message field present more than once is merged
+            message = (MessageState) state.values[slot];
+          } else {
+            message = new MessageState(messageCodec);
+          }
+          if (depth >= RECURSION_LIMIT) {
+            throw new InvalidProtocolBufferException(
+                "Protocol message had too many levels of nesting.  May be malicious."
+            );
+          }
+          int limit = in.pushLimit(in.readRawVarint32());
+          readMessage(message, in, depth + 1);
+          in.checkLastTagWas(0);
+          in.popLimit(limit);
+          state.set(this, message);
+          return;
+        case GROUP:
+          DynamicMessage.Builder builder;
+          if (!repeated && state.values[slot] instanceof DynamicMessage) {
+            builder = ((DynamicMessage) state.values[slot]).toBuilder();
+          } else {
+            builder = DynamicMessage.newBuilder(descriptor.getMessageType());
+          }
+          in.readGroup(number, builder, extensionRegistry);
+          state.set(this, builder.build());
+          return;
+        case ENUM:
+          int rawValue = in.readEnum();
+          Descriptors.EnumValueDescriptor enumValue = descriptor.getEnumType().findValueByNumber(rawValue);
+          if (enumValue == null) {
+            if (!proto3) {
+              // unknown proto2 enum values are kept as unknown fields
+              state.getUnknownFields().mergeVarintField(number, rawValue);
+              return;
+            }
+            enumValue = descriptor.getEnumType().findValueByNumberCreatingIfUnknown(rawValue);
+          }
+          value = enumValue;
+          break;
+        case STRING:
+          value = proto3 ? in.readStringRequireUtf8() : in.readString();
+          break;
+        case BYTES:
+          value = in.readByteArray();
+          break;
+        case BOOL:
+          value = in.readBool();
+          break;
+        case DOUBLE:
+          value = in.readDouble();
+          break;
+        case FLOAT:
+          value = in.readFloat();
+          break;
+        case INT32:
+          value = in.readInt32();
+          break;
+        case UINT32:
+          value = in.readUInt32();
+          break;
+        case SINT32:
+          value = in.readSInt32();
+          break;
+        case FIXED32:
+          value = in.readFixed32();
+          break;
+        case SFIXED32:
+          value = in.readSFixed32();
+          break;
+        case INT64:
+          value = in.readInt64();
+          break;
+        case UINT64:
+          value = in.readUInt64();
+          break;
+        case SINT64:
+          value = in.readSInt64();
+          break;
+        case FIXED64:
+          value = in.readFixed64();
+          break;
+        case SFIXED64:
+          value = in.readSFixed64();
+          break;
+        default:
+          throw new IllegalStateException(Utils.format("Unexpected field type '{}'", type));
+      }
+      if (clearDefault && isDefault(value)) {
+        state.values[slot] = null;
+      } else {
+        state.set(this, createScalarField(value));
+      }
+    }
+
+    private Field createScalarField(Object value) {
+      switch (javaType) {
+        case ENUM:
+          return Field.create(Field.Type.STRING, ((Descriptors.EnumValueDescriptor) value).getName());
+        case BOOLEAN:
+          return Field.create(Field.Type.BOOLEAN, value);
+        case BYTE_STRING:
+          return Field.create(Field.Type.BYTE_ARRAY, value);
+        case DOUBLE:
+          return Field.create(Field.Type.DOUBLE, value);
+        case FLOAT:
+          return Field.create(Field.Type.FLOAT, value);
+        case INT:
+          return Field.create(Field.Type.INTEGER, value);
+        case LONG:
+          return Field.create(Field.Type.LONG, value);
+        case STRING:
+          return Field.create(Field.Type.STRING, value);
+        default:
+          throw new IllegalStateException(Utils.format("Unexpected field type '{}'", javaType));
+      }
+    }
+
+    /**
+     * Creates the field of a value read, see {@link MessageState#values}.
+     */
+    @SuppressWarnings("unchecked")
+    private Field toField(Object value, Record record, StringBuilder path) throws DataParserException {
+      if (mapField) {
+        Map<String, Field> entries = new HashMap<>();
+        for (Object element : (List<Object>) value) {
+          MessageState entry = (MessageState) element;
+          Object key = entry.values[mapKey.slot];
+          Object entryValue = entry.values[mapValue.slot];
+          if (key != null && entryValue != null) {
+            entries.put(
+                ((Field) key).getValue().toString(),
+                mapValue.toSingleField(entryValue, record, path)
+            );
+          }
+        }
+        return Field.create(entries);
+      } else if (repeated) {
+        List<Object> elements = (List<Object>) value;
+        List<Field> list = new ArrayList<>(elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+          Object element = elements.get(i);
+          if (element instanceof Field) {
+            list.add((Field) element);
+          } else {
+            int length = path.length();
+            path.append('[').append(i).append(']');
+            list.add(toMessageField(element, record, path));
+            path.setLength(length);
+          }
+        }
+        return Field.create(list);
+      }
+      return toSingleField(value, record, path);
+    }
+
+    private Field toSingleField(Object value, Record record, StringBuilder path) throws DataParserException {
+      if (value instanceof Field) {
+        return (Field) value;
+      }
+      int length = path.length();
+      path.append(FORWARD_SLASH).append(name);
+      Field field = toMessageField(value, record, path);
+      path.setLength(length);
+      return field;
+    }
+
+    private Field toMessageField(Object value, Record record, StringBuilder path) throws DataParserException {
+      if (value instanceof DynamicMessage) {
+        return ProtobufTypeUtil.protobufToSdcField(
+            record,
+            path.toString(),
+            descriptor.getMessageType(),
+            messageTypeToExtensionMap,
+            value
+        );
+      }
+      return ProtobufFieldCodec.this.toField((MessageState) value, record, path);
+    }
+
+    /**
+     * Converts a field to the value of a singular field, or returns the field itself for messages and groups.
+     */
+    private Object toValue(Field field) throws DataGeneratorException {
+      if (field == null || field.getValue() == null) {
+        return null;
+      }
+      try {
+        switch (javaType) {
+          case BOOLEAN:
+            return field.getValueAsBoolean();
+          case BYTE_STRING:
+            return field.getValueAsByteArray();
+          case DOUBLE:
+            return field.getValueAsDouble();
+          case ENUM:
+            // unknown names leave the field unset
+            return descriptor.getEnumType().findValueByName(field.getValueAsString());
+          case FLOAT:
+            return field.getValueAsFloat();
+          case INT:
+            return field.getValueAsInteger();
+          case LONG:
+            return field.getValueAsLong();
+          case STRING:
+            return field.getValueAsString();
+          case MESSAGE:
+            return field;
+          default:
+            throw new DataGeneratorException(Errors.PROTOBUF_03, javaType.name());
+        }
+      } catch (IllegalArgumentException e) {
+        throw new DataGeneratorException(Errors.PROTOBUF_11, field.getValue(), javaType.name(), e);
+      }
+    }
+
+    /**
+     * Converts a map key to the value of the key field.
+     */
+    private Object toKeyValue(String key) throws DataGeneratorException {
+      try {
+        switch (javaType) {
+          case BOOLEAN:
+            return Boolean.parseBoolean(key);
+          case INT:
+            return Integer.parseInt(key);
+          case LONG:
+            return Long.parseLong(key);
+          default:
+            return key;
+        }
+      } catch (IllegalArgumentException e) {
+        throw new DataGeneratorException(Errors.PROTOBUF_11, key, javaType.name(), e);
+      }
+    }
+
+    /**
+     * Writes the value of the field, with the tag. The value is a converted value for singular fields, see
+     * {@link #toValue(Field)}, and the record field for repeated and map fields.
+     */
+    private void write(
+        WriteContext context,
+        Object value,
+        CodedOutputStream out,
+        int depth
+    ) throws IOException, DataGeneratorException {
+      if (mapField) {
+        writeMap(context, (Field) value, out, depth);
+      } else if (repeated) {
+        writeRepeated(context, (Field) value, out, depth);
+      } else if (javaType == Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+        int length = context.path.length();
+        context.path.append(FORWARD_SLASH).append(name);
+        Map<String, Field> message;
+        try {
+          message = ((Field) value).getValueAsMap();
+        } catch (IllegalArgumentException e) {
+          throw new DataGeneratorException(Errors.PROTOBUF_11, ((Field) value).getValue(), javaType.name(), e);
+        }
+        writeMessageValue(context, message, out, depth);
+        context.path.setLength(length);
+      } else {
+        writeScalar(value, out);
+      }
+    }
+
+    private void writeMap(
+        WriteContext context,
+        Field field,
+        CodedOutputStream out,
+        int depth
+    ) throws IOException, DataGeneratorException {
+      Map<String, Field> entries = field.getValueAsMap();
+      if (entries == null) {
+        return;
+      }
+      MessageBuffer buffer = context.getBuffer(depth + 1);
+      for (Map.Entry<String, Field> entry : entries.entrySet()) {
+        Object key = mapKey.toKeyValue(entry.getKey());
+        if (!(mapKey.clearDefault && mapKey.isDefault(key))) {
+          mapKey.writeScalar(key, buffer.stream);
+        }
+        Object value = mapValue.toValue(entry.getValue());
+        if (value instanceof Field) {
+          int length = context.path.length();
+          context.path.append(FORWARD_SLASH).append(entry.getKey());
+          mapValue.writeMessageValue(context, ((Field) value).getValueAsMap(), buffer.stream, depth + 1);
+          context.path.setLength(length);
+        } else if (value != null && !(mapValue.clearDefault && mapValue.isDefault(value))) {
+          mapValue.writeScalar(value, buffer.stream);
+        }
+        buffer.stream.flush();
+        out.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(buffer.size());
+        buffer.writeTo(out);
+        buffer.reset();
+      }
+    }
+
+    private void writeRepeated(
+        WriteContext context,
+        Field field,
+        CodedOutputStream out,
+        int depth
+    ) throws IOException, DataGeneratorException {
+      // null repeated fields are treated as empty lists
+      List<Field> elements = field.getValueAsList();
+      if (elements == null) {
+        elements = Collections.emptyList();
+      }
+      if (packed) {
+        Object[] values = new Object[elements.size()];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+          values[i] = toValue(elements.get(i));
+          checkElement(values[i], i);
+          size += computeScalarSizeNoTag(values[i]);
+        }
+        out.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(size);
+        for (Object value : values) {
+          writeScalarNoTag(value, out);
+        }
+        return;
+      }
+      for (int i = 0; i < elements.size(); i++) {
+        Field element = elements.get(i);
+        if (javaType == Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+          checkElement(element, i);
+          int length = context.path.length();
+          context.path.append(FORWARD_SLASH).append(name).append('[').append(i).append(']');
+          writeMessageValue(context, element.getValueAsMap(), out, depth);
+          context.path.setLength(length);
+        } else {
+          Object value = toValue(element);
+          checkElement(value, i);
+          writeScalar(value, out);
+        }
+      }
+    }
+
+    private void checkElement(Object value, int index) {
+      if (value == null) {
+        throw new NullPointerException(Utils.format("Element {} of repeated field '{}' is null", index, name));
+      }
+    }
+
+    /**
+     * Writes a message or group, the path of the message is in the context.
+     */
+    private void writeMessageValue(
+        WriteContext context,
+        Map<String, Field> message,
+        CodedOutputStream out,
+        int depth
+    ) throws IOException, DataGeneratorException {
+      if (type == Descriptors.FieldDescriptor.Type.GROUP) {
+        out.writeGroup(
+            number,
+            ProtobufTypeUtil.sdcFieldToProtobufMsg(
+                context.record,
+                Field.create(message),
+                context.path.toString(),
+                descriptor.getMessageType(),
+                messageTypeToExtensionMap,
+                defaultValueMap
+            )
+        );
+        return;
+      }
+      MessageBuffer buffer = context.getBuffer(depth + 1);
+      writeMessage(context, messageCodec, message, buffer.stream, depth + 1);
+      buffer.stream.flush();
+      out.writeTag(number, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+      out.writeUInt32NoTag(buffer.size());
+      buffer.writeTo(out);
+      buffer.reset();
+    }
+
+    private void writeScalar(Object value, CodedOutputStream out) throws IOException {
+      out.writeTag(number, wireType);
+      writeScalarNoTag(value, out);
+    }
+
+    private void writeScalarNoTag(Object value, CodedOutputStream out) throws IOException {
+      switch (type) {
+        case DOUBLE:
+          out.writeDoubleNoTag((Double) value);
+          break;
+        case FLOAT:
+          out.writeFloatNoTag((Float) value);
+          break;
+        case INT64:
+          out.writeInt64NoTag((Long) value);
+          break;
+        case UINT64:
+          out.writeUInt64NoTag((Long) value);
+          break;
+        case SINT64:
+          out.writeSInt64NoTag((Long) value);
+          break;
+        case FIXED64:
+          out.writeFixed64NoTag((Long) value);
+          break;
+        case SFIXED64:
+          out.writeSFixed64NoTag((Long) value);
+          break;
+        case INT32:
+          out.writeInt32NoTag((Integer) value);
+          break;
+        case UINT32:
+          out.writeUInt32NoTag((Integer) value);
+          break;
+        case SINT32:
+          out.writeSInt32NoTag((Integer) value);
+          break;
+        case FIXED32:
+          out.writeFixed32NoTag((Integer) value);
+          break;
+        case SFIXED32:
+          out.writeSFixed32NoTag((Integer) value);
+          break;
+        case BOOL:
+          out.writeBoolNoTag((Boolean) value);
+          break;
+        case ENUM:
+          out.writeEnumNoTag(((Descriptors.EnumValueDescriptor) value).getNumber());
+          break;
+        case STRING:
+          out.writeStringNoTag((String) value);
+          break;
+        case BYTES:
+          if (value instanceof ByteString) {
+            out.writeBytesNoTag((ByteString) value);
+          } else {
+            out.writeByteArrayNoTag((byte[]) value);
+          }
+          break;
+        default:
+          throw new IllegalStateException(Utils.format("Unexpected field type '{}'", type));
+      }
+    }
+
+    private int computeScalarSizeNoTag(Object value) {
+      switch (type) {
+        case DOUBLE:
+          return CodedOutputStream.computeDoubleSizeNoTag((Double) value);
+        case FLOAT:
+          return CodedOutputStream.computeFloatSizeNoTag((Float) value);
+        case INT64:
+          return CodedOutputStream.computeInt64SizeNoTag((Long) value);
+        case UINT64:
+          return CodedOutputStream.computeUInt64SizeNoTag((Long) value);
+        case SINT64:
+          return CodedOutputStream.computeSInt64SizeNoTag((Long) value);
+        case FIXED64:
+          return CodedOutputStream.computeFixed64SizeNoTag((Long) value);
+        case SFIXED64:
+          return CodedOutputStream.computeSFixed64SizeNoTag((Long) value);
+        case INT32:
+          return CodedOutputStream.computeInt32SizeNoTag((Integer) value);
+        case UINT32:
+          return CodedOutputStream.computeUInt32SizeNoTag((Integer) value);
+        case SINT32:
+          return CodedOutputStream.computeSInt32SizeNoTag((Integer) value);
+        case FIXED32:
+          return CodedOutputStream.computeFixed32SizeNoTag((Integer) value);
+        case SFIXED32:
+          return CodedOutputStream.computeSFixed32SizeNoTag((Integer) value);
+        case BOOL:
+          return CodedOutputStream.computeBoolSizeNoTag((Boolean) value);
+        case ENUM:
+          return CodedOutputStream.computeEnumSizeNoTag(((Descriptors.EnumValueDescriptor) value).getNumber());
+        default:
+          throw new IllegalStateException(Utils.format("Field type '{}' can't be packed", type));
+      }
+    }
+  }
+
+  /**
+   * Values of a message being read.
+   */
+  private static final class MessageState {
+    private final MessageCodec codec;
+    // by field slot, null if the field is absent. Singular fields hold a Field for scalars, a MessageState for
+    // messages and a DynamicMessage for groups, repeated fields a list of those.
+    private final Object[] values;
+    // slot of the field set last in each oneof
+    private int[] oneofCases;
+    private UnknownFieldSet.Builder unknownFields;
+
+    private MessageState(MessageCodec codec) {
+      this.codec = codec;
+      values = new Object[codec.fields.length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private void set(FieldCodec field, Object value) {
+      if (field.repeated) {
+        List<Object> list = (List<Object>) values[field.slot];
+        if (list == null) {
+          list = new ArrayList<>();
+          values[field.slot] = list;
+        }
+        list.add(value);
+        return;
+      }
+      if (field.oneof >= 0) {
+        // setting a field of a oneof clears the field set before
+        if (oneofCases == null) {
+          oneofCases = new int[codec.descriptor.getOneofs().size()];
+          Arrays.fill(oneofCases, -1);
+        }
+        int current = oneofCases[field.oneof];
+        if (current >= 0 && current != field.slot) {
+          values[current] = null;
+        }
+        oneofCases[field.oneof] = field.slot;
+      }
+      values[field.slot] = value;
+    }
+
+    private UnknownFieldSet.Builder getUnknownFields() {
+      if (unknownFields == null) {
+        unknownFields = UnknownFieldSet.newBuilder();
+      }
+      return unknownFields;
+    }
+
+    /**
+     * Keeps or skips an unknown field, returns false on an end group tag.
+     */
+    private boolean readUnknownField(int tag, CodedInputStream in) throws IOException {
+      if (codec.keepUnknownFields) {
+        return getUnknownFields().mergeFieldFrom(tag, in);
+      }
+      return in.skipField(tag);
+    }
+  }
+
+  private void readMessage(MessageState state, CodedInputStream in, int depth) throws IOException {
+    while (true) {
+      int tag = in.readTag();
+      if (tag == 0) {
+        return;
+      }
+      FieldCodec field = state.codec.getField(WireFormat.getTagFieldNumber(tag));
+      if ((field == null || !field.read(state, tag, in, depth)) && !state.readUnknownField(tag, in)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Adds the required fields missing in the message and its nested messages, named the way protobuf does.
+   */
+  @SuppressWarnings("unchecked")
+  private static void findMissingFields(MessageState state, String prefix, List<String> missingFields) {
+    for (FieldCodec field : state.codec.fields) {
+      Object value = state.values[field.slot];
+      if (value == null) {
+        if (field.required) {
+          missingFields.add(prefix + field.name);
+        }
+      } else if (field.javaType == Descriptors.FieldDescriptor.JavaType.MESSAGE) {
+        if (field.repeated) {
+          List<Object> elements = (List<Object>) value;
+          for (int i = 0; i < elements.size(); i++) {
+            findMissingFields(elements.get(i), prefix + field.name + "[" + i + "].", missingFields);
+          }
+        } else {
+          findMissingFields(value, prefix + field.name + ".", missingFields);
+        }
+      }
+    }
+  }
+
+  private static void findMissingFields(Object message, String prefix, List<String> missingFields) {
+    if (message instanceof DynamicMessage) {
+      for (String error : ((DynamicMessage) message).findInitializationErrors()) {
+        missingFields.add(prefix + error);
+      }
+    } else {
+      findMissingFields((MessageState) message, prefix, missingFields);
+    }
+  }
+
+  private Field toField(MessageState state, Record record, StringBuilder path) throws DataParserException {
+    MessageCodec codec = state.codec;
+    Map<String, Field> fields = new HashMap<>();
+    for (FieldCodec field : codec.fields) {
+      Object value = state.values[field.slot];
+      if (value != null) {
+        fields.put(field.name, field.toField(value, record, path));
+      } else if (!codec.isExtension(field)) {
+        // absent extensions are not part of the record
+        fields.put(field.name, field.createAbsentField());
+      }
+    }
+
+    // unknown fields go into the record header
+    if (state.unknownFields != null) {
+      UnknownFieldSet unknownFields = state.unknownFields.build();
+      if (!unknownFields.asMap().isEmpty()) {
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+        try {
+          unknownFields.writeDelimitedTo(bOut);
+        } catch (IOException e) {
+          throw new DataParserException(Errors.PROTOBUF_10, e.toString(), e);
+        }
+        String attributePath = path.length() == 0 ? FORWARD_SLASH : path.toString();
+        byte[] bytes = org.apache.commons.codec.binary.Base64.encodeBase64(bOut.toByteArray());
+        record.getHeader().setAttribute(
+            ProtobufTypeUtil.PROTOBUF_UNKNOWN_FIELDS_PREFIX + attributePath,
+            new String(bytes, StandardCharsets.UTF_8)
+        );
+      }
+    }
+    return Field.create(fields);
+  }
+
+  /**
+   * State of the record being written.
+   */
+  private static final class WriteContext {
+    private final Record record;
+    private final boolean hasUnknownFields;
+    // path of the message being written, unknown fields are kept in the record header by path
+    private final StringBuilder path = new StringBuilder();
+    // by message depth
+    private final List<MessageBuffer> buffers = new ArrayList<>();
+
+    private WriteContext(Record record) {
+      this.record = record;
+      boolean unknownFields = false;
+      for (String attribute : record.getHeader().getAttributeNames()) {
+        if (attribute.startsWith(ProtobufTypeUtil.PROTOBUF_UNKNOWN_FIELDS_PREFIX)) {
+          unknownFields = true;
+          break;
+        }
+      }
+      hasUnknownFields = unknownFields;
+    }
+
+    private MessageBuffer getBuffer(int depth) {
+      while (buffers.size() <= depth) {
+        buffers.add(new MessageBuffer());
+      }
+      return buffers.get(depth);
+    }
+  }
+
+  /**
+   * Buffer a message is serialized to before it is written with its size.
+   */
+  private static final class MessageBuffer extends ByteArrayOutputStream {
+    private final CodedOutputStream stream = CodedOutputStream.newInstance(this);
+
+    private void writeTo(CodedOutputStream out) throws IOException {
+      out.writeRawBytes(buf, 0, count);
+    }
+  }
+
+  private void writeMessage(
+      WriteContext context,
+      MessageCodec codec,
+      Map<String, Field> message,
+      CodedOutputStream out,
+      int depth
+  ) throws IOException, DataGeneratorException {
+    if (depth >= RECURSION_LIMIT) {
+      throw new IllegalStateException(Utils.format("Record '{}' has more than {} levels of nested messages",
+          context.record.getHeader().getSourceId(), RECURSION_LIMIT));
+    }
+    // values are resolved in declaration order, so the last field set wins in a oneof, and written by field number
+    Object[] values = new Object[codec.fields.length];
+    int[] oneofCases = null;
+    for (FieldCodec field : codec.fields) {
+      Object value;
+      if (field.repeated) {
+        value = message.get(field.name);
+      } else {
+        if (message.containsKey(field.name)) {
+          value = field.toValue(message.get(field.name));
+        } else {
+          // record does not contain field, look up default value
+          if (!defaultValueMap.containsKey(field.defaultValueKey) && !field.optional) {
+            throw new DataGeneratorException(
+                Errors.PROTOBUF_04,
+                context.record.getHeader().getSourceId(),
+                field.defaultValueKey
+            );
+          }
+          value = defaultValueMap.get(field.defaultValueKey);
+        }
+        if (value != null && field.clearDefault && field.isDefault(value)) {
+          value = null;
+        }
+        if (value != null && field.oneof >= 0) {
+          if (oneofCases == null) {
+            oneofCases = new int[codec.descriptor.getOneofs().size()];
+            Arrays.fill(oneofCases, -1);
+          }
+          if (oneofCases[field.oneof] >= 0) {
+            values[oneofCases[field.oneof]] = null;
+          }
+          oneofCases[field.oneof] = field.slot;
+        }
+      }
+      values[field.slot] = value;
+    }
+
+    for (FieldCodec field : codec.writeOrder) {
+      Object value = values[field.slot];
+      if (value != null) {
+        field.write(context, value, out, depth);
+      } else if (field.required) {
+        throw new UninitializedMessageException(Collections.singletonList(field.name));
+      }
+    }
+
+    // if record has unknown fields for this message, write them after the known ones
+    if (codec.keepUnknownFields && context.hasUnknownFields) {
+      String path = context.path.length() == 0 ? FORWARD_SLASH : context.path.toString();
+      String attribute = context.record.getHeader().getAttribute(
+          ProtobufTypeUtil.PROTOBUF_UNKNOWN_FIELDS_PREFIX + path
+      );
+      if (attribute != null) {
+        UnknownFieldSet.Builder unknownFields = UnknownFieldSet.newBuilder();
+        try {
+          unknownFields.mergeDelimitedFrom(
+              new ByteArrayInputStream(
+                  org.apache.commons.codec.binary.Base64.decodeBase64(attribute.getBytes(StandardCharsets.UTF_8))
+              )
+          );
+        } catch (IOException e) {
+          throw new DataGeneratorException(Errors.PROTOBUF_05, e.toString(), e);
+        }
+        unknownFields.build().writeTo(out);
+      }
+    }
+  }
+
+}
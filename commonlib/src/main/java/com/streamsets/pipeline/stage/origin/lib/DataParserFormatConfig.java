@@ -618,14 +618,16 @@ public class DataParserFormatConfig implements DataFormatConfig {
 
   @ConfigDef(
       required = true,
-      type = ConfigDef.Type.STRING,
+      type = ConfigDef.Type.TEXT,
       defaultValue = DEFAULT_GROK_PATTERN,
       label = "Grok Pattern",
-      description = "The grok pattern which is used to parse the log line",
+      description = "The grok patterns which are used to parse the log line, one per line. The first matching " +
+          "pattern is used",
       displayPosition = 530,
       group = "DATA_FORMAT",
       dependsOn = "logMode",
-      triggeredByValue = "GROK"
+      triggeredByValue = "GROK",
+      mode = ConfigDef.Mode.PLAIN_TEXT
   )
   public String grokPattern = DEFAULT_GROK_PATTERN;
 
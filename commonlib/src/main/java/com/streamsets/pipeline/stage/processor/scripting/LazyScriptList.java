@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.scripting;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Script list view over the value of a <code>LIST</code> field.
+ * <p/>
+ * The elements are converted to script objects the first time the list is accessed, see {@link LazyScriptMap}.
+ *
+ * @param <E> script element type.
+ */
+public class LazyScriptList<E> extends AbstractList<E> implements RandomAccess {
+
+  private final Field field;
+  private final Record record;
+  private final Function<Field, E> converter;
+  private List<E> list;
+  private Object[] originalValues;
+
+  /**
+   * @param field LIST field, with a non null value.
+   * @param record record the field belongs to.
+   * @param converter converts fields to script elements.
+   */
+  public LazyScriptList(Field field, Record record, Function<Field, E> converter) {
+    this.field = field;
+    this.record = record;
+    this.converter = converter;
+  }
+
+  Field getField() {
+    return field;
+  }
+
+  Record getRecord() {
+    return record;
+  }
+
+  boolean isLoaded() {
+    return list != null;
+  }
+
+  /**
+   * Returns the field the given element was converted from, or null if the script changed the element.
+   */
+  Field getOriginalField(int index, Object value) {
+    if (list == null || index >= originalValues.length || originalValues[index] != value) {
+      return null;
+    }
+    return field.getValueAsList().get(index);
+  }
+
+  private List<E> load() {
+    if (list == null) {
+      List<Field> fields = field.getValueAsList();
+      list = new ArrayList<>(fields.size());
+      for (Field element : fields) {
+        list.add(converter.apply(element));
+      }
+      originalValues = list.toArray();
+    }
+    return list;
+  }
+
+  @Override
+  public E get(int index) {
+    return load().get(index);
+  }
+
+  @Override
+  public E set(int index, E element) {
+    return load().set(index, element);
+  }
+
+  @Override
+  public void add(int index, E element) {
+    load().add(index, element);
+    modCount++;
+  }
+
+  @Override
+  public E remove(int index) {
+    E removed = load().remove(index);
+    modCount++;
+    return removed;
+  }
+
+  @Override
+  public int size() {
+    return load().size();
+  }
+
+}
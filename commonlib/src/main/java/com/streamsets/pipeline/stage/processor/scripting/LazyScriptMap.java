@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.processor.scripting;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Script map view over the value of a <code>MAP</code> or <code>LIST_MAP</code> field.
+ * <p/>
+ * The entries are converted to script objects the first time the map is accessed, one level at a time (nested maps
+ * and lists are lazy as well). When the record is written back, {@link ScriptObjectFactory} reuses the field of a map
+ * that was never accessed, and the fields of the entries the script did not replace.
+ * <p/>
+ * Like the maps created by the script engines, it is fully synchronized. Accessors used by the
+ * {@link ScriptObjectFactory} are not public so script engines do not expose them as properties.
+ *
+ * @param <K> script key type.
+ * @param <V> script value type.
+ */
+public class LazyScriptMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>,
+    ScriptObjectFactory.MapInfo {
+
+  private final Field field;
+  private final Record record;
+  private final Function<String, K> keyConverter;
+  private final Function<Field, V> valueConverter;
+  private Map<K, V> map;
+  private Map<K, V> originalValues;
+  private Map<K, Field> originalFields;
+
+  /**
+   * @param field MAP or LIST_MAP field, with a non null value.
+   * @param record record the field belongs to.
+   * @param keyConverter converts field names to script keys.
+   * @param valueConverter converts fields to script values.
+   */
+  public LazyScriptMap(
+      Field field,
+      Record record,
+      Function<String, K> keyConverter,
+      Function<Field, V> valueConverter
+  ) {
+    this.field = field;
+    this.record = record;
+    this.keyConverter = keyConverter;
+    this.valueConverter = valueConverter;
+  }
+
+  Field getField() {
+    return field;
+  }
+
+  Record getRecord() {
+    return record;
+  }
+
+  synchronized boolean isLoaded() {
+    return map != null;
+  }
+
+  /**
+   * Returns the field the given entry was converted from, or null if the script changed the entry.
+   */
+  synchronized Field getOriginalField(Object key, Object value) {
+    if (map == null || !originalValues.containsKey(key) || originalValues.get(key) != value) {
+      return null;
+    }
+    return originalFields.get(key);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<K, V> load() {
+    if (map == null) {
+      Map<String, Field> fields = (Map<String, Field>) field.getValue();
+      map = new LinkedHashMap<>(fields.size() * 2);
+      originalValues = new HashMap<>(fields.size() * 2);
+      originalFields = new HashMap<>(fields.size() * 2);
+      for (Map.Entry<String, Field> entry : fields.entrySet()) {
+        K key = keyConverter.apply(entry.getKey());
+        V value = valueConverter.apply(entry.getValue());
+        map.put(key, value);
+        originalValues.put(key, value);
+        originalFields.put(key, entry.getValue());
+      }
+    }
+    return map;
+  }
+
+  @Override
+  public boolean isListMap() {
+    return field.getType() == Field.Type.LIST_MAP;
+  }
+
+  @Override
+  public synchronized int size() {
+    return load().size();
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return load().isEmpty();
+  }
+
+  @Override
+  public synchronized boolean containsKey(Object key) {
+    return load().containsKey(key);
+  }
+
+  @Override
+  public synchronized boolean containsValue(Object value) {
+    return load().containsValue(value);
+  }
+
+  @Override
+  public synchronized V get(Object key) {
+    return load().get(key);
+  }
+
+  @Override
+  public synchronized V put(K key, V value) {
+    return load().put(key, value);
+  }
+
+  @Override
+  public synchronized V remove(Object key) {
+    return load().remove(key);
+  }
+
+  @Override
+  public synchronized void putAll(Map<? extends K, ? extends V> m) {
+    load().putAll(m);
+  }
+
+  @Override
+  public synchronized void clear() {
+    load().clear();
+  }
+
+  @Override
+  public synchronized Set<K> keySet() {
+    return load().keySet();
+  }
+
+  @Override
+  public synchronized Set<Map.Entry<K, V>> entrySet() {
+    return load().entrySet();
+  }
+
+  @Override
+  public synchronized V putIfAbsent(K key, V value) {
+    return load().putIfAbsent(key, value);
+  }
+
+  @Override
+  public synchronized boolean remove(Object key, Object value) {
+    if (load().containsKey(key) && Objects.equals(map.get(key), value)) {
+      map.remove(key);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized boolean replace(K key, V oldValue, V newValue) {
+    if (load().containsKey(key) && Objects.equals(map.get(key), oldValue)) {
+      map.put(key, newValue);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public synchronized V replace(K key, V value) {
+    return load().containsKey(key) ? map.put(key, value) : null;
+  }
+
+  @Override
+  public synchronized boolean equals(Object o) {
+    return super.equals(o);
+  }
+
+  @Override
+  public synchronized int hashCode() {
+    return super.hashCode();
+  }
+
+  @Override
+  public synchronized String toString() {
+    return load().toString();
+  }
+
+}
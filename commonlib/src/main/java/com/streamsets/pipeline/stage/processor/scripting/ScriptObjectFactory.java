@@ -25,10 +25,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -37,6 +41,9 @@ public class ScriptObjectFactory {
   protected final ScriptEngine engine;
   protected final Stage.Context context;
 
+  // original fields already written back to the record by the current getRecord() call
+  private final Set<Field> writtenBackFields = Collections.newSetFromMap(new IdentityHashMap<>());
+
   public ScriptObjectFactory(ScriptEngine engine, Stage.Context context) {
     this.engine = engine;
     this.context = context;
@@ -45,7 +52,7 @@ public class ScriptObjectFactory {
   public ScriptRecord createScriptRecord(Record record) {
     Object scriptValue = null;
     if (record.get() != null) {
-      scriptValue = fieldToScript(record.get());
+      scriptValue = fieldToScript(record.get(), record);
     }
     return new ScriptRecord(record, scriptValue);
   }
@@ -53,7 +60,12 @@ public class ScriptObjectFactory {
   @SuppressWarnings("unchecked")
   public Record getRecord(ScriptRecord scriptRecord) {
     Record record = scriptRecord.record;
-    Field field = scriptToField(scriptRecord.value, record, "");
+    Field field;
+    try {
+      field = scriptToField(scriptRecord.value, record, "");
+    } finally {
+      writtenBackFields.clear();
+    }
     record.set(field);
     // Update Record Header Attributes
     updateRecordHeader(scriptRecord.attributes, record);
@@ -86,11 +98,6 @@ public class ScriptObjectFactory {
   }
 
 
-  @SuppressWarnings("unchecked")
-  public void putInMap(Object obj, Object key, Object value) {
-    ((Map) obj).put(key, value);
-  }
-
   private static class LinkedHashMapWithMapInfo extends LinkedHashMap implements MapInfo {
     private final boolean isListMap;
 
@@ -108,12 +115,38 @@ public class ScriptObjectFactory {
     return new LinkedHashMapWithMapInfo(isListMap);
   }
 
-  public Object createArray(List elements) {
-    return elements;
+  /**
+   * Returns a script map over the given MAP or LIST_MAP field, converting its entries only when the script accesses
+   * the map.
+   */
+  protected Object createLazyMap(Field field, Record record) {
+    return new LazyScriptMap<String, Object>(field, record, key -> key, value -> fieldToScript(value, record));
   }
 
-  @SuppressWarnings("unchecked")
-  protected Object fieldToScript(Field field) {
+  /**
+   * Returns a script array over the given LIST field, converting its elements only when the script accesses the array.
+   */
+  protected Object createLazyArray(Field field, Record record) {
+    return new LazyScriptList<>(field, record, element -> fieldToScript(element, record));
+  }
+
+  /**
+   * Returns the {@link LazyScriptMap} or {@link LazyScriptList} backing the given script object, or null if the
+   * script object was not created from a record field.
+   */
+  protected Object getLazyScriptObject(Object scriptObject) {
+    return (scriptObject instanceof LazyScriptMap || scriptObject instanceof LazyScriptList) ? scriptObject : null;
+  }
+
+  /**
+   * Converts a value held by a lazy script map or list to the Java object expected by
+   * {@link #scriptToField(Object, Record, String)}.
+   */
+  protected Object scriptToJava(Object scriptObject) {
+    return scriptObject;
+  }
+
+  protected Object fieldToScript(Field field, Record record) {
     Object scriptObject = null;
     if (field != null) {
       scriptObject = field.getValue();
@@ -121,20 +154,10 @@ public class ScriptObjectFactory {
         switch (field.getType()) {
           case MAP:
           case LIST_MAP:
-            Map<String, Field> fieldMap = (Map<String, Field>) scriptObject;
-            Object scriptMap = createMap(field.getType() == Field.Type.LIST_MAP);
-            for (Map.Entry<String, Field> entry : fieldMap.entrySet()) {
-              putInMap(scriptMap, entry.getKey(), fieldToScript(entry.getValue()));
-            }
-            scriptObject = scriptMap;
+            scriptObject = createLazyMap(field, record);
             break;
           case LIST:
-            List<Field> fieldArray = (List<Field>) scriptObject;
-            List scripArrayElements = new ArrayList();
-            for (Field aFieldArray : fieldArray) {
-              scripArrayElements.add(fieldToScript(aFieldArray));
-            }
-            scriptObject = createArray(scripArrayElements);
+            scriptObject = createLazyArray(field, record);
             break;
           case FILE_REF:
             scriptObject = new ScriptFileRefImpl(field.getValueAsFileRef(), context);
@@ -181,7 +204,10 @@ public class ScriptObjectFactory {
   protected Field scriptToField(Object scriptObject, Record record, String path) {
     Field field;
     if (scriptObject != null) {
-      if (scriptObject instanceof Map) {
+      Object lazyScriptObject = getLazyScriptObject(scriptObject);
+      if (lazyScriptObject != null) {
+        field = lazyScriptObjectToField(lazyScriptObject, record, path);
+      } else if (scriptObject instanceof Map) {
         Map<String, Object> scriptMap = (Map<String, Object>) scriptObject;
         LinkedHashMap<String, Field> fieldMap = new LinkedHashMap<>();
         for (Map.Entry<String, Object> entry : scriptMap.entrySet()) {
@@ -211,6 +237,91 @@ public class ScriptObjectFactory {
     return field;
   }
 
+  /**
+   * Converts a lazy script map or list back to a field, reusing the original fields of everything the script did not
+   * change.
+   */
+  protected Field lazyScriptObjectToField(Object lazyScriptObject, Record record, String path) {
+    if (lazyScriptObject instanceof LazyScriptMap) {
+      return lazyMapToField((LazyScriptMap<?, ?>) lazyScriptObject, record, path);
+    } else {
+      return lazyListToField((LazyScriptList<?>) lazyScriptObject, record, path);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Field lazyMapToField(LazyScriptMap<?, ?> scriptMap, Record record, String path) {
+    if (!scriptMap.isLoaded()) {
+      return reuseOriginalField(scriptMap.getField(), scriptMap.getRecord(), record);
+    }
+    Map<String, Field> originalFieldMap = (Map<String, Field>) scriptMap.getField().getValue();
+    Iterator<String> originalKeys = originalFieldMap.keySet().iterator();
+    LinkedHashMap<String, Field> fieldMap = new LinkedHashMap<>();
+    boolean changed = false;
+    for (Map.Entry<?, ?> entry : scriptMap.entrySet()) {
+      String key = scriptToJava(entry.getKey()).toString();
+      Field field = lazyElementToField(
+          scriptMap.getOriginalField(entry.getKey(), entry.getValue()),
+          entry.getValue(),
+          scriptMap.getRecord(),
+          record,
+          composeMapPath(path, key)
+      );
+      changed |= !originalKeys.hasNext() || !originalKeys.next().equals(key) || field != originalFieldMap.get(key);
+      fieldMap.put(key, field);
+    }
+    if (changed || originalKeys.hasNext()) {
+      return scriptMap.isListMap() ? Field.createListMap(fieldMap) : Field.create(fieldMap);
+    }
+    return reuseOriginalField(scriptMap.getField(), scriptMap.getRecord(), record);
+  }
+
+  private Field lazyListToField(LazyScriptList<?> scriptList, Record record, String path) {
+    if (!scriptList.isLoaded()) {
+      return reuseOriginalField(scriptList.getField(), scriptList.getRecord(), record);
+    }
+    List<Field> originalFieldList = scriptList.getField().getValueAsList();
+    List<Field> fieldList = new ArrayList<>(scriptList.size());
+    boolean changed = scriptList.size() != originalFieldList.size();
+    for (int i = 0; i < scriptList.size(); i++) {
+      Object element = scriptList.get(i);
+      Field field = lazyElementToField(
+          scriptList.getOriginalField(i, element),
+          element,
+          scriptList.getRecord(),
+          record,
+          composeArrayPath(path, i)
+      );
+      changed |= i >= originalFieldList.size() || field != originalFieldList.get(i);
+      fieldList.add(field);
+    }
+    if (changed) {
+      return Field.create(fieldList);
+    }
+    return reuseOriginalField(scriptList.getField(), scriptList.getRecord(), record);
+  }
+
+  private Field lazyElementToField(Field originalField, Object element, Record owner, Record record, String path) {
+    Object lazyScriptObject = getLazyScriptObject(element);
+    if (lazyScriptObject != null) {
+      return lazyScriptObjectToField(lazyScriptObject, record, path);
+    } else if (originalField != null) {
+      return reuseOriginalField(originalField, owner, record);
+    }
+    return scriptToField(scriptToJava(element), record, path);
+  }
+
+  /**
+   * Original fields are written back as is only to the record they come from, and only once. Otherwise (the script
+   * copied them to another record or to several places of the record) they are cloned so records never share fields.
+   */
+  private Field reuseOriginalField(Field field, Record owner, Record record) {
+    if (owner == record && writtenBackFields.add(field)) {
+      return field;
+    }
+    return field.clone();
+  }
+
   protected Field convertPrimitiveObject(Object scriptObject) {
     Field field;
     if (scriptObject instanceof Boolean) {
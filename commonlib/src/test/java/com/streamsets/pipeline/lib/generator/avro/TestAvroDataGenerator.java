@@ -35,6 +35,8 @@ import org.apache.avro.file.DataFileReader;
 import org.apache.avro.file.SeekableByteArrayInput;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
 import org.apache.avro.util.Utf8;
 import org.junit.Assert;
 import org.junit.Test;
@@ -332,6 +334,38 @@ public class TestAvroDataGenerator {
     Assert.assertFalse(dataFileReader.hasNext());
   }
 
+  @Test
+  public void testMessageGeneratorErrorRecordDoesNotCorruptOutput() throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    DataGenerator gen = new AvroMessageGenerator(
+        false,
+        baos,
+        SCHEMA,
+        AvroTypeUtil.getDefaultValuesFromSchema(SCHEMA, new HashSet<String>()),
+        null,
+        null,
+        0
+    );
+
+    // name is encoded before the missing age fails the record
+    Record bad = createRecord();
+    bad.delete("/age");
+    try {
+      gen.write(bad);
+      Assert.fail();
+    } catch (DataGeneratorException ex) {
+      Assert.assertEquals(Errors.AVRO_GENERATOR_00, ex.getErrorCode());
+    }
+    gen.write(createRecord());
+    gen.close();
+
+    BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(baos.toByteArray(), null);
+    GenericRecord readRecord = new GenericDatumReader<GenericRecord>(SCHEMA).read(null, decoder);
+    Assert.assertEquals("hari", readRecord.get("name").toString());
+    Assert.assertEquals(3100, readRecord.get("age"));
+    Assert.assertTrue(decoder.isEnd());
+  }
+
   private Record createRecord() throws IOException {
     Map<String, Object> obj = new HashMap<>();
     obj.put("name", "hari");
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.io;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TestReadAheadInputStream {
+
+  private static byte[] createData(int size) {
+    byte[] data = new byte[size];
+    new Random(0).nextBytes(data);
+    return data;
+  }
+
+  @Test
+  public void testRead() throws Exception {
+    byte[] data = createData(10000);
+    try (InputStream is = new ReadAheadInputStream(new ByteArrayInputStream(data), 100, 3, "test")) {
+      Assert.assertEquals(data[0] & 0xFF, is.read());
+      byte[] buffer = new byte[1000];
+      Assert.assertEquals(99, is.read(buffer, 0, 1000));
+      Assert.assertEquals(0, is.read(buffer, 0, 0));
+      byte[] rest = IOUtils.toByteArray(is);
+      Assert.assertEquals(data.length - 100, rest.length);
+      for (int i = 0; i < rest.length; i++) {
+        Assert.assertEquals(data[100 + i], rest[i]);
+      }
+      Assert.assertEquals(-1, is.read());
+      Assert.assertEquals(-1, is.read(buffer, 0, 10));
+    }
+  }
+
+  @Test
+  public void testError() throws Exception {
+    InputStream failing = new InputStream() {
+      int count;
+
+      @Override
+      public int read() throws IOException {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (count == 150) {
+          throw new IOException("failed");
+        }
+        int read = Math.min(len, 150 - count);
+        count += read;
+        return read;
+      }
+    };
+    try (InputStream is = new ReadAheadInputStream(failing, 100, 2, "test")) {
+      byte[] buffer = new byte[1000];
+      int read = 0;
+      try {
+        while (true) {
+          read += is.read(buffer);
+        }
+      } catch (IOException ex) {
+        Assert.assertEquals("failed", ex.getMessage());
+      }
+      Assert.assertEquals(150, read);
+    }
+  }
+
+  @Test
+  public void testCloseStopsReadAhead() throws Exception {
+    AtomicBoolean closed = new AtomicBoolean();
+    InputStream endless = new InputStream() {
+      @Override
+      public int read() {
+        return 1;
+      }
+
+      @Override
+      public void close() {
+        closed.set(true);
+      }
+    };
+    InputStream is = new ReadAheadInputStream(endless, 100, 2, "test");
+    Assert.assertEquals(1, is.read());
+    is.close();
+    Assert.assertTrue(closed.get());
+    try {
+      is.read(new byte[1000]);
+      Assert.fail();
+    } catch (IOException ex) {
+      // expected
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser.log;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.lib.parser.shaded.org.aicer.grok.dictionary.GrokDictionary;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestGrokMatcher {
+
+  @Test
+  public void testRequiredLiterals() {
+    Assert.assertEquals(ImmutableList.of("GET /"), GrokMatcher.requiredLiterals("GET /"));
+    Assert.assertEquals(ImmutableList.of("ab", "de"), GrokMatcher.requiredLiterals("abc?de"));
+    Assert.assertEquals(ImmutableList.of("ab", "d"), GrokMatcher.requiredLiterals("ab\\d+d"));
+    Assert.assertEquals(ImmutableList.of("ab", "x"), GrokMatcher.requiredLiterals("(?:ab)[x-z]*(?<name>x)+"));
+    Assert.assertEquals(ImmutableList.of("[", "]"), GrokMatcher.requiredLiterals("\\[(\\w+)\\]"));
+    Assert.assertEquals(ImmutableList.of("k="), GrokMatcher.requiredLiterals("k=(a|b)(?:c)?"));
+    Assert.assertEquals(Collections.emptyList(), GrokMatcher.requiredLiterals("a|b"));
+    Assert.assertEquals(Collections.emptyList(), GrokMatcher.requiredLiterals("(?i)abc"));
+    Assert.assertEquals(Collections.emptyList(), GrokMatcher.requiredLiterals("(ab)\\1"));
+    Assert.assertEquals(Collections.emptyList(), GrokMatcher.requiredLiterals("(?=ab)a{0,2}"));
+  }
+
+  @Test
+  public void testSplitExpressions() {
+    Assert.assertEquals(ImmutableList.of("a", "b"), GrokMatcher.splitExpressions("a\r\n\n  \nb\n"));
+    Assert.assertEquals(ImmutableList.of("a b"), GrokMatcher.splitExpressions("a b"));
+  }
+
+  @Test
+  public void testMatch() {
+    GrokDictionary dictionary = new GrokDictionary();
+    dictionary.addDictionary(new StringReader("WORD \\b\\w+\\b\nINT (?:[+-]?(?:[0-9]+))"));
+    dictionary.bind();
+    GrokMatcher matcher = GrokMatcher.compile(dictionary, ImmutableList.of(
+        "start %{WORD:job}",
+        "%{WORD:job} took %{INT:ms}ms",
+        "%{WORD:job} (?:failed|aborted)",
+        "%{WORD:job}"
+    ));
+    Assert.assertEquals(4, matcher.getExpressionCount());
+
+    Map<String, Field> fields = new LinkedHashMap<>();
+    Assert.assertEquals(1, matcher.match("load took 20ms", fields));
+    Assert.assertEquals("load", fields.get("job").getValueAsString());
+    Assert.assertEquals("20", fields.get("ms").getValueAsString());
+
+    fields.clear();
+    Assert.assertEquals(0, matcher.match("start load", fields));
+    Assert.assertEquals("load", fields.get("job").getValueAsString());
+
+    fields.clear();
+    Assert.assertEquals(2, matcher.match("load aborted", fields));
+
+    fields.clear();
+    Assert.assertEquals(3, matcher.match("load took long", fields));
+    Assert.assertEquals(1, fields.size());
+
+    fields.clear();
+    Assert.assertEquals(-1, matcher.match("...", fields));
+    Assert.assertTrue(fields.isEmpty());
+  }
+
+}
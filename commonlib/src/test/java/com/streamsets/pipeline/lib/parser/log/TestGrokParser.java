@@ -133,7 +133,51 @@ public class TestGrokParser {
     }
   }
 
+  @Test
+  public void testParseMultiplePatterns() throws Exception {
+    String patterns = "%{REDISLOG}\n" +
+      "\n" +
+      "%{IP:client} login %{USERNAME:user}\n" +
+      "%{IP:client} logout %{USERNAME:user} after %{INT:seconds}s";
+    String lines = "10.0.0.1 logout bob after 30s\n" + LOG_LINE + "\n10.0.0.2 login alice\n";
+    DataParser parser = getDataParser(lines, 1000, 0, patterns);
+    try {
+      Record record = parser.parse();
+      Assert.assertEquals("10.0.0.1", record.get("/client").getValueAsString());
+      Assert.assertEquals("bob", record.get("/user").getValueAsString());
+      Assert.assertEquals("30", record.get("/seconds").getValueAsString());
+
+      record = parser.parse();
+      Assert.assertEquals("3223", record.get("/pid").getValueAsString());
+      Assert.assertFalse(record.has("/client"));
+
+      record = parser.parse();
+      Assert.assertEquals("10.0.0.2", record.get("/client").getValueAsString());
+      Assert.assertEquals("alice", record.get("/user").getValueAsString());
+      Assert.assertFalse(record.has("/seconds"));
+
+      Assert.assertNull(parser.parse());
+    } finally {
+      parser.close();
+    }
+  }
+
+  @Test(expected = DataParserException.class)
+  public void testParseMultiplePatternsNoMatch() throws Exception {
+    DataParser parser = getDataParser("10.0.0.1 logout bob", 1000, 0, "%{REDISLOG}\n%{IP:client} login %{USERNAME:user}");
+    try {
+      parser.parse();
+    } finally {
+      parser.close();
+    }
+  }
+
   private DataParser getDataParser(String logLine, int maxObjectLength, int readerOffset) throws DataParserException {
+    return getDataParser(logLine, maxObjectLength, readerOffset, REGEX);
+  }
+
+  private DataParser getDataParser(String logLine, int maxObjectLength, int readerOffset, String pattern)
+      throws DataParserException {
     InputStream is = new ByteArrayInputStream(logLine.getBytes());
 
     DataParserFactoryBuilder dataParserFactoryBuilder = new DataParserFactoryBuilder(getContext(), DataParserFormat.LOG);
@@ -142,7 +186,7 @@ public class TestGrokParser {
       .setMode(LogMode.GROK)
       .setOverRunLimit(1000)
       .setConfig(LogDataParserFactory.RETAIN_ORIGINAL_TEXT_KEY, true)
-      .setConfig(LogDataParserFactory.GROK_PATTERN_KEY, REGEX)
+      .setConfig(LogDataParserFactory.GROK_PATTERN_KEY, pattern)
       .setConfig(LogDataParserFactory.GROK_PATTERN_DEFINITION_KEY, REGEX_DEFINITION)
       .build();
 
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.udp;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class TestPacketQueueUDPHandler {
+  private static final InetSocketAddress RECIPIENT = new InetSocketAddress("127.0.0.1", 2000);
+  private static final InetSocketAddress SENDER = new InetSocketAddress("127.0.0.1", 3000);
+
+  private static DatagramPacket packet(int value) {
+    return new DatagramPacket(Unpooled.buffer(4).writeInt(value), RECIPIENT, SENDER);
+  }
+
+  @Test
+  public void testQueueAndDrop() throws Exception {
+    Map<String, Object> gauge = new ConcurrentHashMap<>();
+    PacketQueueUDPHandler handler = new PacketQueueUDPHandler(gauge, 2);
+    EmbeddedChannel channel = new EmbeddedChannel(handler);
+
+    List<DatagramPacket> packets = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      packets.add(packet(i));
+    }
+    channel.writeInbound(packets.toArray());
+
+    Assert.assertEquals(2L, gauge.get(PacketQueueUDPHandler.GAUGE_NUM_QUEUED_PACKETS));
+    Assert.assertEquals(1L, gauge.get(PacketQueueUDPHandler.GAUGE_NUM_DROPPED_PACKETS));
+    Assert.assertEquals(2, gauge.get(PacketQueueUDPHandler.GAUGE_PACKET_QUEUE_SIZE));
+    Assert.assertEquals(0, packets.get(2).refCnt());
+
+    for (int i = 0; i < 2; i++) {
+      DatagramPacket packet = handler.poll(0, 10, TimeUnit.MILLISECONDS);
+      Assert.assertEquals(i, packet.content().readInt());
+      packet.release();
+    }
+    Assert.assertNull(handler.poll(0, 10, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(0, handler.getPacketQueueSize());
+  }
+
+  @Test
+  public void testQueuePerProducer() throws Exception {
+    Map<String, Object> gauge = new ConcurrentHashMap<>();
+    PacketQueueUDPHandler handler = new PacketQueueUDPHandler(gauge, 400, 4, 2);
+    Assert.assertEquals(4, handler.getNumPacketQueues());
+
+    // each producer thread reads a different range of values
+    Thread[] producers = new Thread[2];
+    for (int p = 0; p < producers.length; p++) {
+      final int base = p * 1000;
+      producers[p] = new DefaultThreadFactory("producer").newThread(() -> {
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        for (int i = 0; i < 100; i++) {
+          channel.writeInbound(packet(base + i));
+        }
+      });
+      producers[p].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    Assert.assertEquals(200L, gauge.get(PacketQueueUDPHandler.GAUGE_NUM_QUEUED_PACKETS));
+    Assert.assertNull(gauge.get(PacketQueueUDPHandler.GAUGE_NUM_DROPPED_PACKETS));
+
+    // every queue is fed by a single producer, packets of a producer are spread over its queues in order
+    Set<Integer> queueProducers = new HashSet<>();
+    for (int q = 0; q < 4; q++) {
+      Assert.assertEquals(50, handler.getPacketQueueSize(q));
+      Set<Integer> ranges = new HashSet<>();
+      int previous = -1;
+      DatagramPacket packet;
+      while ((packet = handler.poll(q, 0, TimeUnit.MILLISECONDS)) != null) {
+        int value = packet.content().readInt();
+        packet.release();
+        ranges.add(value / 1000);
+        Assert.assertTrue(value > previous);
+        previous = value;
+      }
+      Assert.assertEquals(1, ranges.size());
+      queueProducers.addAll(ranges);
+    }
+    Assert.assertEquals(2, queueProducers.size());
+  }
+
+  @Test
+  public void testSharedQueues() throws Exception {
+    PacketQueueUDPHandler handler = new PacketQueueUDPHandler(new ConcurrentHashMap<>(), 100, 1, 3);
+    Thread[] producers = new Thread[3];
+    for (int p = 0; p < producers.length; p++) {
+      producers[p] = new Thread(() -> {
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        for (int i = 0; i < 20; i++) {
+          channel.writeInbound(packet(i));
+        }
+      });
+      producers[p].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    Assert.assertEquals(60, handler.getPacketQueueSize(0));
+    handler.releasePackets(0);
+    Assert.assertEquals(0, handler.getPacketQueueSize(0));
+  }
+
+  @Test
+  public void testPollWaitsForPacket() throws Exception {
+    PacketQueueUDPHandler handler = new PacketQueueUDPHandler(new ConcurrentHashMap<>(), 10);
+    Thread producer = new Thread(() -> {
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      new EmbeddedChannel(handler).writeInbound(packet(7));
+    });
+    producer.start();
+    DatagramPacket packet = handler.poll(0, 10, TimeUnit.SECONDS);
+    Assert.assertNotNull(packet);
+    Assert.assertEquals(7, packet.content().readInt());
+    packet.release();
+    producer.join();
+  }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+public class TestAvroFieldReaderWriter {
+
+  private static final String SCHEMA = "{\"type\": \"record\", \"name\": \"r\", \"fields\": [" +
+      "{\"name\": \"id\", \"type\": \"long\"}," +
+      "{\"name\": \"name\", \"type\": [\"null\", \"string\"]}," +
+      "{\"name\": \"choice\", \"type\": [\"int\", \"string\", \"null\"]}," +
+      "{\"name\": \"amount\", \"type\": {\"type\": \"bytes\", \"logicalType\": \"decimal\", \"precision\": 10, " +
+      "\"scale\": 2}}," +
+      "{\"name\": \"day\", \"type\": {\"type\": \"int\", \"logicalType\": \"date\"}}," +
+      "{\"name\": \"ts\", \"type\": {\"type\": \"long\", \"logicalType\": \"timestamp-millis\"}}," +
+      "{\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": \"string\"}}," +
+      "{\"name\": \"props\", \"type\": {\"type\": \"map\", \"values\": \"int\"}}," +
+      "{\"name\": \"color\", \"type\": {\"type\": \"enum\", \"name\": \"c\", \"symbols\": [\"RED\", \"BLUE\"]}}," +
+      "{\"name\": \"hash\", \"type\": {\"type\": \"fixed\", \"name\": \"h\", \"size\": 2}}," +
+      "{\"name\": \"next\", \"type\": [\"null\", \"r\"], \"default\": null}" +
+      "]}";
+
+  private static GenericRecord createGenericRecord(Schema schema, GenericRecord next) {
+    GenericRecord record = new GenericData.Record(schema);
+    record.put("id", 1L);
+    record.put("name", null);
+    record.put("choice", "b");
+    record.put("amount", ByteBuffer.wrap(new BigDecimal("12.34").unscaledValue().toByteArray()));
+    record.put("day", 17000);
+    record.put("ts", 1500000000000L);
+    record.put("tags", Arrays.asList("x", "y"));
+    Map<String, Integer> props = new HashMap<>();
+    props.put("k", 3);
+    record.put("props", props);
+    record.put("color", new GenericData.EnumSymbol(schema.getField("color").schema(), "BLUE"));
+    record.put("hash", new GenericData.Fixed(schema.getField("hash").schema(), new byte[]{1, 2}));
+    record.put("next", next);
+    return record;
+  }
+
+  private static byte[] encode(Schema schema, Object datum) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<>(schema).write(datum, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static void assertHeadersEqual(Record expected, Record actual) {
+    Assert.assertEquals(expected.getHeader().getAttributeNames(), actual.getHeader().getAttributeNames());
+    for (String name : expected.getHeader().getAttributeNames()) {
+      Assert.assertEquals(expected.getHeader().getAttribute(name), actual.getHeader().getAttribute(name));
+    }
+  }
+
+  @Test
+  public void testReadMatchesGenericConversion() throws Exception {
+    Schema schema = new Schema.Parser().parse(SCHEMA);
+    GenericRecord datum = createGenericRecord(schema, createGenericRecord(schema, null));
+
+    Record expected = RecordCreator.create();
+    expected.set(AvroTypeUtil.avroToSdcField(expected, schema, datum));
+
+    Record actual = RecordCreator.create();
+    AvroFieldReader reader = new AvroFieldReader(schema);
+    actual.set(reader.read(actual, DecoderFactory.get().binaryDecoder(encode(schema, datum), null)));
+
+    Assert.assertEquals(expected.get(), actual.get());
+    assertHeadersEqual(expected, actual);
+    Assert.assertEquals(
+        expected.get("/amount").getAttribute(AvroTypeUtil.LOGICAL_TYPE_ATTR_SCALE),
+        actual.get("/amount").getAttribute(AvroTypeUtil.LOGICAL_TYPE_ATTR_SCALE)
+    );
+    Assert.assertEquals(new BigDecimal("12.34"), actual.get("/amount").getValueAsDecimal());
+    Assert.assertEquals(Field.Type.LONG, actual.get("/next/id").getType());
+  }
+
+  @Test
+  public void testWriteMatchesGenericConversion() throws Exception {
+    Schema schema = new Schema.Parser().parse(SCHEMA);
+    GenericRecord datum = createGenericRecord(schema, createGenericRecord(schema, null));
+    Record record = RecordCreator.create();
+    record.set(AvroTypeUtil.avroToSdcField(record, schema, datum));
+    Map<String, Object> defaults = AvroTypeUtil.getDefaultValuesFromSchema(schema, new HashSet<String>());
+
+    byte[] expected = encode(schema, AvroTypeUtil.sdcRecordToAvro(record, schema, defaults));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new AvroFieldWriter(schema, defaults).write(record, encoder);
+    encoder.flush();
+
+    Assert.assertArrayEquals(expected, out.toByteArray());
+  }
+
+  @Test
+  public void testWriteUsesDefaults() throws Exception {
+    Schema schema = new Schema.Parser().parse(
+        "{\"type\": \"record\", \"name\": \"r\", \"fields\": [" +
+        "{\"name\": \"a\", \"type\": \"string\", \"default\": \"x\"}," +
+        "{\"name\": \"b\", \"type\": [\"null\", \"int\"], \"default\": null}]}"
+    );
+    Map<String, Object> defaults = AvroTypeUtil.getDefaultValuesFromSchema(schema, new HashSet<String>());
+    Record record = RecordCreator.create();
+    record.set(Field.create(new HashMap<String, Field>()));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new AvroFieldWriter(schema, defaults).write(record, encoder);
+    encoder.flush();
+
+    GenericRecord read = new GenericDatumReader<GenericRecord>(schema).read(
+        null,
+        DecoderFactory.get().binaryDecoder(out.toByteArray(), null)
+    );
+    Assert.assertEquals("x", read.get("a").toString());
+    Assert.assertNull(read.get("b"));
+  }
+
+  @Test
+  public void testReadWithReaderSchema() throws Exception {
+    Schema writerSchema = new Schema.Parser().parse(
+        "{\"type\": \"record\", \"name\": \"r\", \"fields\": [" +
+        "{\"name\": \"a\", \"type\": \"int\"}, {\"name\": \"b\", \"type\": \"string\"}]}"
+    );
+    Schema readerSchema = new Schema.Parser().parse(
+        "{\"type\": \"record\", \"name\": \"r\", \"fields\": [" +
+        "{\"name\": \"b\", \"type\": \"string\"}, {\"name\": \"a\", \"type\": \"long\"}," +
+        "{\"name\": \"c\", \"type\": \"string\", \"default\": \"d\"}]}"
+    );
+    GenericRecord datum = new GenericData.Record(writerSchema);
+    datum.put("a", 5);
+    datum.put("b", "v");
+
+    AvroFieldReader reader = new AvroFieldReader(readerSchema);
+    reader.setSchema(writerSchema);
+    Record record = RecordCreator.create();
+    record.set(reader.read(record, DecoderFactory.get().binaryDecoder(encode(writerSchema, datum), null)));
+
+    Assert.assertEquals(Field.create(5L), record.get("/a"));
+    Assert.assertEquals(Field.create("v"), record.get("/b"));
+    Assert.assertEquals(Field.create("d"), record.get("/c"));
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaParseException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestAvroSchemaCache {
+
+  private static final String SCHEMA = "{\"type\": \"record\", \"name\": \"r\", \"fields\": [" +
+      "{\"name\": \"a\", \"type\": \"string\", \"default\": \"x\"}," +
+      "{\"name\": \"b\", \"type\": \"int\"}]}";
+
+  @Test
+  public void testEntriesAreShared() throws Exception {
+    AvroSchemaCache.Entry entry = AvroSchemaCache.get(SCHEMA);
+    Assert.assertSame(entry, AvroSchemaCache.get(new String(SCHEMA)));
+    Assert.assertEquals(SCHEMA, entry.getJson());
+    Assert.assertEquals(Schema.Type.RECORD, entry.getSchema().getType());
+    Assert.assertEquals("x", entry.getDefaultValues().get("r.a"));
+    Assert.assertSame(entry.getSchema(), entry.getWriter().getSchema());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testDefaultValuesAreImmutable() throws Exception {
+    AvroSchemaCache.get(SCHEMA).getDefaultValues().clear();
+  }
+
+  @Test(expected = SchemaParseException.class)
+  public void testInvalidSchema() throws Exception {
+    AvroSchemaCache.get("{\"type\": \"record\"}");
+  }
+
+}
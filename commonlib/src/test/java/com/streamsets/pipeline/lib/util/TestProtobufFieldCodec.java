@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.util;
+
+import com.google.common.io.Resources;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.DescriptorProtos;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.ExtensionRegistry;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class TestProtobufFieldCodec {
+
+  private final Map<String, Set<Descriptors.FileDescriptor>> fileDescriptorDependentsMap = new HashMap<>();
+  private final Map<String, Descriptors.FileDescriptor> fileDescriptorMap = new HashMap<>();
+  private final Map<String, Object> defaultValueMap = new HashMap<>();
+  private final Map<String, Set<Descriptors.FieldDescriptor>> typeToExtensionMap = new HashMap<>();
+  private Descriptors.Descriptor md;
+  private ExtensionRegistry extensionRegistry;
+  private ProtobufFieldCodec codec;
+
+  @Before
+  public void setUp() throws Exception {
+    FileInputStream fin = new FileInputStream(Resources.getResource("Employee.desc").getPath());
+    DescriptorProtos.FileDescriptorSet set = DescriptorProtos.FileDescriptorSet.parseFrom(fin);
+    ProtobufTypeUtil.getAllFileDescriptors(set, fileDescriptorDependentsMap, fileDescriptorMap);
+    ProtobufTypeUtil.populateDefaultsAndExtensions(fileDescriptorMap, typeToExtensionMap, defaultValueMap);
+    md = ProtobufTypeUtil.getDescriptor(set, fileDescriptorMap, "Employee.desc", "util.Employee");
+    extensionRegistry = ProtobufTestUtil.createExtensionRegistry(typeToExtensionMap);
+    codec = new ProtobufFieldCodec(md, typeToExtensionMap, defaultValueMap);
+  }
+
+  @Test
+  public void testRead() throws Exception {
+    List<DynamicMessage> messages = ProtobufTestUtil.getMessages(
+        md,
+        extensionRegistry,
+        ProtobufTestUtil.getProtoBufData()
+    );
+
+    for (int i = 0; i < messages.size(); i++) {
+      Record record = RecordCreator.create();
+      Field field = codec.read(record, CodedInputStream.newInstance(messages.get(i).toByteArray()));
+      ProtobufTestUtil.checkProtobufRecords(field, i);
+      ProtobufTestUtil.checkProtobufRecordsForExtensions(field, i);
+      ProtobufTestUtil.checkRecordForUnknownFields(record, i);
+
+      // same fields and header as the dynamic message conversion
+      Record expected = RecordCreator.create();
+      Assert.assertEquals(
+          ProtobufTypeUtil.protobufToSdcField(expected, "", md, typeToExtensionMap, messages.get(i)),
+          field
+      );
+      for (String attribute : expected.getHeader().getAttributeNames()) {
+        Assert.assertEquals(expected.getHeader().getAttribute(attribute), record.getHeader().getAttribute(attribute));
+      }
+    }
+  }
+
+  @Test
+  public void testWrite() throws Exception {
+    List<Record> protobufRecords = ProtobufTestUtil.getProtobufRecords();
+    ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+    for (Record record : protobufRecords) {
+      codec.write(record, bOut, true);
+
+      // same bytes as the dynamic message conversion
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      codec.write(record, out, false);
+      Assert.assertArrayEquals(
+          ProtobufTypeUtil.sdcFieldToProtobufMsg(record, md, typeToExtensionMap, defaultValueMap).toByteArray(),
+          out.toByteArray()
+      );
+    }
+    byte[] bytes = bOut.toByteArray();
+    ProtobufTestUtil.checkProtobufDataFields(bytes);
+    ProtobufTestUtil.checkProtobufDataExtensions(bytes);
+    ProtobufTestUtil.checkProtobufDataUnknownFields(bytes);
+  }
+
+  @Test
+  public void testOneof() throws Exception {
+    Descriptors.Descriptor descriptor = OneofProto.getDescriptor().findMessageTypeByName("Oneof");
+    ProtobufFieldCodec oneofCodec = new ProtobufFieldCodec(descriptor, typeToExtensionMap, defaultValueMap);
+
+    // the last field of the oneof in declaration order wins
+    Record record = RecordCreator.create();
+    Map<String, Field> oneof = new HashMap<>();
+    oneof.put("oneofInt", Field.create(5));
+    oneof.put("oneofString", Field.create("Hello"));
+    record.set(Field.create(oneof));
+    ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+    oneofCodec.write(record, bOut, false);
+    OneofProto.Oneof message = OneofProto.Oneof.parseFrom(bOut.toByteArray());
+    Assert.assertEquals(OneofProto.Oneof.OneofNameCase.ONEOFSTRING, message.getOneofNameCase());
+
+    byte[] bytes = OneofProto.Oneof.newBuilder().setOneofInt(5).build().toByteArray();
+    Field field = oneofCodec.read(RecordCreator.create(), CodedInputStream.newInstance(bytes));
+    Assert.assertEquals(5, field.getValueAsMap().get("oneofInt").getValueAsInteger());
+    Assert.assertEquals("", field.getValueAsMap().get("oneofString").getValue());
+  }
+
+  @Test
+  public void testRepeated() throws Exception {
+    Descriptors.Descriptor descriptor = RepeatedProto.getDescriptor().findMessageTypeByName("Repeated");
+    ProtobufFieldCodec repeatedCodec = new ProtobufFieldCodec(descriptor, typeToExtensionMap, defaultValueMap);
+
+    Record record = RecordCreator.create();
+    Map<String, Field> repeated = new HashMap<>();
+    repeated.put("samples", Field.create(Arrays.asList(Field.create(1), Field.create(2), Field.create(3))));
+    record.set(Field.create(repeated));
+    ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+    repeatedCodec.write(record, bOut, true);
+    DynamicMessage message = DynamicMessage.parseDelimitedFrom(descriptor, new ByteArrayInputStream(bOut.toByteArray()));
+    Assert.assertEquals(3, message.getRepeatedFieldCount(descriptor.findFieldByName("samples")));
+    Field field = repeatedCodec.read(RecordCreator.create(), CodedInputStream.newInstance(message.toByteArray()));
+    Assert.assertEquals(repeated.get("samples"), field.getValueAsMap().get("samples"));
+
+    // null repeated fields are treated as empty lists
+    repeated.put("samples", Field.create(Field.Type.LIST, null));
+    bOut.reset();
+    repeatedCodec.write(record, bOut, false);
+    message = DynamicMessage.parseFrom(descriptor, bOut.toByteArray());
+    Assert.assertEquals(0, message.getRepeatedFieldCount(descriptor.findFieldByName("samples")));
+    field = repeatedCodec.read(RecordCreator.create(), CodedInputStream.newInstance(bOut.toByteArray()));
+    Assert.assertEquals(
+        ProtobufTypeUtil.protobufToSdcField(RecordCreator.create(), "", descriptor, typeToExtensionMap, message),
+        field
+    );
+  }
+
+}
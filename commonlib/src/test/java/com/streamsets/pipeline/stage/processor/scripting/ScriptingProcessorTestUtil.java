@@ -729,6 +729,56 @@ public class ScriptingProcessorTestUtil {
     assertEquals("record_value", records.get(1).get("/record_value").getValueAsString());
   }
 
+  public static <C extends Processor> void verifyUnchangedFieldsPreserved(
+      Class<C> clazz,
+      Processor processor
+  ) throws StageException {
+    ProcessorRunner runner = new ProcessorRunner.Builder(clazz, processor)
+        .addOutputLane("lane")
+        .build();
+
+    Record record = RecordCreator.create();
+    Field date = Field.createDate(new Date());
+    date.setAttribute("attribute", "value");
+    Map<String, Field> nested = new LinkedHashMap<>();
+    nested.put("a", Field.create(Field.Type.INTEGER, null));
+    nested.put("b", Field.create(Arrays.asList(Field.create('c'), Field.createTime(new Date()))));
+    Map<String, Field> map = new LinkedHashMap<>();
+    map.put("date", date);
+    map.put("nested", Field.create(nested));
+    map.put("changed", Field.create(1));
+    record.set(Field.createListMap(new LinkedHashMap<>(map)));
+    Field expectedNested = Field.create(nested).clone();
+
+    runner.runInit();
+    StageRunner.Output output;
+    try {
+      output = runner.runProcess(Collections.singletonList(record));
+    } finally {
+      runner.runDestroy();
+    }
+    List<Record> records = output.getRecords().get("lane");
+    assertEquals(2, records.size());
+
+    // fields the script did not change keep their type and attributes
+    Record outputRecord = records.get(0);
+    assertEquals(Field.Type.LIST_MAP, outputRecord.get().getType());
+    assertEquals(
+        Arrays.asList("date", "nested", "changed"),
+        new ArrayList<>(outputRecord.get().getValueAsListMap().keySet())
+    );
+    assertEquals(Field.Type.DATE, outputRecord.get("/date").getType());
+    assertEquals("value", outputRecord.get("/date").getAttribute("attribute"));
+    assertEquals(expectedNested, outputRecord.get("/nested"));
+    assertEquals(2L, outputRecord.get("/changed").getValueAsLong());
+
+    // fields copied to another record are not shared with the original record
+    Record newRecord = records.get(1);
+    assertEquals(expectedNested, newRecord.get());
+    outputRecord.get("/nested").getValueAsMap().put("new", Field.create(true));
+    Assert.assertFalse(newRecord.has("/new"));
+  }
+
   public static <C extends Processor> void verifyRecordHeaderAttribute(
       Class<C> clazz,
       Processor processor,
@@ -158,29 +158,8 @@ public abstract class ELDefinitionExtractor {
       List<ElFunctionDefinition> fDefs = new ArrayList<>();
       for (Class<?> klass : augmentedClasses) {
         for (Method method : klass.getMethods()) {
-          ElFunctionDefinition fDef = elFunctions.get(method);
-          if (fDef == null) {
-            ElFunction fAnnotation = method.getAnnotation(ElFunction.class);
-            if (fAnnotation != null) {
-              String fName = fAnnotation.name();
-              if (!fAnnotation.prefix().isEmpty()) {
-                fName = fAnnotation.prefix() + ":" + fName;
-              }
-              Annotation[][] pAnnotations = method.getParameterAnnotations();
-              Class<?>[] pTypes = method.getParameterTypes();
-              List<ElFunctionArgumentDefinition> fArgDefs = new ArrayList<>(pTypes.length);
-              for (int i = 0; i < pTypes.length; i++) {
-                fArgDefs.add(new ElFunctionArgumentDefinition(getParamAnnotation(pAnnotations[i]).value(),
-                                                              pTypes[i].getSimpleName()));
-              }
-              fDef = new ElFunctionDefinition(Integer.toString(indexCounter.incrementAndGet()), fAnnotation.prefix(),
-                                              fName, fAnnotation.description(), fAnnotation.implicitOnly(), fArgDefs,
-                                              method.getReturnType().getSimpleName(), method
-              );
-              elFunctionsIdx.put(fDef.getIndex(), fDef);
-              elFunctions.put(method, fDef);
-            }
-          }
+          // stage libraries are loaded in parallel, a method is defined and indexed once
+          ElFunctionDefinition fDef = elFunctions.computeIfAbsent(method, this::createFunction);
           if (fDef != null) {
             fDefs.add(fDef);
           }
@@ -192,6 +171,30 @@ public abstract class ELDefinitionExtractor {
     }
   }
 
+  private ElFunctionDefinition createFunction(Method method) {
+    ElFunctionDefinition fDef = null;
+    ElFunction fAnnotation = method.getAnnotation(ElFunction.class);
+    if (fAnnotation != null) {
+      String fName = fAnnotation.name();
+      if (!fAnnotation.prefix().isEmpty()) {
+        fName = fAnnotation.prefix() + ":" + fName;
+      }
+      Annotation[][] pAnnotations = method.getParameterAnnotations();
+      Class<?>[] pTypes = method.getParameterTypes();
+      List<ElFunctionArgumentDefinition> fArgDefs = new ArrayList<>(pTypes.length);
+      for (int i = 0; i < pTypes.length; i++) {
+        fArgDefs.add(new ElFunctionArgumentDefinition(getParamAnnotation(pAnnotations[i]).value(),
+                                                      pTypes[i].getSimpleName()));
+      }
+      fDef = new ElFunctionDefinition(Integer.toString(indexCounter.incrementAndGet()), fAnnotation.prefix(),
+                                      fName, fAnnotation.description(), fAnnotation.implicitOnly(), fArgDefs,
+                                      method.getReturnType().getSimpleName(), method
+      );
+      elFunctionsIdx.put(fDef.getIndex(), fDef);
+    }
+    return fDef;
+  }
+
   private List<ErrorMessage> validateConstants(Set<Class> augmentedClasses, Object contextMsg) {
     List<ErrorMessage> errors = new ArrayList<>();
     for (Class<?> klass : augmentedClasses) {
@@ -231,24 +234,8 @@ public abstract class ELDefinitionExtractor {
       List<ElConstantDefinition> cDefs = new ArrayList<>();
       for (Class<?> klass : augmentedClasses) {
         for (Field field : klass.getFields()) {
-          ElConstantDefinition cDef = elConstants.get(field);
-          if (cDef == null) {
-            ElConstant cAnnotation = field.getAnnotation(ElConstant.class);
-            if (cAnnotation != null) {
-              String cName = cAnnotation.name();
-              Object value;
-              try {
-                value = field.get(null);
-              } catch (IllegalAccessException ex) {
-                throw new IllegalArgumentException(Utils.format("{}, could not retrieve constant '{}' value: {}",
-                                                                contextMsg, cName, ex.toString(), ex));
-              }
-              cDef = new ElConstantDefinition(Integer.toString(indexCounter.incrementAndGet()), cName,
-                                              cAnnotation.description(), field.getType().getSimpleName(), value);
-              elConstantsIdx.put(cDef.getIndex(), cDef);
-              elConstants.put(field, cDef);
-            }
-          }
+          // stage libraries are loaded in parallel, a field is defined and indexed once
+          ElConstantDefinition cDef = elConstants.computeIfAbsent(field, f -> createConstant(f, contextMsg));
           if (cDef != null) {
             cDefs.add(cDef);
           }
@@ -260,4 +247,23 @@ public abstract class ELDefinitionExtractor {
     }
   }
 
+  private ElConstantDefinition createConstant(Field field, Object contextMsg) {
+    ElConstantDefinition cDef = null;
+    ElConstant cAnnotation = field.getAnnotation(ElConstant.class);
+    if (cAnnotation != null) {
+      String cName = cAnnotation.name();
+      Object value;
+      try {
+        value = field.get(null);
+      } catch (IllegalAccessException ex) {
+        throw new IllegalArgumentException(Utils.format("{}, could not retrieve constant '{}' value: {}",
+                                                        contextMsg, cName, ex.toString(), ex));
+      }
+      cDef = new ElConstantDefinition(Integer.toString(indexCounter.incrementAndGet()), cName,
+                                      cAnnotation.description(), field.getType().getSimpleName(), value);
+      elConstantsIdx.put(cDef.getIndex(), cDef);
+    }
+    return cDef;
+  }
+
 }
@@ -21,25 +21,33 @@ import com.google.common.collect.ImmutableList;
 import com.streamsets.datacollector.alerts.AlertEventListener;
 import com.streamsets.datacollector.execution.alerts.AlertInfo;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.metrics.MetricsDelta;
 import com.streamsets.datacollector.metrics.MetricsEventListener;
 import com.streamsets.datacollector.restapi.bean.BeanHelper;
 import com.streamsets.dc.execution.manager.standalone.ThreadUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class EventListenerManager {
   private static final Logger LOG = LoggerFactory.getLogger(EventListenerManager.class);
-  private final Map<String, List<MetricsEventListener>> metricsEventListenerMap;
+  private final Map<String, List<MetricsListenerRegistration>> metricsEventListenerMap;
+  // delta listeners of a pipeline with the same notification interval share a delta group
+  private final Map<String, Map<Long, DeltaGroup>> deltaGroupMap;
+  private final AtomicLong broadcastCount;
   private final List<StateEventListener> stateEventListenerList;
   private final List<AlertEventListener> alertEventListenerList;
 
   public EventListenerManager() {
     metricsEventListenerMap = new HashMap<>();
+    deltaGroupMap = new HashMap<>();
+    broadcastCount = new AtomicLong();
     stateEventListenerList = new ArrayList<>();
     alertEventListenerList = new ArrayList<>();
   }
@@ -61,20 +69,50 @@ public class EventListenerManager {
   }
 
   public void addMetricsEventListener(String pipelineName, MetricsEventListener metricsEventListener) {
+    addMetricsEventListener(pipelineName, metricsEventListener, false, 0);
+  }
+
+  /**
+   * Registers a metrics listener.
+   *
+   * @param delta if the listener receives delta envelopes, see {@link MetricsDelta}, instead of the plain metrics.
+   * @param notificationInterval minimum interval between two notifications of the listener in milliseconds, the
+   * listener is notified of every metrics broadcast if 0.
+   */
+  public void addMetricsEventListener(
+      String pipelineName,
+      MetricsEventListener metricsEventListener,
+      boolean delta,
+      long notificationInterval
+  ) {
     synchronized (metricsEventListenerMap) {
-      List<MetricsEventListener> metricsEventListeners = metricsEventListenerMap.get(pipelineName);
+      List<MetricsListenerRegistration> metricsEventListeners = metricsEventListenerMap.get(pipelineName);
       if(metricsEventListeners == null) {
         metricsEventListeners = new ArrayList<>();
         metricsEventListenerMap.put(pipelineName, metricsEventListeners);
       }
-      metricsEventListeners.add(metricsEventListener);
+      DeltaGroup deltaGroup = null;
+      if (delta) {
+        deltaGroup = deltaGroupMap.computeIfAbsent(pipelineName, name -> new HashMap<>())
+            .computeIfAbsent(notificationInterval, DeltaGroup::new);
+      }
+      metricsEventListeners.add(new MetricsListenerRegistration(metricsEventListener, notificationInterval, deltaGroup));
     }
   }
 
   public void removeMetricsEventListener(String pipelineName, MetricsEventListener metricsEventListener) {
     synchronized (metricsEventListenerMap) {
       if(metricsEventListenerMap.containsKey(pipelineName)) {
-        metricsEventListenerMap.get(pipelineName).remove(metricsEventListener);
+        List<MetricsListenerRegistration> metricsEventListeners = metricsEventListenerMap.get(pipelineName);
+        metricsEventListeners.removeIf(registration -> registration.listener == metricsEventListener);
+        // a delta group keeps the last metrics its listeners were notified of
+        Map<Long, DeltaGroup> deltaGroups = deltaGroupMap.get(pipelineName);
+        if (deltaGroups != null) {
+          deltaGroups.values().removeIf(deltaGroup -> !isUsed(deltaGroup, metricsEventListeners));
+          if (deltaGroups.isEmpty()) {
+            deltaGroupMap.remove(pipelineName);
+          }
+        }
       }
     }
   }
@@ -95,6 +133,23 @@ public class EventListenerManager {
     return metricsEventListenerMap.get(pipelineName) != null &&  metricsEventListenerMap.get(pipelineName).size() > 0;
   }
 
+  /**
+   * Returns if any metrics listener of the pipeline is to be notified by a broadcast at the given time.
+   */
+  public boolean hasMetricEventListenersDue(String pipelineName, long now) {
+    synchronized (metricsEventListenerMap) {
+      List<MetricsListenerRegistration> metricsEventListeners = metricsEventListenerMap.get(pipelineName);
+      if (metricsEventListeners != null) {
+        for (MetricsListenerRegistration registration : metricsEventListeners) {
+          if (registration.isDue(now)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+  }
+
   public void broadcastAlerts(AlertInfo alertInfo) {
     if(alertEventListenerList.size() > 0) {
       try {
@@ -149,14 +204,25 @@ public class EventListenerManager {
 
   public void broadcastMetrics(String pipelineName, String metricsJSONStr) {
     if(metricsEventListenerMap.containsKey(pipelineName) && metricsEventListenerMap.get(pipelineName).size() > 0) {
-      List<MetricsEventListener> metricsEventListenerListCopy;
+      List<MetricsListenerRegistration> metricsEventListenerListCopy;
       synchronized (metricsEventListenerMap) {
         metricsEventListenerListCopy = new ArrayList<>(metricsEventListenerMap.get(pipelineName));
       }
 
-      for(MetricsEventListener metricsEventListener : metricsEventListenerListCopy) {
+      long broadcast = broadcastCount.incrementAndGet();
+      long now = System.currentTimeMillis();
+      for(MetricsListenerRegistration registration : metricsEventListenerListCopy) {
         try {
-          metricsEventListener.notification(metricsJSONStr);
+          if (registration.deltaGroup == null) {
+            if (registration.markNotified(now)) {
+              registration.listener.notification(metricsJSONStr);
+            }
+          } else {
+            MetricsDelta metricsDelta = registration.deltaGroup.markNotified(now, broadcast, metricsJSONStr);
+            if (metricsDelta != null) {
+              registration.notify(metricsDelta);
+            }
+          }
         } catch(Exception ex) {
           LOG.warn("Error while notifying metrics, {}", ex.toString(), ex);
         }
@@ -164,4 +230,91 @@ public class EventListenerManager {
     }
   }
 
+  private static boolean isUsed(DeltaGroup deltaGroup, List<MetricsListenerRegistration> registrations) {
+    for (MetricsListenerRegistration registration : registrations) {
+      if (registration.deltaGroup == deltaGroup) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Delta listeners with the same notification interval. They are notified together, the delta of the group is
+   * computed from the metrics of the group's previous notification, so each version is seen by all the listeners.
+   */
+  private static class DeltaGroup {
+    private final long notificationInterval;
+    private final MetricsDelta metricsDelta;
+    private long lastNotification;
+    private long lastBroadcast;
+
+    DeltaGroup(long notificationInterval) {
+      this.notificationInterval = notificationInterval;
+      metricsDelta = new MetricsDelta();
+    }
+
+    synchronized boolean isDue(long now) {
+      return MetricsListenerRegistration.isDue(notificationInterval, lastNotification, now);
+    }
+
+    // returns the delta updated with the broadcast's metrics, null if the group is not notified of the broadcast
+    synchronized MetricsDelta markNotified(long now, long broadcast, String metricsJSONStr) throws IOException {
+      if (lastBroadcast != broadcast) {
+        if (!isDue(now)) {
+          return null;
+        }
+        metricsDelta.update(metricsJSONStr);
+        lastNotification = now;
+        lastBroadcast = broadcast;
+      }
+      return metricsDelta;
+    }
+  }
+
+  private static class MetricsListenerRegistration {
+    private final MetricsEventListener listener;
+    private final long notificationInterval;
+    // null if the listener receives the plain metrics
+    private final DeltaGroup deltaGroup;
+    private long lastNotification;
+    private long lastVersion;
+
+    MetricsListenerRegistration(MetricsEventListener listener, long notificationInterval, DeltaGroup deltaGroup) {
+      this.listener = listener;
+      this.notificationInterval = notificationInterval;
+      this.deltaGroup = deltaGroup;
+    }
+
+    static boolean isDue(long notificationInterval, long lastNotification, long now) {
+      // broadcasts are scheduled at a fixed rate but do not run exactly on time, allow them to be 10% early
+      return notificationInterval <= 0 || now - lastNotification >= notificationInterval - notificationInterval / 10;
+    }
+
+    synchronized boolean isDue(long now) {
+      return deltaGroup != null ? deltaGroup.isDue(now) : isDue(notificationInterval, lastNotification, now);
+    }
+
+    synchronized boolean markNotified(long now) {
+      if (!isDue(now)) {
+        return false;
+      }
+      lastNotification = now;
+      return true;
+    }
+
+    // a listener that missed the previous version cannot apply the delta, it gets the full metrics
+    synchronized void notify(MetricsDelta metricsDelta) {
+      long version;
+      String message;
+      synchronized (metricsDelta) {
+        version = metricsDelta.getVersion();
+        message = lastVersion == version - 1 && metricsDelta.getDelta() != null ?
+            metricsDelta.getDelta() : metricsDelta.getFull();
+      }
+      listener.notification(message);
+      lastVersion = version;
+    }
+  }
+
 }
@@ -15,10 +15,12 @@
  */
 package com.streamsets.datacollector.execution;
 
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.PipelineException;
 
 import java.io.Closeable;
 import java.io.InputStream;
+import java.util.List;
 
 public interface Snapshot extends Closeable {
 
@@ -26,4 +28,10 @@ public interface Snapshot extends Closeable {
 
   public InputStream getOutput() throws PipelineException;
 
+  // instance names of the stages of each captured batch, null if the snapshot has no data or cannot be read by batch
+  public List<List<String>> getIndex() throws PipelineException;
+
+  // output of the stages of a captured batch, of the given stage only if stageInstanceName is not null
+  public List<StageOutput> getBatch(int batch, String stageInstanceName) throws PipelineException;
+
 }
@@ -29,7 +29,10 @@ public interface SnapshotStore {
   // creates a snapshot info, in progress
   public SnapshotInfo create(String user, String name, String rev, String id, String label) throws PipelineException;;
 
-  // saves the data of the snapshot and updates the corresponding snapshot info.
+  // appends a captured batch to the data of the snapshot, the snapshot info remains in progress.
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch) throws PipelineException;
+
+  // appends the given batches to the data of the snapshot and updates the corresponding snapshot info.
   public SnapshotInfo save(
       String name,
       String rev,
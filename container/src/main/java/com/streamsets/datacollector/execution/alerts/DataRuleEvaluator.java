@@ -18,6 +18,7 @@ package com.streamsets.datacollector.execution.alerts;
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.EvictingQueue;
 import com.streamsets.datacollector.alerts.AlertsUtil;
@@ -52,6 +53,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class DataRuleEvaluator {
 
@@ -109,6 +111,16 @@ public class DataRuleEvaluator {
   private final String rev;
   private final MetricRegistryJson metricRegistryJson;
   private final BlockingQueue<Record> statsQueue;
+  private final ELEvaluator conditionEvaluator;
+  private final ELEvaluator alertTextEvaluator;
+  private final ELVariables elVars;
+
+  // state of the sample being evaluated
+  private EvictingQueue<SampledRecord> sampledRecords;
+  private int matchingRecordCount;
+  private int evaluatedRecordCount;
+  private long evaluationNanos;
+  private List<String> alertTextForMatchRecords;
 
   public DataRuleEvaluator(
       String name,
@@ -132,49 +144,82 @@ public class DataRuleEvaluator {
     this.alertManager = alertManager;
     this.metricRegistryJson = metricRegistryJson;
     this.statsQueue = statsQueue;
+    conditionEvaluator = new ELEvaluator("el", false, RuleELRegistry.getRuleELs(dataRuleDefinition.getFamily()));
+    alertTextEvaluator = new ELEvaluator("alertInfo", false, RuleELRegistry.getRuleELs(RuleELRegistry.ALERT));
+    // the ElVar context lives as long as the evaluator to be able to have a 'rule' context for the alert:info() EL.
+    elVars = new ELVariables();
+    elVars.addContextVariable(PIPELINE_CONTEXT, pipelineELContext);
+    elVars.addContextVariable(RULE_ID_CONTEXT, dataRuleDefinition.getId());
   }
 
+  /**
+   * Evaluates the rule over the given sample, see {@link #beginEvaluation(Map)}, {@link #evaluateRecord(Record)} and
+   * {@link #endEvaluation(String)} to evaluate several rules in a single pass over a shared sample.
+   */
   public void evaluateRule(List<Record> sampleRecords, String lane,
       Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap) {
-
     if (dataRuleDefinition.isEnabled() && sampleRecords != null && sampleRecords.size() > 0) {
+      beginEvaluation(ruleToSampledRecordsMap);
+      for (Record r : sampleRecords) {
+        evaluateRecord(r);
+      }
+      endEvaluation(lane);
+    }
+  }
 
-      // initializing the ElVar context for the duration of the rule evalution to be able to have a 'rule' context
-      // for the alert:info() EL.
-      ELVariables elVars = new ELVariables();
-      elVars.addContextVariable(PIPELINE_CONTEXT, pipelineELContext);
-      elVars.addContextVariable(RULE_ID_CONTEXT, dataRuleDefinition.getId());
-
-      //cache all sampled records for this data rule definition in an evicting queue
-      EvictingQueue<SampledRecord> sampledRecords = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
-      if (sampledRecords == null) {
-        int maxSize = configuration.get(
-            Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY,
-            Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_DEFAULT);
-        int size = dataRuleDefinition.getSamplingRecordsToRetain();
-        if (size > maxSize) {
-          size = maxSize;
-        }
-        sampledRecords = EvictingQueue.create(size);
-        ruleToSampledRecordsMap.put(dataRuleDefinition.getId(), sampledRecords);
+  /**
+   * Starts the evaluation of a sample, the records are then given one by one to {@link #evaluateRecord(Record)} and
+   * the evaluation is completed by {@link #endEvaluation(String)}.
+   */
+  public void beginEvaluation(Map<String, EvictingQueue<SampledRecord>> ruleToSampledRecordsMap) {
+    //cache all sampled records for this data rule definition in an evicting queue
+    sampledRecords = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
+    if (sampledRecords == null) {
+      int maxSize = configuration.get(
+          Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY,
+          Constants.SAMPLED_RECORDS_MAX_CACHE_SIZE_DEFAULT);
+      int size = dataRuleDefinition.getSamplingRecordsToRetain();
+      if (size > maxSize) {
+        size = maxSize;
       }
-      //Meter
-      //evaluate sample set of records for condition
-      int matchingRecordCount = 0;
-      int evaluatedRecordCount = 0;
-      List<String> alertTextForMatchRecords = new ArrayList<>();
-      for (Record r : sampleRecords) {
-        evaluatedRecordCount++;
-        //evaluate
-        boolean success = evaluate(elVars, r, dataRuleDefinition.getCondition(), dataRuleDefinition.getId());
-        if (success) {
-          alertTextForMatchRecords.add(resolveAlertText(elVars, r, dataRuleDefinition));
-          sampledRecords.add(new SampledRecord(r, true));
-          matchingRecordCount++;
-        } else {
-          sampledRecords.add(new SampledRecord(r, false));
-        }
+      sampledRecords = EvictingQueue.create(size);
+      ruleToSampledRecordsMap.put(dataRuleDefinition.getId(), sampledRecords);
+    }
+    matchingRecordCount = 0;
+    evaluatedRecordCount = 0;
+    evaluationNanos = 0;
+    alertTextForMatchRecords = new ArrayList<>();
+  }
+
+  /**
+   * Evaluates the rule condition for a record of the sample.
+   */
+  public void evaluateRecord(Record r) {
+    long start = System.nanoTime();
+    evaluatedRecordCount++;
+    //evaluate
+    boolean success = evaluate(elVars, r, dataRuleDefinition.getCondition(), dataRuleDefinition.getId());
+    if (success) {
+      alertTextForMatchRecords.add(resolveAlertText(elVars, r, dataRuleDefinition));
+      sampledRecords.add(new SampledRecord(r, true));
+      matchingRecordCount++;
+    } else {
+      sampledRecords.add(new SampledRecord(r, false));
+    }
+    evaluationNanos += System.nanoTime() - start;
+  }
+
+  /**
+   * Updates the rule counters and meters with the evaluated sample and raises alerts if the threshold is crossed.
+   */
+  public void endEvaluation(String lane) {
+    if (evaluatedRecordCount > 0) {
+      //time spent evaluating the rule for this sample
+      Timer evaluationTimer = MetricsConfigurator.getTimer(metrics, USER_PREFIX + dataRuleDefinition.getId());
+      if (evaluationTimer == null) {
+        evaluationTimer = MetricsConfigurator.createTimer(metrics, USER_PREFIX + dataRuleDefinition.getId(), name, rev);
       }
+      evaluationTimer.update(evaluationNanos, TimeUnit.NANOSECONDS);
 
       if (dataRuleDefinition.isAlertEnabled()) {
         //Keep the counters and meters ready before execution
@@ -300,7 +345,7 @@ public class DataRuleEvaluator {
         record,
         el,
         elVars,
-        new ELEvaluator("el",false, RuleELRegistry.getRuleELs(dataRuleDefinition.getFamily()))
+        conditionEvaluator
       );
     } catch (ObserverException e) {
       //A faulty condition should not take down rest of the alerts with it.
@@ -322,10 +367,9 @@ public class DataRuleEvaluator {
         alertText = "";
       }
 
-      ELEvaluator elEval = new ELEvaluator("alertInfo",false, RuleELRegistry.getRuleELs(RuleELRegistry.ALERT));
       RecordEL.setRecordInContext(elVars, record);
 
-      return elEval.eval(elVars, alertText, String.class);
+      return alertTextEvaluator.eval(elVars, alertText, String.class);
 
     } catch (ELEvalException e) {
       //A faulty el alerttext should not take down rest of the alerts with it.
@@ -163,7 +163,8 @@ public class MetricsEventRunnable implements Runnable {
       if(threadHealthReporter != null) {
         threadHealthReporter.reportHealth(RUNNABLE_NAME, scheduledDelay, System.currentTimeMillis());
       }
-      ObjectMapper objectMapper = ObjectMapperFactory.get();
+      // serialized once per refresh and shared by all the consumers, without indentation to keep it small
+      ObjectMapper objectMapper = ObjectMapperFactory.getOneLine();
       PipelineState state = pipelineStateStore.getState(name, rev);
       if (hasMetricEventListeners(state) ||
           (isDPMPipeline && (isWriteStatsToDPMDirectlyEnabled() || isStatAggregationEnabled()))) {
@@ -278,7 +279,9 @@ public class MetricsEventRunnable implements Runnable {
   }
 
   private boolean hasMetricEventListeners(PipelineState state) {
-    return eventListenerManager.hasMetricEventListeners(name) && state.getStatus().isActive();
+    // listeners with a notification interval longer than the refresh interval skip some refreshes
+    return eventListenerManager.hasMetricEventListenersDue(name, System.currentTimeMillis()) &&
+        state.getStatus().isActive();
   }
 
   protected boolean isRemotePipeline(PipelineState pipelineState) {
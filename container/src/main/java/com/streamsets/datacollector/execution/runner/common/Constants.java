@@ -43,6 +43,8 @@ public class Constants {
   public static final String SAMPLED_RECORDS_MAX_CACHE_SIZE_KEY = "observer.sampled.records.cache.size";
   public static final String MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_KEY = "observer.queue.offer.max.wait.time.ms";
   public static final int MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_DEFAULT = 1000;
+  public static final String OBSERVER_SAMPLING_MAX_BATCH_STRIDE_KEY = "observer.sampling.max.batch.stride";
+  public static final int OBSERVER_SAMPLING_MAX_BATCH_STRIDE_DEFAULT = 16;
   public static final String MESOS_JAR_URL = "mesos.jar.url";
   public static final String STATS_AGGREGATOR_QUEUE_SIZE_KEY = "stats.queue.size";
   public static final int STATS_AGGREGATOR_QUEUE_SIZE_DEFAULT = 1000;
@@ -59,6 +59,9 @@ public class DataObserverRunner {
   private final Map<String, Object> pipelineELContext;
   private BlockingQueue<Record> startsAggregatorQueue;
   private Map<String, Object> resolvedParameters;
+  // evaluators hold the compiled ELs of the rules, they are recreated on configuration changes
+  private final Map<String, DataRuleEvaluator> ruleIdToEvaluatorMap;
+  private RuleDefinitionsConfigBean ruleDefinitionsConfigBean;
 
   DataObserverRunner(
       String name,
@@ -70,6 +73,7 @@ public class DataObserverRunner {
   ) {
     this.metrics = metrics;
     this.ruleToSampledRecordsMap = new HashMap<>();
+    this.ruleIdToEvaluatorMap = new HashMap<>();
     this.configuration = configuration;
     this.alertManager = alertManager;
     this.name = name;
@@ -92,30 +96,15 @@ public class DataObserverRunner {
       List<DataRuleDefinition> dataRuleDefinitions = rulesConfigurationChangeRequest.getLaneToDataRuleMap().get(lane);
 
       if (dataRuleDefinitions != null) {
+        List<DataRuleEvaluator> evaluators = new ArrayList<>();
+        List<List<Record>> samples = new ArrayList<>();
         for (DataRuleDefinition dataRuleDefinition : dataRuleDefinitions) {
           //sampled records for that rule
           List<Record> sampledRecords = ruleIdToSampledRecords.get(dataRuleDefinition.getId());
           if(dataRuleDefinition.isEnabled()  && sampledRecords != null && sampledRecords.size() > 0) {
             //evaluate rule only if it is enabled and there are sampled records.
-            RuleDefinitionsConfigBean ruleDefinitionsConfigBean = PipelineBeanCreator.get()
-                .createRuleDefinitionsConfigBean(
-                    rulesConfigurationChangeRequest.getRuleDefinitions(),
-                    new ArrayList<Issue>(),
-                    resolvedParameters
-                );
-            DataRuleEvaluator dataRuleEvaluator = new DataRuleEvaluator(
-                name,
-                rev,
-                metrics,
-                alertManager,
-                ruleDefinitionsConfigBean,
-                pipelineELContext,
-                dataRuleDefinition,
-                configuration,
-                metricRegistryJson,
-                startsAggregatorQueue
-            );
-            dataRuleEvaluator.evaluateRule(sampledRecords, lane, ruleToSampledRecordsMap);
+            evaluators.add(getDataRuleEvaluator(dataRuleDefinition));
+            samples.add(sampledRecords);
           } else if (!dataRuleDefinition.isEnabled()) {
             //If data rule is disabled, clear the sampled records for that rule
             EvictingQueue<SampledRecord> records = ruleToSampledRecordsMap.get(dataRuleDefinition.getId());
@@ -124,18 +113,88 @@ public class DataObserverRunner {
             }
           }
         }
+        if (!evaluators.isEmpty()) {
+          evaluateRules(lane, evaluators, samples);
+        }
+      }
+    }
+  }
+
+  /**
+   * Evaluates all the rules of a lane in a single pass over the lane sample.
+   * <p/>
+   * The rules of a lane share the record clones of the sample, the samples of the rules with a lower sampling
+   * percentage being subsequences of the sample of the rule with the highest one. Each record is evaluated by all the
+   * rules that sampled it before moving to the next record, in the order the records were sampled.
+   */
+  private void evaluateRules(String lane, List<DataRuleEvaluator> evaluators, List<List<Record>> samples) {
+    List<Record> longest = samples.get(0);
+    for (List<Record> sample : samples) {
+      if (sample.size() > longest.size()) {
+        longest = sample;
+      }
+    }
+    int[] positions = new int[evaluators.size()];
+    for (DataRuleEvaluator evaluator : evaluators) {
+      evaluator.beginEvaluation(ruleToSampledRecordsMap);
+    }
+    for (Record record : longest) {
+      for (int i = 0; i < evaluators.size(); i++) {
+        List<Record> sample = samples.get(i);
+        if (positions[i] < sample.size() && sample.get(positions[i]) == record) {
+          evaluators.get(i).evaluateRecord(record);
+          positions[i]++;
+        }
+      }
+    }
+    for (int i = 0; i < evaluators.size(); i++) {
+      // records that are not part of the longest sample, only if the samples were not taken from the same clones
+      List<Record> sample = samples.get(i);
+      for (int j = positions[i]; j < sample.size(); j++) {
+        evaluators.get(i).evaluateRecord(sample.get(j));
+      }
+      evaluators.get(i).endEvaluation(lane);
+    }
+  }
+
+  private DataRuleEvaluator getDataRuleEvaluator(DataRuleDefinition dataRuleDefinition) {
+    DataRuleEvaluator dataRuleEvaluator = ruleIdToEvaluatorMap.get(dataRuleDefinition.getId());
+    if (dataRuleEvaluator == null) {
+      if (ruleDefinitionsConfigBean == null) {
+        ruleDefinitionsConfigBean = PipelineBeanCreator.get().createRuleDefinitionsConfigBean(
+            rulesConfigurationChangeRequest.getRuleDefinitions(),
+            new ArrayList<Issue>(),
+            resolvedParameters
+        );
       }
+      dataRuleEvaluator = new DataRuleEvaluator(
+          name,
+          rev,
+          metrics,
+          alertManager,
+          ruleDefinitionsConfigBean,
+          pipelineELContext,
+          dataRuleDefinition,
+          configuration,
+          metricRegistryJson,
+          startsAggregatorQueue
+      );
+      ruleIdToEvaluatorMap.put(dataRuleDefinition.getId(), dataRuleEvaluator);
     }
+    return dataRuleEvaluator;
   }
 
   public void handleConfigurationChangeRequest(RulesConfigurationChangeRequest rulesConfigurationChangeRequest) {
     //update config changes
     this.rulesConfigurationChangeRequest = rulesConfigurationChangeRequest;
+    ruleDefinitionsConfigBean = null;
+    ruleIdToEvaluatorMap.clear();
 
     //remove metrics for changed / deleted rules
     for(String ruleId : rulesConfigurationChangeRequest.getRulesToRemove().keySet()) {
       MetricsConfigurator.removeMeter(metrics, USER_PREFIX + ruleId, name, rev);
       MetricsConfigurator.removeCounter(metrics, USER_PREFIX + ruleId, name, rev);
+      MetricsConfigurator.removeTimer(metrics, USER_PREFIX + ruleId, name, rev);
       EvictingQueue<SampledRecord> records = ruleToSampledRecordsMap.get(ruleId);
       if(records != null) {
         records.clear();
@@ -211,6 +270,7 @@ public class DataObserverRunner {
 
   public void setMetricRegistryJson(MetricRegistryJson metricRegistryJson) {
     this.metricRegistryJson = metricRegistryJson;
+    ruleIdToEvaluatorMap.clear();
   }
 
 }
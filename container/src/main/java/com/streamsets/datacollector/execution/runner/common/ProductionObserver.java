@@ -67,6 +67,11 @@ public class ProductionObserver implements Observer {
   /*Contains integers between 0 and 99 and n random numbers are selected by shuffling this list and picking the first
   n*/
   private final List<Integer> randomNumberSampleSpace;
+  /*Data rules sample one every samplingStride batches, the stride grows while the observer queue is more than half
+  full and shrinks back to 1 as the queue drains*/
+  private final int maxSamplingStride;
+  private int samplingStride;
+  private long observedBatches;
 
   @Inject
   public ProductionObserver(Configuration configuration, MetricsObserverRunner metricsObserverRunner) {
@@ -75,6 +80,9 @@ public class ProductionObserver implements Observer {
     this.laneToMaxRecordIndexMap = new HashMap<>();
     this.ruleIdToRecordIndexMap = new HashMap<>();
     this.laneToRecordCounterMap = new HashMap<>();
+    this.maxSamplingStride = Math.max(1, configuration.get(Constants.OBSERVER_SAMPLING_MAX_BATCH_STRIDE_KEY,
+        Constants.OBSERVER_SAMPLING_MAX_BATCH_STRIDE_DEFAULT));
+    this.samplingStride = 1;
     randomNumberSampleSpace = new ArrayList<>(100);
     for(int i = 0; i < 100; i++) {
       randomNumberSampleSpace.add(i);
@@ -116,6 +124,10 @@ public class ProductionObserver implements Observer {
 
   @Override
   public void observe(Pipe pipe, Map<String, List<Record>> snapshot) {
+    adjustSamplingStride();
+    if (observedBatches++ % samplingStride != 0) {
+      return;
+    }
     Map<String, Map<String, List<Record>>> laneToRecordsMap = new HashMap<>();
     Map<String, List<Record>> ruleIdToRecordsMap = new HashMap<>();
     Map<String, Integer> laneToRecordsSizeMap = new HashMap<>();
@@ -144,9 +156,34 @@ public class ProductionObserver implements Observer {
       LOG.error("Dropping DataRules Evaluation Request as observer queue is full. " +
         "Please resize the observer queue or decrease the sampling percentage.");
       //reconfigure queue size or tune sampling %
+      setSamplingStride(samplingStride * 2);
+    }
+  }
+
+  private void adjustSamplingStride() {
+    int queued = observeRequests.size();
+    int capacity = queued + observeRequests.remainingCapacity();
+    if (queued * 2 > capacity) {
+      setSamplingStride(samplingStride * 2);
+    } else if (queued * 10 < capacity) {
+      setSamplingStride(samplingStride / 2);
+    }
+  }
+
+  private void setSamplingStride(int stride) {
+    stride = Math.min(maxSamplingStride, Math.max(1, stride));
+    if (stride != samplingStride) {
+      LOG.info("Data rules now sample one every {} batches, observer queue has {} pending requests",
+          stride, observeRequests.size());
+      samplingStride = stride;
     }
   }
 
+  @VisibleForTesting
+  int getSamplingStride() {
+    return samplingStride;
+  }
+
   @Override
   public void setConfiguration(RulesConfigurationChangeRequest rulesConfigurationChangeRequest) {
     this.newConfig = rulesConfigurationChangeRequest;
@@ -64,6 +64,14 @@ public class CacheSnapshotStore implements SnapshotStore {
     }
   }
 
+  @Override
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
+      throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      snapshotStore.appendBatch(name, rev, id, snapshotBatch);
+    }
+  }
+
   @Override
   public SnapshotInfo save(
       String name,
@@ -18,6 +18,7 @@ package com.streamsets.datacollector.execution.snapshot.common;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.ContainerError;
 
 import java.io.Closeable;
@@ -25,6 +26,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 
 public class SnapshotImpl implements Snapshot, Closeable {
 
@@ -56,6 +58,17 @@ public class SnapshotImpl implements Snapshot, Closeable {
     return null;
   }
 
+  @Override
+  public List<List<String>> getIndex() {
+    // JSON snapshots can only be read whole
+    return null;
+  }
+
+  @Override
+  public List<StageOutput> getBatch(int batch, String stageInstanceName) {
+    return null;
+  }
+
   @Override
   public void close() throws IOException {
     snapshotInfo = null;
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.file;
+
+import com.esotericsoftware.kryo.io.Input;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.streamsets.datacollector.execution.Snapshot;
+import com.streamsets.datacollector.execution.SnapshotInfo;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.restapi.bean.StageOutputJson;
+import com.streamsets.datacollector.runner.PipelineRuntimeException;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.datacollector.util.ContainerError;
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Snapshot stored in the binary data file of {@link FileSnapshotStore}.
+ * <p/>
+ * The output of each stage is read from its position in the index, the JSON output is generated one stage output at a
+ * time so only one of them is held in memory.
+ */
+class FileSnapshot implements Snapshot {
+  private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+  private SnapshotInfo snapshotInfo;
+  private File dataFile;
+  private final List<List<SnapshotIndexJson.StageEntry>> batches;
+  private InputStream output;
+
+  FileSnapshot(SnapshotInfo snapshotInfo, File dataFile, SnapshotIndexJson index) {
+    this.snapshotInfo = snapshotInfo;
+    this.dataFile = dataFile;
+    this.batches = index.getBatches();
+  }
+
+  @Override
+  public SnapshotInfo getInfo() {
+    return snapshotInfo;
+  }
+
+  @Override
+  public InputStream getOutput() throws PipelineRuntimeException {
+    if (dataFile != null) {
+      try {
+        output = new JsonOutputStream(openData());
+        return output;
+      } catch (IOException ex) {
+        throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, snapshotInfo.getId(), snapshotInfo.getName(),
+            snapshotInfo.getRev(), ex.toString(), ex);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public List<List<String>> getIndex() {
+    if (dataFile == null) {
+      return null;
+    }
+    List<List<String>> index = new ArrayList<>(batches.size());
+    for (List<SnapshotIndexJson.StageEntry> entries : batches) {
+      List<String> stages = new ArrayList<>(entries.size());
+      for (SnapshotIndexJson.StageEntry entry : entries) {
+        stages.add(entry.getInstanceName());
+      }
+      index.add(stages);
+    }
+    return index;
+  }
+
+  @Override
+  public List<StageOutput> getBatch(int batch, String stageInstanceName) throws PipelineRuntimeException {
+    if (dataFile == null) {
+      return null;
+    }
+    Utils.checkArgument(batch >= 0 && batch < batches.size(), Utils.formatL("Invalid snapshot batch '{}'", batch));
+    List<StageOutput> stageOutputs = new ArrayList<>();
+    try (FileChannel channel = openData()) {
+      SnapshotDataCodec codec = new SnapshotDataCodec();
+      for (SnapshotIndexJson.StageEntry entry : batches.get(batch)) {
+        if (stageInstanceName == null || stageInstanceName.equals(entry.getInstanceName())) {
+          stageOutputs.add(readStageOutput(codec, channel, entry));
+        }
+      }
+    } catch (IOException ex) {
+      throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, snapshotInfo.getId(), snapshotInfo.getName(),
+          snapshotInfo.getRev(), ex.toString(), ex);
+    }
+    return stageOutputs;
+  }
+
+  @Override
+  public void close() throws IOException {
+    snapshotInfo = null;
+    if (dataFile != null && output != null) {
+      output.close();
+      output = null;
+      dataFile = null;
+    }
+  }
+
+  private FileChannel openData() throws IOException {
+    return new RandomAccessFile(dataFile, "r").getChannel();
+  }
+
+  private static StageOutput readStageOutput(
+      SnapshotDataCodec codec,
+      FileChannel channel,
+      SnapshotIndexJson.StageEntry entry
+  ) throws IOException {
+    channel.position(entry.getOffset());
+    int bufferSize = (int) Math.max(1, Math.min(entry.getLength(), MAX_BUFFER_SIZE));
+    // not closing the input, it would close the channel
+    return codec.read(new Input(Channels.newInputStream(channel), bufferSize));
+  }
+
+  /**
+   * Streams the snapshot data in the JSON format of the snapshot REST API, see
+   * {@link com.streamsets.datacollector.restapi.bean.SnapshotDataJson}.
+   */
+  private class JsonOutputStream extends InputStream {
+    private final FileChannel channel;
+    private final ObjectMapper json = ObjectMapperFactory.get();
+    private final SnapshotDataCodec codec = new SnapshotDataCodec();
+    private byte[] chunk = "{\"snapshotBatches\":[".getBytes(StandardCharsets.UTF_8);
+    private int position;
+    private int batch;
+    private int stage;
+    private boolean done;
+
+    JsonOutputStream(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    private boolean fill() throws IOException {
+      while (position >= chunk.length) {
+        if (done) {
+          return false;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (batch >= batches.size()) {
+          out.write(']');
+          out.write('}');
+          done = true;
+        } else {
+          List<SnapshotIndexJson.StageEntry> entries = batches.get(batch);
+          if (stage == 0) {
+            if (batch > 0) {
+              out.write(',');
+            }
+            out.write('[');
+          }
+          if (stage < entries.size()) {
+            if (stage > 0) {
+              out.write(',');
+            }
+            out.write(json.writeValueAsBytes(new StageOutputJson(readStageOutput(codec, channel, entries.get(stage)))));
+            stage++;
+          }
+          if (stage >= entries.size()) {
+            out.write(']');
+            batch++;
+            stage = 0;
+          }
+        }
+        chunk = out.toByteArray();
+        position = 0;
+      }
+      return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+      return fill() ? chunk[position++] & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      if (!fill()) {
+        return -1;
+      }
+      int read = Math.min(len, chunk.length - position);
+      System.arraycopy(chunk, position, b, off, read);
+      position += read;
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+
+}
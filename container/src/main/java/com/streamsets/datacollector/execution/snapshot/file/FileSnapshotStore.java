@@ -15,17 +15,16 @@
  */
 package com.streamsets.datacollector.execution.snapshot.file;
 
+import com.esotericsoftware.kryo.io.Output;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
-import com.streamsets.datacollector.execution.snapshot.common.SnapshotData;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotImpl;
 import com.streamsets.datacollector.execution.snapshot.common.SnapshotInfoImpl;
 import com.streamsets.datacollector.io.DataStore;
 import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
-import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotInfoJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
 import com.streamsets.datacollector.runner.StageOutput;
@@ -39,6 +38,7 @@ import javax.inject.Inject;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.InputStream;
@@ -47,9 +47,18 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+/**
+ * Stores each snapshot in its own directory.
+ * <p/>
+ * Captured batches are appended to a binary data file as they are captured, with the position of the output of each
+ * stage recorded in a JSON index. Snapshots saved by older versions in a single JSON file can still be read.
+ */
 public class FileSnapshotStore implements SnapshotStore {
   private static final String SNAPSHOT_FILE_NAME = "snapshot.json";
+  private static final String DATA_FILE_NAME = "snapshot.data";
+  private static final String INDEX_FILE_NAME = "snapshot-index.json";
   private static final String INFO_FILE_NAME = "info.json";
+  private static final int BUFFER_SIZE = 64 * 1024;
   private final LockCache<String> lockCache;
   private final RuntimeInfo runtimeInfo;
   private final ObjectMapper json;
@@ -65,12 +74,30 @@ public class FileSnapshotStore implements SnapshotStore {
   public SnapshotInfo create(String user, String name, String rev, String id, String label) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
       PipelineDirectoryUtil.createPipelineSnapshotDir(runtimeInfo, name, rev, id);
+      // data of a previous snapshot with the same id
+      for (File file : new File[] {getPipelineSnapshotFile(name, rev, id), getPipelineSnapshotDataFile(name, rev, id),
+          getPipelineSnapshotIndexFile(name, rev, id)}) {
+        if (file.exists() && !file.delete()) {
+          throw new PipelineRuntimeException(ContainerError.CONTAINER_0601, id, name, rev);
+        }
+      }
       SnapshotInfo snapshotInfo = new SnapshotInfoImpl(user, id, label, name, rev, System.currentTimeMillis(), true, 0);
       persistSnapshotInfo(snapshotInfo);
       return snapshotInfo;
     }
   }
 
+  @Override
+  public void appendBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
+      throws PipelineException {
+    synchronized (lockCache.getLock(name)) {
+      if (getInfo(name, rev, id) == null) {
+        throw new PipelineException(ContainerError.CONTAINER_0605);
+      }
+      persistSnapshotBatch(name, rev, id, snapshotBatch);
+    }
+  }
+
   @Override
   public SnapshotInfo save(
       String name,
@@ -84,7 +111,9 @@ public class FileSnapshotStore implements SnapshotStore {
       if (existingInfo == null) {
         throw new PipelineException(ContainerError.CONTAINER_0605);
       }
-      persistSnapshot(name, rev, id, snapshotBatches);
+      for (List<StageOutput> snapshotBatch : snapshotBatches) {
+        persistSnapshotBatch(name, rev, id, snapshotBatch);
+      }
       SnapshotInfo updatedSnapshotInfo =
         new SnapshotInfoImpl(
             existingInfo.getUser(),
@@ -128,6 +157,10 @@ public class FileSnapshotStore implements SnapshotStore {
   public Snapshot get(String name, String rev, String id) throws PipelineException {
     synchronized (lockCache.getLock(name)) {
       SnapshotInfo info = getInfo(name, rev, id);
+      SnapshotIndexJson index = getIndex(name, rev, id);
+      if (index != null) {
+        return new FileSnapshot(info, getPipelineSnapshotDataFile(name, rev, id), index);
+      }
       File data = getData(name, rev, id);
       return new SnapshotImpl(info, data);
     }
@@ -204,6 +237,26 @@ public class FileSnapshotStore implements SnapshotStore {
       SNAPSHOT_FILE_NAME);
   }
 
+  private File getPipelineSnapshotDataFile(String name, String rev, String id) {
+    return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id), DATA_FILE_NAME);
+  }
+
+  private File getPipelineSnapshotIndexFile(String name, String rev, String id) {
+    return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id), INDEX_FILE_NAME);
+  }
+
+  private SnapshotIndexJson getIndex(String name, String rev, String id) throws PipelineRuntimeException {
+    File indexFile = getPipelineSnapshotIndexFile(name, rev, id);
+    if (!indexFile.exists()) {
+      return null;
+    }
+    try (InputStream in = new FileInputStream(indexFile)) {
+      return json.readValue(in, SnapshotIndexJson.class);
+    } catch (IOException e) {
+      throw new PipelineRuntimeException(ContainerError.CONTAINER_0600, id, name, rev, e.toString(), e);
+    }
+  }
+
   private File getPipelineSnapshotInfoFile(String name, String rev, String id) {
     return new File(PipelineDirectoryUtil.getPipelineSnapshotDir(runtimeInfo, name, rev, id),
       INFO_FILE_NAME);
@@ -223,11 +276,31 @@ public class FileSnapshotStore implements SnapshotStore {
     }
   }
 
-  private void persistSnapshot(String name, String rev, String id, List<List<StageOutput>> snapshotBatches)
+  private void persistSnapshotBatch(String name, String rev, String id, List<StageOutput> snapshotBatch)
     throws PipelineRuntimeException {
-    DataStore dataStore = new DataStore(getPipelineSnapshotFile(name, rev, id));
+    File dataFile = getPipelineSnapshotDataFile(name, rev, id);
+    SnapshotIndexJson index = getIndex(name, rev, id);
+    if (index == null) {
+      index = new SnapshotIndexJson();
+    }
+    List<SnapshotIndexJson.StageEntry> entries = new ArrayList<>(snapshotBatch.size());
+    long offset = dataFile.length();
+    try (Output output = new Output(new FileOutputStream(dataFile, true), BUFFER_SIZE)) {
+      SnapshotDataCodec codec = new SnapshotDataCodec();
+      for (StageOutput stageOutput : snapshotBatch) {
+        long start = output.total();
+        codec.write(output, stageOutput);
+        entries.add(new SnapshotIndexJson.StageEntry(stageOutput.getInstanceName(), offset + start,
+            output.total() - start));
+      }
+    } catch (IOException | RuntimeException e) {
+      throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, e.toString(), e);
+    }
+    // a batch is visible once it is in the index, data left by a failed append is never read
+    index.getBatches().add(entries);
+    DataStore dataStore = new DataStore(getPipelineSnapshotIndexFile(name, rev, id));
     try (OutputStream out = dataStore.getOutputStream()) {
-      json.writeValue(out, new SnapshotDataJson(new SnapshotData(snapshotBatches)));
+      json.writeValue(out, index);
       dataStore.commit(out);
     } catch (IOException e) {
       throw new PipelineRuntimeException(ContainerError.CONTAINER_0603, id, name, rev, e.toString(), e);
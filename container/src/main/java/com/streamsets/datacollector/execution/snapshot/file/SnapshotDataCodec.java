@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.file;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.ErrorMessage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary encoding of the output of a stage in a snapshot batch.
+ * <p/>
+ * Records are written with Kryo, like the <code>KRYO1</code> record encoding, and the stage errors as their strings.
+ * Lists are prefixed with their size plus one, zero standing for a null list. Instances are not thread safe.
+ */
+class SnapshotDataCodec {
+  private final Kryo kryo = new Kryo();
+
+  void write(Output output, StageOutput stageOutput) {
+    output.writeString(stageOutput.getInstanceName());
+    Map<String, List<Record>> lanes = stageOutput.getOutput();
+    output.writeVarInt(lanes.size(), true);
+    for (Map.Entry<String, List<Record>> lane : lanes.entrySet()) {
+      output.writeString(lane.getKey());
+      writeRecords(output, lane.getValue());
+    }
+    writeRecords(output, stageOutput.getErrorRecords());
+    writeErrors(output, stageOutput.getStageErrors());
+    writeRecords(output, stageOutput.getEventRecords());
+  }
+
+  StageOutput read(Input input) {
+    String instanceName = input.readString();
+    int lanes = input.readVarInt(true);
+    Map<String, List<Record>> output = new LinkedHashMap<>();
+    for (int i = 0; i < lanes; i++) {
+      String lane = input.readString();
+      output.put(lane, readRecords(input));
+    }
+    List<Record> errorRecords = readRecords(input);
+    List<ErrorMessage> stageErrors = readErrors(input);
+    List<Record> eventRecords = readRecords(input);
+    return new StageOutput(instanceName, output, errorRecords, stageErrors, eventRecords);
+  }
+
+  private void writeRecords(Output output, List<Record> records) {
+    if (records == null) {
+      output.writeVarInt(0, true);
+    } else {
+      output.writeVarInt(records.size() + 1, true);
+      for (Record record : records) {
+        kryo.writeObject(output, record);
+      }
+    }
+  }
+
+  private List<Record> readRecords(Input input) {
+    int size = input.readVarInt(true) - 1;
+    if (size < 0) {
+      return null;
+    }
+    List<Record> records = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      records.add(kryo.readObject(input, RecordImpl.class));
+    }
+    return records;
+  }
+
+  private static void writeErrors(Output output, List<ErrorMessage> errors) {
+    if (errors == null) {
+      output.writeVarInt(0, true);
+    } else {
+      output.writeVarInt(errors.size() + 1, true);
+      for (ErrorMessage error : errors) {
+        output.writeString(error.getErrorCode());
+        output.writeString(error.getNonLocalized());
+        output.writeString(error.getLocalized());
+        output.writeString(error.getErrorStackTrace());
+        output.writeLong(error.getTimestamp());
+      }
+    }
+  }
+
+  private static List<ErrorMessage> readErrors(Input input) {
+    int size = input.readVarInt(true) - 1;
+    if (size < 0) {
+      return null;
+    }
+    List<ErrorMessage> errors = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      errors.add(new StoredErrorMessage(
+          input.readString(),
+          input.readString(),
+          input.readString(),
+          input.readString(),
+          input.readLong()
+      ));
+    }
+    return errors;
+  }
+
+  // the resource bundles of the stage may not be available when reading the snapshot, keeps the localized message
+  private static class StoredErrorMessage extends ErrorMessage {
+    private final String localized;
+    private final String stackTrace;
+
+    StoredErrorMessage(String errorCode, String nonLocalized, String localized, String stackTrace, long timestamp) {
+      super(errorCode, nonLocalized, timestamp);
+      this.localized = localized;
+      this.stackTrace = stackTrace;
+    }
+
+    @Override
+    public String getLocalized() {
+      return localized;
+    }
+
+    @Override
+    public String getErrorStackTrace() {
+      return stackTrace;
+    }
+  }
+
+}
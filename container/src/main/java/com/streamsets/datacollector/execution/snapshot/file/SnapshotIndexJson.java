@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution.snapshot.file;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Index of the binary snapshot data file, the position of the output of each stage of each captured batch.
+ */
+public class SnapshotIndexJson {
+  private List<List<StageEntry>> batches = new ArrayList<>();
+
+  public List<List<StageEntry>> getBatches() {
+    return batches;
+  }
+
+  public void setBatches(List<List<StageEntry>> batches) {
+    this.batches = batches;
+  }
+
+  public static class StageEntry {
+    private String instanceName;
+    private long offset;
+    private long length;
+
+    public StageEntry() {
+    }
+
+    public StageEntry(String instanceName, long offset, long length) {
+      this.instanceName = instanceName;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    public String getInstanceName() {
+      return instanceName;
+    }
+
+    public void setInstanceName(String instanceName) {
+      this.instanceName = instanceName;
+    }
+
+    public long getOffset() {
+      return offset;
+    }
+
+    public void setOffset(long offset) {
+      this.offset = offset;
+    }
+
+    public long getLength() {
+      return length;
+    }
+
+    public void setLength(long length) {
+      this.length = length;
+    }
+  }
+
+}
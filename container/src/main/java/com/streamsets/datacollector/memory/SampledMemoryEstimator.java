@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.memory;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.base.Supplier;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.Utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cheap alternative to {@link MemoryUsageCollector}, estimating the memory held by a stage without walking its object
+ * graph.
+ * <p/>
+ * The estimate is the size of the records the stage produced in its last batch plus the size the stage reports
+ * itself. Record sizes are estimated for one every <code>sampleRate</code> records and averaged. Stages holding
+ * caches report their size in the gauge {@link #REPORTED_MEMORY_GAUGE} under the key {@link #REPORTED_MEMORY_KEY},
+ * in bytes.
+ * <p/>
+ * The bytes allocated by the thread running each batch are measured as well when the JVM supports it. Allocated
+ * bytes are not retained bytes, they are reported separately and are not part of the estimate.
+ * <p/>
+ * Each pipe runner has its own instance, the one of a multithreaded origin is shared by the origin's threads.
+ */
+public class SampledMemoryEstimator {
+  public static final String REPORTED_MEMORY_GAUGE = "Memory Usage";
+  public static final String REPORTED_MEMORY_KEY = "Retained Bytes";
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  // rough 64bit JVM with compressed oops sizes
+  private static final int OBJECT_OVERHEAD = 16;
+  private static final int REFERENCE_SIZE = 4;
+  private static final int FIELD_SIZE = OBJECT_OVERHEAD + 2 * REFERENCE_SIZE;
+  private static final int STRING_SIZE = OBJECT_OVERHEAD + 8 + OBJECT_OVERHEAD + 8;
+  private static final int MAP_ENTRY_SIZE = OBJECT_OVERHEAD + 4 * REFERENCE_SIZE + 8;
+  private static final int BOXED_SIZE = OBJECT_OVERHEAD + 8;
+  private static final int BIG_DECIMAL_SIZE = 64;
+
+  private final int sampleRate;
+  private final Supplier<Gauge<Map<String, Object>>> reportedMemoryGauge;
+  private final boolean allocationSupported;
+  private long recordCount;
+  private double averageRecordSize;
+  // a push origin's batches run concurrently on the origin's threads
+  private final ThreadLocal<Long> batchAllocationStart = new ThreadLocal<>();
+  private long allocatedBytes;
+  private long outputBytes;
+
+  /**
+   * @param sampleRate the size of one every <code>sampleRate</code> records is estimated.
+   * @param reportedMemoryGauge returns the stage's {@link #REPORTED_MEMORY_GAUGE} gauge, or null if it has none.
+   */
+  public SampledMemoryEstimator(int sampleRate, Supplier<Gauge<Map<String, Object>>> reportedMemoryGauge) {
+    Utils.checkArgument(sampleRate > 0, Utils.formatL("Invalid sample rate '{}'", sampleRate));
+    this.sampleRate = sampleRate;
+    this.reportedMemoryGauge = reportedMemoryGauge;
+    allocationSupported = isAllocationSupported();
+  }
+
+  private static boolean isAllocationSupported() {
+    return THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+        && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported()
+        && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemoryEnabled();
+  }
+
+  private long getCurrentThreadAllocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Marks the start of a batch on the current thread.
+   */
+  public void batchStarted() {
+    if (allocationSupported) {
+      batchAllocationStart.set(getCurrentThreadAllocatedBytes());
+    }
+  }
+
+  /**
+   * Accounts the output of the batch, must be called by the thread that called {@link #batchStarted()}.
+   *
+   * @param output records produced by the stage, by lane.
+   */
+  public synchronized void batchFinished(Map<String, List<Record>> output) {
+    Long allocationStart = batchAllocationStart.get();
+    if (allocationStart != null) {
+      allocatedBytes += Math.max(0, getCurrentThreadAllocatedBytes() - allocationStart);
+      batchAllocationStart.remove();
+    }
+    long records = 0;
+    for (List<Record> lane : output.values()) {
+      for (Record record : lane) {
+        if (recordCount++ % sampleRate == 0) {
+          long size = estimateSize(record);
+          averageRecordSize = recordCount == 1 ? size : averageRecordSize * 0.9 + size * 0.1;
+        }
+      }
+      records += lane.size();
+    }
+    outputBytes = (long) (records * averageRecordSize);
+  }
+
+  /**
+   * Returns the estimated bytes held by the stage.
+   */
+  public synchronized long getMemoryConsumed() {
+    return outputBytes + getReportedBytes();
+  }
+
+  /**
+   * Returns the bytes allocated by the stage's batches since the estimator was created, or 0 if the JVM does not
+   * support measuring them.
+   */
+  public synchronized long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  private long getReportedBytes() {
+    Gauge<Map<String, Object>> gauge = reportedMemoryGauge.get();
+    if (gauge != null) {
+      Object value = gauge.getValue().get(REPORTED_MEMORY_KEY);
+      if (value instanceof Number) {
+        return ((Number) value).longValue();
+      }
+    }
+    return 0;
+  }
+
+  public static long estimateSize(Record record) {
+    long size = OBJECT_OVERHEAD + 4 * REFERENCE_SIZE;
+    for (String name : record.getHeader().getAttributeNames()) {
+      size += MAP_ENTRY_SIZE + estimateSize(name) + estimateSize(record.getHeader().getAttribute(name));
+    }
+    return size + estimateSize(record.get());
+  }
+
+  @SuppressWarnings("unchecked")
+  public static long estimateSize(Field field) {
+    if (field == null) {
+      return 0;
+    }
+    long size = FIELD_SIZE;
+    Object value = field.getValue();
+    if (value == null) {
+      return size;
+    }
+    switch (field.getType()) {
+      case MAP:
+      case LIST_MAP:
+        size += OBJECT_OVERHEAD + 48;
+        for (Map.Entry<String, Field> entry : ((Map<String, Field>) value).entrySet()) {
+          size += MAP_ENTRY_SIZE + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+        }
+        break;
+      case LIST:
+        List<Field> list = (List<Field>) value;
+        size += OBJECT_OVERHEAD * 2 + (long) list.size() * REFERENCE_SIZE;
+        for (Field element : list) {
+          size += estimateSize(element);
+        }
+        break;
+      case STRING:
+        size += estimateSize((String) value);
+        break;
+      case BYTE_ARRAY:
+        size += OBJECT_OVERHEAD + ((byte[]) value).length;
+        break;
+      case DECIMAL:
+        size += BIG_DECIMAL_SIZE + ((BigDecimal) value).unscaledValue().bitLength() / 8;
+        break;
+      default:
+        size += BOXED_SIZE;
+        break;
+    }
+    return size;
+  }
+
+  private static long estimateSize(String value) {
+    return value == null ? 0 : STRING_SIZE + 2L * value.length();
+  }
+
+}
@@ -256,6 +256,10 @@ public class MetricsConfigurator {
     return remove(metrics, metricName(name, COUNTER_SUFFIX), pipelineName, pipelineRev);
   }
 
+  public static boolean removeTimer(MetricRegistry metrics, String name, final String pipelineName, final String pipelineRev) {
+    return remove(metrics, metricName(name, TIMER_SUFFIX), pipelineName, pipelineRev);
+  }
+
   public static boolean removeStageGauge(MetricRegistry metrics, String name, final String pipelineName, final String pipelineRev) {
     return remove(metrics, metricName(name, GAUGE_SUFFIX), pipelineName, pipelineRev);
   }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Delta encoding of the successive metrics notifications of a pipeline.
+ * <p/>
+ * Listeners receiving deltas get the metrics wrapped in an envelope:
+ * <pre>
+ *   {"delta": false, "version": 5, "metrics": {...}}
+ *   {"delta": true, "version": 6, "metrics": {"counters": {...}}, "removed": {"gauges": [...]}}
+ * </pre>
+ * A full envelope carries all the metrics, a delta envelope only the metrics that changed since the previous version
+ * and the names of the metrics that were removed, by section (<code>gauges</code>, <code>counters</code>, ...).
+ * Each envelope is serialized once and shared by all the listeners. Versions are consecutive, a listener that missed
+ * a version gets a full envelope next.
+ */
+public class MetricsDelta {
+  private final ObjectMapper objectMapper = ObjectMapperFactory.getOneLine();
+  private ObjectNode previous;
+  private long version;
+  private String full;
+  private String delta;
+
+  /**
+   * Computes the envelopes of a new notification.
+   *
+   * @param metricsJSONStr metrics of the notification.
+   */
+  public synchronized void update(String metricsJSONStr) throws IOException {
+    JsonNode node = objectMapper.readTree(metricsJSONStr);
+    ObjectNode metrics = node instanceof ObjectNode ? (ObjectNode) node : objectMapper.createObjectNode();
+    version++;
+    full = "{\"delta\":false,\"version\":" + version + ",\"metrics\":" + metricsJSONStr + "}";
+    delta = previous == null ? null : objectMapper.writeValueAsString(createDelta(previous, metrics));
+    previous = metrics;
+  }
+
+  private ObjectNode createDelta(ObjectNode from, ObjectNode to) {
+    ObjectNode changed = objectMapper.createObjectNode();
+    ObjectNode removed = objectMapper.createObjectNode();
+    Iterator<Map.Entry<String, JsonNode>> fields = to.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      JsonNode previousValue = from.get(field.getKey());
+      if (field.getValue().isObject() && previousValue != null && previousValue.isObject()) {
+        ObjectNode section = objectMapper.createObjectNode();
+        Iterator<Map.Entry<String, JsonNode>> metrics = field.getValue().fields();
+        while (metrics.hasNext()) {
+          Map.Entry<String, JsonNode> metric = metrics.next();
+          if (!metric.getValue().equals(previousValue.get(metric.getKey()))) {
+            section.set(metric.getKey(), metric.getValue());
+          }
+        }
+        if (section.size() > 0) {
+          changed.set(field.getKey(), section);
+        }
+        ArrayNode removedMetrics = objectMapper.createArrayNode();
+        Iterator<String> previousMetrics = previousValue.fieldNames();
+        while (previousMetrics.hasNext()) {
+          String name = previousMetrics.next();
+          if (!field.getValue().has(name)) {
+            removedMetrics.add(name);
+          }
+        }
+        if (removedMetrics.size() > 0) {
+          removed.set(field.getKey(), removedMetrics);
+        }
+      } else if (!field.getValue().equals(previousValue)) {
+        changed.set(field.getKey(), field.getValue());
+      }
+    }
+    ObjectNode envelope = objectMapper.createObjectNode();
+    envelope.put("delta", true);
+    envelope.put("version", version);
+    envelope.set("metrics", changed);
+    envelope.set("removed", removed);
+    return envelope;
+  }
+
+  /**
+   * Returns the version of the last notification, 0 if there was none.
+   */
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the full envelope of the last notification.
+   */
+  public synchronized String getFull() {
+    return full;
+  }
+
+  /**
+   * Returns the delta envelope from the previous notification to the last one, null if there was no previous one.
+   */
+  public synchronized String getDelta() {
+    return delta;
+  }
+
+}
@@ -20,6 +20,7 @@ import com.streamsets.datacollector.execution.Manager;
 import com.streamsets.datacollector.execution.PipelineState;
 import com.streamsets.datacollector.execution.PipelineStatus;
 import com.streamsets.datacollector.execution.Runner;
+import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.alerts.AlertInfo;
 import com.streamsets.datacollector.main.RuntimeInfo;
@@ -35,8 +36,10 @@ import com.streamsets.datacollector.restapi.bean.SampledRecordJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotDataJson;
 import com.streamsets.datacollector.restapi.bean.SnapshotInfoJson;
 import com.streamsets.datacollector.restapi.bean.SourceOffsetJson;
+import com.streamsets.datacollector.restapi.bean.StageOutputJson;
 import com.streamsets.datacollector.restapi.bean.UserJson;
 import com.streamsets.datacollector.runner.PipelineRuntimeException;
+import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.store.AclStoreTask;
 import com.streamsets.datacollector.store.PipelineInfo;
 import com.streamsets.datacollector.store.PipelineStoreTask;
@@ -693,6 +696,75 @@ public class ManagerResource {
     return Response.noContent().build();
   }
 
+  @Path("/pipeline/{pipelineId}/snapshot/{snapshotName}/index")
+  @GET
+  @ApiOperation(value = "Return the stage instance names of each batch of the Snapshot", response = List.class,
+    authorizations = @Authorization(value = "basic"))
+  @Produces(MediaType.APPLICATION_JSON)
+  @RolesAllowed({
+      AuthzRole.MANAGER,
+      AuthzRole.CREATOR,
+      AuthzRole.ADMIN,
+      AuthzRole.MANAGER_REMOTE,
+      AuthzRole.CREATOR_REMOTE,
+      AuthzRole.ADMIN_REMOTE
+  })
+  public Response getSnapshotIndex(
+      @PathParam("pipelineId") String pipelineId,
+      @PathParam("snapshotName") String snapshotName,
+      @QueryParam("rev") @DefaultValue("0") String rev
+  ) throws PipelineException {
+    PipelineInfo pipelineInfo = store.getInfo(pipelineId);
+    RestAPIUtils.injectPipelineInMDC(pipelineInfo.getTitle(), pipelineInfo.getPipelineId());
+    Runner runner = manager.getRunner(pipelineId, rev);
+    if(runner != null) {
+      List<List<String>> index = runner.getSnapshot(snapshotName).getIndex();
+      if (index != null) {
+        return Response.ok().type(MediaType.APPLICATION_JSON).entity(index).build();
+      }
+    }
+    return Response.noContent().build();
+  }
+
+  @Path("/pipeline/{pipelineId}/snapshot/{snapshotName}/batch/{batch}")
+  @GET
+  @ApiOperation(value = "Return the output of the stages of a Snapshot batch", response = StageOutputJson.class,
+    responseContainer = "List", authorizations = @Authorization(value = "basic"))
+  @Produces(MediaType.APPLICATION_JSON)
+  @RolesAllowed({
+      AuthzRole.MANAGER,
+      AuthzRole.CREATOR,
+      AuthzRole.ADMIN,
+      AuthzRole.MANAGER_REMOTE,
+      AuthzRole.CREATOR_REMOTE,
+      AuthzRole.ADMIN_REMOTE
+  })
+  public Response getSnapshotBatch(
+      @PathParam("pipelineId") String pipelineId,
+      @PathParam("snapshotName") String snapshotName,
+      @PathParam("batch") int batch,
+      @QueryParam("rev") @DefaultValue("0") String rev,
+      @QueryParam("stageInstanceName") String stageInstanceName
+  ) throws PipelineException {
+    PipelineInfo pipelineInfo = store.getInfo(pipelineId);
+    RestAPIUtils.injectPipelineInMDC(pipelineInfo.getTitle(), pipelineInfo.getPipelineId());
+    Runner runner = manager.getRunner(pipelineId, rev);
+    if(runner != null) {
+      Snapshot snapshot = runner.getSnapshot(snapshotName);
+      List<List<String>> index = snapshot.getIndex();
+      if (index != null && (batch < 0 || batch >= index.size())) {
+        return Response.status(Response.Status.NOT_FOUND)
+            .entity("Cannot find batch " + batch + " of snapshot " + snapshotName)
+            .build();
+      }
+      List<StageOutput> stageOutputs = snapshot.getBatch(batch, stageInstanceName);
+      if (stageOutputs != null) {
+        return Response.ok().type(MediaType.APPLICATION_JSON).entity(BeanHelper.wrapStageOutput(stageOutputs)).build();
+      }
+    }
+    return Response.noContent().build();
+  }
+
   @Path("/pipeline/{pipelineId}/snapshot/{snapshotName}")
   @DELETE
   @ApiOperation(value = "Delete Snapshot data", authorizations = @Authorization(value = "basic"))
@@ -93,6 +93,7 @@ public class SourcePipe extends StagePipe implements ReportErrorDelegate {
       getStage().getInfo().getInstanceName(),
       getStage().getInfo().getLabel()
     );
+    batchStarted();
   }
 
   /**
@@ -26,6 +26,7 @@ import com.streamsets.datacollector.config.StageType;
 import com.streamsets.datacollector.memory.MemoryMonitor;
 import com.streamsets.datacollector.memory.MemoryUsageCollector;
 import com.streamsets.datacollector.memory.MemoryUsageCollectorResourceBundle;
+import com.streamsets.datacollector.memory.SampledMemoryEstimator;
 import com.streamsets.datacollector.metrics.MetricsConfigurator;
 import com.streamsets.datacollector.restapi.bean.CounterJson;
 import com.streamsets.datacollector.restapi.bean.HistogramJson;
@@ -49,8 +50,19 @@ public class StagePipe extends Pipe<StagePipe.Context> {
   private static final Logger LOG = LoggerFactory.getLogger(StagePipe.class);
   //Runtime stat gauge name
   public static final String RUNTIME_STATS_GAUGE = "RuntimeStatsGauge";
+  // memory monitoring mode, "heap" walks the object graph of the stage, "sampled" estimates it from records produced
+  public static final String MONITOR_MEMORY_MODE = "monitor.memory.mode";
+  public static final String MONITOR_MEMORY_MODE_HEAP = "heap";
+  public static final String MONITOR_MEMORY_MODE_SAMPLED = "sampled";
+  public static final String MONITOR_MEMORY_SAMPLE_RATE = "monitor.memory.sampled.recordSampleRate";
+  public static final int MONITOR_MEMORY_SAMPLE_RATE_DEFAULT = 100;
   private Timer processingTimer;
   private Counter memoryConsumedCounter;
+  private Counter allocatedBytesCounter;
+  private SampledMemoryEstimator memoryEstimator;
+  // last estimates added to the stage counters, the counters are shared by the pipes of all the pipeline runners
+  private long reportedMemoryConsumed;
+  private long reportedAllocatedBytes;
   private Meter inputRecordsMeter;
   private Meter outputRecordsMeter;
   private Meter errorRecordsMeter;
@@ -185,11 +197,22 @@ public class StagePipe extends Pipe<StagePipe.Context> {
       }
       this.context = pipeContext;
       if (configuration.get("monitor.memory", false)) {
-        LOG.info("Starting memory collector for {}", getStage().getInfo().getInstanceName());
-        scheduledExecutorService.submit(
-          new MemoryMonitor(memoryConsumedCounter, () -> new MemoryUsageCollector.Builder()
-            .setMemoryUsageCollectorResourceBundle(memoryUsageCollectorResourceBundle)
-            .setStageRuntime(getStage()).build()));
+        String mode = configuration.get(MONITOR_MEMORY_MODE, MONITOR_MEMORY_MODE_HEAP);
+        if (MONITOR_MEMORY_MODE_SAMPLED.equals(mode)) {
+          LOG.info("Starting sampled memory estimation for {}", getStage().getInfo().getInstanceName());
+          allocatedBytesCounter =
+              MetricsConfigurator.createStageCounter(metrics, metricsKey + ".allocatedBytes", name, rev);
+          memoryEstimator = new SampledMemoryEstimator(
+              configuration.get(MONITOR_MEMORY_SAMPLE_RATE, MONITOR_MEMORY_SAMPLE_RATE_DEFAULT),
+              () -> getStage().getContext().getGauge(SampledMemoryEstimator.REPORTED_MEMORY_GAUGE)
+          );
+        } else {
+          LOG.info("Starting memory collector for {}", getStage().getInfo().getInstanceName());
+          scheduledExecutorService.submit(
+            new MemoryMonitor(memoryConsumedCounter, () -> new MemoryUsageCollector.Builder()
+              .setMemoryUsageCollectorResourceBundle(memoryUsageCollectorResourceBundle)
+              .setStageRuntime(getStage()).build()));
+        }
       }
       createRuntimeStatsGauge(metrics);
 
@@ -216,6 +239,9 @@ public class StagePipe extends Pipe<StagePipe.Context> {
     Batch batch = new FilterRecordBatch(batchImpl, predicates, getStage().getContext());
 
     long start = System.currentTimeMillis();
+    if (memoryEstimator != null) {
+      memoryEstimator.batchStarted();
+    }
     String newOffset = getStage().execute(
         previousOffset,
         pipeBatch.getBatchSize(),
@@ -252,6 +278,11 @@ public class StagePipe extends Pipe<StagePipe.Context> {
     long processingTime = System.currentTimeMillis() - startTimeInStage;
     processingTimer.update(processingTime, TimeUnit.MILLISECONDS);
 
+    if (memoryEstimator != null) {
+      memoryEstimator.batchFinished(batchMaker.getStageOutput());
+      reportEstimatedMemory();
+    }
+
     int batchSize = batchImpl.getSize();
     inputRecordsCounter.inc(batchSize);
     inputRecordsMeter.mark(batchSize);
@@ -333,6 +364,25 @@ public class StagePipe extends Pipe<StagePipe.Context> {
     pipeBatch.completeStage(this);
   }
 
+  /**
+   * Marks the start of a batch of a push origin, called by the thread producing the batch.
+   */
+  protected void batchStarted() {
+    if (memoryEstimator != null) {
+      memoryEstimator.batchStarted();
+    }
+  }
+
+  private synchronized void reportEstimatedMemory() {
+    // same unit as the MemoryMonitor
+    long memoryConsumed = memoryEstimator.getMemoryConsumed() / 1000000;
+    memoryConsumedCounter.inc(memoryConsumed - reportedMemoryConsumed);
+    reportedMemoryConsumed = memoryConsumed;
+    long allocatedBytes = memoryEstimator.getAllocatedBytes();
+    allocatedBytesCounter.inc(allocatedBytes - reportedAllocatedBytes);
+    reportedAllocatedBytes = allocatedBytes;
+  }
+
   public long getMemoryConsumed() {
     return memoryConsumedCounter.getCount();
   }
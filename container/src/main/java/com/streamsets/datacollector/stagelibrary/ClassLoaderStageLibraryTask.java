@@ -23,6 +23,7 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.datacollector.classpath.ClasspathValidator;
 import com.streamsets.datacollector.classpath.ClasspathValidatorResult;
 import com.streamsets.datacollector.config.CredentialStoreDefinition;
@@ -83,6 +84,10 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLibraryTask {
   public static final String MAX_PRIVATE_STAGE_CLASS_LOADERS_KEY = "max.stage.private.classloaders";
@@ -103,6 +108,9 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
   private static final String CONFIG_CP_VALIDATION_RESULT = "stagelibs.classpath.validation.terminate";
   private static final boolean DEFAULT_CP_VALIDATION_RESULT = false;
 
+  private static final String CONFIG_LOAD_THREADS = "stagelibs.load.threads";
+  private static final int DEFAULT_LOAD_THREADS = Runtime.getRuntime().availableProcessors();
+
   private static final Logger LOG = LoggerFactory.getLogger(ClassLoaderStageLibraryTask.class);
 
   private final RuntimeInfo runtimeInfo;
@@ -412,6 +420,18 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
         Utils.format("Could not load runtime configuration, '{}'", e.toString()), e);
     }
 
+    int threads = Math.max(1, Math.min(
+        stageClassLoaders.size(),
+        configuration.get(CONFIG_LOAD_THREADS, DEFAULT_LOAD_THREADS)
+    ));
+    ExecutorService executor = null;
+    if (threads > 1) {
+      executor = Executors.newFixedThreadPool(
+          threads,
+          new ThreadFactoryBuilder().setNameFormat("stage-library-loader-%d").setDaemon(true).build()
+      );
+    }
+
     try {
       int libs = 0;
       int stages = 0;
@@ -419,91 +439,173 @@ public class ClassLoaderStageLibraryTask extends AbstractTask implements StageLi
       int credentialStores = 0;
       int services = 0;
       long start = System.currentTimeMillis();
-      LocaleInContext.set(Locale.getDefault());
-      for (ClassLoader cl : stageClassLoaders) {
-        try {
-          // Before loading any stages, let's verify that given stage library is compatible with our current JVM version
-          String unsupportedJvmVersion = getPropertyFromLibraryProperties(cl, JAVA_UNSUPPORTED_REGEXP, null);
-          if(!StringUtils.isEmpty(unsupportedJvmVersion)) {
-            if(javaVersion.matches(unsupportedJvmVersion)) {
-              LOG.warn("Can't load stages from {} since they are not compatible with current JVM version", StageLibraryUtils.getLibraryName(cl));
-              continue;
-            } else {
-              LOG.debug("Stage lib {} passed java compatibility test for '{}'", StageLibraryUtils.getLibraryName(cl), unsupportedJvmVersion);
-            }
-          }
 
-          // And that this SDC is at least on requested version
-          String minSdcVersion = getPropertyFromLibraryProperties(cl, MIN_SDC_VERSION, null);
-          if(!StringUtils.isEmpty(minSdcVersion)) {
-            if(!sdcVersion.isGreaterOrEqualTo(minSdcVersion)) {
-              throw new IllegalArgumentException(
-                  Utils.format("Can't load stage library '{}' as it requires at least SDC version {} whereas current version is {}",
-                  StageLibraryUtils.getLibraryName(cl),
-                  minSdcVersion,
-                  buildInfo.getVersion()
-                ));
-            }
+      // Libraries are loaded in parallel, their definitions are then registered in the stage library order
+      List<Future<LibraryDefinitions>> futures = new ArrayList<>(stageClassLoaders.size());
+      for (ClassLoader cl : stageClassLoaders) {
+        FutureTask<LibraryDefinitions> future = new FutureTask<>(() -> {
+          LocaleInContext.set(Locale.getDefault());
+          try {
+            return loadStageLibrary(cl, javaVersion, sdcVersion);
+          } finally {
+            LocaleInContext.set(null);
           }
+        });
+        if (executor == null) {
+          future.run();
+        } else {
+          executor.execute(future);
+        }
+        futures.add(future);
+      }
 
-          // Load stages from the stage library
-          StageLibraryDefinition libDef = StageLibraryDefinitionExtractor.get().extract(cl);
-          LOG.debug("Loading stages and plugins from library '{}'", libDef.getName());
-          libs++;
-
-          // Load Stages
-          for(Class klass : loadClassesFromResource(libDef, cl, STAGES_DEFINITION_RESOURCE)) {
-            stages++;
-            StageDefinition stage = StageDefinitionExtractor.get().extract(libDef, klass, Utils.formatL("Library='{}'", libDef.getName()));
-            String key = createKey(libDef.getName(), stage.getName());
-            LOG.debug("Loaded stage '{}'  version {}", key, stage.getVersion());
-            stageList.add(stage);
-            stageMap.put(key, stage);
-          }
+      for (Future<LibraryDefinitions> future : futures) {
+        LibraryDefinitions libraryDefinitions = getLibraryDefinitions(future);
+        if (libraryDefinitions == null) {
+          continue;
+        }
+        libs++;
+        String library = libraryDefinitions.library.getName();
+
+        for (StageDefinition stage : libraryDefinitions.stages) {
+          stages++;
+          String key = createKey(library, stage.getName());
+          LOG.debug("Loaded stage '{}'  version {}", key, stage.getVersion());
+          stageList.add(stage);
+          stageMap.put(key, stage);
+        }
 
-          // Load Lineage publishers
-          for(Class klass : loadClassesFromResource(libDef, cl, LINEAGE_PUBLISHERS_DEFINITION_RESOURCE)) {
-            lineagePublishers++;
-            LineagePublisherDefinition lineage = LineagePublisherDefinitionExtractor.get().extract(libDef, klass);
-            String key = createKey(libDef.getName(), lineage.getName());
-            LOG.debug("Loaded lineage plugin '{}'", key);
-            lineagePublisherDefinitions.add(lineage);
-            lineagePublisherDefinitionMap.put(key, lineage);
-          }
+        for (LineagePublisherDefinition lineage : libraryDefinitions.lineagePublishers) {
+          lineagePublishers++;
+          String key = createKey(library, lineage.getName());
+          LOG.debug("Loaded lineage plugin '{}'", key);
+          lineagePublisherDefinitions.add(lineage);
+          lineagePublisherDefinitionMap.put(key, lineage);
+        }
 
-          // Load Credential stores
-          for(Class klass : loadClassesFromResource(libDef, cl, CREDENTIAL_STORE_DEFINITION_RESOURCE)) {
-            credentialStores++;
-            CredentialStoreDefinition def = CredentialStoreDefinitionExtractor.get().extract(libDef, klass);
-            String key = createKey(libDef.getName(), def.getName());
-            LOG.debug("Loaded credential store '{}'", key);
-            credentialStoreDefinitions.add(def);
-          }
+        for (CredentialStoreDefinition def : libraryDefinitions.credentialStores) {
+          credentialStores++;
+          LOG.debug("Loaded credential store '{}'", createKey(library, def.getName()));
+          credentialStoreDefinitions.add(def);
+        }
 
-          // Load Services
-          for(Class klass : loadClassesFromResource(libDef, cl, SERVICE_DEFINITION_RESOURCE)) {
-            services++;
-            ServiceDefinition def = ServiceDefinitionExtractor.get().extract(libDef, klass);
-            LOG.debug("Loaded service for '{}'", def.getProvides().getCanonicalName());
-            serviceList.add(def);
-            serviceMap.put(def.getProvides(), def);
-          }
-        } catch (IOException | ClassNotFoundException ex) {
-          throw new RuntimeException(
-              Utils.format("Could not load stages definition from '{}', {}", cl, ex.toString()), ex);
+        for (ServiceDefinition def : libraryDefinitions.services) {
+          services++;
+          LOG.debug("Loaded service for '{}'", def.getProvides().getCanonicalName());
+          serviceList.add(def);
+          serviceMap.put(def.getProvides(), def);
         }
       }
       LOG.debug(
-        "Loaded '{}' libraries with a total of '{}' stages, '{}' lineage publishers, '{}' services and '{}' credentialStores in '{}ms'",
+        "Loaded '{}' libraries with a total of '{}' stages, '{}' lineage publishers, '{}' services and '{}' credentialStores in '{}ms' using '{}' threads",
         libs,
         stages,
         lineagePublishers,
         services,
         credentialStores,
-        System.currentTimeMillis() - start
+        System.currentTimeMillis() - start,
+        threads
       );
     } finally {
-      LocaleInContext.set(null);
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Definitions loaded from a single stage library.
+   */
+  private static class LibraryDefinitions {
+    private final StageLibraryDefinition library;
+    private final List<StageDefinition> stages = new ArrayList<>();
+    private final List<LineagePublisherDefinition> lineagePublishers = new ArrayList<>();
+    private final List<CredentialStoreDefinition> credentialStores = new ArrayList<>();
+    private final List<ServiceDefinition> services = new ArrayList<>();
+
+    LibraryDefinitions(StageLibraryDefinition library) {
+      this.library = library;
+    }
+  }
+
+  private LibraryDefinitions getLibraryDefinitions(Future<LibraryDefinitions> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while loading stage libraries", ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      } else if (ex.getCause() instanceof Error) {
+        throw (Error) ex.getCause();
+      }
+      throw new RuntimeException(ex.getCause());
+    }
+  }
+
+  /**
+   * Loads the stages and plugins of a stage library, returns null if the library is not supported by the current JVM.
+   * <p/>
+   * Called concurrently for different libraries, must not modify the state of this task.
+   */
+  @SuppressWarnings("unchecked")
+  private LibraryDefinitions loadStageLibrary(ClassLoader cl, String javaVersion, Version sdcVersion) {
+    try {
+      // Before loading any stages, let's verify that given stage library is compatible with our current JVM version
+      String unsupportedJvmVersion = getPropertyFromLibraryProperties(cl, JAVA_UNSUPPORTED_REGEXP, null);
+      if(!StringUtils.isEmpty(unsupportedJvmVersion)) {
+        if(javaVersion.matches(unsupportedJvmVersion)) {
+          LOG.warn("Can't load stages from {} since they are not compatible with current JVM version", StageLibraryUtils.getLibraryName(cl));
+          return null;
+        } else {
+          LOG.debug("Stage lib {} passed java compatibility test for '{}'", StageLibraryUtils.getLibraryName(cl), unsupportedJvmVersion);
+        }
+      }
+
+      // And that this SDC is at least on requested version
+      String minSdcVersion = getPropertyFromLibraryProperties(cl, MIN_SDC_VERSION, null);
+      if(!StringUtils.isEmpty(minSdcVersion)) {
+        if(!sdcVersion.isGreaterOrEqualTo(minSdcVersion)) {
+          throw new IllegalArgumentException(
+              Utils.format("Can't load stage library '{}' as it requires at least SDC version {} whereas current version is {}",
+              StageLibraryUtils.getLibraryName(cl),
+              minSdcVersion,
+              buildInfo.getVersion()
+            ));
+        }
+      }
+
+      // Load stages from the stage library
+      StageLibraryDefinition libDef = StageLibraryDefinitionExtractor.get().extract(cl);
+      LOG.debug("Loading stages and plugins from library '{}'", libDef.getName());
+      LibraryDefinitions libraryDefinitions = new LibraryDefinitions(libDef);
+
+      // Load Stages
+      for(Class klass : loadClassesFromResource(libDef, cl, STAGES_DEFINITION_RESOURCE)) {
+        libraryDefinitions.stages.add(
+            StageDefinitionExtractor.get().extract(libDef, klass, Utils.formatL("Library='{}'", libDef.getName()))
+        );
+      }
+
+      // Load Lineage publishers
+      for(Class klass : loadClassesFromResource(libDef, cl, LINEAGE_PUBLISHERS_DEFINITION_RESOURCE)) {
+        libraryDefinitions.lineagePublishers.add(LineagePublisherDefinitionExtractor.get().extract(libDef, klass));
+      }
+
+      // Load Credential stores
+      for(Class klass : loadClassesFromResource(libDef, cl, CREDENTIAL_STORE_DEFINITION_RESOURCE)) {
+        libraryDefinitions.credentialStores.add(CredentialStoreDefinitionExtractor.get().extract(libDef, klass));
+      }
+
+      // Load Services
+      for(Class klass : loadClassesFromResource(libDef, cl, SERVICE_DEFINITION_RESOURCE)) {
+        libraryDefinitions.services.add(ServiceDefinitionExtractor.get().extract(libDef, klass));
+      }
+      return libraryDefinitions;
+    } catch (IOException | ClassNotFoundException ex) {
+      throw new RuntimeException(
+          Utils.format("Could not load stages definition from '{}', {}", cl, ex.toString()), ex);
     }
   }
 
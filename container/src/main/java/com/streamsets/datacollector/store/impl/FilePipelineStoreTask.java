@@ -90,6 +90,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
   public static final String UI_INFO_FILE = "uiinfo.json";
   public static final String RULES_FILE = "rules.json";
   public static final String STATE = "state";
+  public static final String CATALOG_FILE = "pipelines-catalog.json";
 
   private final StageLibraryTask stageLibrary;
   private final RuntimeInfo runtimeInfo;
@@ -99,6 +100,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
   private final PipelineStateStore pipelineStateStore;
   private final ConcurrentMap<String, RuleDefinitions> pipelineToRuleDefinitionMap;
   private StateEventListener stateEventListener;
+  private PipelineCatalog catalog;
 
   @Inject
   public FilePipelineStoreTask(RuntimeInfo runtimeInfo, StageLibraryTask stageLibrary,
@@ -132,6 +134,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
         throw new RuntimeException(Utils.format("Could not create directory '{}'", storeDir), e);
       }
     }
+    catalog = new PipelineCatalog(storeDir, Paths.get(runtimeInfo.getDataDir(), CATALOG_FILE), filterHiddenFiles);
     if (pipelineStateStore != null) {
       pipelineStateStore.init();
     }
@@ -139,6 +142,9 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
 
   @Override
   public void stopTask() {
+    if (catalog != null) {
+      catalog.close();
+    }
     if (pipelineStateStore != null) {
       pipelineStateStore.destroy();
     }
@@ -242,6 +248,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
         } catch (Exception ex) {
           throw new PipelineStoreException(ContainerError.CONTAINER_0202, pipelineId, ex.toString(), ex);
         }
+        catalog.put(getInfoFile(pipelineId), info);
         if (pipelineStateStore != null) {
           pipelineStateStore.edited(user, pipelineId, REV, ExecutionMode.STANDALONE, isRemote);
         }
@@ -254,6 +261,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
 
   private boolean cleanUp(String name) throws PipelineStoreException {
     boolean deleted = PipelineDirectoryUtil.deleteAll(getPipelineDir(name).toFile());
+    catalog.remove(getPipelineDir(name));
     deleted &= PipelineDirectoryUtil.deletePipelineDir(runtimeInfo, name);
     if(deleted) {
       LogUtil.resetRollingFileAppender(name, "0", STATE);
@@ -311,27 +319,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
 
   @Override
   public List<PipelineInfo> getPipelines() throws PipelineStoreException {
-    List<PipelineInfo> pipelineInfoList = new ArrayList<>();
-
-    List<String> fileNames = new ArrayList<>();
-    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(storeDir, filterHiddenFiles)) {
-      for (Path path : directoryStream) {
-        fileNames.add(path.getFileName().toString());
-      }
-    } catch (IOException ex) {
-      throw new PipelineStoreException(ContainerError.CONTAINER_0213, storeDir, ex);
-    }
-
-    for (String name : fileNames) {
-      PipelineInfoJson pipelineInfoJsonBean;
-      try (InputStream infoFile = Files.newInputStream(getInfoFile(name))){
-        pipelineInfoJsonBean = json.readValue(infoFile, PipelineInfoJson.class);
-      } catch (IOException e) {
-        throw new PipelineStoreException(ContainerError.CONTAINER_0206, name, e);
-      }
-      pipelineInfoList.add(pipelineInfoJsonBean.getPipelineInfo());
-    }
-    return Collections.unmodifiableList(pipelineInfoList);
+    return Collections.unmodifiableList(catalog.getPipelines());
   }
 
   @Override
@@ -409,6 +397,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
       } catch (Exception ex) {
         throw new PipelineStoreException(ContainerError.CONTAINER_0204, name, ex.toString(), ex);
       }
+      catalog.put(getInfoFile(name), info);
       pipeline.setPipelineInfo(info);
       return pipeline;
     }
@@ -614,6 +603,7 @@ public class FilePipelineStoreTask extends AbstractTask implements PipelineStore
       } catch (Exception ex) {
         throw new PipelineStoreException(ContainerError.CONTAINER_0204, name, ex.toString(), ex);
       }
+      catalog.put(getInfoFile(name), updatedInfo);
       return savedPipeline;
     }
   }
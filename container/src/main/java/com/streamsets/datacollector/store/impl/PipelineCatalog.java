@@ -0,0 +1,243 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.store.impl;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.streamsets.datacollector.io.DataStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import com.streamsets.datacollector.restapi.bean.PipelineInfoJson;
+import com.streamsets.datacollector.store.PipelineInfo;
+import com.streamsets.datacollector.store.PipelineStoreException;
+import com.streamsets.datacollector.util.ContainerError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In memory index of the info of the pipelines of a {@link FilePipelineStoreTask}, by pipeline directory name.
+ * <p/>
+ * The catalog is persisted in a single file once loaded and whenever the store writes or deletes a pipeline, so it is
+ * current even if the data collector does not stop cleanly. Loading checks the persisted catalog against the pipeline
+ * directories, only the info files added or modified since it was persisted are read. The catalog is not updated when
+ * the pipeline directories are modified by anything else while the store is running.
+ */
+class PipelineCatalog {
+  private static final Logger LOG = LoggerFactory.getLogger(PipelineCatalog.class);
+
+  private final Path storeDir;
+  private final Path catalogFile;
+  private final DirectoryStream.Filter<Path> filter;
+  private final ObjectMapper json;
+  private final ConcurrentNavigableMap<String, Entry> entries;
+  private boolean loaded;
+  private boolean dirty;
+
+  /**
+   * @param storeDir directory of the pipeline directories.
+   * @param catalogFile file the catalog is persisted in.
+   * @param filter pipeline directories filter.
+   */
+  PipelineCatalog(Path storeDir, Path catalogFile, DirectoryStream.Filter<Path> filter) {
+    this.storeDir = storeDir;
+    this.catalogFile = catalogFile;
+    this.filter = filter;
+    json = ObjectMapperFactory.getOneLine();
+    entries = new ConcurrentSkipListMap<>();
+  }
+
+  /**
+   * Returns the info of all the pipelines, ordered by directory name. Loads the catalog on first call.
+   */
+  List<PipelineInfo> getPipelines() throws PipelineStoreException {
+    load();
+    List<PipelineInfo> pipelines = new ArrayList<>(entries.size());
+    for (Entry entry : entries.values()) {
+      pipelines.add(entry.getInfo().getPipelineInfo());
+    }
+    return pipelines;
+  }
+
+  synchronized void put(Path infoFile, PipelineInfo info) {
+    if (loaded) {
+      long modified = -1;
+      long size = -1;
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(infoFile, BasicFileAttributes.class);
+        modified = attributes.lastModifiedTime().toMillis();
+        size = attributes.size();
+      } catch (IOException ex) {
+        // the info file is read again on next load
+        LOG.debug("Could not read attributes of '{}': {}", infoFile, ex.toString(), ex);
+      }
+      entries.put(getDirName(infoFile), new Entry(getDirName(infoFile), new PipelineInfoJson(info), modified, size));
+      dirty = true;
+      persist();
+    }
+  }
+
+  synchronized void remove(Path pipelineDir) {
+    if (loaded) {
+      entries.remove(pipelineDir.getFileName().toString());
+      dirty = true;
+      persist();
+    }
+  }
+
+  private static String getDirName(Path infoFile) {
+    return infoFile.getParent().getFileName().toString();
+  }
+
+  private synchronized void load() throws PipelineStoreException {
+    if (loaded) {
+      return;
+    }
+    readCatalog();
+
+    Set<String> dirNames = new HashSet<>();
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(storeDir, filter)) {
+      for (Path path : directoryStream) {
+        dirNames.add(path.getFileName().toString());
+      }
+    } catch (IOException ex) {
+      throw new PipelineStoreException(ContainerError.CONTAINER_0213, storeDir, ex);
+    }
+    dirty |= entries.keySet().retainAll(dirNames);
+
+    int read = 0;
+    for (String dirName : dirNames) {
+      Path infoFile = storeDir.resolve(dirName).resolve(FilePipelineStoreTask.INFO_FILE);
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(infoFile, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+        Entry entry = entries.get(dirName);
+        if (entry == null || entry.getModified() != modified || entry.getSize() != attributes.size()) {
+          try (InputStream is = Files.newInputStream(infoFile)) {
+            PipelineInfoJson info = json.readValue(is, PipelineInfoJson.class);
+            entries.put(dirName, new Entry(dirName, info, modified, attributes.size()));
+          }
+          dirty = true;
+          read++;
+        }
+      } catch (IOException ex) {
+        entries.clear();
+        throw new PipelineStoreException(ContainerError.CONTAINER_0206, dirName, ex);
+      }
+    }
+    LOG.debug("Loaded catalog of '{}' pipelines, read '{}' pipeline info files", entries.size(), read);
+    loaded = true;
+    persist();
+  }
+
+  private void readCatalog() {
+    DataStore dataStore = new DataStore(catalogFile.toFile());
+    try {
+      if (dataStore.exists()) {
+        try (InputStream is = dataStore.getInputStream()) {
+          CollectionType type = json.getTypeFactory().constructCollectionType(List.class, Entry.class);
+          List<Entry> persisted = json.readValue(is, type);
+          for (Entry entry : persisted) {
+            entries.put(entry.getDirName(), entry);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      LOG.warn("Could not read pipeline catalog '{}', rebuilding it: {}", catalogFile, ex.toString(), ex);
+      entries.clear();
+    }
+  }
+
+  /**
+   * Persists the catalog if it changed since it was last persisted.
+   */
+  synchronized void persist() {
+    if (!dirty) {
+      return;
+    }
+    DataStore dataStore = new DataStore(catalogFile.toFile());
+    try (OutputStream os = dataStore.getOutputStream()) {
+      json.writeValue(os, new ArrayList<>(entries.values()));
+      dataStore.commit(os);
+      dirty = false;
+    } catch (IOException ex) {
+      // the catalog is rebuilt from the info files on next load
+      LOG.warn("Could not persist pipeline catalog '{}': {}", catalogFile, ex.toString(), ex);
+    } finally {
+      dataStore.release();
+    }
+  }
+
+  /**
+   * Forgets the loaded catalog, the next call to {@link #getPipelines()} loads it again.
+   */
+  synchronized void close() {
+    persist();
+    entries.clear();
+    loaded = false;
+  }
+
+  static class Entry {
+    private final String dirName;
+    private final PipelineInfoJson info;
+    private final long modified;
+    private final long size;
+
+    @JsonCreator
+    Entry(
+        @JsonProperty("dirName") String dirName,
+        @JsonProperty("info") PipelineInfoJson info,
+        @JsonProperty("modified") long modified,
+        @JsonProperty("size") long size
+    ) {
+      this.dirName = dirName;
+      this.info = info;
+      this.modified = modified;
+      this.size = size;
+    }
+
+    public String getDirName() {
+      return dirName;
+    }
+
+    public PipelineInfoJson getInfo() {
+      return info;
+    }
+
+    public long getModified() {
+      return modified;
+    }
+
+    public long getSize() {
+      return size;
+    }
+  }
+
+}
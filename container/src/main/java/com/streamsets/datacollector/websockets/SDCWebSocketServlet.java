@@ -52,6 +52,9 @@ public class SDCWebSocketServlet extends WebSocketServlet implements WebSocketCr
 
   private static final String MAX_WEB_SOCKETS_CONCURRENT_REQUESTS_KEY = "max.webSockets.concurrent.requests";
   private static final int MAX_WEB_SOCKETS_CONCURRENT_REQUESTS_DEFAULT = 50;
+  // metrics web socket parameters, to receive metrics deltas and to be notified less often than every refresh
+  private static final String METRICS_DELTA_PARAM = "delta";
+  private static final String METRICS_REFRESH_INTERVAL_PARAM = "refreshInterval";
   protected static volatile int webSocketClients;
 
   public SDCWebSocketServlet(Configuration configuration, RuntimeInfo runtimeInfo,
@@ -119,10 +122,12 @@ public class SDCWebSocketServlet extends WebSocketServlet implements WebSocketCr
             }
           }, queue);
         case MetricsWebSocket.TYPE:
+          final boolean delta = Boolean.parseBoolean(httpRequest.getParameter(METRICS_DELTA_PARAM));
+          final long refreshInterval = getRefreshInterval(httpRequest);
           return new MetricsWebSocket(new ListenerManager<MetricsEventListener>() {
             @Override
             public void register(MetricsEventListener listener) {
-              eventListenerManager.addMetricsEventListener(pipelineName, listener);
+              eventListenerManager.addMetricsEventListener(pipelineName, listener, delta, refreshInterval);
             }
 
             @Override
@@ -147,6 +152,18 @@ public class SDCWebSocketServlet extends WebSocketServlet implements WebSocketCr
     return null;
   }
 
+  private static long getRefreshInterval(HttpServletRequest httpRequest) {
+    String refreshInterval = httpRequest.getParameter(METRICS_REFRESH_INTERVAL_PARAM);
+    if (refreshInterval != null) {
+      try {
+        return Math.max(0, Long.parseLong(refreshInterval));
+      } catch (NumberFormatException ex) {
+        LOG.warn("Invalid metrics web socket refresh interval '{}', ignoring it", refreshInterval);
+      }
+    }
+    return 0;
+  }
+
   @Override
   protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException,
       IOException {
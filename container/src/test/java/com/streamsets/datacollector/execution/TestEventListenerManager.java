@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.execution;
+
+import com.streamsets.datacollector.metrics.MetricsEventListener;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestEventListenerManager {
+
+  private static final String METRICS_1 = "{\"counters\":{\"a\":{\"count\":1}}}";
+  private static final String METRICS_2 = "{\"counters\":{\"a\":{\"count\":2}}}";
+
+  @Test
+  public void testMetricsListeners() {
+    EventListenerManager manager = new EventListenerManager();
+    List<String> plain = new ArrayList<>();
+    List<String> delta = new ArrayList<>();
+    List<String> slow = new ArrayList<>();
+    manager.addMetricsEventListener("p", plain::add);
+    manager.addMetricsEventListener("p", delta::add, true, 0);
+    manager.addMetricsEventListener("p", slow::add, true, 60000);
+    Assert.assertTrue(manager.hasMetricEventListeners("p"));
+
+    manager.broadcastMetrics("p", METRICS_1);
+    manager.broadcastMetrics("p", METRICS_2);
+
+    Assert.assertEquals(2, plain.size());
+    Assert.assertEquals(METRICS_2, plain.get(1));
+
+    Assert.assertEquals(2, delta.size());
+    Assert.assertTrue(delta.get(0).startsWith("{\"delta\":false,\"version\":1,"));
+    Assert.assertTrue(delta.get(1).startsWith("{\"delta\":true,\"version\":2,"));
+
+    // notified of the first broadcast only, a minute has not passed
+    Assert.assertEquals(1, slow.size());
+    Assert.assertTrue(manager.hasMetricEventListenersDue("p", System.currentTimeMillis()));
+  }
+
+  @Test
+  public void testMetricsListenersDue() {
+    EventListenerManager manager = new EventListenerManager();
+    List<String> slow = new ArrayList<>();
+    MetricsEventListener listener = slow::add;
+    Assert.assertFalse(manager.hasMetricEventListenersDue("p", System.currentTimeMillis()));
+    manager.addMetricsEventListener("p", listener, false, 60000);
+    Assert.assertTrue(manager.hasMetricEventListenersDue("p", System.currentTimeMillis()));
+    manager.broadcastMetrics("p", METRICS_1);
+    Assert.assertFalse(manager.hasMetricEventListenersDue("p", System.currentTimeMillis()));
+    Assert.assertTrue(manager.hasMetricEventListenersDue("p", System.currentTimeMillis() + 60000));
+
+    manager.removeMetricsEventListener("p", listener);
+    Assert.assertFalse(manager.hasMetricEventListeners("p"));
+    Assert.assertEquals(1, slow.size());
+  }
+
+  @Test
+  public void testDeltaListenersWithInterval() throws Exception {
+    EventListenerManager manager = new EventListenerManager();
+    List<String> fast = new ArrayList<>();
+    List<String> slow = new ArrayList<>();
+    manager.addMetricsEventListener("p", fast::add, true, 0);
+    manager.addMetricsEventListener("p", slow::add, true, 50);
+
+    // broadcasting more often than the slow listener's interval
+    long deadline = System.currentTimeMillis() + 10000;
+    for (int i = 0; slow.size() < 4 && System.currentTimeMillis() < deadline; i++) {
+      manager.broadcastMetrics("p", "{\"counters\":{\"a\":{\"count\":" + i + "}}}");
+      Thread.sleep(5);
+    }
+    Assert.assertEquals(4, slow.size());
+    Assert.assertTrue(fast.size() > slow.size());
+
+    // the slow listener gets deltas from its own previous notification, with consecutive versions
+    Assert.assertTrue(slow.get(0).startsWith("{\"delta\":false,\"version\":1,"));
+    for (int i = 1; i < slow.size(); i++) {
+      Assert.assertTrue(slow.get(i).startsWith("{\"delta\":true,\"version\":" + (i + 1) + ","));
+    }
+    for (int i = 1; i < fast.size(); i++) {
+      Assert.assertTrue(fast.get(i).startsWith("{\"delta\":true,"));
+    }
+  }
+
+}
@@ -18,6 +18,7 @@ package com.streamsets.datacollector.execution.runner.common;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.streamsets.datacollector.alerts.AlertsUtil;
 import com.streamsets.datacollector.config.DataRuleDefinition;
 import com.streamsets.datacollector.config.RuleDefinitions;
@@ -186,4 +187,20 @@ public class TestDataObserverRunner {
     Assert.assertNotNull(sampleRecords);
     Assert.assertEquals(0, sampleRecords.size());
   }
+
+  @Test
+  public void testRuleEvaluationTimer() {
+    RulesConfigurationChangeRequest rulesConfigurationChangeRequest = createRulesConfigurationChangeRequest(false, true);
+    dataObserverRunner.handleConfigurationChangeRequest(rulesConfigurationChangeRequest);
+    dataObserverRunner.handleDataRulesEvaluationRequest(createProductionObserverRequest());
+    dataObserverRunner.handleDataRulesEvaluationRequest(createProductionObserverRequest());
+    Timer timer = MetricsConfigurator.getTimer(metrics, AlertsUtil.getUserMetricName("myId"));
+    Assert.assertNotNull(timer);
+    Assert.assertEquals(2, timer.getCount());
+    Assert.assertEquals(6, MetricsConfigurator.getMeter(metrics, AlertsUtil.getUserMetricName("myId")).getCount());
+
+    rulesConfigurationChangeRequest.getRulesToRemove().put("myId", "myLane");
+    dataObserverRunner.handleConfigurationChangeRequest(rulesConfigurationChangeRequest);
+    Assert.assertNull(MetricsConfigurator.getTimer(metrics, AlertsUtil.getUserMetricName("myId")));
+  }
 }
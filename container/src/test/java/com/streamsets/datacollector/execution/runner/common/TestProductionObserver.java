@@ -19,6 +19,7 @@ import com.streamsets.datacollector.config.DataRuleDefinition;
 import com.streamsets.datacollector.config.ThresholdType;
 import com.streamsets.datacollector.execution.alerts.TestUtil;
 import com.streamsets.datacollector.execution.runner.common.ProductionObserver;
+import com.streamsets.datacollector.runner.production.RulesConfigurationChangeRequest;
 import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.Record;
 
@@ -28,6 +29,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -132,4 +134,50 @@ public class TestProductionObserver {
     System.out.println("Records for rule myID4 : " + ruleIdToSampledRecordsSize.get(ID + 4));
     System.out.println("Records for rule myID5 : " + ruleIdToSampledRecordsSize.get(ID + 5));*/
   }
+
+  @Test
+  public void testSamplingThrottledWhenObserverFallsBehind() {
+    Configuration configuration = new Configuration();
+    configuration.set(Constants.MAX_OBSERVER_REQUEST_OFFER_WAIT_TIME_MS_KEY, 0);
+    configuration.set(Constants.OBSERVER_SAMPLING_MAX_BATCH_STRIDE_KEY, 8);
+    ProductionObserver observer = new ProductionObserver(configuration, null);
+    ArrayBlockingQueue<Object> queue = new ArrayBlockingQueue<>(4);
+    observer.setObserveRequests(queue);
+
+    List<DataRuleDefinition> dataRuleDefinitions = new ArrayList<>();
+    dataRuleDefinitions.add(new DataRuleDefinition(ID, "myRule", LANE + "::s", 100, 5,
+      "${record:value(\"/name\")==null}", true, "alertText", ThresholdType.COUNT, "2", 5, true, false, true,
+      System.currentTimeMillis()));
+    Map<String, List<DataRuleDefinition>> laneToDataRuleMap = new HashMap<>();
+    laneToDataRuleMap.put(LANE + "::s", dataRuleDefinitions);
+    observer.setConfiguration(new RulesConfigurationChangeRequest(null, new HashMap<String, String>(),
+        new HashSet<String>(), laneToDataRuleMap, new HashMap<String, Integer>()));
+    observer.reconfigure();
+    queue.clear();
+
+    Map<String, List<Record>> snapshot = new HashMap<>();
+    snapshot.put(LANE + "::s", TestUtil.createRecords(NUMBER_OF_RECORDS_PER_BATCH));
+
+    // nobody consumes the queue, the stride grows up to the max
+    for (int i = 0; i < 20; i++) {
+      observer.observe(null, snapshot);
+    }
+    Assert.assertEquals(8, observer.getSamplingStride());
+    Assert.assertEquals(4, queue.size());
+
+    // while the queue is full most batches are not even sampled
+    queue.poll();
+    for (int i = 0; i < 8; i++) {
+      observer.observe(null, snapshot);
+    }
+    Assert.assertEquals(4, queue.size());
+
+    // the queue drained, the stride shrinks back
+    queue.clear();
+    for (int i = 0; i < 4; i++) {
+      observer.observe(null, snapshot);
+      queue.clear();
+    }
+    Assert.assertEquals(1, observer.getSamplingStride());
+  }
 }
@@ -18,6 +18,7 @@ package com.streamsets.datacollector.execution.snapshot;
 import com.streamsets.datacollector.execution.Snapshot;
 import com.streamsets.datacollector.execution.SnapshotInfo;
 import com.streamsets.datacollector.execution.SnapshotStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.record.RecordImpl;
 import com.streamsets.datacollector.runner.ErrorSink;
 import com.streamsets.datacollector.runner.EventSink;
@@ -25,6 +26,7 @@ import com.streamsets.datacollector.runner.StageOutput;
 import com.streamsets.datacollector.util.PipelineException;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.impl.ErrorMessage;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -32,6 +34,8 @@ import org.junit.Test;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -216,6 +220,53 @@ public abstract class TestSnapshotStore {
 
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testAppendBatchAndPartialRead() throws Exception {
+    snapshotStore.create(USER, PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, SNAPSHOT_LABEL);
+    List<StageOutput> batch = createSnapshotData();
+    List<ErrorMessage> stageErrors = Collections.singletonList(new ErrorMessage("CODE", "error message", 1000L));
+    batch.add(new StageOutput("target", new HashMap<>(), null, stageErrors, null));
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, batch);
+    Assert.assertTrue(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+    snapshotStore.appendBatch(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, createSnapshotData());
+    snapshotStore.save(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID, 2, Collections.<List<StageOutput>>emptyList());
+    Assert.assertFalse(snapshotStore.getInfo(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID).isInProgress());
+
+    try (Snapshot snapshot = snapshotStore.get(PIPELINE_NAME, PIPELINE_REV, SNAPSHOT_ID)) {
+      Assert.assertEquals(
+          Arrays.asList(Arrays.asList("source", "processor", "target"), Arrays.asList("source", "processor")),
+          snapshot.getIndex()
+      );
+
+      List<StageOutput> stageOutputs = snapshot.getBatch(0, null);
+      Assert.assertEquals(3, stageOutputs.size());
+      List<Record> records = stageOutputs.get(0).getOutput().get("lane");
+      Assert.assertEquals(2, records.size());
+      Assert.assertEquals("s:1", records.get(0).getHeader().getSourceId());
+      Assert.assertEquals(Field.create(2), records.get(1).get());
+      Assert.assertNull(stageOutputs.get(2).getErrorRecords());
+      ErrorMessage error = stageOutputs.get(2).getStageErrors().get(0);
+      Assert.assertEquals("CODE", error.getErrorCode());
+      Assert.assertEquals(stageErrors.get(0).getLocalized(), error.getLocalized());
+      Assert.assertEquals(1000L, error.getTimestamp());
+
+      stageOutputs = snapshot.getBatch(1, "processor");
+      Assert.assertEquals(1, stageOutputs.size());
+      Assert.assertEquals("s:3", stageOutputs.get(0).getOutput().get("lane").get(0).getHeader().getSourceId());
+
+      // the full output keeps the JSON format of the snapshot data
+      try (InputStream output = snapshot.getOutput()) {
+        Map<String, Object> json = ObjectMapperFactory.get().readValue(output, Map.class);
+        List<List<Map<String, Object>>> batches = (List<List<Map<String, Object>>>) json.get("snapshotBatches");
+        Assert.assertEquals(2, batches.size());
+        Assert.assertEquals(3, batches.get(0).size());
+        Assert.assertEquals(2, batches.get(1).size());
+        Assert.assertEquals("target", batches.get(0).get(2).get("instanceName"));
+      }
+    }
+  }
+
   private List<List<StageOutput>> getSnapshotData() {
     List<List<StageOutput>> snapshotBatches = new ArrayList<>();
     snapshotBatches.add(createSnapshotData());
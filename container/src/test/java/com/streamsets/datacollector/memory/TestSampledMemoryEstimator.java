@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.memory;
+
+import com.codahale.metrics.Gauge;
+import com.google.common.collect.ImmutableMap;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestSampledMemoryEstimator {
+
+  private static Record createRecord(String value) {
+    Record record = new RecordImpl("stage", "id", null, null);
+    Map<String, Field> map = new HashMap<>();
+    map.put("value", Field.create(value));
+    map.put("list", Field.create(Arrays.asList(Field.create(1), Field.create(2L))));
+    record.set(Field.create(map));
+    return record;
+  }
+
+  private static List<Record> createRecords(int count, String value) {
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      records.add(createRecord(value));
+    }
+    return records;
+  }
+
+  @Test
+  public void testEstimateSize() {
+    Assert.assertEquals(0, SampledMemoryEstimator.estimateSize((Field) null));
+    long small = SampledMemoryEstimator.estimateSize(createRecord("a"));
+    long large = SampledMemoryEstimator.estimateSize(createRecord(new String(new char[1000])));
+    Assert.assertTrue(small > 0);
+    Assert.assertEquals(2 * 999, large - small);
+    Assert.assertTrue(
+        SampledMemoryEstimator.estimateSize(Field.create(new byte[100])) >
+        SampledMemoryEstimator.estimateSize(Field.create(new byte[10]))
+    );
+  }
+
+  @Test
+  public void testBatchOutput() {
+    SampledMemoryEstimator estimator = new SampledMemoryEstimator(10, () -> null);
+    long recordSize = SampledMemoryEstimator.estimateSize(createRecord("a"));
+
+    estimator.batchStarted();
+    estimator.batchFinished(ImmutableMap.of("lane", createRecords(100, "a")));
+    Assert.assertEquals(100 * recordSize, estimator.getMemoryConsumed());
+
+    // only the last batch is held
+    estimator.batchStarted();
+    estimator.batchFinished(ImmutableMap.of("a", createRecords(5, "a"), "b", createRecords(5, "a")));
+    Assert.assertEquals(10 * recordSize, estimator.getMemoryConsumed());
+
+    estimator.batchFinished(Collections.emptyMap());
+    Assert.assertEquals(0, estimator.getMemoryConsumed());
+    Assert.assertTrue(estimator.getAllocatedBytes() >= 0);
+  }
+
+  @Test
+  public void testReportedMemory() {
+    AtomicReference<Gauge<Map<String, Object>>> gauge = new AtomicReference<>();
+    SampledMemoryEstimator estimator = new SampledMemoryEstimator(1, gauge::get);
+    Assert.assertEquals(0, estimator.getMemoryConsumed());
+
+    Map<String, Object> values = new HashMap<>();
+    gauge.set(() -> values);
+    Assert.assertEquals(0, estimator.getMemoryConsumed());
+    values.put(SampledMemoryEstimator.REPORTED_MEMORY_KEY, 1000L);
+    Assert.assertEquals(1000, estimator.getMemoryConsumed());
+
+    estimator.batchFinished(ImmutableMap.of("lane", createRecords(1, "a")));
+    Assert.assertEquals(1000 + SampledMemoryEstimator.estimateSize(createRecord("a")), estimator.getMemoryConsumed());
+  }
+
+}
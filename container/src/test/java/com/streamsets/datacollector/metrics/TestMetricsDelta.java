@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestMetricsDelta {
+
+  private static JsonNode parse(String json) throws Exception {
+    return ObjectMapperFactory.get().readTree(json);
+  }
+
+  @Test
+  public void testDelta() throws Exception {
+    MetricsDelta metricsDelta = new MetricsDelta();
+    Assert.assertEquals(0, metricsDelta.getVersion());
+
+    metricsDelta.update("{\"version\":\"3.0.0\",\"counters\":{\"a\":{\"count\":1},\"b\":{\"count\":1}},\"gauges\":{}}");
+    Assert.assertEquals(1, metricsDelta.getVersion());
+    Assert.assertNull(metricsDelta.getDelta());
+    JsonNode full = parse(metricsDelta.getFull());
+    Assert.assertFalse(full.get("delta").asBoolean());
+    Assert.assertEquals(1, full.get("version").asLong());
+    Assert.assertEquals(1, full.get("metrics").get("counters").get("b").get("count").asInt());
+
+    metricsDelta.update("{\"version\":\"3.0.0\",\"counters\":{\"a\":{\"count\":1},\"c\":{\"count\":2}},\"gauges\":{}}");
+    JsonNode delta = parse(metricsDelta.getDelta());
+    Assert.assertTrue(delta.get("delta").asBoolean());
+    Assert.assertEquals(2, delta.get("version").asLong());
+    // only the new counter, nothing for the unchanged sections and fields
+    Assert.assertEquals(1, delta.get("metrics").size());
+    Assert.assertEquals(1, delta.get("metrics").get("counters").size());
+    Assert.assertEquals(2, delta.get("metrics").get("counters").get("c").get("count").asInt());
+    Assert.assertEquals("b", delta.get("removed").get("counters").get(0).asText());
+
+    metricsDelta.update("{\"version\":\"3.0.0\",\"counters\":{\"a\":{\"count\":1},\"c\":{\"count\":2}},\"gauges\":{}}");
+    delta = parse(metricsDelta.getDelta());
+    Assert.assertEquals(0, delta.get("metrics").size());
+    Assert.assertEquals(0, delta.get("removed").size());
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.datacollector.restapi;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.datacollector.execution.Manager;
+import com.streamsets.datacollector.execution.Runner;
+import com.streamsets.datacollector.execution.Snapshot;
+import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.main.UserGroupManager;
+import com.streamsets.datacollector.runner.StageOutput;
+import com.streamsets.datacollector.store.AclStoreTask;
+import com.streamsets.datacollector.store.PipelineInfo;
+import com.streamsets.datacollector.store.PipelineStoreTask;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import javax.ws.rs.core.Response;
+import java.security.Principal;
+import java.util.Collections;
+import java.util.List;
+
+public class TestManagerResource {
+
+  private static final String PIPELINE_ID = "myPipeline";
+  private static final String SNAPSHOT_NAME = "snapshot1";
+
+  private Snapshot snapshot;
+  private ManagerResource resource;
+
+  @Before
+  public void setUp() throws Exception {
+    PipelineInfo pipelineInfo = Mockito.mock(PipelineInfo.class);
+    Mockito.when(pipelineInfo.getPipelineId()).thenReturn(PIPELINE_ID);
+    Mockito.when(pipelineInfo.getTitle()).thenReturn(PIPELINE_ID);
+    PipelineStoreTask store = Mockito.mock(PipelineStoreTask.class);
+    Mockito.when(store.getInfo(PIPELINE_ID)).thenReturn(pipelineInfo);
+
+    snapshot = Mockito.mock(Snapshot.class);
+    Mockito.when(snapshot.getIndex()).thenReturn(ImmutableList.of(
+        ImmutableList.of("s"),
+        ImmutableList.of("s")
+    ));
+    Runner runner = Mockito.mock(Runner.class);
+    Mockito.when(runner.getSnapshot(SNAPSHOT_NAME)).thenReturn(snapshot);
+    Manager manager = Mockito.mock(Manager.class);
+    Mockito.when(manager.getRunner(PIPELINE_ID, "0")).thenReturn(runner);
+
+    Principal principal = Mockito.mock(Principal.class);
+    Mockito.when(principal.getName()).thenReturn("admin");
+    resource = new ManagerResource(
+        manager,
+        principal,
+        store,
+        Mockito.mock(AclStoreTask.class),
+        Mockito.mock(RuntimeInfo.class),
+        Mockito.mock(UserGroupManager.class)
+    );
+  }
+
+  @Test
+  public void testGetSnapshotBatch() throws Exception {
+    List<StageOutput> stageOutputs = Collections.emptyList();
+    Mockito.when(snapshot.getBatch(1, null)).thenReturn(stageOutputs);
+    Response response = resource.getSnapshotBatch(PIPELINE_ID, SNAPSHOT_NAME, 1, "0", null);
+    Assert.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+  }
+
+  @Test
+  public void testGetSnapshotBatchOutOfRange() throws Exception {
+    Response response = resource.getSnapshotBatch(PIPELINE_ID, SNAPSHOT_NAME, 2, "0", null);
+    Assert.assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
+
+    response = resource.getSnapshotBatch(PIPELINE_ID, SNAPSHOT_NAME, -1, "0", null);
+    Assert.assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
+
+    Mockito.verify(snapshot, Mockito.never()).getBatch(Mockito.anyInt(), Mockito.any());
+  }
+
+  @Test
+  public void testGetSnapshotBatchWithoutData() throws Exception {
+    Mockito.when(snapshot.getIndex()).thenReturn(null);
+    Mockito.when(snapshot.getBatch(0, null)).thenReturn(null);
+    Response response = resource.getSnapshotBatch(PIPELINE_ID, SNAPSHOT_NAME, 0, "0", null);
+    Assert.assertEquals(Response.Status.NO_CONTENT.getStatusCode(), response.getStatus());
+  }
+}
@@ -17,11 +17,17 @@ package com.streamsets.datacollector.runner;
 
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.memory.MemoryUsageCollectorResourceBundle;
+import com.streamsets.datacollector.record.RecordImpl;
+import com.streamsets.datacollector.util.Configuration;
 import com.streamsets.pipeline.api.Batch;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.Executor;
+import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Processor;
+import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Source;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.Target;
@@ -34,6 +40,7 @@ import org.powermock.reflect.Whitebox;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class TestStagePipe {
   private boolean produce;
@@ -321,4 +328,76 @@ public class TestStagePipe {
     Mockito.verifyNoMoreInteractions(pipeBatch);
     Assert.assertTrue(write);
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSampledMemoryOfPipesSharingStageCounters() throws Exception {
+    MockStages.setProcessorCapture(new Processor() {
+
+      @Override
+      public List<ConfigIssue> init(Info info, Context context) {
+        return Collections.emptyList();
+      }
+
+      @Override
+      public void process(Batch batch, BatchMaker batchMaker) throws StageException {
+      }
+
+      @Override
+      public void destroy() {
+      }
+    });
+    Configuration configuration = new Configuration();
+    configuration.set("monitor.memory", true);
+    configuration.set(StagePipe.MONITOR_MEMORY_MODE, StagePipe.MONITOR_MEMORY_MODE_SAMPLED);
+    configuration.set(StagePipe.MONITOR_MEMORY_SAMPLE_RATE, 1);
+    PipelineRunner pipelineRunner = Mockito.mock(PipelineRunner.class);
+    Mockito.when(pipelineRunner.getMetrics()).thenReturn(new MetricRegistry());
+    Mockito.when(pipelineRunner.getRuntimeInfo()).thenReturn(Mockito.mock(RuntimeInfo.class));
+    Pipeline pipeline = new MockPipelineBuilder()
+      .withConfiguration(configuration)
+      .withPipelineConf(MockStages.createPipelineConfigurationSourceProcessorTarget())
+      .build(pipelineRunner);
+
+    // two pipes of the same stage report to the same stage counters, as the pipes of different pipeline runners do
+    StagePipe pipe1 = (StagePipe) pipeline.getRunners().get(0).get(2);
+    StagePipe pipe2 = new StagePipe("myPipeline", "0", configuration, pipe1.getStage(), pipe1.getInputLanes(),
+        pipe1.getOutputLanes(), pipe1.getEventLanes(), new ResourceControlledScheduledExecutor(0.02f),
+        new MemoryUsageCollectorResourceBundle(), null);
+    Assert.assertTrue(pipe1.init(new PipeContext()).isEmpty());
+    Assert.assertTrue(pipe2.init(new PipeContext()).isEmpty());
+
+    // each record holds a bit more than 0.6 MB
+    Record record = new RecordImpl("s", "s:1", null, null);
+    record.set(Field.create(new byte[600000]));
+
+    processSampled(pipe1, ImmutableList.of(record, record));
+    Assert.assertEquals(1, pipe1.getMemoryConsumed());
+    processSampled(pipe2, ImmutableList.of(record, record, record, record));
+    Assert.assertEquals(3, pipe1.getMemoryConsumed());
+    Assert.assertEquals(3, pipe2.getMemoryConsumed());
+
+    // the estimate of a pipe only replaces its own previous estimate
+    processSampled(pipe1, Collections.<Record>emptyList());
+    Assert.assertEquals(2, pipe1.getMemoryConsumed());
+    processSampled(pipe2, ImmutableList.of(record, record));
+    Assert.assertEquals(1, pipe2.getMemoryConsumed());
+  }
+
+  private void processSampled(StagePipe pipe, List<Record> output) throws Exception {
+    BatchMakerImpl batchMaker = Mockito.mock(BatchMakerImpl.class);
+    Mockito.when(batchMaker.getLanes()).thenReturn(ImmutableList.of("p"));
+    Mockito.when(batchMaker.getSize()).thenReturn(output.size());
+    Map<String, List<Record>> stageOutput = ImmutableMap.of("p", output);
+    Mockito.when(batchMaker.getStageOutput()).thenReturn(stageOutput);
+
+    BatchImpl batch = Mockito.mock(BatchImpl.class);
+    Mockito.when(batch.getSize()).thenReturn(1);
+
+    PipeBatch pipeBatch = Mockito.mock(FullPipeBatch.class);
+    Mockito.when(pipeBatch.startStage(Mockito.eq(pipe))).thenReturn(batchMaker);
+    Mockito.when(pipeBatch.getBatch(Mockito.eq(pipe))).thenReturn(batch);
+    Mockito.when(pipeBatch.getErrorSink()).thenReturn(new ErrorSink());
+    pipe.process(pipeBatch);
+  }
 }
@@ -43,6 +43,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -122,6 +123,34 @@ public class TestClassLoaderStageLibraryTask {
     Assert.assertTrue(foundAutoC);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testParallelLoading() {
+    File configDir = new File("target", UUID.randomUUID().toString()).getAbsoluteFile();
+    List<ClassLoader> classLoaders = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      classLoaders.add(new SDCClassLoader("library", "lib" + i, Collections.<URL>emptyList(),
+          getClass().getClassLoader(), new String[0], new SystemPackage(new String[0]),
+          new ApplicationPackage(new TreeSet<String>()), false, false, false));
+    }
+    RuntimeInfo runtimeInfo = Mockito.mock(RuntimeInfo.class);
+    Mockito.when(runtimeInfo.getConfigDir()).thenReturn(configDir.getAbsolutePath());
+    Mockito.when(runtimeInfo.getStageLibraryClassLoaders()).thenReturn((List) classLoaders);
+
+    Configuration configuration = new Configuration();
+    configuration.set("stagelibs.load.threads", 3);
+    ClassLoaderStageLibraryTask library = new ClassLoaderStageLibraryTask(runtimeInfo, new DataCollectorBuildInfo(), configuration);
+    library.initTask();
+
+    // definitions are registered in the stage library order regardless of the thread that loaded them
+    Assert.assertEquals(5, library.getStages().size());
+    for (int i = 0; i < 5; i++) {
+      StageDefinition stage = library.getStages().get(i);
+      Assert.assertEquals("lib" + i, stage.getLibrary());
+      Assert.assertEquals("lib" + i, library.getStage("lib" + i, stage.getName(), false).getLibrary());
+    }
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void testIncorrectSdcMinVersion() {
@@ -16,6 +16,7 @@
 package com.streamsets.datacollector.store.impl;
 
 
+import com.google.common.collect.ImmutableSet;
 import com.streamsets.datacollector.config.DataRuleDefinition;
 import com.streamsets.datacollector.config.DriftRuleDefinition;
 import com.streamsets.datacollector.config.MetricElement;
@@ -26,7 +27,9 @@ import com.streamsets.datacollector.config.RuleDefinitions;
 import com.streamsets.datacollector.config.ThresholdType;
 import com.streamsets.datacollector.creation.RuleDefinitionsConfigBean;
 import com.streamsets.datacollector.execution.PipelineStateStore;
+import com.streamsets.datacollector.json.ObjectMapperFactory;
 import com.streamsets.datacollector.main.RuntimeInfo;
+import com.streamsets.datacollector.restapi.bean.BeanHelper;
 import com.streamsets.datacollector.runner.MockStages;
 import com.streamsets.datacollector.runner.preview.StageConfigurationBuilder;
 import com.streamsets.datacollector.stagelibrary.StageLibraryTask;
@@ -36,6 +39,7 @@ import com.streamsets.datacollector.store.PipelineStoreTask;
 import com.streamsets.datacollector.util.ContainerError;
 import com.streamsets.datacollector.util.LockCache;
 import com.streamsets.datacollector.util.LockCacheModule;
+import com.streamsets.datacollector.util.PipelineDirectoryUtil;
 import com.streamsets.datacollector.util.PipelineException;
 import dagger.ObjectGraph;
 import dagger.Provides;
@@ -47,11 +51,17 @@ import org.mockito.Mockito;
 
 import javax.annotation.Nullable;
 import javax.inject.Singleton;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.Assert.assertEquals;
@@ -466,4 +476,58 @@ public class TestFilePipelineStoreTask {
   }
 
 
+  @Test
+  public void testCatalog() throws Exception {
+    FilePipelineStoreTask fileStore = (FilePipelineStoreTask) ((CachePipelineStoreTask) store).getActualStore();
+    try {
+      store.init();
+      store.create(SYSTEM_USER, "a", "A", "A", false, false);
+      store.create(SYSTEM_USER, "b", "B", "B", false, false);
+      Assert.assertEquals(2, fileStore.getPipelines().size());
+
+      // persisted as pipelines are written, not only when the store stops
+      Assert.assertEquals(ImmutableSet.of("a", "b"), getCatalogDirNames(fileStore));
+    } finally {
+      store.stop();
+    }
+    Path catalogFile = fileStore.getStoreDir().resolveSibling(FilePipelineStoreTask.CATALOG_FILE);
+    Assert.assertTrue(Files.exists(catalogFile));
+
+    // pipeline directories modified while the store was stopped
+    PipelineInfo info = fileStore.getInfo("a");
+    PipelineInfo updatedInfo = new PipelineInfo(info, "A2", info.getDescription(), info.getLastModified(),
+        info.getLastModifier(), info.getLastRev(), info.getUuid(), info.isValid(), info.getMetadata(),
+        info.getSdcVersion(), info.getSdcId());
+    Files.write(fileStore.getInfoFile("a"),
+        ObjectMapperFactory.get().writeValueAsBytes(BeanHelper.wrapPipelineInfo(updatedInfo)));
+    PipelineDirectoryUtil.deleteAll(fileStore.getPipelineDir("b").toFile());
+
+    try {
+      store.init();
+      List<PipelineInfo> pipelines = store.getPipelines();
+      Assert.assertEquals(1, pipelines.size());
+      Assert.assertEquals("A2", pipelines.get(0).getTitle());
+    } finally {
+      store.stop();
+    }
+
+    // a corrupted catalog is rebuilt
+    Files.write(catalogFile, "[".getBytes(StandardCharsets.UTF_8));
+    try {
+      store.init();
+      Assert.assertEquals("A2", store.getPipelines().get(0).getTitle());
+    } finally {
+      store.stop();
+    }
+  }
+
+  private static Set<String> getCatalogDirNames(FilePipelineStoreTask fileStore) throws IOException {
+    Path catalogFile = fileStore.getStoreDir().resolveSibling(FilePipelineStoreTask.CATALOG_FILE);
+    Set<String> dirNames = new HashSet<>();
+    for (Map entry : ObjectMapperFactory.get().readValue(catalogFile.toFile(), Map[].class)) {
+      dirNames.add((String) entry.get("dirName"));
+    }
+    return dirNames;
+  }
+
 }
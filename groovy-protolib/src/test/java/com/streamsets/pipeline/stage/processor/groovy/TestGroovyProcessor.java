@@ -396,4 +396,20 @@ public class TestGroovyProcessor {
     );
     ScriptingProcessorTestUtil.verifyErrorRecordErrorSink(GroovyDProcessor.class, processor);
   }
+
+  @Test
+  public void testUnchangedFieldsPreserved() throws Exception {
+    Processor processor = new GroovyProcessor(
+        ProcessingMode.RECORD,
+        "for (record in records) {\n" +
+        "  record.value['changed'] = 2\n" +
+        "  newRecord = sdcFunctions.createRecord('id')\n" +
+        "  newRecord.value = record.value['nested']\n" +
+        "  output.write(record)\n" +
+        "  output.write(newRecord)\n" +
+        "}"
+    );
+    ScriptingProcessorTestUtil.verifyUnchangedFieldsPreserved(GroovyDProcessor.class, processor);
+  }
+
 }
@@ -64,14 +64,15 @@ public class MemoryBufferFragmentQueue implements FragmentQueue {
     return new Runnable() {
       @Override
       public void run() {
-        List<byte[]> list = new ArrayList<>(1);
-        list.add(null);
         try {
           while (running) {
             try {
               byte[] fragment = dataQueue.poll(100, TimeUnit.MILLISECONDS);
               if (fragment != null) {
-                list.set(0, fragment);
+                // writing all the queued fragments at once
+                List<byte[]> list = new ArrayList<>();
+                list.add(fragment);
+                dataQueue.drainTo(list);
                 fragmentQueue.write(list);
               }
             } catch (InterruptedException ex) {
@@ -94,7 +95,16 @@ public class MemoryBufferFragmentQueue implements FragmentQueue {
   @Override
   public void destroy() {
     running = false;
-    writerThread.interrupt();
+    if (writerThread != null) {
+      writerThread.interrupt();
+      // the writer thread must be done writing before the queue it writes to is destroyed
+      try {
+        writerThread.join();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      writerThread = null;
+    }
     fragmentQueue.destroy();
   }
 
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.fragmentqueue;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.streamsets.pipeline.api.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Disk fragment queue appending fragments to a sequence of memory mapped segment files.
+ * <p/>
+ * Fragments are written as a length followed by the fragment bytes. A write is a copy into the mapped segment, there
+ * is no fsync, the operating system flushes the pages in the background. Like {@link FileFragmentQueue} the queue
+ * lives in a temporary directory deleted on destroy and it is not recovered after a restart.
+ * <p/>
+ * Segments are polled from the oldest one, fully polled segments are recycled for new writes instead of being
+ * deleted and mapped again. Fragments larger than a segment get a segment of their own.
+ * <p/>
+ * The maximum queue size bounds the disk used by all the segments, mapped or recycled, not only by the fragments in
+ * them. Segments are sized so that several of them fit in the maximum queue size.
+ */
+public class SegmentedFileFragmentQueue implements FragmentQueue {
+  private static final Logger LOG = LoggerFactory.getLogger(SegmentedFileFragmentQueue.class);
+  static final int DEFAULT_SEGMENT_SIZE = 8 * 1024 * 1024;
+  private static final int MAX_RECYCLED_SEGMENTS = 2;
+  private static final int MIN_SEGMENTS = 4;
+  private static final int LENGTH_SIZE = 4;
+
+  private static class Segment {
+    private final File file;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private int readPosition;
+
+    Segment(File file, int size) throws IOException {
+      this.file = file;
+      try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+        raf.setLength(size);
+        buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+      }
+    }
+
+    boolean fits(byte[] fragment) {
+      return buffer.capacity() - writePosition >= LENGTH_SIZE + fragment.length;
+    }
+
+    void write(byte[] fragment) {
+      buffer.putInt(writePosition, fragment.length);
+      buffer.position(writePosition + LENGTH_SIZE);
+      buffer.put(fragment);
+      writePosition = buffer.position();
+    }
+
+    boolean hasData() {
+      return readPosition < writePosition;
+    }
+
+    byte[] read() {
+      byte[] fragment = new byte[buffer.getInt(readPosition)];
+      buffer.position(readPosition + LENGTH_SIZE);
+      buffer.get(fragment);
+      readPosition = buffer.position();
+      return fragment;
+    }
+
+    void reset() {
+      writePosition = 0;
+      readPosition = 0;
+    }
+
+    int capacity() {
+      return buffer.capacity();
+    }
+  }
+
+  private final long maxQueueSize;
+  private final int maxSegmentSize;
+  private int segmentSize;
+  // first is polled from, last is written to
+  private final Deque<Segment> segments;
+  private final Deque<Segment> recycledSegments;
+  private File dir;
+  private int segmentCount;
+  // disk used by mapped and recycled segments
+  private long diskSize;
+  private AtomicInteger lostFragments;
+
+  public SegmentedFileFragmentQueue(long maxSizeMB) {
+    this(maxSizeMB, DEFAULT_SEGMENT_SIZE);
+  }
+
+  @VisibleForTesting
+  SegmentedFileFragmentQueue(long maxSizeMB, int segmentSize) {
+    this.maxQueueSize = maxSizeMB * 1000 * 1000;
+    this.maxSegmentSize = segmentSize;
+    segments = new ArrayDeque<>();
+    recycledSegments = new ArrayDeque<>();
+  }
+
+  @VisibleForTesting
+  long getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  @VisibleForTesting
+  synchronized int getSegmentCount() {
+    return segments.size();
+  }
+
+  @VisibleForTesting
+  synchronized int getRecycledSegmentCount() {
+    return recycledSegments.size();
+  }
+
+  @Override
+  public List<Stage.ConfigIssue> init(Stage.Context context) {
+    List<Stage.ConfigIssue> issues = new ArrayList<>();
+    try {
+      dir = Files.createTempDirectory("sdc-fragments").toFile();
+      segmentSize = (int) Math.max(LENGTH_SIZE, Math.min(maxSegmentSize, getMaxQueueSize() / MIN_SEGMENTS));
+      segmentCount = 0;
+      diskSize = 0;
+    } catch (IOException ex) {
+      issues.add(context.createConfigIssue("", "", Errors.FRAGMENT_CACHE_WRITER_01, ex.toString()));
+    }
+    lostFragments = new AtomicInteger(0);
+    return issues;
+  }
+
+  @Override
+  public synchronized void destroy() {
+    if (dir != null) {
+      for (Segment segment : segments) {
+        delete(segment);
+      }
+      for (Segment segment : recycledSegments) {
+        delete(segment);
+      }
+      segments.clear();
+      recycledSegments.clear();
+      if (!dir.delete()) {
+        LOG.warn("Could not delete queue directory '{}' on destroy", dir.getAbsolutePath());
+      }
+      dir = null;
+    }
+  }
+
+  private void delete(Segment segment) {
+    diskSize -= segment.capacity();
+    unmap(segment.buffer);
+    if (!segment.file.delete()) {
+      LOG.warn("Could not delete queue segment '{}'", segment.file.getAbsolutePath());
+    }
+  }
+
+  // a mapping keeps its file on disk until it is garbage collected, release it right away when possible
+  private static void unmap(MappedByteBuffer buffer) {
+    try {
+      Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(buffer);
+      if (cleaner != null) {
+        cleaner.getClass().getMethod("clean").invoke(cleaner);
+      }
+    } catch (Exception ex) {
+      LOG.debug("Could not unmap queue segment, it will be unmapped on garbage collection: {}", ex.toString());
+    }
+  }
+
+  @Override
+  public int getMaxFragmentSizeKB() {
+    return (int) ((maxQueueSize - LENGTH_SIZE) / 1000);
+  }
+
+  // returns null if a new segment would exceed the maximum queue size
+  private Segment getWriteSegment(byte[] fragment) throws IOException {
+    Segment segment = segments.peekLast();
+    if (segment == null || !segment.fits(fragment)) {
+      int size = Math.max(segmentSize, LENGTH_SIZE + fragment.length);
+      if (size == segmentSize && !recycledSegments.isEmpty()) {
+        segment = recycledSegments.poll();
+      } else {
+        // recycled segments give their disk space to a larger one
+        while (diskSize + size > getMaxQueueSize() && !recycledSegments.isEmpty()) {
+          delete(recycledSegments.poll());
+        }
+        if (diskSize + size > getMaxQueueSize()) {
+          return null;
+        }
+        File file = new File(dir, "segment-" + segmentCount++);
+        segment = new Segment(file, size);
+        diskSize += size;
+      }
+      segments.add(segment);
+    }
+    return segment;
+  }
+
+  @Override
+  public void write(List<byte[]> fragments) throws IOException {
+    int lost = 0;
+    synchronized (this) {
+      if (dir == null) {
+        throw new IOException("Fragment queue is not initialized or already destroyed");
+      }
+      for (byte[] fragment : fragments) {
+        Segment segment = getWriteSegment(fragment);
+        if (segment != null) {
+          segment.write(fragment);
+        } else {
+          lost++;
+        }
+      }
+      notifyAll();
+    }
+    if (lost > 0) {
+      lostFragments.addAndGet(lost);
+      LOG.warn("Lost '{}' fragments, file queue full at '{}MB'", lost, getMaxQueueSize() / 1000 / 1000);
+    }
+  }
+
+  @Override
+  public int getLostFragmentsCountAndReset() {
+    return lostFragments.getAndSet(0);
+  }
+
+  // drops the fully polled segments, keeping the last one for writing
+  private void recycle() {
+    Segment segment = segments.peekFirst();
+    while (segment != null && !segment.hasData()) {
+      if (segments.size() == 1) {
+        segment.reset();
+        break;
+      }
+      segments.poll();
+      if (segment.capacity() == segmentSize && recycledSegments.size() < MAX_RECYCLED_SEGMENTS) {
+        segment.reset();
+        recycledSegments.add(segment);
+      } else {
+        delete(segment);
+      }
+      segment = segments.peekFirst();
+    }
+  }
+
+  @Override
+  public synchronized List<byte[]> poll(int maxFragments) throws IOException {
+    List<byte[]> fragments = null;
+    recycle();
+    Segment segment = segments.peekFirst();
+    while (segment != null && segment.hasData() && (fragments == null || fragments.size() < maxFragments)) {
+      if (fragments == null) {
+        fragments = new ArrayList<>();
+      }
+      fragments.add(segment.read());
+      recycle();
+      segment = segments.peekFirst();
+    }
+    return fragments;
+  }
+
+  @Override
+  public synchronized List<byte[]> poll(int maxFragments, long waitTimeMillis) throws IOException, InterruptedException {
+    long deadline = System.currentTimeMillis() + waitTimeMillis;
+    List<byte[]> fragments = poll(maxFragments);
+    long remaining = waitTimeMillis;
+    while (fragments == null && remaining > 0) {
+      wait(remaining);
+      fragments = poll(maxFragments);
+      remaining = deadline - System.currentTimeMillis();
+    }
+    return fragments;
+  }
+
+}
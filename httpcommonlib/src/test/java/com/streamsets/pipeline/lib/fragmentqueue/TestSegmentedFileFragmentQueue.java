@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.fragmentqueue;
+
+import com.google.common.collect.ImmutableList;
+import com.streamsets.pipeline.api.OnRecordError;
+import com.streamsets.pipeline.api.Stage;
+import com.streamsets.pipeline.sdk.ContextInfoCreator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestSegmentedFileFragmentQueue {
+
+  private byte[] fill(byte[] array, byte value) {
+    Arrays.fill(array, value);
+    return array;
+  }
+
+  private Stage.Context createContext() {
+    return ContextInfoCreator.createSourceContext("i", false, OnRecordError.TO_ERROR, ImmutableList.of("a"));
+  }
+
+  @Test
+  public void testSegmentedFileFragmentQueue() throws Exception {
+    SegmentedFileFragmentQueue queue = Mockito.spy(new SegmentedFileFragmentQueue(1));
+    Mockito.doReturn(1000L).when(queue).getMaxQueueSize(); // faking max size down to 1KB
+
+    Assert.assertTrue(queue.init(createContext()).isEmpty());
+
+    Assert.assertNull(queue.poll(4));
+
+    byte[] fragment1 = fill(new byte[100], (byte) 1);
+    byte[] fragment2 = fill(new byte[200], (byte) 2);
+    byte[] fragment3 = fill(new byte[1000], (byte) 3); //this fragment will be lost
+    byte[] fragment4 = fill(new byte[100], (byte) 4);
+    List<byte[]> fragments = ImmutableList.of(fragment1, fragment2, fragment3, fragment4);
+
+    Assert.assertEquals(0, queue.getLostFragmentsCountAndReset());
+
+    queue.write(fragments);
+    List<byte[]> got = queue.poll(4);
+    Assert.assertEquals(3, got.size());
+    Assert.assertArrayEquals(fragment1, got.get(0));
+    Assert.assertArrayEquals(fragment2, got.get(1));
+    Assert.assertArrayEquals(fragment4, got.get(2));
+
+    Assert.assertEquals(1, queue.getLostFragmentsCountAndReset());
+    Assert.assertEquals(0, queue.getLostFragmentsCountAndReset());
+
+    long start = System.currentTimeMillis();
+    Assert.assertNull(queue.poll(1, 100));
+    Assert.assertTrue(System.currentTimeMillis() - start >= 100);
+
+    queue.destroy();
+  }
+
+  @Test
+  public void testSegmentsRecycling() throws Exception {
+    // 3 fragments of 100 bytes plus their length per segment
+    SegmentedFileFragmentQueue queue = new SegmentedFileFragmentQueue(1, 312);
+    Assert.assertTrue(queue.init(createContext()).isEmpty());
+
+    List<byte[]> fragments = new ArrayList<>();
+    for (int i = 0; i < 9; i++) {
+      fragments.add(fill(new byte[100], (byte) i));
+    }
+    queue.write(fragments);
+    Assert.assertEquals(3, queue.getSegmentCount());
+
+    // larger than a segment
+    byte[] large = fill(new byte[500], (byte) 10);
+    queue.write(ImmutableList.of(large));
+    Assert.assertEquals(4, queue.getSegmentCount());
+
+    List<byte[]> got = queue.poll(7);
+    Assert.assertEquals(7, got.size());
+    for (int i = 0; i < 7; i++) {
+      Assert.assertArrayEquals(fragments.get(i), got.get(i));
+    }
+    Assert.assertEquals(2, queue.getSegmentCount());
+    Assert.assertEquals(2, queue.getRecycledSegmentCount());
+
+    // written after the large fragment, in a recycled segment
+    byte[] last = fill(new byte[100], (byte) 11);
+    queue.write(ImmutableList.of(last));
+    Assert.assertEquals(3, queue.getSegmentCount());
+    Assert.assertEquals(1, queue.getRecycledSegmentCount());
+
+    got = queue.poll(10);
+    Assert.assertEquals(4, got.size());
+    Assert.assertArrayEquals(fragments.get(7), got.get(0));
+    Assert.assertArrayEquals(fragments.get(8), got.get(1));
+    Assert.assertArrayEquals(large, got.get(2));
+    Assert.assertArrayEquals(last, got.get(3));
+    Assert.assertNull(queue.poll(10));
+
+    // the write segment is reused in place once drained
+    Assert.assertEquals(1, queue.getSegmentCount());
+
+    queue.destroy();
+  }
+
+  @Test
+  public void testMaxQueueSizeCountsSegments() throws Exception {
+    SegmentedFileFragmentQueue queue = Mockito.spy(new SegmentedFileFragmentQueue(1));
+    Mockito.doReturn(1000L).when(queue).getMaxQueueSize(); // faking max size down to 1KB, 250 bytes segments
+    Assert.assertTrue(queue.init(createContext()).isEmpty());
+
+    // one fragment per segment, the 5th one would need more than 1KB of segments
+    List<byte[]> fragments = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      fragments.add(fill(new byte[200], (byte) i));
+    }
+    queue.write(fragments);
+    Assert.assertEquals(4, queue.getSegmentCount());
+    Assert.assertEquals(1, queue.getLostFragmentsCountAndReset());
+
+    Assert.assertEquals(4, queue.poll(10).size());
+    Assert.assertEquals(1, queue.getSegmentCount());
+    Assert.assertEquals(2, queue.getRecycledSegmentCount());
+
+    // recycled segments are dropped to make room for a large fragment
+    byte[] large = fill(new byte[600], (byte) 10);
+    queue.write(ImmutableList.of(large));
+    Assert.assertEquals(0, queue.getLostFragmentsCountAndReset());
+    Assert.assertEquals(0, queue.getRecycledSegmentCount());
+    Assert.assertArrayEquals(large, queue.poll(1).get(0));
+
+    queue.destroy();
+  }
+
+  @Test
+  public void testWriteAfterDestroy() throws Exception {
+    SegmentedFileFragmentQueue queue = new SegmentedFileFragmentQueue(1);
+    Assert.assertTrue(queue.init(createContext()).isEmpty());
+    queue.destroy();
+    try {
+      queue.write(ImmutableList.of(new byte[10]));
+      Assert.fail();
+    } catch (IOException ex) {
+      // expected, no segment created outside of the destroyed queue directory
+    }
+    Assert.assertEquals(0, queue.getSegmentCount());
+  }
+
+  @Test
+  public void testPollWaitsForWrite() throws Exception {
+    SegmentedFileFragmentQueue queue = new SegmentedFileFragmentQueue(1);
+    Assert.assertTrue(queue.init(createContext()).isEmpty());
+
+    byte[] fragment = fill(new byte[10], (byte) 1);
+    Thread writer = new Thread(() -> {
+      try {
+        Thread.sleep(50);
+        queue.write(ImmutableList.of(fragment));
+      } catch (Exception ex) {
+        throw new RuntimeException(ex);
+      }
+    });
+    writer.start();
+    List<byte[]> got = queue.poll(1, 10000);
+    Assert.assertEquals(1, got.size());
+    Assert.assertArrayEquals(fragment, got.get(0));
+    writer.join();
+
+    queue.destroy();
+  }
+
+}
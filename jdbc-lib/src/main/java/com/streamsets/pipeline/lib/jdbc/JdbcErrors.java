@@ -112,11 +112,16 @@ public enum JdbcErrors implements ErrorCode {
   JDBC_86("Redo log files for the current session window are no longer available"),
   JDBC_87("Interrupted while waiting to read data"),
   JDBC_88("'{}' is not a valid decimal number"),
+  JDBC_89("Error while parsing redo SQL: {}"),
 
   JDBC_100("Could not enable partitioning for table {}: {}"),
   JDBC_101("Invalid partition size for table {}: {}"),
   JDBC_102("Invalid max number of partitions ({}) for table {}; this must be negative (for default behavior) or" +
       " greater than 1 to ensure progress"),
+  JDBC_103("Multithreaded mode requires Incremental Mode and no Transaction ID Column Name"),
+  JDBC_104("Multithreaded mode requires a numeric offset, invalid offset '{}'"),
+  JDBC_105("Multithreaded mode requires the query to bound the offset column with ${MAX_OFFSET}"),
+  JDBC_106("Max Pool Size '{}' should be greater than or equal to Number of Threads '{}'"),
   JDBC_200("Tables are not change tracking enabled: {}"),
   JDBC_201("Invalid Change Tracking Current Version: {}"),
   JDBC_202("Error while getting min valid version: {}"),
@@ -60,6 +60,16 @@ public final class MultithreadedTableProvider {
    */
   private static final int SHARED_QUEUE_SIZE_FUDGE_FACTOR = 2;
 
+  /**
+   * With adaptive partition size, the number of batches a completed partition should have produced. Partitions that
+   * produced less than half or more than twice as many rows change the partition size of the table by (at most) a
+   * factor of two.
+   */
+  private static final int TARGET_BATCHES_PER_PARTITION = 100;
+  private static final double MAX_PARTITION_SIZE_STEP = 2;
+  private static final double MIN_PARTITION_SIZE_SCALE = 1d / 1024;
+  private static final double MAX_PARTITION_SIZE_SCALE = 1024;
+
   private Map<String, TableContext> tableContextMap;
   private final BlockingQueue<TableRuntimeContext> sharedAvailableTablesQueue;
   private final Set<TableContext> tablesWithNoMoreData;
@@ -78,6 +88,7 @@ public final class MultithreadedTableProvider {
   private final Set<TableRuntimeContext> removedPartitions = Sets.newConcurrentHashSet();
 
   private volatile boolean isNoMoreDataEventGeneratedAlready = false;
+  private volatile int lastBatchSize = 0;
 
   public MultithreadedTableProvider(
       Map<String, TableContext> tableContextMap,
@@ -386,6 +397,9 @@ public final class MultithreadedTableProvider {
 
     if (getOwnedTablesQueue().isEmpty()) {
       TableRuntimeContext head = sharedAvailableTablesQueue.poll();
+      if (head == null) {
+        head = createPartitionForIdleThread();
+      }
       if (head != null) {
         offerToOwnedTablesQueue(head, threadNumber);
       }
@@ -394,6 +408,32 @@ public final class MultithreadedTableProvider {
     partitionFirstSharedQueueItemIfNeeded();
   }
 
+  /**
+   * Lets a thread which found nothing in the shared queue create the next partition of a table whose active partitions
+   * are all owned by other threads, instead of staying idle until one of them is released.
+   *
+   * @return the new partition, removed from the shared queue, or null if no table can be partitioned further
+   */
+  @VisibleForTesting
+  TableRuntimeContext createPartitionForIdleThread() {
+    synchronized (partitionStateLock) {
+      for (TableContext tableContext : activeRuntimeContexts.keySet()) {
+        final TableRuntimeContext lastPartition = activeRuntimeContexts.get(tableContext).last();
+        if (lastPartition.isPartitioned()) {
+          keepPartitioningIfNeeded(lastPartition);
+          final TableRuntimeContext head = sharedAvailableTablesQueue.poll();
+          if (head != null) {
+            if (LOG.isDebugEnabled()) {
+              LOG.debug("Idle thread '{}' picked up new partition {}", getCurrentThreadName(), head.getDescription());
+            }
+            return head;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
   /**
    * <p>Examines the first item ("head") im the shared partition queue, and adds a new partition if appropriate</p>
    * <p>A new partition will be created if the number of partitions for the head item's table is still less
@@ -551,6 +591,10 @@ public final class MultithreadedTableProvider {
 
             activeContextIter.remove();
             removedPartitions.add(thisPartition);
+            if (thisPartition.getPartitionSequence() < getMaxPartitionWithData(thisPartition.getSourceTableContext())) {
+              // partitions dropped only to cap the active partitions may be empty tail partitions, not a full range
+              adjustPartitionSize(thisPartition);
+            }
             if (!sharedAvailableTablesQueue.remove(thisPartition)) {
               if (LOG.isDebugEnabled()) {
                 LOG.debug(
@@ -570,6 +614,45 @@ public final class MultithreadedTableProvider {
     }
   }
 
+  /**
+   * Adjusts the size of the next partitions of the table from the number of rows read from a completed partition,
+   * when adaptive partition size is enabled. Only partitions followed by partitions with data are considered, so
+   * their whole offset range has been populated.
+   */
+  @VisibleForTesting
+  void adjustPartitionSize(TableRuntimeContext completedPartition) {
+    final TableContext tableContext = completedPartition.getSourceTableContext();
+    final int batchSize = lastBatchSize;
+    if (!tableContext.isAdaptivePartitionSize() || !completedPartition.isPartitioned() || batchSize <= 0) {
+      return;
+    }
+    final long targetRows = (long) batchSize * TARGET_BATCHES_PER_PARTITION;
+    final long rows = completedPartition.getRowCount();
+    if (rows >= targetRows / MAX_PARTITION_SIZE_STEP && rows <= targetRows * MAX_PARTITION_SIZE_STEP) {
+      return;
+    }
+    final double step = Math.max(
+        1 / MAX_PARTITION_SIZE_STEP,
+        Math.min(MAX_PARTITION_SIZE_STEP, (double) targetRows / Math.max(1, rows))
+    );
+    final double scale = Math.max(
+        MIN_PARTITION_SIZE_SCALE,
+        Math.min(MAX_PARTITION_SIZE_SCALE, tableContext.getPartitionSizeScale() * step)
+    );
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(
+          "Partition {} read {} rows (target {}); changing partition size scale for table {} from {} to {}",
+          completedPartition.getPartitionSequence(),
+          rows,
+          targetRows,
+          tableContext.getQualifiedName(),
+          tableContext.getPartitionSizeScale(),
+          scale
+      );
+    }
+    tableContext.setPartitionSizeScale(scale);
+  }
+
   /**
    * Return the next table to work on for the current thread (Will not return null)
    * Deque the current element from head of the queue and put it back at the tail to queue.
@@ -699,6 +782,9 @@ public final class MultithreadedTableProvider {
 
     final boolean noMoreData = recordCount == 0 || resultSetEndReached;
 
+    lastBatchSize = batchSize;
+    tableRuntimeContext.addRowCount(recordCount);
+
     if (noMoreData) {
       tableRuntimeContext.setMarkedNoMoreData(true);
     }
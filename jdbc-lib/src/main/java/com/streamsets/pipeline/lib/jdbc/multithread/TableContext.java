@@ -43,6 +43,9 @@ public class TableContext {
   private final int maxNumActivePartitions;
   private final String extraOffsetColumnConditions;
   private final boolean partitionable;
+  private final boolean adaptivePartitionSize;
+  // factor applied to the partition size of new partitions, only changed when adaptivePartitionSize is enabled
+  private volatile double partitionSizeScale = 1;
   private Map<String, String> offsetColumnToStartOffset = new HashMap<>();
   // optionally store all column labels and types
   private Map<String, Integer> columnToType = new LinkedHashMap<>();
@@ -58,6 +61,34 @@ public class TableContext {
       PartitioningMode partitioningMode,
       int maxNumActivePartitions,
       String extraOffsetColumnConditions
+  ) {
+    this(
+        schema,
+        tableName,
+        offsetColumnToType,
+        offsetColumnToStartOffset,
+        offsetColumnToPartitionOffsetAdjustments,
+        offsetColumnToMinValues,
+        enableNonIncremental,
+        partitioningMode,
+        maxNumActivePartitions,
+        extraOffsetColumnConditions,
+        false
+    );
+  }
+
+  public TableContext(
+      String schema,
+      String tableName,
+      LinkedHashMap<String, Integer> offsetColumnToType,
+      Map<String, String> offsetColumnToStartOffset,
+      Map<String, String> offsetColumnToPartitionOffsetAdjustments,
+      Map<String, String> offsetColumnToMinValues,
+      boolean enableNonIncremental,
+      PartitioningMode partitioningMode,
+      int maxNumActivePartitions,
+      String extraOffsetColumnConditions,
+      boolean adaptivePartitionSize
   ) {
     this.schema = schema;
     this.tableName = tableName;
@@ -74,6 +105,7 @@ public class TableContext {
     this.enableNonIncremental = enableNonIncremental;
     this.partitioningMode = partitioningMode;
     this.maxNumActivePartitions = maxNumActivePartitions;
+    this.adaptivePartitionSize = adaptivePartitionSize;
     if (offsetColumnToPartitionOffsetAdjustments != null) {
       this.offsetColumnToPartitionOffsetAdjustments.putAll(offsetColumnToPartitionOffsetAdjustments);
     }
@@ -140,6 +172,18 @@ public class TableContext {
     return maxNumActivePartitions;
   }
 
+  public boolean isAdaptivePartitionSize() {
+    return adaptivePartitionSize;
+  }
+
+  public double getPartitionSizeScale() {
+    return partitionSizeScale;
+  }
+
+  public void setPartitionSizeScale(double partitionSizeScale) {
+    this.partitionSizeScale = partitionSizeScale;
+  }
+
   //Used to reset after the first batch we should not be using the initial offsets.
   public void clearStartOffset() {
     offsetColumnToStartOffset.clear();
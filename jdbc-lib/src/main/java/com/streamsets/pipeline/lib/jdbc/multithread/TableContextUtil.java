@@ -252,7 +252,8 @@ public final class TableContextUtil {
         tableConfigBean.enableNonIncremental,
         tableConfigBean.partitioningMode,
         tableConfigBean.maxNumActivePartitions,
-        tableConfigBean.extraOffsetColumnConditions
+        tableConfigBean.extraOffsetColumnConditions,
+        tableConfigBean.adaptivePartitionSize
     );
   }
 
@@ -505,7 +506,7 @@ public final class TableContextUtil {
       String column,
       String offset
   ) {
-    final String partitionSize = tableContext.getOffsetColumnToPartitionOffsetAdjustments().get(column);
+    final String partitionSize = getPartitionSize(tableContext, column);
     switch (tableContext.getOffsetColumnToType().get(column)) {
       case Types.TINYINT:
       case Types.SMALLINT:
@@ -543,6 +544,32 @@ public final class TableContextUtil {
     return null;
   }
 
+  /**
+   * Returns the partition size to use for new partitions of the given offset column: the configured partition size,
+   * scaled by the table's partition size scale when adaptive partition size is enabled.
+   */
+  public static String getPartitionSize(TableContext tableContext, String column) {
+    final String partitionSize = tableContext.getOffsetColumnToPartitionOffsetAdjustments().get(column);
+    final double scale = tableContext.getPartitionSizeScale();
+    if (partitionSize == null || scale == 1) {
+      return partitionSize;
+    }
+    final BigDecimal scaled = new BigDecimal(partitionSize).multiply(BigDecimal.valueOf(scale));
+    switch (tableContext.getOffsetColumnToType().get(column)) {
+      case Types.TINYINT:
+      case Types.SMALLINT:
+      case Types.INTEGER:
+        return String.valueOf(Math.max(1, scaled.min(BigDecimal.valueOf(Integer.MAX_VALUE)).intValue()));
+      case Types.TIMESTAMP:
+      case Types.BIGINT:
+      case Types.TIME:
+      case Types.DATE:
+        return String.valueOf(Math.max(1, scaled.min(BigDecimal.valueOf(Long.MAX_VALUE)).longValue()));
+      default:
+        return scaled.toPlainString();
+    }
+  }
+
   public static String getOffsetValueForTimestamp(Timestamp timestamp) {
     return getOffsetValueForTimestampParts(timestamp.getTime(), timestamp.getNanos());
   }
@@ -33,6 +33,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class TableRuntimeContext {
   public static final int NON_PARTITIONED_SEQUENCE = -1;
@@ -65,6 +66,8 @@ public class TableRuntimeContext {
   private Map<String, String> firstRecordedOffsets;
   private boolean firstRecordedOffsetsPassed = false;
 
+  private final AtomicLong rowCount = new AtomicLong();
+
   public static TableRuntimeContext createInitialPartition(
       TableContext sourceTableContext
   ) {
@@ -477,8 +480,12 @@ public class TableRuntimeContext {
 
     lastPartition.startingPartitionOffsets.forEach(
         (col, off) -> {
-          String basedOnStartOffset = lastPartition.generateNextPartitionOffset(col, off);
-          nextStartingOffsets.put(col, basedOnStartOffset);
+          // the partition size may have changed since the last partition was created, so continue from its max offset
+          String basedOnMaxOffset = lastPartition.maxPartitionOffsets.get(col);
+          if (basedOnMaxOffset == null) {
+            basedOnMaxOffset = lastPartition.generateNextPartitionOffset(col, off);
+          }
+          nextStartingOffsets.put(col, basedOnMaxOffset);
         }
     );
 
@@ -594,4 +601,12 @@ public class TableRuntimeContext {
   public boolean isFirstRecordedOffsetsPassed() {
     return firstRecordedOffsetsPassed;
   }
+
+  public long getRowCount() {
+    return rowCount.get();
+  }
+
+  public void addRowCount(int rows) {
+    rowCount.addAndGet(rows);
+  }
 }
@@ -32,7 +32,7 @@ import com.streamsets.pipeline.lib.jdbc.UnknownTypeAction;
 import com.streamsets.pipeline.lib.jdbc.UnknownTypeActionChooserValues;
 
 @StageDef(
-    version = 10,
+    version = 11,
     label = "JDBC Query Consumer",
     description = "Reads data from a JDBC source using a query.",
     icon = "rdbms.png",
@@ -71,7 +71,7 @@ public class JdbcDSource extends DSource {
       label = "SQL Query",
       description =
           "SELECT <offset column>, ... FROM <table name> WHERE <offset column>  >  ${OFFSET} ORDER BY <offset column>",
-      elDefs = {OffsetEL.class},
+      elDefs = {OffsetEL.class, MaxOffsetEL.class},
       evaluation = ConfigDef.Evaluation.IMPLICIT,
       displayPosition = 20,
       group = "JDBC"
@@ -122,6 +122,36 @@ public class JdbcDSource extends DSource {
   )
   public long queryInterval;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      label = "Number of Threads",
+      description = "Number of threads reading consecutive ranges of a numeric offset column in parallel. " +
+          "When greater than 1 the query must also bound the offset column with ${MAX_OFFSET}, for example " +
+          "WHERE <offset column> > ${OFFSET} AND <offset column> <= ${MAX_OFFSET} ORDER BY <offset column>",
+      min = 1,
+      displayPosition = 150,
+      group = "JDBC",
+      dependsOn = "isIncrementalMode",
+      triggeredByValue = "true"
+  )
+  public int numberOfThreads = 1;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "100000",
+      label = "Offset Range per Thread",
+      description = "Width of the offset column range read by each thread in multithreaded mode",
+      min = 1,
+      displayPosition = 160,
+      group = "JDBC",
+      dependsOn = "isIncrementalMode",
+      triggeredByValue = "true"
+  )
+  public long splitSize = 100000;
+
   @ConfigDefBean
   public CommonSourceConfigBean commonSourceConfigBean;
 
@@ -213,7 +243,9 @@ public class JdbcDSource extends DSource {
         jdbcNsHeaderPrefix,
         hikariConfigBean,
         unknownTypeAction,
-        queryInterval
+        queryInterval,
+        numberOfThreads,
+        splitSize
       );
   }
 }
@@ -20,12 +20,15 @@ import com.google.common.base.Charsets;
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.streamsets.pipeline.api.ErrorCode;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Source;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.base.BaseSource;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.api.lineage.EndPointType;
 import com.streamsets.pipeline.api.lineage.LineageEvent;
 import com.streamsets.pipeline.api.lineage.LineageEventType;
@@ -60,6 +63,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 public class JdbcSource extends BaseSource {
@@ -78,6 +86,9 @@ public class JdbcSource extends BaseSource {
   private static final String TXN_ID_COLUMN_NAME = "txnIdColumnName";
   private static final String TXN_MAX_SIZE = "txnMaxSize";
   private static final String JDBC_NS_HEADER_PREFIX = "jdbcNsHeaderPrefix";
+  private static final String NUMBER_OF_THREADS = "numberOfThreads";
+  private static final String SPLIT_SIZE = "splitSize";
+  private static final Pattern MAX_OFFSET_PATTERN = Pattern.compile("\\$\\{(max_offset|MAX_OFFSET)}");
   private static final HashFunction HF = Hashing.sha256();
   private static final EventCreator QUERY_SUCCESS = new EventCreator.Builder("jdbc-query-success", 1)
       .withRequiredField(QUERY)
@@ -106,6 +117,8 @@ public class JdbcSource extends BaseSource {
   private final String jdbcNsHeaderPrefix;
   private final boolean disableValidation;
   private final UnknownTypeAction unknownTypeAction;
+  private final int numberOfThreads;
+  private final long splitSize;
 
   private ErrorRecordHandler errorRecordHandler;
   private long queryIntervalMillis = Long.MIN_VALUE;
@@ -122,6 +135,8 @@ public class JdbcSource extends BaseSource {
   private String tableNames;
   private boolean shouldFire = true;
   private boolean firstTime = true;
+  private ExecutorService splitExecutor;
+  private List<QuerySplit> splits = new ArrayList<>();
 
   public JdbcSource(
       boolean isIncrementalMode,
@@ -138,6 +153,44 @@ public class JdbcSource extends BaseSource {
       HikariPoolConfigBean hikariConfigBean,
       UnknownTypeAction unknownTypeAction,
       long queryInterval
+  ) {
+    this(
+        isIncrementalMode,
+        query,
+        initialOffset,
+        offsetColumn,
+        disableValidation,
+        txnColumnName,
+        txnMaxSize,
+        jdbcRecordType,
+        commonSourceConfigBean,
+        createJDBCNsHeaders,
+        jdbcNsHeaderPrefix,
+        hikariConfigBean,
+        unknownTypeAction,
+        queryInterval,
+        1,
+        0
+    );
+  }
+
+  public JdbcSource(
+      boolean isIncrementalMode,
+      String query,
+      String initialOffset,
+      String offsetColumn,
+      boolean disableValidation,
+      String txnColumnName,
+      int txnMaxSize,
+      JdbcRecordType jdbcRecordType,
+      CommonSourceConfigBean commonSourceConfigBean,
+      boolean createJDBCNsHeaders,
+      String jdbcNsHeaderPrefix,
+      HikariPoolConfigBean hikariConfigBean,
+      UnknownTypeAction unknownTypeAction,
+      long queryInterval,
+      int numberOfThreads,
+      long splitSize
   ) {
     this.isIncrementalMode = isIncrementalMode;
     this.query = query;
@@ -153,6 +206,8 @@ public class JdbcSource extends BaseSource {
     this.createJDBCNsHeaders = createJDBCNsHeaders;
     this.jdbcNsHeaderPrefix = jdbcNsHeaderPrefix;
     this.unknownTypeAction = unknownTypeAction;
+    this.numberOfThreads = numberOfThreads;
+    this.splitSize = splitSize;
   }
 
   @Override
@@ -165,6 +220,10 @@ public class JdbcSource extends BaseSource {
     Source.Context context = getContext();
 
     errorRecordHandler = new DefaultErrorRecordHandler(context);
+    if (isMultithreaded()) {
+      // rows of the splits are converted to records by multiple threads
+      errorRecordHandler = new SynchronizedErrorRecordHandler(errorRecordHandler);
+    }
     issues = hikariConfigBean.validateConfigs(context, issues);
 
     if (queryIntervalMillis < 0) {
@@ -213,6 +272,10 @@ public class JdbcSource extends BaseSource {
       issues.add(context.createConfigIssue(Groups.ADVANCED.name(), JDBC_NS_HEADER_PREFIX, JdbcErrors.JDBC_15));
     }
 
+    if (isMultithreaded()) {
+      validateMultithreadedConfigs(issues, context);
+    }
+
     Properties driverProps = new Properties();
     try {
       driverProps = hikariConfigBean.getDriverProperties();
@@ -236,7 +299,9 @@ public class JdbcSource extends BaseSource {
       try (Statement statement = validationConnection.createStatement()) {
         statement.setFetchSize(1);
         statement.setMaxRows(1);
-        final String preparedQuery = prepareQuery(query, initialOffset);
+        final String preparedQuery = isMultithreaded()
+            ? prepareQuery(query, Long.parseLong(initialOffset), Long.MAX_VALUE)
+            : prepareQuery(query, initialOffset);
         executeValidationQuery(issues, context, statement, preparedQuery);
       }
     } catch (SQLException e) {
@@ -279,6 +344,36 @@ public class JdbcSource extends BaseSource {
     return issues;
   }
 
+  private boolean isMultithreaded() {
+    return numberOfThreads > 1;
+  }
+
+  private void validateMultithreadedConfigs(List<ConfigIssue> issues, Source.Context context) {
+    if (!isIncrementalMode || !txnColumnName.isEmpty()) {
+      issues.add(context.createConfigIssue(Groups.JDBC.name(), NUMBER_OF_THREADS, JdbcErrors.JDBC_103));
+    }
+    if (!MAX_OFFSET_PATTERN.matcher(query).find()) {
+      issues.add(context.createConfigIssue(Groups.JDBC.name(), QUERY, JdbcErrors.JDBC_105));
+    }
+    if (splitSize < 1) {
+      issues.add(context.createConfigIssue(Groups.JDBC.name(), SPLIT_SIZE, JdbcErrors.JDBC_10, splitSize, 1));
+    }
+    if (hikariConfigBean.maximumPoolSize < numberOfThreads) {
+      issues.add(context.createConfigIssue(
+          Groups.ADVANCED.name(),
+          HIKARI_CONFIG_PREFIX + HikariPoolConfigBean.MAX_POOL_SIZE_NAME,
+          JdbcErrors.JDBC_106,
+          hikariConfigBean.maximumPoolSize,
+          numberOfThreads
+      ));
+    }
+    try {
+      Long.parseLong(initialOffset);
+    } catch (NumberFormatException e) {
+      issues.add(context.createConfigIssue(Groups.JDBC.name(), INITIAL_OFFSET, JdbcErrors.JDBC_104, initialOffset));
+    }
+  }
+
   private void supportsScrollableCursor(
       List<ConfigIssue> issues, Source.Context context, DatabaseMetaData dbMetadata
   ) throws SQLException {
@@ -333,6 +428,9 @@ public class JdbcSource extends BaseSource {
 
   @Override
   public void destroy() {
+    if (splitExecutor != null) {
+      splitExecutor.shutdownNow();
+    }
     closeQuietly(connection);
     closeQuietly(dataSource);
     super.destroy();
@@ -350,6 +448,8 @@ public class JdbcSource extends BaseSource {
       // Sleep in one second increments so we don't tie up the app.
       LOG.debug("{}ms remaining until next fetch.", delay);
       ThreadUtil.sleep(Math.min(delay, 1000));
+    } else if (isMultithreaded()) {
+      nextSourceOffset = produceFromSplits(nextSourceOffset, batchSize, batchMaker);
     } else {
       Statement statement;
       Hasher hasher = HF.newHasher();
@@ -427,7 +527,7 @@ public class JdbcSource extends BaseSource {
           ++noMoreDataRecordCount;
           shouldFire = true;
         }
-        LOG.debug("Processed rows: " + rowCount);
+        LOG.debug("Processed rows: {}", rowCount);
 
         if (!haveNext || rowCount == 0) {
           // We didn't have any data left in the cursor.
@@ -462,35 +562,197 @@ public class JdbcSource extends BaseSource {
         firstTime = false;
 
       } catch (SQLException e) {
-        if (++numQueryErrors == 1) {
-          firstQueryException = e;
+        handleQueryError(e, nextSourceOffset);
+      }
+    }
+    return nextSourceOffset;
+  }
+
+  /**
+   * Reads the next rows of every unfinished split in parallel, each split is read with its own connection from the
+   * pool. Records are added to the batch in split (offset) order and the returned offset is the watermark up to which
+   * all splits have been read.
+   */
+  private String produceFromSplits(
+      String nextSourceOffset,
+      int batchSize,
+      BatchMaker batchMaker
+  ) throws StageException {
+    long watermark = parseOffset(nextSourceOffset);
+    preparedQuery = prepareQuery(query, watermark, Long.MAX_VALUE);
+    try {
+      if (splits.isEmpty()) {
+        // skip gaps in the offset column, the splits start at the first offset after the watermark
+        Long firstOffset = getFirstOffset(watermark);
+        if (firstOffset == null) {
+          onSplitsCompleted(nextSourceOffset);
+          if (shouldFire && !firstTime) {
+            generateNoMoreDataEvent();
+            shouldFire = false;
+          }
+          firstTime = false;
+          return nextSourceOffset;
+        }
+        splits = QuerySplit.create(Math.max(watermark, firstOffset - 1), splitSize, numberOfThreads);
+        LOG.debug("Reading splits: {}", splits);
+        queryRowCount = 0;
+      }
+      if (splitExecutor == null) {
+        splitExecutor = Executors.newFixedThreadPool(
+            numberOfThreads,
+            new ThreadFactoryBuilder().setNameFormat("JDBC Query Consumer Split Reader - %d").setDaemon(true).build()
+        );
+      }
+
+      List<QuerySplit> unfinished = new ArrayList<>();
+      for (QuerySplit split : splits) {
+        if (!split.isFinished()) {
+          unfinished.add(split);
+        }
+      }
+      final int rowsPerSplit = Math.max(1, batchSize / unfinished.size());
+      List<Future<List<Record>>> futures = new ArrayList<>(unfinished.size());
+      for (final QuerySplit split : unfinished) {
+        futures.add(splitExecutor.submit(new Callable<List<Record>>() {
+          @Override
+          public List<Record> call() throws Exception {
+            return readSplit(split, rowsPerSplit);
+          }
+        }));
+      }
+
+      int rowCount = 0;
+      for (Future<List<Record>> future : futures) {
+        for (Record record : getSplitRecords(future)) {
+          batchMaker.addRecord(record);
+          ++rowCount;
         }
-        String formattedError = JdbcUtil.formatSqlException(e);
-        LOG.error(formattedError, e);
-        closeQuietly(connection);
-        lastQueryCompletedTime = System.currentTimeMillis();
-        QUERY_FAILURE.create(getContext())
-            .with(QUERY, preparedQuery)
-            .with(TIMESTAMP, lastQueryCompletedTime)
-            .with(ERROR, formattedError)
-            .with(ROW_COUNT, queryRowCount)
-            .with(SOURCE_OFFSET, nextSourceOffset)
-            .createAndSend();
-        LOG.debug("Query '{}' failed at: {}; {} errors so far", preparedQuery, lastQueryCompletedTime, numQueryErrors);
-        if (numQueryErrors > commonSourceConfigBean.numSQLErrorRetries) {
-          throw new StageException(
-              JdbcErrors.JDBC_77,
-              e.getClass().getSimpleName(),
-              preparedQuery,
-              numQueryErrors,
-              JdbcUtil.formatSqlException(firstQueryException)
-          );
-        } // else allow nextSourceOffset to be returned, to retry
       }
+      LOG.debug("Processed rows: {}", rowCount);
+      numQueryErrors = 0;
+      firstQueryException = null;
+      queryRowCount += rowCount;
+      noMoreDataRecordCount += rowCount;
+      if (rowCount > 0) {
+        shouldFire = true;
+      }
+      firstTime = false;
+
+      nextSourceOffset = String.valueOf(QuerySplit.getWatermark(splits));
+      if (QuerySplit.allFinished(splits)) {
+        splits.clear();
+        onSplitsCompleted(nextSourceOffset);
+      }
+    } catch (SQLException e) {
+      // splits are restarted from the watermark on the next batch
+      splits.clear();
+      handleQueryError(e, nextSourceOffset);
     }
     return nextSourceOffset;
   }
 
+  private void handleQueryError(SQLException e, String nextSourceOffset) throws StageException {
+    if (++numQueryErrors == 1) {
+      firstQueryException = e;
+    }
+    String formattedError = JdbcUtil.formatSqlException(e);
+    LOG.error(formattedError, e);
+    closeQuietly(connection);
+    lastQueryCompletedTime = System.currentTimeMillis();
+    QUERY_FAILURE.create(getContext())
+        .with(QUERY, preparedQuery)
+        .with(TIMESTAMP, lastQueryCompletedTime)
+        .with(ERROR, formattedError)
+        .with(ROW_COUNT, queryRowCount)
+        .with(SOURCE_OFFSET, nextSourceOffset)
+        .createAndSend();
+    LOG.debug("Query '{}' failed at: {}; {} errors so far", preparedQuery, lastQueryCompletedTime, numQueryErrors);
+    if (numQueryErrors > commonSourceConfigBean.numSQLErrorRetries) {
+      throw new StageException(
+          JdbcErrors.JDBC_77,
+          e.getClass().getSimpleName(),
+          preparedQuery,
+          numQueryErrors,
+          JdbcUtil.formatSqlException(firstQueryException)
+      );
+    } // else allow nextSourceOffset to be returned, to retry
+  }
+
+  private long parseOffset(String offset) throws StageException {
+    try {
+      return Long.parseLong(offset);
+    } catch (NumberFormatException e) {
+      throw new StageException(JdbcErrors.JDBC_104, offset, e);
+    }
+  }
+
+  private Long getFirstOffset(long watermark) throws SQLException {
+    try (Connection splitConnection = dataSource.getConnection();
+         Statement statement = splitConnection.createStatement()) {
+      statement.setMaxRows(1);
+      try (ResultSet rs = statement.executeQuery(prepareQuery(query, watermark, Long.MAX_VALUE))) {
+        return rs.next() ? Long.valueOf(rs.getString(offsetColumn)) : null;
+      }
+    }
+  }
+
+  private List<Record> readSplit(QuerySplit split, int maxRows) throws SQLException, StageException {
+    String splitQuery = prepareQuery(query, split.getLastOffset(), split.getMaxOffset());
+    LOG.trace("Executing split query: {}", splitQuery);
+    List<Record> records = new ArrayList<>();
+    try (Connection splitConnection = dataSource.getConnection();
+         Statement statement = splitConnection.createStatement(
+             ResultSet.TYPE_FORWARD_ONLY,
+             ResultSet.CONCUR_READ_ONLY
+         )) {
+      statement.setMaxRows(maxRows);
+      statement.setFetchSize(maxRows);
+      try (ResultSet rs = statement.executeQuery(splitQuery)) {
+        int rowCount = 0;
+        while (rs.next()) {
+          Record record = processRow(rs, rowCount);
+          if (record != null) {
+            records.add(record);
+          }
+          split.setLastOffset(Long.parseLong(rs.getString(offsetColumn)));
+          ++rowCount;
+        }
+        if (rowCount < maxRows) {
+          split.setFinished();
+        }
+      }
+    }
+    return records;
+  }
+
+  private List<Record> getSplitRecords(Future<List<Record>> future) throws SQLException, StageException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StageException(JdbcErrors.JDBC_87, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      } else if (cause instanceof StageException) {
+        throw (StageException) cause;
+      }
+      throw new StageException(JdbcErrors.JDBC_75, cause.toString(), cause);
+    }
+  }
+
+  private void onSplitsCompleted(String nextSourceOffset) {
+    lastQueryCompletedTime = System.currentTimeMillis();
+    LOG.debug("Query completed at: {}", lastQueryCompletedTime);
+    QUERY_SUCCESS.create(getContext())
+        .with(QUERY, preparedQuery)
+        .with(TIMESTAMP, lastQueryCompletedTime)
+        .with(ROW_COUNT, queryRowCount)
+        .with(SOURCE_OFFSET, nextSourceOffset)
+        .createAndSend();
+  }
+
   private void generateNoMoreDataEvent() {
     CommonEvents.NO_MORE_DATA.create(getContext())
       .with("record-count", noMoreDataRecordCount)
@@ -522,6 +784,12 @@ public class JdbcSource extends BaseSource {
     return query.replaceAll("\\$\\{(offset|OFFSET)}", offset);
   }
 
+  @VisibleForTesting
+  String prepareQuery(String query, long lastOffset, long maxOffset) {
+    return MAX_OFFSET_PATTERN.matcher(prepareQuery(query, String.valueOf(lastOffset)))
+        .replaceAll(String.valueOf(maxOffset));
+  }
+
   private Record processRow(ResultSet resultSet, long rowCount) throws SQLException, StageException {
     Source.Context context = getContext();
     ResultSetMetaData md = resultSet.getMetaData();
@@ -569,4 +837,30 @@ public class JdbcSource extends BaseSource {
 
     return record;
   }
+
+  /**
+   * Serializes error handling of the split reader threads.
+   */
+  private static class SynchronizedErrorRecordHandler implements ErrorRecordHandler {
+    private final ErrorRecordHandler delegate;
+
+    SynchronizedErrorRecordHandler(ErrorRecordHandler delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public synchronized void onError(ErrorCode errorCode, Object... params) throws StageException {
+      delegate.onError(errorCode, params);
+    }
+
+    @Override
+    public synchronized void onError(OnRecordErrorException error) throws StageException {
+      delegate.onError(error);
+    }
+
+    @Override
+    public synchronized void onError(List<Record> batch, StageException error) throws StageException {
+      delegate.onError(batch, error);
+    }
+  }
 }
@@ -61,6 +61,12 @@ public class JdbcSourceUpgrader extends JdbcBaseUpgrader {
         // fall through
       case 9:
         upgradeV9toV10(configs);
+        if (toVersion == 10) {
+          break;
+        }
+        // fall through
+      case 10:
+        upgradeV10toV11(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -115,4 +121,9 @@ public class JdbcSourceUpgrader extends JdbcBaseUpgrader {
   private void upgradeV9toV10(List<Config> configs) {
     UpgraderUtils.moveAllTo(configs, "commonSourceConfigBean.queryInterval", "queryInterval");
   }
+
+  private void upgradeV10toV11(List<Config> configs) {
+    configs.add(new Config("numberOfThreads", 1));
+    configs.add(new Config("splitSize", 100000));
+  }
 }
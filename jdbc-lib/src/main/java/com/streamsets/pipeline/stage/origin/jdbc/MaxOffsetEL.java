@@ -0,0 +1,25 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.jdbc;
+
+import com.streamsets.pipeline.api.ElConstant;
+
+public class MaxOffsetEL {
+  @ElConstant(name = "MAX_OFFSET", description = "Upper bound of the offset range read by a thread in multithreaded mode")
+  public static final String MAX_OFFSET = "${max_offset}";
+
+  private MaxOffsetEL() {}
+}
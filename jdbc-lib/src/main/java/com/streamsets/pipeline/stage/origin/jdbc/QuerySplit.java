@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Range <code>(lastOffset, maxOffset]</code> of the offset column read by a single thread of the JDBC Query Consumer
+ * in multithreaded mode.
+ * <p/>
+ * Splits are created in ascending offset order and each tracks its own progress, the offset committed for the batch
+ * is the watermark up to which all the splits have been read. The watermark never goes past the last offset actually
+ * read, so rows inserted later in the range of a finished split are not skipped.
+ */
+final class QuerySplit {
+  private final long startOffset;
+  private final long maxOffset;
+  private long lastOffset;
+  private boolean finished;
+
+  QuerySplit(long lastOffset, long maxOffset) {
+    this.startOffset = lastOffset;
+    this.lastOffset = lastOffset;
+    this.maxOffset = maxOffset;
+  }
+
+  long getStartOffset() {
+    return startOffset;
+  }
+
+  long getLastOffset() {
+    return lastOffset;
+  }
+
+  void setLastOffset(long lastOffset) {
+    this.lastOffset = lastOffset;
+  }
+
+  long getMaxOffset() {
+    return maxOffset;
+  }
+
+  boolean isFinished() {
+    return finished;
+  }
+
+  void setFinished() {
+    finished = true;
+  }
+
+  @Override
+  public String toString() {
+    return "QuerySplit{" +
+        "lastOffset=" + lastOffset +
+        ", maxOffset=" + maxOffset +
+        ", finished=" + finished +
+        '}';
+  }
+
+  /**
+   * Creates consecutive splits of the given size starting after the given offset.
+   */
+  static List<QuerySplit> create(long startOffset, long splitSize, int numberOfSplits) {
+    List<QuerySplit> splits = new ArrayList<>(numberOfSplits);
+    long lastOffset = startOffset;
+    for (int i = 0; i < numberOfSplits && lastOffset < Long.MAX_VALUE; i++) {
+      long maxOffset = Long.MAX_VALUE - lastOffset > splitSize ? lastOffset + splitSize : Long.MAX_VALUE;
+      splits.add(new QuerySplit(lastOffset, maxOffset));
+      lastOffset = maxOffset;
+    }
+    return splits;
+  }
+
+  /**
+   * Returns the offset up to which all the given splits have been read, splits must be in ascending offset order.
+   */
+  static long getWatermark(List<QuerySplit> splits) {
+    for (QuerySplit split : splits) {
+      if (!split.isFinished()) {
+        // an unfinished split has always read rows, so everything before its last offset has been read
+        return split.getLastOffset();
+      }
+    }
+    for (int i = splits.size() - 1; i >= 0; i--) {
+      if (splits.get(i).getLastOffset() > splits.get(i).getStartOffset()) {
+        return splits.get(i).getLastOffset();
+      }
+    }
+    return splits.get(0).getStartOffset();
+  }
+
+  static boolean allFinished(List<QuerySplit> splits) {
+    for (QuerySplit split : splits) {
+      if (!split.isFinished()) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -37,17 +37,11 @@ import com.streamsets.pipeline.stage.origin.jdbc.cdc.ChangeTypeValues;
 import com.streamsets.pipeline.stage.origin.jdbc.cdc.SchemaTableConfigBean;
 import com.zaxxer.hikari.HikariDataSource;
 import net.jcip.annotations.GuardedBy;
-import org.antlr.v4.runtime.ANTLRInputStream;
-import org.antlr.v4.runtime.CommonTokenStream;
-import org.antlr.v4.runtime.ParserRuleContext;
-import org.antlr.v4.runtime.tree.ParseTreeWalker;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import plsql.plsqlLexer;
-import plsql.plsqlParser;
 
 import java.io.File;
 import java.io.IOException;
@@ -74,9 +68,12 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -107,6 +104,7 @@ import static com.streamsets.pipeline.lib.jdbc.JdbcErrors.JDBC_84;
 import static com.streamsets.pipeline.lib.jdbc.JdbcErrors.JDBC_85;
 import static com.streamsets.pipeline.lib.jdbc.JdbcErrors.JDBC_86;
 import static com.streamsets.pipeline.lib.jdbc.JdbcErrors.JDBC_87;
+import static com.streamsets.pipeline.lib.jdbc.JdbcErrors.JDBC_89;
 import static com.streamsets.pipeline.lib.jdbc.OracleCDCOperationCode.COMMIT_CODE;
 import static com.streamsets.pipeline.lib.jdbc.OracleCDCOperationCode.DDL_CODE;
 import static com.streamsets.pipeline.lib.jdbc.OracleCDCOperationCode.DELETE_CODE;
@@ -252,6 +250,12 @@ public class OracleCDCSource extends BaseSource {
   private final ExecutorService generationExecutor =
       Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("Oracle CDC Data Generator").build());
 
+  // Statements of committed transactions are parsed by these threads, in chunks of up to PARSING_CHUNK_SIZE
+  private static final int PARSING_CHUNK_SIZE = 10000;
+  private static final int MIN_STATEMENTS_PER_PARSING_TASK = 100;
+  private final int parsingThreads = Runtime.getRuntime().availableProcessors();
+  private ExecutorService parsingExecutor;
+
   private volatile boolean generationStarted = false;
   private final boolean shouldTrackDDL;
 
@@ -273,8 +277,7 @@ public class OracleCDCSource extends BaseSource {
   private PreparedStatement getTimestampsFromLogMnrContents;
   private PreparedStatement tsTzStatement;
 
-  private final ParseTreeWalker parseTreeWalker = new ParseTreeWalker();
-  private final SQLListener sqlListener = new SQLListener();
+  private SQLRedoParser sqlRedoParser;
 
   public OracleCDCSource(HikariPoolConfigBean hikariConf, OracleCDCConfigBean oracleCDCConfigBean) {
     this.configBean = oracleCDCConfigBean;
@@ -506,9 +509,9 @@ public class OracleCDCSource extends BaseSource {
                   commitSCN, scn, op, xid, tsDate, queryString);
             }
 
-            RuleContextAndOpCode ctxOp = null;
+            int operationCode;
             try {
-              ctxOp = getRuleContextAndCode(queryString, op);
+              operationCode = getOperationCode(queryString, op);
             } catch (UnparseableSQLException ex) {
               try {
                 errorRecordHandler.onError(JDBC_43, queryString);
@@ -542,7 +545,11 @@ public class OracleCDCSource extends BaseSource {
                 if (configBean.keepOriginalQuery) {
                   attributes.put(QUERY_KEY, queryString);
                 }
-                Record record = generateRecord(attributes, ctxOp.operationCode, ctxOp.context);
+                Record record = generateRecord(
+                    attributes,
+                    operationCode,
+                    parseColumns(queryString, operationCode, schemaAndTable)
+                );
                 if (record != null && record.getEscapedFieldPaths().size() > 0) {
                   recordQueue.put(new RecordOffset(record, offset));
                 }
@@ -557,7 +564,7 @@ public class OracleCDCSource extends BaseSource {
 
                   int nextSeq = records.isEmpty() ? 1 : records.tail().seq + 1;
                   RecordSequence node =
-                      new RecordSequence(attributes, queryString, nextSeq, ctxOp.operationCode, rsId, ssn, tsDate);
+                      new RecordSequence(attributes, queryString, nextSeq, operationCode, rsId, ssn, tsDate);
                   records.add(node);
                 } finally {
                   bufferedRecordsLock.unlock();
@@ -685,22 +692,61 @@ public class OracleCDCSource extends BaseSource {
     return useLocalBuffering ? startTime : startTime.minusSeconds(configBean.txnWindow);
   }
 
-  private Record generateRecord(Map<String, String> attributes, int operationCode, ParserRuleContext ruleContext)
+  /**
+   * Parses the columns of a redo statement, see {@link SQLRedoParser}. Can be called by several threads as long as the
+   * table schemas are not updated.
+   */
+  private Map<String, String> parseColumns(String sql, int operationCode, SchemaAndTable table) {
+    Set<String> columnsExpected = null;
+    if (configBean.allowNulls && table.isNotEmpty()) {
+      columnsExpected = tableSchemas.get(table).keySet();
+    }
+    return sqlRedoParser.parse(sql, operationCode, columnsExpected);
+  }
+
+  private Map<String, String> parseColumns(RecordSequence statement) {
+    SchemaAndTable table = new SchemaAndTable(statement.headers.get(SCHEMA), statement.headers.get(TABLE));
+    return parseColumns(statement.sqlString, statement.opCode, table);
+  }
+
+  /**
+   * Parses the columns of the given statements, in order. The statements are split between the parsing threads if
+   * there are enough of them.
+   */
+  private List<Map<String, String>> parseColumns(List<RecordSequence> statements)
+      throws StageException, InterruptedException {
+    int tasks = Math.min(parsingThreads, statements.size() / MIN_STATEMENTS_PER_PARSING_TASK);
+    if (parsingExecutor == null || tasks < 2) {
+      return statements.stream().map(this::parseColumns).collect(Collectors.toList());
+    }
+    int statementsPerTask = (statements.size() + tasks - 1) / tasks;
+    List<Future<List<Map<String, String>>>> futures = new ArrayList<>(tasks);
+    for (int start = 0; start < statements.size(); start += statementsPerTask) {
+      List<RecordSequence> taskStatements =
+          statements.subList(start, Math.min(start + statementsPerTask, statements.size()));
+      futures.add(parsingExecutor.submit(
+          () -> taskStatements.stream().map(this::parseColumns).collect(Collectors.toList())
+      ));
+    }
+    List<Map<String, String>> columns = new ArrayList<>(statements.size());
+    try {
+      for (Future<List<Map<String, String>>> future : futures) {
+        columns.addAll(future.get());
+      }
+    } catch (ExecutionException ex) {
+      futures.forEach(future -> future.cancel(true));
+      throw new StageException(JDBC_89, ex.getCause().toString(), ex.getCause());
+    }
+    return columns;
+  }
+
+  private Record generateRecord(Map<String, String> attributes, int operationCode, Map<String, String> columns)
       throws StageException {
     String operation;
     SchemaAndTable table = new SchemaAndTable(attributes.get(SCHEMA), attributes.get(TABLE));
     operation = OperationType.getLabelFromIntCode(operationCode);
     attributes.put(OperationType.SDC_OPERATION_TYPE, String.valueOf(operationCode));
     attributes.put(OPERATION, operation);
-    // Walk it and attach our sqlListener
-    sqlListener.reset();
-    if (configBean.allowNulls && table.isNotEmpty()) {
-      sqlListener.setColumns(tableSchemas.get(table).keySet());
-    }
-
-    parseTreeWalker.walk(sqlListener, ruleContext);
-
-    Map<String, String> columns = sqlListener.getColumns();
     String rowId = columns.get(ROWID);
     columns.remove(ROWID);
     if (rowId != null) {
@@ -784,24 +830,23 @@ public class OracleCDCSource extends BaseSource {
     try {
       HashQueue<RecordSequence> records = bufferedRecords.getOrDefault(key, EMPTY_LINKED_HASHSET);
       records.completeInserts();
+      List<RecordSequence> statements = new ArrayList<>();
       while (!records.isEmpty()) {
-        RecordSequence r = records.remove();
-        try {
+        statements.clear();
+        while (!records.isEmpty() && statements.size() < PARSING_CHUNK_SIZE) {
+          statements.add(records.remove());
+        }
+        List<Map<String, String>> columns = parseColumns(statements);
+        for (int i = 0; i < statements.size(); i++) {
+          RecordSequence r = statements.get(i);
           if (configBean.keepOriginalQuery) {
             r.headers.put(QUERY_KEY, r.sqlString);
           }
-          RuleContextAndOpCode ctxOp = getRuleContextAndCode(r.sqlString, r.opCode);
-          Record record = generateRecord(r.headers, ctxOp.operationCode, ctxOp.context);
+          Record record = generateRecord(r.headers, r.opCode, columns.get(i));
           if (record != null && record.getEscapedFieldPaths().size() > 0) {
             recordQueue.put(
                 new RecordOffset(record, new Offset(VERSION_UNCOMMITTED, commitTimestamp, commitScn, r.seq)));
           }
-        } catch (UnparseableSQLException ex) {
-          try {
-            errorRecordHandler.onError(JDBC_43, r.sqlString);
-          } catch (StageException stageException) {
-            stageExceptions.add(stageException);
-          }
         }
       }
       records.close();
@@ -1189,12 +1234,12 @@ public class OracleCDCSource extends BaseSource {
       }
     }
 
-    if (configBean.baseConfigBean.caseSensitive) {
-      sqlListener.setCaseSensitive();
-    }
-
-    if (configBean.allowNulls) {
-      sqlListener.allowNulls();
+    sqlRedoParser = new SQLRedoParser(configBean.baseConfigBean.caseSensitive, configBean.allowNulls);
+    if (useLocalBuffering && parsingThreads > 1) {
+      parsingExecutor = Executors.newFixedThreadPool(
+          parsingThreads,
+          new ThreadFactoryBuilder().setNameFormat("Oracle CDC SQL Parser-%d").setDaemon(true).build()
+      );
     }
 
     if (configBean.txnWindow >= configBean.logminerWindow) {
@@ -1431,6 +1476,9 @@ public class OracleCDCSource extends BaseSource {
       LOG.error("Interrupted while attempting to shutdown Generator thread", ex);
       Thread.currentThread().interrupt();
     }
+    if (parsingExecutor != null) {
+      parsingExecutor.shutdownNow();
+    }
 
     try {
       if (endLogMnr != null && !endLogMnr.isClosed())
@@ -1601,8 +1649,7 @@ public class OracleCDCSource extends BaseSource {
           if (!configBean.discardExpired) {
             for (RecordSequence x : entry.getValue()) {
               try {
-                RuleContextAndOpCode ctxOp = getRuleContextAndCode(x.sqlString, x.opCode);
-                Record record = generateRecord(x.headers, ctxOp.operationCode, ctxOp.context);
+                Record record = generateRecord(x.headers, x.opCode, parseColumns(x));
                 if (record != null) {
                   getContext().toError(record, JDBC_84, entry.getKey().txnId, entry.getKey().txnStartTime);
                 }
@@ -1646,33 +1693,25 @@ public class OracleCDCSource extends BaseSource {
     this.dataSource = dataSource;
   }
 
-  private RuleContextAndOpCode getRuleContextAndCode(String queryString, int op) throws UnparseableSQLException {
-    plsqlLexer lexer = new plsqlLexer(new ANTLRInputStream(queryString));
-    CommonTokenStream tokenStream = new CommonTokenStream(lexer);
-    plsqlParser parser = new plsqlParser(tokenStream);
-    RuleContextAndOpCode contextAndOpCode = new RuleContextAndOpCode();
+  /**
+   * Returns the {@link OperationType} code of a LogMiner operation, or 0 for DDLs, commits and rollbacks.
+   */
+  private int getOperationCode(String queryString, int op) throws UnparseableSQLException {
     switch (op) {
       case UPDATE_CODE:
       case SELECT_FOR_UPDATE_CODE:
-        contextAndOpCode.context = parser.update_statement();;
-        contextAndOpCode.operationCode = OperationType.UPDATE_CODE;
-        break;
+        return OperationType.UPDATE_CODE;
       case INSERT_CODE:
-        contextAndOpCode.context = parser.insert_statement();
-        contextAndOpCode.operationCode = OperationType.INSERT_CODE;
-        break;
+        return OperationType.INSERT_CODE;
       case DELETE_CODE:
-        contextAndOpCode.context = parser.delete_statement();
-        contextAndOpCode.operationCode = OperationType.DELETE_CODE;
-        break;
+        return OperationType.DELETE_CODE;
       case DDL_CODE:
       case COMMIT_CODE:
       case ROLLBACK_CODE:
-        break;
+        return 0;
       default:
         throw new UnparseableSQLException(queryString);
     }
-    return contextAndOpCode;
   }
 
   private HashQueue<RecordSequence> createTransactionBuffer(String txnId) {
@@ -1754,11 +1793,6 @@ public class OracleCDCSource extends BaseSource {
     }
   }
 
-  private class RuleContextAndOpCode {
-    ParserRuleContext context;
-    int operationCode;
-  }
-
   private class RecordOffset {
     final Record record;
     final Offset offset;
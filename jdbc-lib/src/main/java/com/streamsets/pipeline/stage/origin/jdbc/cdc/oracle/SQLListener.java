@@ -31,7 +31,6 @@ import java.util.Set;
 public class SQLListener extends plsqlBaseListener {
 
   private final HashMap<String, String> columns = new HashMap<>();
-  private static final String NULL_STRING = "NULL";
   private boolean insideStatement = false;
   private boolean caseSensitive = false;
   private boolean allowNulls = false;
@@ -105,37 +104,19 @@ public class SQLListener extends plsqlBaseListener {
    * Format column names based on whether they are case-sensitive
    */
   private String formatName(String columnName) {
-    String returnValue = format(columnName);
-    if (caseSensitive) {
-      return returnValue;
-    }
-    return returnValue.toUpperCase();
+    return SQLRedoParser.formatName(columnName, caseSensitive);
   }
 
   /**
    * Unescapes strings and returns them.
    */
   private String formatValue(String value) {
-    // The value can either be null (if the IS keyword is present before it or just a NULL string with no quotes)
-    if (value == null || NULL_STRING.equalsIgnoreCase(value)) {
-      return null;
-    }
-    String returnValue = format(value);
-    return returnValue.replaceAll("''", "'");
+    return SQLRedoParser.formatValue(value);
   }
 
   @VisibleForTesting
   public String format(String columnName) {
-    int stripCount;
-
-    if (columnName.startsWith("\"\'")) {
-      stripCount = 2;
-    } else if (columnName.startsWith("\"") || columnName.startsWith("\'")) {
-      stripCount = 1;
-    } else {
-      return columnName;
-    }
-    return columnName.substring(stripCount, columnName.length() - stripCount);
+    return SQLRedoParser.unquote(columnName);
   }
 
   /**
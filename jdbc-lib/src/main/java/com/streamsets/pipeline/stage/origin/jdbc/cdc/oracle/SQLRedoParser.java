@@ -0,0 +1,405 @@
+/*
+ * Copyright 2017 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.jdbc.cdc.oracle;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.streamsets.pipeline.lib.operation.OperationType;
+import org.antlr.v4.runtime.ANTLRInputStream;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ParseTreeWalker;
+import plsql.plsqlLexer;
+import plsql.plsqlParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses the SQL_REDO statements LogMiner generates for inserts, updates and deletes.
+ * <p/>
+ * LogMiner only generates a few statement shapes:
+ * <pre>
+ * insert into "SCHEMA"."TABLE"("ID","NAME") values ('1',TO_DATE('21-11-2016 11:34:09', 'DD-MM-YYYY HH24:MI:SS'));
+ * update "SCHEMA"."TABLE" set "NAME" = 'sdc' where "ID" = '1' and "NAME" IS NULL and ROWID = 'AAAVQbAAEAAAAJcAAA';
+ * delete from "SCHEMA"."TABLE" where "ID" = '1' and "DATA" = HEXTORAW('0a');
+ * </pre>
+ * These are scanned in a single pass over the statement, giving the same columns as walking the statement's parse
+ * tree with {@link SQLListener}. Statements of any other shape are parsed with the plsql grammar.
+ * <p/>
+ * Instances are stateless and can be used by several threads.
+ */
+public class SQLRedoParser {
+  private static final String NULL_STRING = "NULL";
+
+  private final boolean caseSensitive;
+  private final boolean allowNulls;
+
+  /**
+   * @param caseSensitive whether column names are case sensitive, if not they are upper cased.
+   * @param allowNulls whether columns compared with <code>IS NULL</code> are returned with a null value.
+   */
+  public SQLRedoParser(boolean caseSensitive, boolean allowNulls) {
+    this.caseSensitive = caseSensitive;
+    this.allowNulls = allowNulls;
+  }
+
+  /**
+   * Returns the columns of the statement and their values, null values are returned for SQL <code>NULL</code>.
+   *
+   * @param sql SQL_REDO statement.
+   * @param operationCode {@link OperationType} code of the statement.
+   * @param columnsExpected columns of the table, only used if nulls are allowed.
+   */
+  public Map<String, String> parse(String sql, int operationCode, Set<String> columnsExpected) {
+    Map<String, String> columns = scan(sql, operationCode, columnsExpected);
+    return columns != null ? columns : parseWithGrammar(sql, operationCode, columnsExpected);
+  }
+
+  /**
+   * Scans the statement, returns null if it does not have one of the shapes generated by LogMiner.
+   */
+  @VisibleForTesting
+  Map<String, String> scan(String sql, int operationCode, Set<String> columnsExpected) {
+    return new Scanner(sql, columnsExpected).scan(operationCode);
+  }
+
+  @VisibleForTesting
+  Map<String, String> parseWithGrammar(String sql, int operationCode, Set<String> columnsExpected) {
+    plsqlParser parser = new plsqlParser(new CommonTokenStream(new plsqlLexer(new ANTLRInputStream(sql))));
+    ParserRuleContext context;
+    switch (operationCode) {
+      case OperationType.INSERT_CODE:
+        context = parser.insert_statement();
+        break;
+      case OperationType.UPDATE_CODE:
+        context = parser.update_statement();
+        break;
+      case OperationType.DELETE_CODE:
+        context = parser.delete_statement();
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported operation code: " + operationCode);
+    }
+    SQLListener sqlListener = new SQLListener();
+    if (caseSensitive) {
+      sqlListener.setCaseSensitive();
+    }
+    if (allowNulls) {
+      sqlListener.allowNulls();
+      sqlListener.setColumns(columnsExpected);
+    }
+    ParseTreeWalker.DEFAULT.walk(sqlListener, context);
+    return new HashMap<>(sqlListener.getColumns());
+  }
+
+  /**
+   * Strips the quotes around a quoted identifier or string literal.
+   */
+  static String unquote(String text) {
+    int stripCount;
+
+    if (text.startsWith("\"\'")) {
+      stripCount = 2;
+    } else if (text.startsWith("\"") || text.startsWith("\'")) {
+      stripCount = 1;
+    } else {
+      return text;
+    }
+    return text.substring(stripCount, text.length() - stripCount);
+  }
+
+  /**
+   * Formats column names based on whether they are case sensitive.
+   */
+  static String formatName(String columnName, boolean caseSensitive) {
+    String returnValue = unquote(columnName);
+    return caseSensitive ? returnValue : returnValue.toUpperCase();
+  }
+
+  /**
+   * Unescapes values, the value can either be null (if the IS keyword is present before it) or a NULL literal.
+   */
+  static String formatValue(String value) {
+    if (value == null || NULL_STRING.equalsIgnoreCase(value)) {
+      return null;
+    }
+    return unquote(value).replace("''", "'");
+  }
+
+  /**
+   * Single statement scanner, tokens are read on demand. Any unexpected token makes the scan fail.
+   */
+  private class Scanner {
+    private final String sql;
+    private final Set<String> columnsExpected;
+    private final Map<String, String> columns = new HashMap<>();
+    private int position;
+    // start and end of the last read token
+    private int tokenStart;
+    private int tokenEnd;
+
+    private Scanner(String sql, Set<String> columnsExpected) {
+      this.sql = sql;
+      this.columnsExpected = columnsExpected;
+    }
+
+    private Map<String, String> scan(int operationCode) {
+      boolean scanned;
+      switch (operationCode) {
+        case OperationType.INSERT_CODE:
+          scanned = scanInsert();
+          break;
+        case OperationType.UPDATE_CODE:
+          scanned = scanUpdate();
+          break;
+        case OperationType.DELETE_CODE:
+          scanned = keyword("delete") && keyword("from") && tableName() && scanWhere();
+          break;
+        default:
+          scanned = false;
+      }
+      return scanned && atEnd() ? columns : null;
+    }
+
+    private boolean scanInsert() {
+      if (!keyword("insert") || !keyword("into") || !tableName() || !symbol('(')) {
+        return false;
+      }
+      List<String> names = new ArrayList<>();
+      do {
+        if (!identifier()) {
+          return false;
+        }
+        names.add(formatName(token(), caseSensitive));
+      } while (symbol(','));
+      if (!symbol(')') || !keyword("values") || !symbol('(')) {
+        return false;
+      }
+      int index = 0;
+      do {
+        String value = expression();
+        if (value == null || index >= names.size()) {
+          return false;
+        }
+        columns.put(names.get(index++), formatValue(value));
+      } while (symbol(','));
+      return index == names.size() && symbol(')');
+    }
+
+    private boolean scanUpdate() {
+      if (!keyword("update") || !tableName() || !keyword("set")) {
+        return false;
+      }
+      do {
+        if (!identifier()) {
+          return false;
+        }
+        String name = formatName(token(), caseSensitive);
+        String value;
+        if (!symbol('=') || (value = expression()) == null) {
+          return false;
+        }
+        columns.put(name, formatValue(value));
+      } while (symbol(','));
+      return atEnd() || scanWhere();
+    }
+
+    /**
+     * Where clause of <code>column = value</code> and <code>column IS NULL</code> conditions joined by AND. Columns
+     * already set by the statement keep their value.
+     */
+    private boolean scanWhere() {
+      if (!keyword("where")) {
+        return false;
+      }
+      do {
+        if (!identifier()) {
+          return false;
+        }
+        String name = formatName(token(), caseSensitive);
+        if (symbol('=')) {
+          String value = expression();
+          if (value == null) {
+            return false;
+          }
+          if (!columns.containsKey(name)) {
+            columns.put(name, formatValue(value));
+          }
+        } else if (keyword("is") && keyword(NULL_STRING)) {
+          boolean expected = columnsExpected != null && columnsExpected.contains(name);
+          if (allowNulls && expected && !columns.containsKey(name)) {
+            columns.put(name, null);
+          }
+        } else {
+          return false;
+        }
+      } while (keyword("and"));
+      return true;
+    }
+
+    /**
+     * Reads a value, a literal or a function call, up to the next top level comma, closing parenthesis or keyword.
+     * Returns the text of its tokens without the whitespace between them, or null if it is not a plain value.
+     */
+    private String expression() {
+      StringBuilder text = new StringBuilder();
+      int depth = 0;
+      while (true) {
+        int previous = position;
+        skipWhitespace();
+        if (position >= sql.length()) {
+          break;
+        }
+        char c = sql.charAt(position);
+        if (depth == 0 && (c == ',' || c == ')' || c == ';')) {
+          break;
+        }
+        int start = position;
+        if (c == '\'' || c == '"') {
+          if (!quoted(c)) {
+            return null;
+          }
+        } else if (isWordChar(c)) {
+          word();
+          if (depth == 0 && text.length() > 0 && previous < start) {
+            // top level words separated from a value are keywords, like AND or WHERE
+            position = start;
+            break;
+          }
+        } else if (c == '(') {
+          depth++;
+          position++;
+        } else if (c == ')') {
+          depth--;
+          position++;
+        } else if (depth > 0 || c == '-' || c == '.') {
+          position++;
+        } else {
+          // comparison or other operators at the top level
+          return null;
+        }
+        text.append(sql, start, position);
+      }
+      return depth == 0 && text.length() > 0 ? text.toString() : null;
+    }
+
+    /**
+     * Reads a possibly schema qualified table name.
+     */
+    private boolean tableName() {
+      do {
+        if (!identifier()) {
+          return false;
+        }
+      } while (symbol('.'));
+      return true;
+    }
+
+    /**
+     * Reads a quoted or unquoted identifier.
+     */
+    private boolean identifier() {
+      skipWhitespace();
+      if (position >= sql.length()) {
+        return false;
+      }
+      char c = sql.charAt(position);
+      tokenStart = position;
+      if (c == '"') {
+        if (!quoted(c)) {
+          return false;
+        }
+      } else if (isWordChar(c) && !Character.isDigit(c)) {
+        word();
+      } else {
+        return false;
+      }
+      tokenEnd = position;
+      return true;
+    }
+
+    private String token() {
+      return sql.substring(tokenStart, tokenEnd);
+    }
+
+    private boolean keyword(String keyword) {
+      skipWhitespace();
+      int end = position + keyword.length();
+      if (end <= sql.length() &&
+          sql.regionMatches(true, position, keyword, 0, keyword.length()) &&
+          (end == sql.length() || !isWordChar(sql.charAt(end)))) {
+        position = end;
+        return true;
+      }
+      return false;
+    }
+
+    private boolean symbol(char symbol) {
+      skipWhitespace();
+      if (position < sql.length() && sql.charAt(position) == symbol) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * Reads a quoted token, doubled quotes within it are escaped quotes.
+     */
+    private boolean quoted(char quote) {
+      int i = position + 1;
+      while (i < sql.length()) {
+        if (sql.charAt(i) == quote) {
+          if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+            i += 2;
+          } else {
+            position = i + 1;
+            return true;
+          }
+        } else {
+          i++;
+        }
+      }
+      return false;
+    }
+
+    private void word() {
+      while (position < sql.length() && isWordChar(sql.charAt(position))) {
+        position++;
+      }
+    }
+
+    private boolean atEnd() {
+      symbol(';');
+      skipWhitespace();
+      return position == sql.length();
+    }
+
+    private void skipWhitespace() {
+      while (position < sql.length() && Character.isWhitespace(sql.charAt(position))) {
+        position++;
+      }
+    }
+  }
+
+  private static boolean isWordChar(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+  }
+
+}
@@ -33,6 +33,8 @@ public final class TableConfigBean {
   public static final String PARTITIONING_MODE_FIELD = "partitioningMode";
   public static final String MAX_NUM_ACTIVE_PARTITIONS_FIELD = "maxNumActivePartitions";
   public static final String PARTITION_SIZE_FIELD = "partitionSize";
+  public static final String ADAPTIVE_PARTITION_SIZE_FIELD = "adaptivePartitionSize";
+  public static final boolean ADAPTIVE_PARTITION_SIZE_DEFAULT_VALUE = false;
 
   public static final String PARTITIONING_MODE_DEFAULT_VALUE_STR = "DISABLED";
   public static final PartitioningMode PARTITIONING_MODE_DEFAULT_VALUE = PartitioningMode.valueOf(
@@ -153,6 +155,21 @@ public final class TableConfigBean {
   )
   public String partitionSize = DEFAULT_PARTITION_SIZE;
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.BOOLEAN,
+      label = "Adaptive Partition Size",
+      description = "Adjusts the size of new partitions from the number of rows read from completed partitions, so" +
+          " dense ranges of the offset column are split in smaller partitions and sparse ranges in larger ones." +
+          " Partition Size is used as the initial size.",
+      displayPosition = 95,
+      defaultValue = "false",
+      group = "TABLE",
+      dependsOn = "partitioningMode",
+      triggeredByValue = {"BEST_EFFORT", "REQUIRED"}
+  )
+  public boolean adaptivePartitionSize = ADAPTIVE_PARTITION_SIZE_DEFAULT_VALUE;
+
   @ConfigDef(
       required = false,
       type = ConfigDef.Type.NUMBER,
@@ -60,6 +60,12 @@ public class TableJdbcSourceUpgrader implements StageUpgrader{
         // fall through
       case 4:
         upgradeV4ToV5(configs);
+        if (toVersion == 5) {
+          break;
+        }
+        // fall through
+      case 5:
+        upgradeV5ToV6(configs);
         break;
       default:
         throw new IllegalStateException(Utils.format("Unexpected fromVersion {}", fromVersion));
@@ -165,4 +171,18 @@ public class TableJdbcSourceUpgrader implements StageUpgrader{
 
     CommonSourceConfigBean.upgradeRateLimitConfigs(configs, "commonSourceConfigBean", numThreads);
   }
+
+  private void upgradeV5ToV6(List<Config> configs) {
+    Config tableConfigs = UpgraderUtils.getConfigWithName(configs, TableJdbcConfigBean.TABLE_CONFIG);
+
+    List<LinkedHashMap<String, Object>> tableConfigsMap =
+        (List<LinkedHashMap<String, Object>>) tableConfigs.getValue();
+
+    for (LinkedHashMap<String, Object> tableConfigMap : tableConfigsMap) {
+      tableConfigMap.put(
+          TableConfigBean.ADAPTIVE_PARTITION_SIZE_FIELD,
+          TableConfigBean.ADAPTIVE_PARTITION_SIZE_DEFAULT_VALUE
+      );
+    }
+  }
 }
@@ -49,6 +49,120 @@ import static org.hamcrest.Matchers.*;
 
 public class TestMultithreadedTableProvider {
 
+  @Test
+  public void adaptivePartitionSize() throws InterruptedException {
+    int batchSize = 10;
+    String offsetCol = "col";
+    final String partitionSize = "100";
+
+    TableContext table1 = createTableContext("db", "table1", offsetCol, partitionSize, "0", 3, true, false, true);
+    MultithreadedTableProvider provider = createTableProvider(
+        1,
+        table1,
+        BatchTableStrategy.PROCESS_ALL_AVAILABLE_ROWS_FROM_TABLE
+    );
+
+    TableRuntimeContext part1 = provider.getActiveRuntimeContexts().get(table1).first();
+    part1.recordColumnOffset(offsetCol, "0");
+    part1.recordColumnOffset(offsetCol, "1");
+    provider.reportDataOrNoMoreData(part1, batchSize, batchSize, false);
+    assertThat(part1.getRowCount(), equalTo(10L));
+
+    // far fewer rows than the target of 100 batches, partitions should grow
+    provider.adjustPartitionSize(part1);
+    assertThat(table1.getPartitionSizeScale(), equalTo(2d));
+    assertThat(TableContextUtil.getPartitionSize(table1, offsetCol), equalTo("200"));
+
+    // the next partition continues where the previous one ended, with the new size
+    TableRuntimeContext part2 = provider.createNextPartition(part1);
+    assertThat(part2.getStartingPartitionOffsets().get(offsetCol), equalTo("100"));
+    assertThat(part2.getMaxPartitionOffsets().get(offsetCol), equalTo("300"));
+
+    // far more rows than the target, partitions should shrink, by at most a factor of two
+    part2.addRowCount(1000000);
+    provider.adjustPartitionSize(part2);
+    assertThat(table1.getPartitionSizeScale(), equalTo(1d));
+    assertThat(TableContextUtil.getPartitionSize(table1, offsetCol), equalTo(partitionSize));
+
+    // close enough to the target, nothing changes
+    TableRuntimeContext part3 = provider.createNextPartition(part2);
+    part3.addRowCount(batchSize * 150);
+    provider.adjustPartitionSize(part3);
+    assertThat(table1.getPartitionSizeScale(), equalTo(1d));
+  }
+
+  @Test
+  public void adaptivePartitionSizeIgnoresEmptyTailPartitions() throws InterruptedException {
+    int batchSize = 10;
+    String offsetCol = "col";
+
+    TableContext table1 = createTableContext("db", "table1", offsetCol, "100", "0", 3, true, false, true);
+    MultithreadedTableProvider provider = createTableProvider(
+        1,
+        table1,
+        BatchTableStrategy.PROCESS_ALL_AVAILABLE_ROWS_FROM_TABLE
+    );
+
+    SortedSetMultimap<TableContext, TableRuntimeContext> partitions = provider.getActiveRuntimeContexts();
+    TableRuntimeContext part1 = partitions.get(table1).first();
+    TableRuntimeContext part2 = provider.createNextPartition(part1);
+    TableRuntimeContext part3 = provider.createNextPartition(part2);
+    partitions.put(table1, part2);
+    partitions.put(table1, part3);
+    partitions.put(table1, provider.createNextPartition(part3));
+
+    provider.reportDataOrNoMoreData(part1, 0, batchSize, true);
+    // part1 is removed only because there are more active partitions than allowed, it never saw any data
+    provider.reportDataOrNoMoreData(part2, 0, batchSize, true);
+    assertThat(partitions.get(table1), not(hasItem(part1)));
+    assertThat(table1.getPartitionSizeScale(), equalTo(1d));
+  }
+
+  @Test
+  public void adaptivePartitionSizeDisabled() throws InterruptedException {
+    String offsetCol = "col";
+    TableContext table1 = createTableContext("db", "table1", offsetCol, "100", 3, true);
+    MultithreadedTableProvider provider = createTableProvider(
+        1,
+        table1,
+        BatchTableStrategy.PROCESS_ALL_AVAILABLE_ROWS_FROM_TABLE
+    );
+
+    TableRuntimeContext part1 = provider.getActiveRuntimeContexts().get(table1).first();
+    part1.recordColumnOffset(offsetCol, "0");
+    provider.reportDataOrNoMoreData(part1, 1, 10, false);
+    provider.adjustPartitionSize(part1);
+    assertThat(table1.getPartitionSizeScale(), equalTo(1d));
+    assertThat(TableContextUtil.getPartitionSize(table1, offsetCol), equalTo("100"));
+  }
+
+  @Test
+  public void idleThreadCreatesPartition() throws InterruptedException {
+    String offsetCol = "col";
+    TableContext table1 = createTableContext("db", "table1", offsetCol, "100", 3, true);
+    MultithreadedTableProvider provider = createTableProvider(
+        2,
+        table1,
+        BatchTableStrategy.PROCESS_ALL_AVAILABLE_ROWS_FROM_TABLE
+    );
+
+    TableRuntimeContext part1 = provider.nextTable(0);
+    assertThat(part1.getPartitionSequence(), equalTo(1));
+
+    // the only partition is owned by thread 0, an idle thread should get the next one instead of waiting
+    TableRuntimeContext part2 = provider.createPartitionForIdleThread();
+    assertThat(part2, notNullValue());
+    assertThat(part2.getPartitionSequence(), equalTo(2));
+    assertThat(part2.getStartingPartitionOffsets().get(offsetCol), equalTo("100"));
+
+    TableRuntimeContext part3 = provider.createPartitionForIdleThread();
+    assertThat(part3, notNullValue());
+    assertThat(part3.getPartitionSequence(), equalTo(3));
+
+    // max active partitions reached
+    assertThat(provider.createPartitionForIdleThread(), nullValue());
+  }
+
   @Test
   public void basicPartitioning() throws InterruptedException {
 
@@ -931,6 +1045,31 @@ public class TestMultithreadedTableProvider {
       int maxActivePartitions,
       boolean enablePartitioning,
       boolean enableNonIncremental
+  ) {
+    return createTableContext(
+        schema,
+        tableName,
+        offsetColumn,
+        partitionSize,
+        minOffsetColValue,
+        maxActivePartitions,
+        enablePartitioning,
+        enableNonIncremental,
+        TableConfigBean.ADAPTIVE_PARTITION_SIZE_DEFAULT_VALUE
+    );
+  }
+
+  @NotNull
+  private static TableContext createTableContext(
+      String schema,
+      String tableName,
+      String offsetColumn,
+      String partitionSize,
+      String minOffsetColValue,
+      int maxActivePartitions,
+      boolean enablePartitioning,
+      boolean enableNonIncremental,
+      boolean adaptivePartitionSize
   ) {
     LinkedHashMap<String, Integer> offsetColumnToType = new LinkedHashMap<>();
     Map<String, String> offsetColumnToStartOffset = new HashMap<>();
@@ -956,7 +1095,8 @@ public class TestMultithreadedTableProvider {
         enableNonIncremental,
         enablePartitioning ? PartitioningMode.BEST_EFFORT : PartitioningMode.DISABLED,
         maxActivePartitions,
-        extraOffsetColumnConditions
+        extraOffsetColumnConditions,
+        adaptivePartitionSize
     );
   }
 
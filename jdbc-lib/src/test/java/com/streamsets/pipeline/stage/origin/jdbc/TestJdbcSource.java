@@ -1420,4 +1420,120 @@ public class TestJdbcSource {
     String result = origin.prepareQuery(query, lastSourceOffset);
     Assert.assertEquals(result, lastSourceOffset+lastSourceOffset);
   }
+
+  @Test
+  public void testQueryReplaceMaxOffset() throws Exception {
+    JdbcSource origin = new JdbcSource(
+        true,
+        query,
+        "0",
+        "P_ID",
+        false,
+        "",
+        1000,
+        JdbcRecordType.LIST_MAP,
+        new CommonSourceConfigBean(queriesPerSecond, BATCH_SIZE, CLOB_SIZE, CLOB_SIZE),
+        false,
+        "",
+        createConfigBean(h2ConnectionString, username, password),
+        UnknownTypeAction.STOP_PIPELINE,
+        queryInterval,
+        2,
+        10
+    );
+
+    String result = origin.prepareQuery("P_ID > ${OFFSET} AND P_ID <= ${MAX_OFFSET} OR ${max_offset}", 5, 15);
+    Assert.assertEquals("P_ID > 5 AND P_ID <= 15 OR 15", result);
+  }
+
+  @Test
+  public void testMultithreadedIncrementalMode() throws Exception {
+    HikariPoolConfigBean hikariConfigBean = createConfigBean(h2ConnectionString, username, password);
+    hikariConfigBean.maximumPoolSize = 2;
+    JdbcSource origin = new JdbcSource(
+        true,
+        "SELECT * FROM TEST.TEST_TABLE WHERE P_ID > ${offset} AND P_ID <= ${max_offset} ORDER BY P_ID ASC",
+        initialOffset,
+        "P_ID",
+        false,
+        "",
+        1000,
+        JdbcRecordType.LIST_MAP,
+        new CommonSourceConfigBean(queriesPerSecond, BATCH_SIZE, CLOB_SIZE, CLOB_SIZE),
+        false,
+        "",
+        hikariConfigBean,
+        UnknownTypeAction.STOP_PIPELINE,
+        queryInterval,
+        2,
+        2
+    );
+    SourceRunner runner = new SourceRunner.Builder(JdbcDSource.class, origin)
+        .addOutputLane("lane")
+        .build();
+
+    runner.runInit();
+
+    try {
+      // Splits (0, 2] and (2, 4], one row per split and batch.
+      StageRunner.Output output = runner.runProduce(null, 2);
+      List<Record> parsedRecords = output.getRecords().get("lane");
+      assertEquals(2, parsedRecords.size());
+      assertEquals(1, parsedRecords.get(0).get("/P_ID").getValueAsInteger());
+      assertEquals(3, parsedRecords.get(1).get("/P_ID").getValueAsInteger());
+      assertEquals("1", output.getNewOffset());
+
+      output = runner.runProduce(output.getNewOffset(), 2);
+      parsedRecords = output.getRecords().get("lane");
+      assertEquals(2, parsedRecords.size());
+      assertEquals(2, parsedRecords.get(0).get("/P_ID").getValueAsInteger());
+      assertEquals(4, parsedRecords.get(1).get("/P_ID").getValueAsInteger());
+      assertEquals("2", output.getNewOffset());
+
+      // Both splits are finished, the watermark moves to the end of the last split.
+      output = runner.runProduce(output.getNewOffset(), 2);
+      assertEquals(0, output.getRecords().get("lane").size());
+      assertEquals("4", output.getNewOffset());
+
+      // New rows after a gap in the offset column are found.
+      runInsertNewRows();
+      output = runner.runProduce(output.getNewOffset(), 100);
+      parsedRecords = output.getRecords().get("lane");
+      assertEquals(2, parsedRecords.size());
+      assertEquals("10", output.getNewOffset());
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
+  @Test
+  public void testMultithreadedModeRequiresMaxOffset() throws Exception {
+    HikariPoolConfigBean hikariConfigBean = createConfigBean(h2ConnectionString, username, password);
+    hikariConfigBean.maximumPoolSize = 2;
+    JdbcSource origin = new JdbcSource(
+        true,
+        query,
+        initialOffset,
+        "P_ID",
+        false,
+        "",
+        1000,
+        JdbcRecordType.LIST_MAP,
+        new CommonSourceConfigBean(queriesPerSecond, BATCH_SIZE, CLOB_SIZE, CLOB_SIZE),
+        false,
+        "",
+        hikariConfigBean,
+        UnknownTypeAction.STOP_PIPELINE,
+        queryInterval,
+        2,
+        100
+    );
+    SourceRunner runner = new SourceRunner.Builder(JdbcDSource.class, origin)
+        .addOutputLane("lane")
+        .build();
+
+    List<Stage.ConfigIssue> issues = runner.runValidateConfigs();
+    assertEquals(1, issues.size());
+    assertTrue(issues.get(0).toString().contains("JDBC_105"));
+  }
 }
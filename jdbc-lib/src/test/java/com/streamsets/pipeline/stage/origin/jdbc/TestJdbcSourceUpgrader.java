@@ -44,4 +44,14 @@ public class TestJdbcSourceUpgrader {
     UpgraderTestUtils.assertExists(configs, "queryInterval", queryInterval);
   }
 
+  @Test
+  public void testUpgradeV10toV11() throws StageException {
+    List<Config> configs = new ArrayList<>();
+
+    JdbcSourceUpgrader upgrader = new JdbcSourceUpgrader();
+    List<Config> upgradedConfigs = upgrader.upgrade("lib", "stage", "stageInst", 10, 11, configs);
+
+    UpgraderTestUtils.assertExists(upgradedConfigs, "numberOfThreads", 1);
+    UpgraderTestUtils.assertExists(upgradedConfigs, "splitSize", 100000);
+  }
 }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.jdbc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class TestQuerySplit {
+
+  @Test
+  public void testCreate() {
+    List<QuerySplit> splits = QuerySplit.create(10, 5, 3);
+    Assert.assertEquals(3, splits.size());
+    Assert.assertEquals(10, splits.get(0).getLastOffset());
+    Assert.assertEquals(15, splits.get(0).getMaxOffset());
+    Assert.assertEquals(15, splits.get(1).getLastOffset());
+    Assert.assertEquals(20, splits.get(1).getMaxOffset());
+    Assert.assertEquals(20, splits.get(2).getLastOffset());
+    Assert.assertEquals(25, splits.get(2).getMaxOffset());
+  }
+
+  @Test
+  public void testCreateDoesNotOverflow() {
+    List<QuerySplit> splits = QuerySplit.create(Long.MAX_VALUE - 7, 5, 3);
+    Assert.assertEquals(2, splits.size());
+    Assert.assertEquals(Long.MAX_VALUE, splits.get(1).getMaxOffset());
+  }
+
+  @Test
+  public void testWatermark() {
+    List<QuerySplit> splits = QuerySplit.create(0, 10, 3);
+    Assert.assertEquals(0, QuerySplit.getWatermark(splits));
+
+    // the first split is behind the others
+    splits.get(0).setLastOffset(3);
+    splits.get(1).setLastOffset(18);
+    splits.get(2).setLastOffset(25);
+    Assert.assertEquals(3, QuerySplit.getWatermark(splits));
+
+    // the first split is finished, the watermark moves to the first unfinished split
+    splits.get(0).setLastOffset(9);
+    splits.get(0).setFinished();
+    Assert.assertEquals(18, QuerySplit.getWatermark(splits));
+
+    splits.get(1).setFinished();
+    Assert.assertEquals(25, QuerySplit.getWatermark(splits));
+    Assert.assertFalse(QuerySplit.allFinished(splits));
+
+    // all finished, the watermark is the last offset read
+    splits.get(2).setFinished();
+    Assert.assertTrue(QuerySplit.allFinished(splits));
+    Assert.assertEquals(25, QuerySplit.getWatermark(splits));
+  }
+
+  @Test
+  public void testWatermarkDoesNotSkipUnreadRange() {
+    List<QuerySplit> splits = QuerySplit.create(0, 10, 2);
+    splits.get(0).setLastOffset(4);
+    splits.get(0).setFinished();
+    splits.get(1).setFinished();
+    Assert.assertEquals(4, QuerySplit.getWatermark(splits));
+
+    splits = QuerySplit.create(0, 10, 2);
+    splits.get(0).setFinished();
+    splits.get(1).setFinished();
+    Assert.assertEquals(0, QuerySplit.getWatermark(splits));
+  }
+}
@@ -16,6 +16,7 @@
 package com.streamsets.pipeline.stage.origin.jdbc.cdc.oracle;
 
 import com.google.common.collect.Lists;
+import com.streamsets.pipeline.lib.operation.OperationType;
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.ParserRuleContext;
@@ -32,6 +33,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 @RunWith(Parameterized.class)
 public class TestSQLListener {
@@ -258,6 +260,22 @@ public class TestSQLListener {
     Assert.assertEquals(expected, sqlListener.getColumns());
   }
 
+  @Test
+  public void testRedoParserScan() {
+    int operationCode;
+    if (sql.startsWith("insert")) {
+      operationCode = OperationType.INSERT_CODE;
+    } else if (sql.startsWith("delete")) {
+      operationCode = OperationType.DELETE_CODE;
+    } else {
+      operationCode = OperationType.UPDATE_CODE;
+    }
+    SQLRedoParser parser = new SQLRedoParser(false, true);
+    Set<String> columns = new HashSet<>(Lists.newArrayList("ID", "NAME", "HIREDATE", "SALARY", "LASTLOGIN"));
+    // the fast path gives the same columns as walking the parse tree
+    Assert.assertEquals(expected, parser.scan(sql, operationCode, columns));
+  }
+
   @Test
   public void testFormat() {
     SQLListener listener = new SQLListener();
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.jdbc.cdc.oracle;
+
+import com.google.common.collect.ImmutableSet;
+import com.streamsets.pipeline.lib.operation.OperationType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class TestSQLRedoParser {
+  private static final Set<String> COLUMNS = ImmutableSet.of("ID", "NAME", "HIREDATE", "SALARY", "LASTLOGIN");
+
+  private static Map<String, String> columns(String... namesAndValues) {
+    Map<String, String> columns = new HashMap<>();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      columns.put(namesAndValues[i], namesAndValues[i + 1]);
+    }
+    return columns;
+  }
+
+  @Test
+  public void testInsert() {
+    SQLRedoParser parser = new SQLRedoParser(false, true);
+    Assert.assertEquals(
+        columns(
+            "ID", "1",
+            "NAME", "it's",
+            "HIREDATE", "TO_DATE('21-11-2016 11:34:09','DD-MM-YYYY HH24:MI:SS')",
+            "SALARY", "1332.332",
+            "LASTLOGIN", null
+        ),
+        parser.scan(
+            "insert into \"SYS\".\"MANYCOLS\"(\"ID\",\"NAME\",\"HIREDATE\",\"SALARY\",\"LASTLOGIN\") " +
+                "values ('1','it''s', TO_DATE('21-11-2016 11:34:09', 'DD-MM-YYYY HH24:MI:SS'),1332.332,NULL);",
+            OperationType.INSERT_CODE,
+            COLUMNS
+        )
+    );
+    Assert.assertEquals(
+        columns("ID", "1", "DESC", "This is a \r\n test, \n with (parentheses) and line endings\r\n"),
+        parser.scan(
+            "insert into \"SYS\".\"WIN\" (\"ID\", \"DESC\") " +
+                "values ('1', 'This is a \r\n test, \n with (parentheses) and line endings\r\n')",
+            OperationType.INSERT_CODE,
+            COLUMNS
+        )
+    );
+  }
+
+  @Test
+  public void testUpdate() {
+    String sql = " update \"SYS\".\"MANYCOLS\" set \"SALARY=\" = NULL, NAME = 'New Name' " +
+        "where \"ID\" = '1' and \"NAME\" = '=sdc' and \"HIREDATE\" = TO_DATE('21-11-2016 11:34:09', " +
+        "'DD-MM-YYYY HH24:MI:SS') and \"LASTLOGIN\" IS NULL and ROWID = 'AAAVQbAAEAAAAJcAAA';";
+    Assert.assertEquals(
+        columns(
+            "ID", "1",
+            "SALARY=", null,
+            "NAME", "New Name",
+            "HIREDATE", "TO_DATE('21-11-2016 11:34:09','DD-MM-YYYY HH24:MI:SS')",
+            "LASTLOGIN", null,
+            "ROWID", "AAAVQbAAEAAAAJcAAA"
+        ),
+        new SQLRedoParser(false, true).scan(sql, OperationType.UPDATE_CODE, COLUMNS)
+    );
+
+    // IS NULL conditions are only returned if nulls are allowed
+    Map<String, String> columns = new SQLRedoParser(false, false).scan(sql, OperationType.UPDATE_CODE, null);
+    Assert.assertNotNull(columns);
+    Assert.assertFalse(columns.containsKey("LASTLOGIN"));
+  }
+
+  @Test
+  public void testDelete() {
+    Assert.assertEquals(
+        columns("Id", "10", "DATA", "HEXTORAW('0a0b')", "Name", null),
+        new SQLRedoParser(true, true).scan(
+            "delete from \"SYS\".\"MANYCOLS\" where \"Id\" = '10' and DATA = HEXTORAW('0a0b') and \"Name\" IS NULL\n",
+            OperationType.DELETE_CODE,
+            ImmutableSet.of("Id", "Name", "DATA")
+        )
+    );
+  }
+
+  @Test
+  public void testUnsupportedShapes() {
+    SQLRedoParser parser = new SQLRedoParser(false, false);
+    String[] deletes = {
+        "delete from \"SYS\".\"T\" where \"ID\" = '10' or \"ID\" = '11'",
+        "delete from \"SYS\".\"T\" where \"ID\" IS NOT NULL",
+        "delete from \"SYS\".\"T\" where (\"ID\" = '10')",
+        "delete from \"SYS\".\"T\" where \"ID\" = '10' || '1'",
+        "delete from \"SYS\".\"T\" where \"ID\" = '10",
+        "update \"SYS\".\"T\" set \"ID\" = '10'",
+    };
+    for (String sql : deletes) {
+      Assert.assertNull(sql, parser.scan(sql, OperationType.DELETE_CODE, null));
+    }
+    Assert.assertNull(parser.scan(
+        "insert into \"SYS\".\"T\"(\"ID\",\"NAME\") values ('1')",
+        OperationType.INSERT_CODE,
+        null
+    ));
+    Assert.assertNull(parser.scan(
+        "insert into \"SYS\".\"T\"(\"ID\") values ('1') returning",
+        OperationType.INSERT_CODE,
+        null
+    ));
+  }
+
+}
@@ -212,6 +212,37 @@ public class TestTableJdbcSourceUpgrader {
         .allMatch(config -> ((String) config.getValue()).startsWith("3.14285")));
   }
 
+  @Test
+  public void testUpgradeV5ToV6() throws Exception {
+    List<Config> configs = new ArrayList<>();
+
+    List<LinkedHashMap<String, Object>> tableConfigMaps = new LinkedList<>();
+    LinkedHashMap<String, Object> tableConfigMap1 = new LinkedHashMap<>();
+    tableConfigMap1.put("tablePattern", "pattern1");
+    tableConfigMap1.put("schema", "schema");
+    tableConfigMaps.add(tableConfigMap1);
+    LinkedHashMap<String, Object> tableConfigMap2 = new LinkedHashMap<>(tableConfigMap1);
+    tableConfigMap2.put("tablePattern", "pattern2");
+    tableConfigMaps.add(tableConfigMap2);
+
+    configs.add(new Config(TableJdbcConfigBean.TABLE_CONFIG, tableConfigMaps));
+
+    TableJdbcSourceUpgrader upgrader = new TableJdbcSourceUpgrader();
+    List<Config> upgradedConfigs = upgrader.upgrade("lib", "stage", "stageInst", 5, 6, configs);
+
+    Config upgradedTableConfigs = UpgraderUtils.getConfigWithName(upgradedConfigs, TableJdbcConfigBean.TABLE_CONFIG);
+    assertThat(upgradedTableConfigs, notNullValue());
+    List<LinkedHashMap<String, Object>> upgradedTableConfigsList =
+        (List<LinkedHashMap<String, Object>>) upgradedTableConfigs.getValue();
+    assertThat(upgradedTableConfigsList, hasSize(2));
+    assertAllContain(
+        TableConfigBean.ADAPTIVE_PARTITION_SIZE_FIELD,
+        TableConfigBean.ADAPTIVE_PARTITION_SIZE_DEFAULT_VALUE,
+        upgradedTableConfigsList.get(0),
+        upgradedTableConfigsList.get(1)
+    );
+  }
+
   private static void assertAllContain(String configKey, Object configValue, LinkedHashMap... tableConfigMaps) {
     for (LinkedHashMap<String, Object> tableConfigMap : tableConfigMaps) {
       assertThat(tableConfigMap, hasEntry(
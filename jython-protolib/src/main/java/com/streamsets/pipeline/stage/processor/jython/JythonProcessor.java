@@ -16,13 +16,18 @@
 package com.streamsets.pipeline.stage.processor.jython;
 
 import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.stage.processor.scripting.AbstractScriptingProcessor;
+import com.streamsets.pipeline.stage.processor.scripting.LazyScriptList;
+import com.streamsets.pipeline.stage.processor.scripting.LazyScriptMap;
 import com.streamsets.pipeline.stage.processor.scripting.ProcessingMode;
 import com.streamsets.pipeline.stage.processor.scripting.ScriptObjectFactory;
 import com.streamsets.pipeline.stage.processor.scripting.ScriptTypedNullObject;
+import org.python.core.Py;
 import org.python.core.PyDictionary;
 import org.python.core.PyList;
+import org.python.core.PyObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,7 +37,6 @@ import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
@@ -61,11 +65,6 @@ public class JythonProcessor extends AbstractScriptingProcessor {
       super(scriptEngine, context);
     }
 
-    @Override
-    public void putInMap(Object obj, Object key, Object value) {
-      ((PyDictionary) obj).put(key, value);
-    }
-
     //crude ConcurrentMap implementation (fully synchronized) baked by a LinkedHashMap to preserve Map entries ordering.
     private static class ConcurrentLinkedHashMap<K, V> extends LinkedHashMap<K, V> implements ConcurrentMap<K, V> {
 
@@ -206,7 +205,11 @@ public class JythonProcessor extends AbstractScriptingProcessor {
       private final boolean isListMap;
 
       public PyDictionaryMapInfo(boolean isListMap) {
-        super(new ConcurrentLinkedHashMap<>(), true);
+        this(isListMap, new ConcurrentLinkedHashMap<>());
+      }
+
+      public PyDictionaryMapInfo(boolean isListMap, ConcurrentMap<PyObject, PyObject> map) {
+        super(map, true);
         this.isListMap = isListMap;
       }
 
@@ -222,12 +225,36 @@ public class JythonProcessor extends AbstractScriptingProcessor {
     }
 
     @Override
-    public Object createArray(List elements) {
-      PyList list = new PyList();
-      for (Object element : elements) {
-        list.add(element);
+    protected Object createLazyMap(Field field, Record record) {
+      return new PyDictionaryMapInfo(
+          field.getType() == Field.Type.LIST_MAP,
+          new LazyScriptMap<>(field, record, Py::java2py, value -> Py.java2py(fieldToScript(value, record)))
+      );
+    }
+
+    @Override
+    protected Object createLazyArray(Field field, Record record) {
+      // PyList does not expose its backing list, so lists are converted lazily but always written back
+      return PyList.fromList(
+          new LazyScriptList<>(field, record, element -> Py.java2py(fieldToScript(element, record)))
+      );
+    }
+
+    @Override
+    protected Object getLazyScriptObject(Object scriptObject) {
+      if (scriptObject instanceof PyDictionary && ((PyDictionary) scriptObject).getMap() instanceof LazyScriptMap) {
+        return ((PyDictionary) scriptObject).getMap();
+      }
+      return null;
+    }
+
+    @Override
+    protected Object scriptToJava(Object scriptObject) {
+      if (scriptObject instanceof PyObject) {
+        Object javaObject = ((PyObject) scriptObject).__tojava__(Object.class);
+        return javaObject == Py.NoConversion ? scriptObject : javaObject;
       }
-      return list;
+      return scriptObject;
     }
 
     @Override
@@ -514,4 +514,19 @@ public class TestJythonProcessor {
     );
     ScriptingProcessorTestUtil.verifyErrorRecordErrorSink(JythonDProcessor.class, processor);
   }
+
+  @Test
+  public void testUnchangedFieldsPreserved() throws Exception {
+    Processor processor = new JythonProcessor(
+        ProcessingMode.RECORD,
+        "for record in records:\n" +
+        "  record.value['changed'] = 2\n" +
+        "  newRecord = sdcFunctions.createRecord('id')\n" +
+        "  newRecord.value = record.value['nested']\n" +
+        "  output.write(record)\n" +
+        "  output.write(newRecord)\n"
+    );
+    ScriptingProcessorTestUtil.verifyUnchangedFieldsPreserved(JythonDProcessor.class, processor);
+  }
+
 }
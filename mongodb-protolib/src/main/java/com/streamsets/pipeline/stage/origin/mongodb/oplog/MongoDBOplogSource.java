@@ -16,10 +16,12 @@
 package com.streamsets.pipeline.stage.origin.mongodb.oplog;
 
 import com.google.common.base.Joiner;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.mongodb.CursorType;
 import com.mongodb.MongoException;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
@@ -27,7 +29,6 @@ import com.streamsets.pipeline.api.Stage;
 import com.streamsets.pipeline.api.StageException;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.lib.operation.OperationType;
-import com.streamsets.pipeline.lib.util.ThreadUtil;
 import com.streamsets.pipeline.stage.common.mongodb.Errors;
 import com.streamsets.pipeline.stage.common.mongodb.Groups;
 import com.streamsets.pipeline.stage.origin.mongodb.AbstractMongoDBSource;
@@ -43,9 +44,17 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
 
 public class MongoDBOplogSource extends AbstractMongoDBSource {
   private static final Logger LOG = LoggerFactory.getLogger(MongoDBOplogSource.class);
@@ -59,10 +68,16 @@ public class MongoDBOplogSource extends AbstractMongoDBSource {
   static final String NS_FIELD = "ns";
   static final String OP_LONG_HASH_FIELD = "h";
   static final String VERSION_FIELD = "v";
+  static final String OP_CRITERIA_FIELD = "o2";
   static final List<String> MANDATORY_FIELDS_IN_RECORD = Arrays.asList(TIMESTAMP_FIELD, NS_FIELD, OP_TYPE_FIELD, OP_FIELD, OP_LONG_HASH_FIELD, VERSION_FIELD);
 
+  //Upper bound for the server side wait of the tailable await cursor when there are no new oplog entries
+  private static final long MAX_AWAIT_TIME_MILLIS = 1000;
+
   private final MongoDBOplogSourceConfigBean mongoDBOplogSourceConfigBean;
 
+  private ExecutorService decoderExecutor;
+
   private int lastOffsetTsSeconds;
   private int lastOffsetTsOrdinal;
 
@@ -81,10 +96,25 @@ public class MongoDBOplogSource extends AbstractMongoDBSource {
     if (issues.isEmpty()) {
       lastOffsetTsSeconds = mongoDBOplogSourceConfigBean.initialTs;
       lastOffsetTsOrdinal = mongoDBOplogSourceConfigBean.initialOrdinal;
+      if (mongoDBOplogSourceConfigBean.numberOfDecodingThreads > 1) {
+        decoderExecutor = Executors.newFixedThreadPool(
+            mongoDBOplogSourceConfigBean.numberOfDecodingThreads,
+            new ThreadFactoryBuilder().setNameFormat("MongoDB Oplog Decoder - %d").setDaemon(true).build()
+        );
+      }
     }
     return issues;
   }
 
+  @Override
+  public void destroy() {
+    if (decoderExecutor != null) {
+      decoderExecutor.shutdownNow();
+      decoderExecutor = null;
+    }
+    super.destroy();
+  }
+
   //@VisibleForTesting
   void extraInit(Stage.Context context, List<ConfigIssue> issues) {
     if (!configBean.mongoConfig.collection.startsWith(OPLOG_COLLECTION_PREFIX)) {
@@ -104,33 +134,32 @@ public class MongoDBOplogSource extends AbstractMongoDBSource {
     long batchWaitTime = System.currentTimeMillis() + (configBean.maxBatchWaitTime * 1000);
     int numOfRecordsProduced = 0;
     initStateIfNeeded(lastSourceOffset, batchSize);
+    //Records are decoded (possibly in parallel) while reading and added to the batch in oplog order
+    List<OplogEntry> entries = new ArrayList<>(batchSize);
     while (numOfRecordsProduced < batchSize) {
       try {
-        Record record = getOplogRecord();
-        if (record != null) {
-          batchMaker.addRecord(record);
+        OplogEntry entry = getOplogEntry();
+        if (entry != null) {
+          entries.add(entry);
           numOfRecordsProduced++;
-        } else if (breakOrWaitIfNeeded(batchWaitTime - System.currentTimeMillis())){
+        } else if (System.currentTimeMillis() >= batchWaitTime) {
+          //The tailable await cursor already waited on the server side for new entries
           break;
         }
-      } catch (IOException | MongoException | IllegalArgumentException e) {
+      } catch (MongoException | IllegalArgumentException e) {
         LOG.error("Error while getting Oplog Record", e);
         errorRecordHandler.onError(Errors.MONGODB_10, e.toString(), e);
       }
     }
-    return createOffset();
-  }
-
-  private boolean breakOrWaitIfNeeded(long remainingWaitTime) {
-    //Wait the remaining time if there is no record
-    //and try for last time before to read records and then return whatever was read
-    if (remainingWaitTime > 0) {
-      ThreadUtil.sleep(remainingWaitTime);
-      //Don't break and try reading now
-      return false;
+    for (OplogEntry entry : entries) {
+      try {
+        batchMaker.addRecord(entry.getRecord());
+      } catch (IOException | IllegalArgumentException e) {
+        LOG.error("Error while getting Oplog Record", e);
+        errorRecordHandler.onError(Errors.MONGODB_10, e.toString(), e);
+      }
     }
-    //break
-    return true;
+    return createOffset();
   }
 
   private boolean shouldInitOffset(String lastOffset) {
@@ -161,8 +190,10 @@ public class MongoDBOplogSource extends AbstractMongoDBSource {
         .find()
         //As the collection is a capped collection we use Tailable cursor which will return results in natural order in this case
         //based on ts timestamp field.
-        //Tailable Await does not return and blocks, so we are using tailable.
-        .cursorType(CursorType.Tailable)
+        //Tailable Await blocks on the server side when there are no new entries, we only use tryNext on the cursor
+        //so the wait is bounded by the max await time.
+        .cursorType(CursorType.TailableAwait)
+        .maxAwaitTime(Math.min(configBean.maxBatchWaitTime * 1000L, MAX_AWAIT_TIME_MILLIS), TimeUnit.MILLISECONDS)
         .batchSize(batchSize);
 
     List<Bson> andFilters = new ArrayList<>();
@@ -172,24 +203,37 @@ public class MongoDBOplogSource extends AbstractMongoDBSource {
     }
 
     if (!filterOplogTypes.isEmpty()) {
-      List<Bson> oplogOptypeFilters = new ArrayList<>();
-      Set<OplogOpType> oplogOpTypesSet = new HashSet<>();
+      Set<String> oplogOpTypes = new LinkedHashSet<>();
       for (OplogOpType filterOplogopType : filterOplogTypes) {
-        if (oplogOpTypesSet.add(filterOplogopType)) {
-          oplogOptypeFilters.add(Filters.eq(OP_TYPE_FIELD, filterOplogopType.getOp()));
-        }
+        oplogOpTypes.add(filterOplogopType.getOp());
       }
-      //Add an or filter for filtered Or Types
-      andFilters.add(Filters.or(oplogOptypeFilters));
+      andFilters.add(Filters.in(OP_TYPE_FIELD, oplogOpTypes));
+    }
+
+    List<String> filterNamespaces = mongoDBOplogSourceConfigBean.filterNamespaces;
+    if (filterNamespaces != null && !filterNamespaces.isEmpty()) {
+      andFilters.add(Filters.in(NS_FIELD, new LinkedHashSet<>(filterNamespaces)));
     }
+
     //Finally and timestamp with oplog filters
     if (!andFilters.isEmpty()) {
       mongoCursorIterable = mongoCursorIterable.filter(Filters.and(andFilters));
     }
+    if (mongoDBOplogSourceConfigBean.projectRequiredFields) {
+      mongoCursorIterable = mongoCursorIterable.projection(getProjection());
+    }
     cursor = mongoCursorIterable.iterator();
   }
 
-  private void validateOpLogDocument(Document document) throws IOException {
+  //@VisibleForTesting
+  static Bson getProjection() {
+    List<String> fields = new ArrayList<>(MANDATORY_FIELDS_IN_RECORD);
+    //Update operations carry the criteria of the updated document
+    fields.add(OP_CRITERIA_FIELD);
+    return Projections.include(fields);
+  }
+
+  private void validateOpLogDocument(Document document) {
     List<String> missingFields = new ArrayList<>();
     for (String mandatoryField : MANDATORY_FIELDS_IN_RECORD) {
       if (!document.containsKey(mandatoryField)) {
@@ -237,7 +281,48 @@ public class MongoDBOplogSource extends AbstractMongoDBSource {
     record.getHeader().setAttribute(OperationType.SDC_OPERATION_TYPE, String.valueOf(operationType));
   }
 
-  private Record getOplogRecord() throws IOException {
+  private Future<Map<String, Field>> decode(Document doc) {
+    Callable<Map<String, Field>> task = () -> MongoDBSourceUtil.createFieldFromDocument(doc);
+    if (decoderExecutor == null) {
+      FutureTask<Map<String, Field>> future = new FutureTask<>(task);
+      future.run();
+      return future;
+    }
+    return decoderExecutor.submit(task);
+  }
+
+  /**
+   * Oplog entry read from the cursor, with its record fields being decoded.
+   */
+  private static class OplogEntry {
+    private final Record record;
+    private final Future<Map<String, Field>> fields;
+
+    OplogEntry(Record record, Future<Map<String, Field>> fields) {
+      this.record = record;
+      this.fields = fields;
+    }
+
+    Record getRecord() throws IOException {
+      try {
+        record.set(Field.create(fields.get()));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new IOException(cause);
+      }
+      return record;
+    }
+  }
+
+  private OplogEntry getOplogEntry() {
     Document doc = cursor.tryNext();
     if (doc != null) {
       validateOpLogDocument(doc);
@@ -263,8 +348,7 @@ public class MongoDBOplogSource extends AbstractMongoDBSource {
       record.getHeader().setAttribute(OP_TYPE_FIELD, opType);
       //Populate Generic operation type
       populateGenericOperationTypeInHeader(record, opType);
-      record.set(Field.create(MongoDBSourceUtil.createFieldFromDocument(doc)));
-      return record;
+      return new OplogEntry(record, decode(doc));
     } else {
       LOG.trace("Document from Cursor is null, No More Records");
     }
@@ -60,6 +60,43 @@ public class MongoDBOplogSourceConfigBean {
   @MultiValueChooserModel(OplogOpTypeChooserValues.class)
   public List<OplogOpType> filterOplogOpTypes;
 
+  @ConfigDef(
+      required = false,
+      type = ConfigDef.Type.LIST,
+      label = "Namespaces",
+      defaultValue = "[]",
+      description = "Namespaces (<database>.<collection>) to read. Leave empty to read all namespaces. " +
+          "The filter is applied by MongoDB when querying the oplog.",
+      displayPosition = 1006,
+      group = "MONGODB"
+  )
+  public List<String> filterNamespaces;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.BOOLEAN,
+      label = "Fetch Only Required Fields",
+      defaultValue = "false",
+      description = "Fetches only the timestamp, hash, version, operation type, namespace and operation fields " +
+          "of the oplog entries",
+      displayPosition = 1007,
+      group = "MONGODB"
+  )
+  public boolean projectRequiredFields;
+
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      label = "Decoding Threads",
+      defaultValue = "1",
+      description = "Number of threads converting oplog entries to records. Record order is preserved.",
+      displayPosition = 1008,
+      group = "MONGODB",
+      min = 1,
+      max = 64
+  )
+  public int numberOfDecodingThreads;
+
   private static final String MONGO_DB_OPLOG_SOURCE_CONFIG_BEAN_PREFIX = "mongoDBOplogSourceConfigBean.";
 
   public void init(Stage.Context context, List<Stage.ConfigIssue> issues) {
@@ -21,9 +21,12 @@ import com.streamsets.pipeline.api.StageUpgrader;
 import com.streamsets.pipeline.api.impl.Utils;
 import com.streamsets.pipeline.stage.common.mongodb.MongoDBConfig;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class MongoDBOplogSourceUpgrader implements StageUpgrader {
+  private static final String OPLOG_CONFIG_BEAN_PREFIX = "mongoDBOplogSourceConfigBean.";
+
   @Override
   public List<Config> upgrade(
       String library,
@@ -45,6 +48,13 @@ public class MongoDBOplogSourceUpgrader implements StageUpgrader {
   }
 
   private void upgradeV1toV2(List<Config> configs) {
-    configs.add(new Config(MongoDBConfig.MONGO_CONFIG_PREFIX + "authSource", ""));
+    // authSource is part of the common MongoDB config, version 1 pipelines normally have it already
+    String authSource = MongoDBConfig.MONGO_CONFIG_PREFIX + "authSource";
+    if (configs.stream().noneMatch(config -> config.getName().equals(authSource))) {
+      configs.add(new Config(authSource, ""));
+    }
+    configs.add(new Config(OPLOG_CONFIG_BEAN_PREFIX + "filterNamespaces", new ArrayList<>()));
+    configs.add(new Config(OPLOG_CONFIG_BEAN_PREFIX + "projectRequiredFields", false));
+    configs.add(new Config(OPLOG_CONFIG_BEAN_PREFIX + "numberOfDecodingThreads", 1));
   }
 }
@@ -30,6 +30,9 @@ public class MongoDBOplogSourceBuilder extends AbstractMongoDBSourceBuilder<Mong
     mongoDBOplogSourceConfigBean.initialTs = -1;
     mongoDBOplogSourceConfigBean.initialOrdinal = -1;
     mongoDBOplogSourceConfigBean.filterOplogOpTypes = Lists.newArrayList(OplogOpType.INSERT, OplogOpType.UPDATE, OplogOpType.DELETE);
+    mongoDBOplogSourceConfigBean.filterNamespaces = Lists.newArrayList();
+    mongoDBOplogSourceConfigBean.projectRequiredFields = false;
+    mongoDBOplogSourceConfigBean.numberOfDecodingThreads = 1;
   }
 
   public MongoDBOplogSourceBuilder initialTs(int initialTs) {
@@ -52,6 +55,21 @@ public class MongoDBOplogSourceBuilder extends AbstractMongoDBSourceBuilder<Mong
     return this;
   }
 
+  public MongoDBOplogSourceBuilder filterNamespaces(List<String> filterNamespaces) {
+    mongoDBOplogSourceConfigBean.filterNamespaces = filterNamespaces;
+    return this;
+  }
+
+  public MongoDBOplogSourceBuilder projectRequiredFields(boolean projectRequiredFields) {
+    mongoDBOplogSourceConfigBean.projectRequiredFields = projectRequiredFields;
+    return this;
+  }
+
+  public MongoDBOplogSourceBuilder numberOfDecodingThreads(int numberOfDecodingThreads) {
+    mongoDBOplogSourceConfigBean.numberOfDecodingThreads = numberOfDecodingThreads;
+    return this;
+  }
+
   @Override
   public MongoDBOplogSource build() {
     return new MongoDBOplogSource(config, mongoDBOplogSourceConfigBean);
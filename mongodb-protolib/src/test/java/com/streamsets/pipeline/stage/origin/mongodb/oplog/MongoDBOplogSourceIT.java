@@ -53,6 +53,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.GenericContainer;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
@@ -480,6 +481,56 @@ public class MongoDBOplogSourceIT {
     }
   }
 
+  @Test
+  public void testNamespaceFilterWithProjectionAndDecodingThreads() throws Exception {
+    String ns = DATABASE + "." + testCollectionName;
+    MongoDBOplogSource source = new MongoDBOplogSourceBuilder()
+        .connectionString("mongodb://" + mongoContainerIp + ":"  + mongoContainerMappedPort)
+        .collection(OPLOG_COLLECTION)
+        //Skip old oplogs and just start with whatever this test is producing
+        .initialTs(initialTs)
+        .initialOrdinal(0)
+        .filterNamespaces(Collections.singletonList(ns))
+        .projectRequiredFields(true)
+        .numberOfDecodingThreads(4)
+        .build();
+    SourceRunner runner = new SourceRunner.Builder(MongoDBSource.class, source)
+        .addOutputLane(LANE)
+        .build();
+    runner.runInit();
+    try {
+      MongoDatabase db = mongoClient.getDatabase(DATABASE);
+      String otherCollectionName = testCollectionName + "_other";
+      db.createCollection(otherCollectionName);
+      MongoCollection<Document> otherDocuments = db.getCollection(otherCollectionName);
+
+      List<Document> documents = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        documents.add(new Document("c", i));
+      }
+      otherDocuments.insertMany(documents);
+      testDocuments.insertMany(documents.subList(0, 50));
+
+      List<Record> records = runSourceAndGetOp(runner, "").getRight();
+      Assert.assertEquals(50, records.size());
+      for (int i = 0; i < records.size(); i++) {
+        Record record = records.get(i);
+        checkRecordForFields(record, OplogOpType.INSERT.getOp(), ns);
+        //order must be preserved when decoding with multiple threads
+        Assert.assertEquals(i, record.get("/" + MongoDBOplogSource.OP_FIELD + "/c").getValueAsInteger());
+        for (String field : record.get().getValueAsMap().keySet()) {
+          Assert.assertTrue(
+              field,
+              MongoDBOplogSource.MANDATORY_FIELDS_IN_RECORD.contains(field) ||
+                  MongoDBOplogSource.OP_CRITERIA_FIELD.equals(field)
+          );
+        }
+      }
+    } finally {
+      runner.runDestroy();
+    }
+  }
+
   @AfterClass
   public static void destroy() throws Exception {
     mongoClient.dropDatabase(DATABASE);
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.mongodb.oplog;
+
+import com.streamsets.pipeline.api.Config;
+import com.streamsets.pipeline.stage.common.mongodb.MongoDBConfig;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestMongoDBOplogSourceUpgrader {
+
+  private static Map<String, Object> toMap(List<Config> configs) {
+    Map<String, Object> map = new HashMap<>();
+    for (Config config : configs) {
+      Assert.assertFalse("Duplicate config " + config.getName(), map.containsKey(config.getName()));
+      map.put(config.getName(), config.getValue());
+    }
+    return map;
+  }
+
+  @Test
+  public void testV1ToV2() throws Exception {
+    List<Config> configs = new ArrayList<>();
+    configs.add(new Config(MongoDBConfig.MONGO_CONFIG_PREFIX + "authSource", "admin"));
+
+    MongoDBOplogSourceUpgrader upgrader = new MongoDBOplogSourceUpgrader();
+    Map<String, Object> upgraded = toMap(upgrader.upgrade("lib", "stage", "stageInst", 1, 2, configs));
+
+    Assert.assertEquals(4, upgraded.size());
+    Assert.assertEquals("admin", upgraded.get(MongoDBConfig.MONGO_CONFIG_PREFIX + "authSource"));
+    Assert.assertEquals(Collections.emptyList(), upgraded.get("mongoDBOplogSourceConfigBean.filterNamespaces"));
+    Assert.assertEquals(false, upgraded.get("mongoDBOplogSourceConfigBean.projectRequiredFields"));
+    Assert.assertEquals(1, upgraded.get("mongoDBOplogSourceConfigBean.numberOfDecodingThreads"));
+  }
+
+  @Test
+  public void testV1ToV2WithoutAuthSource() throws Exception {
+    MongoDBOplogSourceUpgrader upgrader = new MongoDBOplogSourceUpgrader();
+    Map<String, Object> upgraded = toMap(upgrader.upgrade("lib", "stage", "stageInst", 1, 2, new ArrayList<>()));
+
+    Assert.assertEquals(4, upgraded.size());
+    Assert.assertEquals("", upgraded.get(MongoDBConfig.MONGO_CONFIG_PREFIX + "authSource"));
+  }
+}
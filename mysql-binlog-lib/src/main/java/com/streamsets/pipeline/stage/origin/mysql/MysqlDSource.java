@@ -18,7 +18,7 @@ package com.streamsets.pipeline.stage.origin.mysql;
 import com.streamsets.pipeline.api.*;
 
 @StageDef(
-    version = 2,
+    version = 3,
     label = "MySQL Binary Log",
     description = "Reads MySQL binary log from MySQL server.",
     icon = "mysql.png",
@@ -20,6 +20,12 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -29,6 +35,7 @@ import com.github.shyiko.mysql.binlog.GtidSet;
 import com.github.shyiko.mysql.binlog.network.SSLMode;
 import com.github.shyiko.mysql.binlog.network.ServerException;
 import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.streamsets.pipeline.api.BatchMaker;
 import com.streamsets.pipeline.api.Record;
 import com.streamsets.pipeline.api.StageException;
@@ -58,6 +65,8 @@ public abstract class MysqlSource extends BaseSource {
 
   private Filter eventFilter;
 
+  private ExecutorService converterExecutor;
+
   private int port;
   private long serverId;
 
@@ -152,6 +161,13 @@ public abstract class MysqlSource extends BaseSource {
           Groups.MYSQL.name(), null, Errors.MYSQL_003, e.getMessage(), e
       ));
     }
+
+    if (issues.isEmpty() && getConfig().numberOfThreads > 1) {
+      converterExecutor = Executors.newFixedThreadPool(
+          getConfig().numberOfThreads,
+          new ThreadFactoryBuilder().setNameFormat("MySQL Binlog Record Converter - %d").setDaemon(true).build()
+      );
+    }
     return issues;
   }
 
@@ -185,6 +201,10 @@ public abstract class MysqlSource extends BaseSource {
       dataSource.close();
     }
 
+    if (converterExecutor != null) {
+      converterExecutor.shutdownNow();
+    }
+
     super.destroy();
   }
 
@@ -213,6 +233,9 @@ public abstract class MysqlSource extends BaseSource {
 
     int recordCounter = 0;
     int batchSize = getConfig().maxBatchSize > maxBatchSize ? maxBatchSize : getConfig().maxBatchSize;
+    // events are converted to records (possibly in parallel) while more events are read, records are
+    // added to the batch in binlog order once all events of the batch have been read.
+    List<Future<List<Record>>> converted = new ArrayList<>();
     long startTime = System.currentTimeMillis();
     while (recordCounter < batchSize && (startTime + getConfig().maxWaitTime) > System.currentTimeMillis()) {
       long timeLeft = getConfig().maxWaitTime - (System.currentTimeMillis() - startTime);
@@ -229,15 +252,8 @@ public abstract class MysqlSource extends BaseSource {
 
         // check if event should be filtered out
         if (eventFilter.apply(event) == Filter.Result.PASS) {
-          List<Record> records = recordConverter.toRecords(event);
-          // If we are in preview mode, make sure we don't send a huge number of messages.
-          if (getContext().isPreview() && recordCounter + records.size() > batchSize) {
-            records = records.subList(0, batchSize - recordCounter);
-          }
-          for (Record record : records) {
-            batchMaker.addRecord(record);
-          }
-          recordCounter += records.size();
+          converted.add(convert(event));
+          recordCounter += RecordConverter.getRecordCount(event);
         } else {
           LOG.trace(
               "Event for {}.{} filtered out",
@@ -247,9 +263,49 @@ public abstract class MysqlSource extends BaseSource {
         }
       }
     }
+
+    int added = 0;
+    for (Future<List<Record>> future : converted) {
+      List<Record> records = getRecords(future);
+      // If we are in preview mode, make sure we don't send a huge number of messages.
+      if (getContext().isPreview() && added + records.size() > batchSize) {
+        records = records.subList(0, batchSize - added);
+      }
+      for (Record record : records) {
+        batchMaker.addRecord(record);
+      }
+      added += records.size();
+    }
     return lastSourceOffset;
   }
 
+  private Future<List<Record>> convert(final EnrichedEvent event) {
+    Callable<List<Record>> conversion = new Callable<List<Record>>() {
+      @Override
+      public List<Record> call() {
+        return recordConverter.toRecords(event);
+      }
+    };
+    if (converterExecutor != null) {
+      return converterExecutor.submit(conversion);
+    }
+    FutureTask<List<Record>> task = new FutureTask<>(conversion);
+    task.run();
+    return task;
+  }
+
+  private List<Record> getRecords(Future<List<Record>> future) throws StageException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new StageException(Errors.MYSQL_009, e.toString(), e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), StageException.class);
+      throw new StageException(Errors.MYSQL_009, e.getCause().toString(), e.getCause());
+    }
+  }
+
   private void connectClient(BinaryLogClient client, String lastSourceOffset) throws StageException {
     try {
       if (lastSourceOffset == null) {
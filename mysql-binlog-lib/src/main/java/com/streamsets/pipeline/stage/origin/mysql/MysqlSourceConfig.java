@@ -201,6 +201,20 @@ public class MysqlSourceConfig {
   )
   public String ignoreTables;
 
+  @ConfigDef(
+      required = true,
+      type = ConfigDef.Type.NUMBER,
+      defaultValue = "1",
+      label = "Record Conversion Threads",
+      description = "Number of threads converting binlog row events to records. Records are always produced " +
+          "in binlog order and offsets are committed in order, regardless of the number of threads.",
+      min = 1,
+      max = 64,
+      displayPosition = 110,
+      group = "ADVANCED"
+  )
+  public int numberOfThreads = 1;
+
   @Override
   public String toString() {
     return "MysqlSourceConfig{" +
@@ -213,6 +227,7 @@ public class MysqlSourceConfig {
         ", maxWaitTime=" + maxWaitTime +
         ", startFromBeginning=" + startFromBeginning +
         ", offset=" + initialOffset +
+        ", numberOfThreads=" + numberOfThreads +
         '}';
   }
 }
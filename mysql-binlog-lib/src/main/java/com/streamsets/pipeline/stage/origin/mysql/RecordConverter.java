@@ -23,6 +23,7 @@ import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import com.github.shyiko.mysql.binlog.event.DeleteRowsEventData;
 import com.github.shyiko.mysql.binlog.event.EventHeader;
@@ -57,41 +58,63 @@ public class RecordConverter {
   }
 
   public List<Record> toRecords(EnrichedEvent event) {
-    EventType eventType = event.getEvent().getHeader().getEventType();
+    return getRowsEvent(event).converter.apply(this);
+  }
+
+  /**
+   * Returns the number of records {@link #toRecords(EnrichedEvent)} will produce for the given event,
+   * without converting it.
+   */
+  public static int getRecordCount(EnrichedEvent event) {
+    return getRowsEvent(event).recordCount;
+  }
+
+  /**
+   * Row count and conversion of a rows event, the supported event types are only listed here.
+   */
+  private static class RowsEvent {
+    private final int recordCount;
+    private final Function<RecordConverter, List<Record>> converter;
+
+    RowsEvent(int recordCount, Function<RecordConverter, List<Record>> converter) {
+      this.recordCount = recordCount;
+      this.converter = converter;
+    }
+  }
+
+  private static RowsEvent getRowsEvent(EnrichedEvent event) {
+    EventHeader header = event.getEvent().getHeader();
+    EventType eventType = header.getEventType();
     switch (eventType) {
       case PRE_GA_WRITE_ROWS:
       case WRITE_ROWS:
       case EXT_WRITE_ROWS:
-        return toRecords(
-            event.getTable(),
-            event.getEvent().getHeader(),
-            event.getEvent().<WriteRowsEventData>getData(),
-            event.getOffset()
+        WriteRowsEventData writeData = event.getEvent().getData();
+        return new RowsEvent(
+            writeData.getRows().size(),
+            converter -> converter.toRecords(event.getTable(), header, writeData, event.getOffset())
         );
       case PRE_GA_UPDATE_ROWS:
       case UPDATE_ROWS:
       case EXT_UPDATE_ROWS:
-        return toRecords(
-            event.getTable(),
-            event.getEvent().getHeader(),
-            event.getEvent().<UpdateRowsEventData>getData(),
-            event.getOffset()
+        UpdateRowsEventData updateData = event.getEvent().getData();
+        return new RowsEvent(
+            updateData.getRows().size(),
+            converter -> converter.toRecords(event.getTable(), header, updateData, event.getOffset())
         );
       case PRE_GA_DELETE_ROWS:
       case DELETE_ROWS:
       case EXT_DELETE_ROWS:
-        return toRecords(
-            event.getTable(),
-            event.getEvent().getHeader(),
-            event.getEvent().<DeleteRowsEventData>getData(),
-            event.getOffset()
+        DeleteRowsEventData deleteData = event.getEvent().getData();
+        return new RowsEvent(
+            deleteData.getRows().size(),
+            converter -> converter.toRecords(event.getTable(), header, deleteData, event.getOffset())
         );
       default:
         throw new IllegalArgumentException(String.format("EventType '%s' not supported", eventType));
     }
   }
 
-
   private List<Record> toRecords(Table table,
                                  EventHeader eventHeader,
                                  UpdateRowsEventData eventData,
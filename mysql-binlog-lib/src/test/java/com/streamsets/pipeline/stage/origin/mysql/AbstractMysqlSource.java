@@ -325,6 +325,63 @@ public abstract class AbstractMysqlSource {
     assertThat(output.getRecords().get(LANE), is(IsEmptyCollection.<Record>empty()));
   }
 
+  @Test
+  public void shouldKeepOrderAndOffsetsWhenConvertingInParallel() throws Exception {
+    MysqlSourceConfig config = createConfig("root");
+    MysqlSource source = createMysqlSource(config);
+    runner = new SourceRunner.Builder(MysqlDSource.class, source)
+        .addOutputLane(LANE)
+        .build();
+    runner.runInit();
+    StageRunner.Output output = runner.runProduce(null, MAX_BATCH_SIZE);
+    assertThat(output.getRecords().get(LANE), is(IsEmptyCollection.<Record>empty()));
+    String startOffset = output.getNewOffset();
+    runner.runDestroy();
+
+    // single row events interleaved with multiple rows events
+    int count = 50;
+    for (int i = 0; i < count; i++) {
+      execute(ds, String.format("INSERT INTO foo (bar) VALUES (%d)", i));
+    }
+    execute(ds, "UPDATE foo SET bar = bar + 100");
+    execute(ds, "DELETE FROM foo");
+
+    // the same events converted on a single thread and on several threads
+    StageRunner.Output sequential = null;
+    for (int threads : new int[] {1, 4}) {
+      config.numberOfThreads = threads;
+      runner = new SourceRunner.Builder(MysqlDSource.class, createMysqlSource(config))
+          .addOutputLane(LANE)
+          .build();
+      runner.runInit();
+      output = runner.runProduce(startOffset, count * 3);
+      runner.runDestroy();
+      runner = null;
+
+      List<Record> records = output.getRecords().get(LANE);
+      assertThat(records, hasSize(count * 3));
+      for (int i = 0; i < count; i++) {
+        assertThat(records.get(i).get("/Type"), is(create("INSERT")));
+        assertThat(records.get(i).get("/Data/bar"), is(create(i)));
+        assertThat(records.get(count + i).get("/Data/bar"), is(create(i + 100)));
+        assertThat(records.get(2 * count + i).get("/OldData/bar"), is(create(i + 100)));
+      }
+      Record last = records.get(records.size() - 1);
+      assertThat(last.getHeader().getSourceId(), is(output.getNewOffset()));
+
+      if (sequential == null) {
+        sequential = output;
+      } else {
+        assertThat(output.getNewOffset(), is(sequential.getNewOffset()));
+        List<Record> expected = sequential.getRecords().get(LANE);
+        for (int i = 0; i < records.size(); i++) {
+          assertThat(records.get(i).getHeader().getSourceId(), is(expected.get(i).getHeader().getSourceId()));
+          assertThat(records.get(i).get("/Offset"), is(expected.get(i).get("/Offset")));
+        }
+      }
+    }
+  }
+
   @Test
   public void shouldSendAllEventRecordsDiscardingbatchSize() throws Exception {
     int count = 100;
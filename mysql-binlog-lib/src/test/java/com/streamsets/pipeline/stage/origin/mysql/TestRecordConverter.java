@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.stage.origin.mysql;
+
+import com.github.shyiko.mysql.binlog.event.DeleteRowsEventData;
+import com.github.shyiko.mysql.binlog.event.Event;
+import com.github.shyiko.mysql.binlog.event.EventData;
+import com.github.shyiko.mysql.binlog.event.EventHeaderV4;
+import com.github.shyiko.mysql.binlog.event.EventType;
+import com.github.shyiko.mysql.binlog.event.UpdateRowsEventData;
+import com.github.shyiko.mysql.binlog.event.WriteRowsEventData;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.sdk.RecordCreator;
+import com.streamsets.pipeline.stage.origin.mysql.schema.Column;
+import com.streamsets.pipeline.stage.origin.mysql.schema.MysqlType;
+import com.streamsets.pipeline.stage.origin.mysql.schema.Table;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.Serializable;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+public class TestRecordConverter {
+  private static final SourceOffset OFFSET = new BinLogPositionSourceOffset("mysql-bin.000001", 4);
+
+  private final RecordConverter converter = new RecordConverter(
+      sourceId -> RecordCreator.create("mysql", sourceId)
+  );
+
+  private static EnrichedEvent createEvent(EventType type, EventData data) {
+    EventHeaderV4 header = new EventHeaderV4();
+    header.setEventType(type);
+    Table table = Mockito.mock(Table.class);
+    Mockito.when(table.getDatabase()).thenReturn("db");
+    Mockito.when(table.getName()).thenReturn("foo");
+    Mockito.when(table.getColumn(0)).thenReturn(new Column("bar", MysqlType.INT));
+    return new EnrichedEvent(new Event(header, data), table, OFFSET);
+  }
+
+  private static BitSet columns() {
+    BitSet columns = new BitSet();
+    columns.set(0);
+    return columns;
+  }
+
+  private void assertConverted(EnrichedEvent event, String type) {
+    List<Record> records = converter.toRecords(event);
+    Assert.assertEquals(RecordConverter.getRecordCount(event), records.size());
+    Assert.assertEquals(2, records.size());
+    for (Record record : records) {
+      Assert.assertEquals(type, record.get("/Type").getValueAsString());
+      Assert.assertEquals(OFFSET.format(), record.getHeader().getSourceId());
+    }
+  }
+
+  @Test
+  public void testWriteRows() {
+    WriteRowsEventData data = new WriteRowsEventData();
+    data.setIncludedColumns(columns());
+    data.setRows(ImmutableList.of(new Serializable[] {1}, new Serializable[] {2}));
+    assertConverted(createEvent(EventType.EXT_WRITE_ROWS, data), "INSERT");
+  }
+
+  @Test
+  public void testUpdateRows() {
+    UpdateRowsEventData data = new UpdateRowsEventData();
+    data.setIncludedColumnsBeforeUpdate(columns());
+    data.setIncludedColumns(columns());
+    data.setRows(ImmutableList.<Map.Entry<Serializable[], Serializable[]>>of(
+        Maps.immutableEntry(new Serializable[] {1}, new Serializable[] {2}),
+        Maps.immutableEntry(new Serializable[] {3}, new Serializable[] {4})
+    ));
+    assertConverted(createEvent(EventType.UPDATE_ROWS, data), "UPDATE");
+  }
+
+  @Test
+  public void testDeleteRows() {
+    DeleteRowsEventData data = new DeleteRowsEventData();
+    data.setIncludedColumns(columns());
+    data.setRows(ImmutableList.of(new Serializable[] {1}, new Serializable[] {2}));
+    assertConverted(createEvent(EventType.PRE_GA_DELETE_ROWS, data), "DELETE");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedEventCount() {
+    RecordConverter.getRecordCount(createEvent(EventType.QUERY, null));
+  }
+}
@@ -18,6 +18,7 @@ package com.streamsets.pipeline.lib.parser.net.netflow;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.lib.parser.net.netflow.v5.NetflowV5Decoder;
 import com.streamsets.pipeline.lib.parser.net.netflow.v5.NetflowV5Message;
+import com.streamsets.pipeline.lib.parser.net.netflow.v10.NetflowV10Decoder;
 import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9Decoder;
 import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9TemplateCacheProvider;
 import io.netty.buffer.ByteBuf;
@@ -41,7 +42,11 @@ import java.util.List;
  * <a href="http://www.cisco.com/en/US/technologies/tk648/tk362/technologies_white_paper09186a00800a3db9.html">v9 spec</a>,
  * and
  * <a href="http://www.cisco.com/c/en/us/td/docs/net_mgmt/netflow_collection_engine/3-6/user/guide/format.html#wp1003394">v1 and v5 spec</a>
- * <a href="http://www.cisco.com/en/US/technologies/tk648/tk362/technologies_white_paper09186a00800a3db9.html">v9</a>.
+ * <a href="http://www.cisco.com/en/US/technologies/tk648/tk362/technologies_white_paper09186a00800a3db9.html">v9</a>
+ * and <a href="https://tools.ietf.org/html/rfc7011">IPFIX (v10)</a>.
+ * <p/>
+ * NetFlow 9 and IPFIX templates are kept in the cache given by the {@link NetflowV9TemplateCacheProvider}, decoders
+ * of the same origin should be given the same cache so that a template received by one of them can be used by all.
  */
 
 public class NetflowCommonDecoder extends ReplayingDecoder<Void> {
@@ -52,6 +57,7 @@ public class NetflowCommonDecoder extends ReplayingDecoder<Void> {
   private boolean readVersion = false;
   private NetflowV5Decoder netflowV5Decoder;
   private NetflowV9Decoder netflowV9Decoder;
+  private NetflowV10Decoder netflowV10Decoder;
   // END ReplayingDecoder state vars
 
   // Netflow v9 decoder parameters
@@ -164,6 +170,12 @@ public class NetflowCommonDecoder extends ReplayingDecoder<Void> {
         }
         versionSpecificNetflowDecoder = netflowV9Decoder;
         break;
+      case 10:
+        if (netflowV10Decoder == null) {
+          netflowV10Decoder = new NetflowV10Decoder(outputValuesMode, templateCacheProvider);
+        }
+        versionSpecificNetflowDecoder = netflowV10Decoder;
+        break;
       default:
         resetStateVariables();
         throw new OnRecordErrorException(Errors.NETFLOW_00, version);
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser.net.netflow.v10;
+
+import com.google.common.cache.Cache;
+import com.google.common.primitives.Ints;
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
+import com.streamsets.pipeline.api.impl.Utils;
+import com.streamsets.pipeline.lib.parser.net.netflow.Errors;
+import com.streamsets.pipeline.lib.parser.net.netflow.OutputValuesMode;
+import com.streamsets.pipeline.lib.parser.net.netflow.VersionSpecificNetflowDecoder;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowKind;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowSetTemplate;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowSetTemplateCacheKey;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9Decoder;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9Field;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9FieldTemplate;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9TemplateCacheProvider;
+import io.netty.buffer.ByteBuf;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Decoder for IPFIX (NetFlow 10) messages, as specified by
+ * <a href="https://tools.ietf.org/html/rfc7011">RFC 7011</a>.
+ * <p/>
+ * Unlike NetFlow 9, the IPFIX header has the length of the message, so the whole message is read at once and decoded
+ * without checkpoints. With a {@link io.netty.handler.codec.ReplayingDecoder} the message is read again from the
+ * start until it is complete.
+ * <p/>
+ * Templates are kept in the same cache as NetFlow 9 templates, the observation domain ID taking the place of the
+ * source ID. Information elements of the IANA registry are interpreted as their NetFlow 9 equivalent, enterprise
+ * specific elements are kept as raw bytes.
+ */
+public class NetflowV10Decoder implements VersionSpecificNetflowDecoder<NetflowV10Message> {
+  private static final Logger LOG = LoggerFactory.getLogger(NetflowV10Decoder.class);
+
+  public static final int HEADER_SIZE = 16;
+  public static final int TEMPLATE_SET_ID = 2;
+  public static final int OPTIONS_TEMPLATE_SET_ID = 3;
+  public static final int MIN_DATA_SET_ID = 256;
+  public static final int VARIABLE_LENGTH = 65535;
+  private static final int SET_HEADER_SIZE = 4;
+  private static final int ENTERPRISE_BIT = 0x8000;
+
+  private final OutputValuesMode outputValuesMode;
+  private final Cache<FlowSetTemplateCacheKey, FlowSetTemplate> flowSetTemplateCache;
+
+  public NetflowV10Decoder(
+      OutputValuesMode outputValuesMode,
+      NetflowV9TemplateCacheProvider templateCacheProvider
+  ) {
+    this.outputValuesMode = outputValuesMode;
+    flowSetTemplateCache = templateCacheProvider.getFlowSetTemplateCache();
+  }
+
+  @Override
+  public void resetState() {
+    // messages are decoded at once, there is no state to reset
+  }
+
+  @Override
+  public List<NetflowV10Message> parse(
+      int netflowVersion,
+      int packetLength,
+      boolean packetLengthCheck,
+      ByteBuf buf,
+      InetSocketAddress sender,
+      InetSocketAddress recipient
+  ) throws OnRecordErrorException {
+    // the version was read by the parent decoder
+    final int length = buf.readUnsignedShort();
+    if (length < HEADER_SIZE) {
+      throw new OnRecordErrorException(Errors.NETFLOW_01, Utils.format("Message length is invalid: {}", length));
+    }
+    if (packetLengthCheck && length > packetLength) {
+      throw new OnRecordErrorException(
+          Errors.NETFLOW_01,
+          Utils.format("Message length is {} but the packet only has {} bytes", length, packetLength)
+      );
+    }
+    try {
+      return parseMessage(length, buf.readSlice(length - 4), sender);
+    } catch (IndexOutOfBoundsException e) {
+      throw new OnRecordErrorException(Errors.NETFLOW_01, e.toString(), e);
+    }
+  }
+
+  private List<NetflowV10Message> parseMessage(
+      int length,
+      ByteBuf message,
+      InetSocketAddress sender
+  ) throws OnRecordErrorException {
+    final long exportTime = message.readUnsignedInt();
+    final long sequenceNumber = message.readUnsignedInt();
+    final byte[] observationDomainBytes = new byte[4];
+    message.readBytes(observationDomainBytes);
+    final long observationDomainId = Ints.fromByteArray(observationDomainBytes) & 0xFFFFFFFFL;
+
+    final List<NetflowV10Message> result = new LinkedList<>();
+    while (message.readableBytes() >= SET_HEADER_SIZE) {
+      final int setId = message.readUnsignedShort();
+      final int setLength = message.readUnsignedShort();
+      if (setLength < SET_HEADER_SIZE) {
+        throw new OnRecordErrorException(Errors.NETFLOW_01, Utils.format("Set length is invalid: {}", setLength));
+      }
+      final ByteBuf set = message.readSlice(setLength - SET_HEADER_SIZE);
+      if (setId == TEMPLATE_SET_ID || setId == OPTIONS_TEMPLATE_SET_ID) {
+        parseTemplates(set, setId == OPTIONS_TEMPLATE_SET_ID, observationDomainBytes, sender);
+      } else if (setId >= MIN_DATA_SET_ID) {
+        FlowKind kind = FlowKind.FLOWSET;
+        FlowSetTemplate template = flowSetTemplateCache.getIfPresent(
+            new FlowSetTemplateCacheKey(kind, observationDomainBytes, sender, setId)
+        );
+        if (template == null) {
+          // template IDs are unique within an observation domain, data sets also refer to options templates
+          kind = FlowKind.OPTIONS;
+          template = flowSetTemplateCache.getIfPresent(
+              new FlowSetTemplateCacheKey(kind, observationDomainBytes, sender, setId)
+          );
+        }
+        if (template == null) {
+          throw new OnRecordErrorException(Errors.NETFLOW_11, setId);
+        }
+        while (set.readableBytes() >= getMinRecordLength(template)) {
+          NetflowV10Message msg = new NetflowV10Message();
+          msg.setFlowKind(kind);
+          msg.setOutputValuesMode(outputValuesMode);
+
+          // header fields
+          msg.setLength(length);
+          msg.setUnixSeconds(exportTime);
+          msg.setSequenceNumber(sequenceNumber);
+          msg.setSourceId(observationDomainId);
+          msg.setSourceIdBytes(observationDomainBytes);
+
+          // data fields
+          msg.setFields(parseDataRecord(set, template));
+          msg.setFlowTemplateId(setId);
+          result.add(msg);
+        }
+        // anything left is padding
+      } else {
+        throw new OnRecordErrorException(Errors.NETFLOW_17, setId);
+      }
+    }
+    return result;
+  }
+
+  private void parseTemplates(
+      ByteBuf set,
+      boolean options,
+      byte[] observationDomainBytes,
+      InetSocketAddress sender
+  ) {
+    final FlowKind kind = options ? FlowKind.OPTIONS : FlowKind.FLOWSET;
+    // a template record has at least its ID and field count, anything shorter is padding
+    while (set.readableBytes() >= 4) {
+      final int templateId = set.readUnsignedShort();
+      final int fieldCount = set.readUnsignedShort();
+      final FlowSetTemplateCacheKey key = new FlowSetTemplateCacheKey(kind, observationDomainBytes, sender, templateId);
+      if (fieldCount == 0) {
+        // template withdrawal
+        flowSetTemplateCache.invalidate(key);
+        continue;
+      }
+      if (options) {
+        // scope fields are regular information elements in IPFIX, they come first
+        set.readUnsignedShort();
+      }
+      final List<NetflowV9FieldTemplate> fields = new ArrayList<>(fieldCount);
+      for (int i = 0; i < fieldCount; i++) {
+        int typeId = set.readUnsignedShort();
+        final int fieldLength = set.readUnsignedShort();
+        if ((typeId & ENTERPRISE_BIT) != 0) {
+          typeId &= ~ENTERPRISE_BIT;
+          fields.add(NetflowV9FieldTemplate.getEnterpriseFieldTemplate(typeId, fieldLength, set.readUnsignedInt()));
+        } else {
+          fields.add(new NetflowV9FieldTemplate(typeId, fieldLength));
+        }
+      }
+      flowSetTemplateCache.put(key, new FlowSetTemplate(kind, templateId, fields));
+      if (LOG.isTraceEnabled()) {
+        LOG.trace("Cached new IPFIX template {} with {} fields", key, fieldCount);
+      }
+    }
+  }
+
+  private List<NetflowV9Field> parseDataRecord(
+      ByteBuf set,
+      FlowSetTemplate template
+  ) throws OnRecordErrorException {
+    final List<NetflowV9FieldTemplate> fieldTemplates = template.getFieldTemplates();
+    final List<NetflowV9Field> fields = new ArrayList<>(fieldTemplates.size());
+    for (NetflowV9FieldTemplate fieldTemplate : fieldTemplates) {
+      int fieldLength = fieldTemplate.getLength();
+      if (fieldLength == VARIABLE_LENGTH) {
+        fieldLength = set.readUnsignedByte();
+        if (fieldLength == 255) {
+          fieldLength = set.readUnsignedShort();
+        }
+      }
+      final byte[] rawBytes = new byte[fieldLength];
+      set.readBytes(rawBytes);
+      Field interpretedValueField = null;
+      if (outputValuesMode != OutputValuesMode.RAW_ONLY) {
+        interpretedValueField = NetflowV9Decoder.interpretField(fieldTemplate, rawBytes);
+      }
+      fields.add(new NetflowV9Field(fieldTemplate, rawBytes, interpretedValueField));
+    }
+    return fields;
+  }
+
+  private static int getMinRecordLength(FlowSetTemplate template) {
+    int length = 0;
+    for (NetflowV9FieldTemplate fieldTemplate : template.getFieldTemplates()) {
+      length += fieldTemplate.getLength() == VARIABLE_LENGTH ? 1 : fieldTemplate.getLength();
+    }
+    // a record always has at least one byte
+    return Math.max(1, length);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 StreamSets Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.streamsets.pipeline.lib.parser.net.netflow.v10;
+
+import com.streamsets.pipeline.api.Field;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9Message;
+
+import java.util.LinkedHashMap;
+
+/**
+ * IPFIX (NetFlow 10) data record.
+ * <p/>
+ * The record has the layout of a NetFlow 9 record, the export time is stored as the unix seconds and the observation
+ * domain ID as the source ID. The IPFIX header has neither a record count nor a system uptime, it has the length of
+ * the message instead.
+ */
+public class NetflowV10Message extends NetflowV9Message {
+
+  public static final String FIELD_LENGTH = "length";
+
+  private int length;
+
+  public int getLength() {
+    return length;
+  }
+
+  public void setLength(int length) {
+    this.length = length;
+  }
+
+  @Override
+  protected LinkedHashMap<String, Field> createHeaderFields() {
+    LinkedHashMap<String, Field> headerFields = new LinkedHashMap<>();
+    headerFields.put(FIELD_VERSION, Field.create(getNetflowVersion()));
+    headerFields.put(FIELD_LENGTH, Field.create(getLength()));
+    headerFields.put(FIELD_UNIX_SECONDS, Field.create(getUnixSeconds()));
+    headerFields.put(FIELD_SEQUENCE_NUMBER, Field.create(getSequenceNumber()));
+    headerFields.put(FIELD_SOURCE_ID, Field.create(getSourceId()));
+    headerFields.put(FIELD_SOURCE_ID_RAW, Field.create(getSourceIdBytes()));
+    return headerFields;
+  }
+
+  @Override
+  public int getNetflowVersion() {
+    return 10;
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.streamsets.pipeline.lib.parser.net.netflow.v9;
 
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.Arrays;
 import java.util.Objects;
@@ -29,12 +30,14 @@ import java.util.Objects;
  * to separate different export streams originating from the same Exporter.</blockquote>
  *
  * These fields, along with the templateId, should provide a unique key for templates that still supports template
- * reuse across multiple packets from the same exporter.
+ * reuse across multiple packets from the same exporter. Only the address of the exporter is part of the key, not its
+ * port, so that templates are shared by all the connections and sockets of an exporter. For IPFIX, the observation
+ * domain ID plays the role of the source ID.
  */
 public class FlowSetTemplateCacheKey {
   private final FlowKind templateKind;
   private final byte[] sourceId;
-  private final InetSocketAddress sourceAddress;
+  private final InetAddress sourceAddress;
   private final int templateId;
 
   public FlowSetTemplateCacheKey(
@@ -45,7 +48,7 @@ public class FlowSetTemplateCacheKey {
   ) {
     this.templateKind = templateKind;
     this.sourceId = sourceId;
-    this.sourceAddress = sourceAddress;
+    this.sourceAddress = sourceAddress == null ? null : sourceAddress.getAddress();
     this.templateId = templateId;
   }
 
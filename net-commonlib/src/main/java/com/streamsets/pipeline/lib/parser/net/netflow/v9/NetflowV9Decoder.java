@@ -455,217 +455,233 @@ public class NetflowV9Decoder implements VersionSpecificNetflowDecoder<NetflowV9
       NetflowV9FieldTemplate fieldTemplate,
       OutputValuesMode outputValuesMode) throws OnRecordErrorException {
 
-    NetflowV9FieldType type = fieldTemplate.getType();
     int length = fieldTemplate.getLength();
 
     byte[] rawBytes = readBytesAndCheckpoint(byteBuf, length);
 
     Field interpretedValueField = null;
-
     if (outputValuesMode != OutputValuesMode.RAW_ONLY) {
-      if (type == null) {
-        // just use raw bytes if unable to recognize a known type
-        interpretedValueField = getRawBytes(rawBytes);
-      } else {
-        switch (type) {
-          case IN_BYTES:
-          case IN_PKTS:
-          case FLOWS:
-            interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
-            break;
-          case PROTOCOL:
-          case SRC_TOS:
-          case TCP_FLAGS:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case L4_SRC_PORT:
-          case L4_DST_PORT:
-            interpretedValueField = getUnsignedShortField(rawBytes);
-            break;
-          case SRC_MASK:
-          case DST_MASK:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case INPUT_SNMP:
-          case OUTPUT_SNMP:
-            interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
-            break;
-          case IPV4_SRC_ADDR:
-          case IPV4_DST_ADDR:
-          case IPV4_NEXT_HOP:
-          case BGP_IPV4_NEXT_HOP:
-            interpretedValueField = Field.create(NetflowCommonDecoder.getIpV4Address(rawBytes));
-            break;
-          case SRC_AS:
-          case DST_AS:
-            interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
-            break;
-          case MUL_DST_PKTS:
-          case MUL_DST_BYTES:
-            interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
-            break;
-          case LAST_SWITCHED:
-          case FIRST_SWITCHED:
-            interpretedValueField = getUnsignedIntField(rawBytes);
-            break;
-          case OUT_BYTES:
-          case OUT_PKTS:
-            interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
-            break;
-          case MIN_PKT_LNGTH:
-          case MAX_PKT_LNGTH:
-            interpretedValueField = getUnsignedShortField(rawBytes);
-            break;
-          case IPV6_SRC_ADDR:
-          case IPV6_DST_ADDR:
-          case IPV6_NEXT_HOP:
-          case BGP_IPV6_NEXT_HOP:
-            interpretedValueField = getIPV6AddressAsString(rawBytes);
-            break;
-          case IPV6_SRC_MASK:
-          case IPV6_DST_MASK:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case IPV6_FLOW_LABEL:
-            interpretedValueField = getRawBytes(rawBytes);
-            break;
-          case ICMP_TYPE:
-            interpretedValueField = getUnsignedShortField(rawBytes);
-            break;
-          case MUL_IGMP_TYPE:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case SAMPLING_INTERVAL:
-            interpretedValueField = getUnsignedIntField(rawBytes);
-            break;
-          case SAMPLING_ALGORITHM:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case FLOW_ACTIVE_TIMEOUT:
-          case FLOW_INACTIVE_TIMEOUT:
-            interpretedValueField = getUnsignedShortField(rawBytes);
-            break;
-          case ENGINE_TYPE:
-          case ENGINE_ID:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case TOTAL_BYTES_EXP:
-          case TOTAL_PKTS_EXP:
-          case TOTAL_FLOWS_EXP:
-            interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
-            break;
-          case IPV4_SRC_PREFIX:
-          case IPV4_DST_PREFIX:
-            interpretedValueField = getUnsignedIntField(rawBytes);
-            break;
-          case MPLS_TOP_LABEL_TYPE:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case MPLS_TOP_LABEL_IP_ADDR:
-            interpretedValueField = getUnsignedIntField(rawBytes);
-            break;
-          case FLOW_SAMPLER_ID:
-          case FLOW_SAMPLER_MODE:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case FLOW_SAMPLER_RANDOM_INTERVAL:
-            interpretedValueField = getUnsignedIntField(rawBytes);
-            break;
-          case MIN_TTL:
-          case MAX_TTL:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case IPV4_IDENT:
-            interpretedValueField = getUnsignedShortField(rawBytes);
-            break;
-          case DST_TOS:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case IN_SRC_MAC:
-          case OUT_DST_MAC:
-          case IN_DST_MAC:
-          case OUT_SRC_MAC:
-            interpretedValueField = getMacAddress(rawBytes);
-            break;
-          case SRC_VLAN:
-          case DST_VLAN:
-            interpretedValueField = getUnsignedShortField(rawBytes);
-            break;
-          case IP_PROTOCOL_VERSION:
-          case DIRECTION:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case IPV6_OPTION_HEADERS:
-            interpretedValueField = getUnsignedIntField(rawBytes);
-            break;
-          case MPLS_LABEL_1:
-          case MPLS_LABEL_2:
-          case MPLS_LABEL_3:
-          case MPLS_LABEL_4:
-          case MPLS_LABEL_5:
-          case MPLS_LABEL_6:
-          case MPLS_LABEL_7:
-          case MPLS_LABEL_8:
-          case MPLS_LABEL_9:
-          case MPLS_LABEL_10:
-            interpretedValueField = getRawBytes(rawBytes);
-            break;
-          case IF_NAME:
-          case IF_DESC:
-          case SAMPLER_NAME:
-            interpretedValueField = getString(rawBytes);
-            break;
-          case IN_PERMANENT_BYTES:
-          case IN_PERMANENT_PKTS:
-            interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
-            break;
-          case FRAGMENT_OFFSET:
-            interpretedValueField = getUnsignedShortField(rawBytes);
-            break;
-          case FORWARDING_STATUS:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case MPLS_PAL_RD:
-            interpretedValueField = getRawBytes(rawBytes);
-            break;
-          case MPLS_PREFIX_LEN:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case SRC_TRAFFIC_INDEX:
-          case DST_TRAFFIC_INDEX:
-            interpretedValueField = getUnsignedIntField(rawBytes);
-            break;
-          case APPLICATION_DESCRIPTION:
-            interpretedValueField = getString(rawBytes);
-            break;
-          case APPLICATION_TAG:
-            interpretedValueField = getRawBytes(rawBytes);
-            break;
-          case APPLICATION_NAME:
-            interpretedValueField = getString(rawBytes);
-            break;
-          case POSTIP_DIFF_SERV_CODE_POINTS:
-            interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
-            break;
-          case REPLICATION_FACTOR:
-            interpretedValueField = getUnsignedIntField(rawBytes);
-            break;
-          case LAYER2_PACKET_SECTION_OFFSET:
-          case LAYER2_PACKET_SECTION_SIZE:
-          case LAYER2_PACKET_SECTION_DATA:
-            interpretedValueField = getRawBytes(rawBytes);
-            break;
-          default:
-            LOG.error("Type {} missing from switch in NetflowV9Decoder decodeField method", type.name());
-            interpretedValueField = getRawBytes(rawBytes);
-            break;
-        }
-      }
+      interpretedValueField = interpretField(fieldTemplate, rawBytes);
     }
 
     return new NetflowV9Field(fieldTemplate, rawBytes, interpretedValueField);
   }
 
+  /**
+   * Interprets the raw bytes of a field according to its type, shared by the NetFlow 9 and IPFIX decoders.
+   *
+   * @param fieldTemplate the template of the field
+   * @param rawBytes the bytes of the field
+   * @return the interpreted value, the raw bytes if the type is unknown
+   * @throws OnRecordErrorException if the bytes cannot be interpreted as the type of the field
+   */
+  public static Field interpretField(
+      NetflowV9FieldTemplate fieldTemplate,
+      byte[] rawBytes
+  ) throws OnRecordErrorException {
+    NetflowV9FieldType type = fieldTemplate.getType();
+    Field interpretedValueField;
+    if (type == null) {
+      // just use raw bytes if unable to recognize a known type
+      interpretedValueField = getRawBytes(rawBytes);
+    } else {
+      switch (type) {
+        case IN_BYTES:
+        case IN_PKTS:
+        case FLOWS:
+          interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
+          break;
+        case PROTOCOL:
+        case SRC_TOS:
+        case TCP_FLAGS:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case L4_SRC_PORT:
+        case L4_DST_PORT:
+          interpretedValueField = getUnsignedShortField(rawBytes);
+          break;
+        case SRC_MASK:
+        case DST_MASK:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case INPUT_SNMP:
+        case OUTPUT_SNMP:
+          interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
+          break;
+        case IPV4_SRC_ADDR:
+        case IPV4_DST_ADDR:
+        case IPV4_NEXT_HOP:
+        case BGP_IPV4_NEXT_HOP:
+          interpretedValueField = Field.create(NetflowCommonDecoder.getIpV4Address(rawBytes));
+          break;
+        case SRC_AS:
+        case DST_AS:
+          interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
+          break;
+        case MUL_DST_PKTS:
+        case MUL_DST_BYTES:
+          interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
+          break;
+        case LAST_SWITCHED:
+        case FIRST_SWITCHED:
+          interpretedValueField = getUnsignedIntField(rawBytes);
+          break;
+        case OUT_BYTES:
+        case OUT_PKTS:
+          interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
+          break;
+        case MIN_PKT_LNGTH:
+        case MAX_PKT_LNGTH:
+          interpretedValueField = getUnsignedShortField(rawBytes);
+          break;
+        case IPV6_SRC_ADDR:
+        case IPV6_DST_ADDR:
+        case IPV6_NEXT_HOP:
+        case BGP_IPV6_NEXT_HOP:
+          interpretedValueField = getIPV6AddressAsString(rawBytes);
+          break;
+        case IPV6_SRC_MASK:
+        case IPV6_DST_MASK:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case IPV6_FLOW_LABEL:
+          interpretedValueField = getRawBytes(rawBytes);
+          break;
+        case ICMP_TYPE:
+          interpretedValueField = getUnsignedShortField(rawBytes);
+          break;
+        case MUL_IGMP_TYPE:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case SAMPLING_INTERVAL:
+          interpretedValueField = getUnsignedIntField(rawBytes);
+          break;
+        case SAMPLING_ALGORITHM:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case FLOW_ACTIVE_TIMEOUT:
+        case FLOW_INACTIVE_TIMEOUT:
+          interpretedValueField = getUnsignedShortField(rawBytes);
+          break;
+        case ENGINE_TYPE:
+        case ENGINE_ID:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case TOTAL_BYTES_EXP:
+        case TOTAL_PKTS_EXP:
+        case TOTAL_FLOWS_EXP:
+          interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
+          break;
+        case IPV4_SRC_PREFIX:
+        case IPV4_DST_PREFIX:
+          interpretedValueField = getUnsignedIntField(rawBytes);
+          break;
+        case MPLS_TOP_LABEL_TYPE:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case MPLS_TOP_LABEL_IP_ADDR:
+          interpretedValueField = getUnsignedIntField(rawBytes);
+          break;
+        case FLOW_SAMPLER_ID:
+        case FLOW_SAMPLER_MODE:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case FLOW_SAMPLER_RANDOM_INTERVAL:
+          interpretedValueField = getUnsignedIntField(rawBytes);
+          break;
+        case MIN_TTL:
+        case MAX_TTL:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case IPV4_IDENT:
+          interpretedValueField = getUnsignedShortField(rawBytes);
+          break;
+        case DST_TOS:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case IN_SRC_MAC:
+        case OUT_DST_MAC:
+        case IN_DST_MAC:
+        case OUT_SRC_MAC:
+          interpretedValueField = getMacAddress(rawBytes);
+          break;
+        case SRC_VLAN:
+        case DST_VLAN:
+          interpretedValueField = getUnsignedShortField(rawBytes);
+          break;
+        case IP_PROTOCOL_VERSION:
+        case DIRECTION:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case IPV6_OPTION_HEADERS:
+          interpretedValueField = getUnsignedIntField(rawBytes);
+          break;
+        case MPLS_LABEL_1:
+        case MPLS_LABEL_2:
+        case MPLS_LABEL_3:
+        case MPLS_LABEL_4:
+        case MPLS_LABEL_5:
+        case MPLS_LABEL_6:
+        case MPLS_LABEL_7:
+        case MPLS_LABEL_8:
+        case MPLS_LABEL_9:
+        case MPLS_LABEL_10:
+          interpretedValueField = getRawBytes(rawBytes);
+          break;
+        case IF_NAME:
+        case IF_DESC:
+        case SAMPLER_NAME:
+          interpretedValueField = getString(rawBytes);
+          break;
+        case IN_PERMANENT_BYTES:
+        case IN_PERMANENT_PKTS:
+          interpretedValueField = getArbitraryLengthPositiveIntegralFromBytes(rawBytes);
+          break;
+        case FRAGMENT_OFFSET:
+          interpretedValueField = getUnsignedShortField(rawBytes);
+          break;
+        case FORWARDING_STATUS:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case MPLS_PAL_RD:
+          interpretedValueField = getRawBytes(rawBytes);
+          break;
+        case MPLS_PREFIX_LEN:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case SRC_TRAFFIC_INDEX:
+        case DST_TRAFFIC_INDEX:
+          interpretedValueField = getUnsignedIntField(rawBytes);
+          break;
+        case APPLICATION_DESCRIPTION:
+          interpretedValueField = getString(rawBytes);
+          break;
+        case APPLICATION_TAG:
+          interpretedValueField = getRawBytes(rawBytes);
+          break;
+        case APPLICATION_NAME:
+          interpretedValueField = getString(rawBytes);
+          break;
+        case POSTIP_DIFF_SERV_CODE_POINTS:
+          interpretedValueField = getUnsignedByteField(fieldTemplate.getTypeId(), rawBytes);
+          break;
+        case REPLICATION_FACTOR:
+          interpretedValueField = getUnsignedIntField(rawBytes);
+          break;
+        case LAYER2_PACKET_SECTION_OFFSET:
+        case LAYER2_PACKET_SECTION_SIZE:
+        case LAYER2_PACKET_SECTION_DATA:
+          interpretedValueField = getRawBytes(rawBytes);
+          break;
+        default:
+          LOG.error("Type {} missing from switch in NetflowV9Decoder decodeField method", type.name());
+          interpretedValueField = getRawBytes(rawBytes);
+          break;
+      }
+    }
+    return interpretedValueField;
+  }
+
   public static Field getArbitraryLengthPositiveIntegralFromBytes(byte[] bytes) {
     final BigInteger bigInt = new BigInteger(1, bytes);
     return Field.create(new BigDecimal(bigInt));
@@ -49,6 +49,8 @@ public class NetflowV9Field {
   public String getSdcFieldName() {
     if (fieldTemplate.getType() != null) {
       return fieldTemplate.getType().name();
+    } else if (fieldTemplate.getEnterpriseNumber() != 0) {
+      return String.format("enterprise_%d_type_%d", fieldTemplate.getEnterpriseNumber(), fieldTemplate.getTypeId());
     } else {
       return String.format("type_%d", fieldTemplate.getTypeId());
     }
@@ -22,6 +22,8 @@ public class NetflowV9FieldTemplate {
 
   private final int typeId;
   private final int length;
+  // IPFIX enterprise number of the field, 0 for standard fields
+  private final long enterpriseNumber;
 
   public NetflowV9FieldTemplate(int typeId, int length) {
     this(NetflowV9FieldType.getTypeForId(typeId), typeId, length);
@@ -32,9 +34,21 @@ public class NetflowV9FieldTemplate {
   }
 
   public NetflowV9FieldTemplate(NetflowV9FieldType type, int typeId, int length) {
+    this(type, typeId, length, 0);
+  }
+
+  /**
+   * Template of an IPFIX enterprise specific field, the type of such a field is never known.
+   */
+  public static NetflowV9FieldTemplate getEnterpriseFieldTemplate(int typeId, int length, long enterpriseNumber) {
+    return new NetflowV9FieldTemplate(null, typeId, length, enterpriseNumber);
+  }
+
+  private NetflowV9FieldTemplate(NetflowV9FieldType type, int typeId, int length, long enterpriseNumber) {
     this.type = type;
     this.typeId = typeId;
     this.length = length;
+    this.enterpriseNumber = enterpriseNumber;
   }
 
   public NetflowV9FieldType getType() {
@@ -48,4 +62,8 @@ public class NetflowV9FieldTemplate {
   public int getLength() {
     return length;
   }
+
+  public long getEnterpriseNumber() {
+    return enterpriseNumber;
+  }
 }
@@ -22,19 +22,25 @@ import com.google.common.cache.LoadingCache;
 import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.api.impl.Utils;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.Month;
 import java.time.MonthDay;
+import java.time.Year;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
 import java.time.temporal.ChronoField;
 import java.util.LinkedList;
 import java.util.List;
@@ -50,9 +56,18 @@ public class SyslogDecoder extends ByteToMessageDecoder {
 
   public static final String RFC5424_TS_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
   private static final int RFC3164_LEN = 15;
+  private static final byte[][] RFC3164_MONTHS = new byte[Month.values().length][];
+  static {
+    for (Month month : Month.values()) {
+      RFC3164_MONTHS[month.ordinal()] =
+          month.getDisplayName(TextStyle.SHORT, Locale.US).getBytes(StandardCharsets.US_ASCII);
+    }
+  }
   private static final int RFC5424_PREFIX_LEN = 19;
   private final LoadingCache<String, Long> timestampCache;
   private final Charset charset;
+  // charsets encoding ASCII characters as single ASCII bytes, which can be scanned without decoding
+  private final boolean asciiCompatible;
 
   private final Clock clock;
 
@@ -62,6 +77,9 @@ public class SyslogDecoder extends ByteToMessageDecoder {
 
   public SyslogDecoder(Charset charset, Clock clock) {
     this.charset = charset;
+    this.asciiCompatible = StandardCharsets.UTF_8.equals(charset)
+        || StandardCharsets.US_ASCII.equals(charset)
+        || StandardCharsets.ISO_8859_1.equals(charset);
     this.clock = clock;
     timestampCache = buildTimestampCache(DateTimeFormatter.ofPattern(RFC5424_TS_PATTERN, Locale.US));
   }
@@ -135,23 +153,29 @@ public class SyslogDecoder extends ByteToMessageDecoder {
       syslogMsg.setSenderPort(sender.getPort());
     }
     final String msg = buf.toString(charset);
-    int msgLen = msg.length();
-    int curPos = 0;
     syslogMsg.setRawMessage(msg);
-    if (msg.charAt(curPos) != '<') {
+
+    // the header is scanned directly on the bytes, only the raw message, host and remaining message are decoded
+    final ByteBuf in;
+    final Charset scanCharset;
+    if (asciiCompatible) {
+      in = buf;
+      scanCharset = charset;
+    } else {
+      in = Unpooled.wrappedBuffer(msg.getBytes(StandardCharsets.UTF_8));
+      scanCharset = StandardCharsets.UTF_8;
+    }
+    final int msgStart = in.readerIndex();
+    final int msgEnd = in.writerIndex();
+    int curPos = msgStart;
+    if (msgEnd == msgStart || in.getByte(curPos) != '<') {
       throw new OnRecordErrorException(Errors.SYSLOG_01, "cannot find open bracket '<'", msg);
     }
-    int endBracketPos = msg.indexOf('>');
-    if (endBracketPos <= 0 || endBracketPos > 6) {
+    int endBracketPos = in.indexOf(msgStart, msgEnd, (byte) '>');
+    if (endBracketPos <= msgStart || endBracketPos > msgStart + 6) {
       throw new OnRecordErrorException(Errors.SYSLOG_01, "cannot find end bracket '>'", msg);
     }
-    String priority = msg.substring(1, endBracketPos);
-    int pri;
-    try {
-      pri = Integer.parseInt(priority);
-    } catch (NumberFormatException nfe) {
-      throw new OnRecordErrorException(Errors.SYSLOG_01, nfe, msg, nfe);
-    }
+    int pri = parsePriority(in, msgStart + 1, endBracketPos, scanCharset, msg);
     int facility = pri / 8;
     int severity = pri % 8;
 
@@ -162,14 +186,14 @@ public class SyslogDecoder extends ByteToMessageDecoder {
     syslogMsg.setFacility(facility);
     syslogMsg.setSeverity(severity);
 
-    if (msgLen <= endBracketPos + 1) {
+    if (msgEnd <= endBracketPos + 1) {
       throw new OnRecordErrorException(Errors.SYSLOG_02, msg);
     }
     // update parsing position
     curPos = endBracketPos + 1;
 
     // remember version string
-    if (msgLen > curPos + 2 && "1 ".equals(msg.substring(curPos, curPos + 2))) {
+    if (msgEnd > curPos + 2 && in.getByte(curPos) == '1' && in.getByte(curPos + 1) == ' ') {
       // this is curious, I guess the code above matches 1 exactly because
       // there has not been another version.
       syslogMsg.setSyslogVersion(1);
@@ -178,49 +202,46 @@ public class SyslogDecoder extends ByteToMessageDecoder {
 
     // now parse timestamp (handle different varieties)
     long ts;
-    String tsString;
-    char dateStartChar = msg.charAt(curPos);
-    while (dateStartChar == ' ' && curPos < msgLen-1) {
+    byte dateStartChar = in.getByte(curPos);
+    while (dateStartChar == ' ' && curPos < msgEnd - 1) {
       // consume any spaces immediately after PRI
-      dateStartChar = msg.charAt(++curPos);
+      dateStartChar = in.getByte(++curPos);
     }
 
     // no timestamp specified; use relay current time
     if (dateStartChar == '-') {
       ts = clock.millis();
-      if (msgLen <= curPos + 2) {
+      if (msgEnd <= curPos + 2) {
         throw new OnRecordErrorException(Errors.SYSLOG_03, msg);
       }
       curPos += 2; // assume we skip past a space to get to the hostname
       // rfc3164 timestamp
     } else if (dateStartChar >= 'A' && dateStartChar <= 'Z') {
-      if (msgLen <= curPos + RFC3164_LEN) {
+      if (msgEnd <= curPos + RFC3164_LEN) {
         throw new OnRecordErrorException(Errors.SYSLOG_04, msg);
       }
-      tsString = msg.substring(curPos, curPos + RFC3164_LEN);
-      ts = parseRfc3164Time(tsString);
+      ts = parseRfc3164Time(in, curPos, scanCharset);
       curPos += RFC3164_LEN + 1;
       // rfc 5424 timestamp
     } else {
-      int nextSpace = msg.indexOf(' ', curPos);
+      int nextSpace = in.indexOf(curPos, msgEnd, (byte) ' ');
       if (nextSpace == -1) {
         throw new OnRecordErrorException(Errors.SYSLOG_04, msg);
       }
-      tsString = msg.substring(curPos, nextSpace);
-      ts = parseRfc5424Date(tsString);
+      ts = parseRfc5424Date(in, curPos, nextSpace, scanCharset);
       curPos = nextSpace + 1;
     }
     syslogMsg.setTimestamp(ts);
     // parse out hostname
-    int nextSpace = msg.indexOf(' ', curPos);
+    int nextSpace = in.indexOf(curPos, msgEnd, (byte) ' ');
     if (nextSpace == -1) {
       throw new OnRecordErrorException(Errors.SYSLOG_03, msg);
     }
-    String host = msg.substring(curPos, nextSpace);
+    String host = in.toString(curPos, nextSpace - curPos, scanCharset);
     syslogMsg.setHost(host);
-    if (msgLen > nextSpace + 1) {
+    if (msgEnd > nextSpace + 1) {
       curPos = nextSpace + 1;
-      syslogMsg.setRemainingMessage(msg.substring(curPos));
+      syslogMsg.setRemainingMessage(in.toString(curPos, msgEnd - curPos, scanCharset));
     } else {
       syslogMsg.setRemainingMessage("");
     }
@@ -254,6 +275,139 @@ public class SyslogDecoder extends ByteToMessageDecoder {
     return hostName + ":" + address.getPort();
   }
 
+  private static int parsePriority(
+      ByteBuf in,
+      int from,
+      int to,
+      Charset scanCharset,
+      String msg
+  ) throws OnRecordErrorException {
+    int pri = digits(in, from, to - from);
+    if (pri < 0) {
+      // let Integer.parseInt handle (or reject) anything that is not a plain number
+      try {
+        pri = Integer.parseInt(in.toString(from, to - from, scanCharset));
+      } catch (NumberFormatException nfe) {
+        throw new OnRecordErrorException(Errors.SYSLOG_01, nfe, msg, nfe);
+      }
+    }
+    return pri;
+  }
+
+  /**
+   * Returns the value of the given number of ASCII digits, or -1 if there are no digits or any byte is not a digit.
+   */
+  private static int digits(ByteBuf in, int pos, int count) {
+    if (count <= 0) {
+      return -1;
+    }
+    int value = 0;
+    for (int i = pos; i < pos + count; i++) {
+      int digit = in.getByte(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  /**
+   * Parses the RFC 5424 timestamp between the given buffer indexes. Well formed timestamps are parsed in place,
+   * anything else goes through {@link #parseRfc5424Date(String)} which reports the errors.
+   */
+  private long parseRfc5424Date(ByteBuf in, int from, int to, Charset scanCharset) throws OnRecordErrorException {
+    long ts = parseRfc5424DatePrefix(in, from, to);
+    int pos = from + RFC5424_PREFIX_LEN;
+    if (ts != Long.MIN_VALUE && in.getByte(pos) == '.') {
+      int digitsStart = ++pos;
+      while (pos < to && in.getByte(pos) >= '0' && in.getByte(pos) <= '9') {
+        pos++;
+      }
+      int fractionalPositions = pos - digitsStart;
+      if (pos == to || fractionalPositions == 0 || fractionalPositions > 9) {
+        ts = Long.MIN_VALUE;
+      } else {
+        long milliseconds = digits(in, digitsStart, fractionalPositions);
+        for (int i = fractionalPositions; i > 3; i--) {
+          milliseconds /= 10;
+        }
+        for (int i = fractionalPositions; i < 3; i++) {
+          milliseconds *= 10;
+        }
+        ts += milliseconds;
+      }
+    }
+    if (ts != Long.MIN_VALUE) {
+      byte tzFirst = in.getByte(pos);
+      if (tzFirst == '+' || tzFirst == '-') {
+        int hourOffset = to > pos + 5 ? digits(in, pos + 1, 2) : -1;
+        int minOffset = to > pos + 5 && in.getByte(pos + 3) == ':' ? digits(in, pos + 4, 2) : -1;
+        if (hourOffset < 0 || minOffset < 0) {
+          ts = Long.MIN_VALUE;
+        } else {
+          ts -= (tzFirst == '+' ? 1 : -1) * ((hourOffset * 60L) + minOffset) * 60000L;
+        }
+      } else if (tzFirst != 'Z') {
+        ts = Long.MIN_VALUE;
+      }
+    }
+    return ts != Long.MIN_VALUE ? ts : parseRfc5424Date(in.toString(from, to - from, scanCharset));
+  }
+
+  /**
+   * Returns the UTC milliseconds of the <code>yyyy-MM-dd'T'HH:mm:ss</code> prefix, or <code>Long.MIN_VALUE</code> if
+   * it is not a valid date.
+   */
+  private static long parseRfc5424DatePrefix(ByteBuf in, int from, int to) {
+    if (to - from <= RFC5424_PREFIX_LEN
+        || in.getByte(from + 4) != '-'
+        || in.getByte(from + 7) != '-'
+        || in.getByte(from + 10) != 'T'
+        || in.getByte(from + 13) != ':'
+        || in.getByte(from + 16) != ':') {
+      return Long.MIN_VALUE;
+    }
+    int year = digits(in, from, 4);
+    int month = digits(in, from + 5, 2);
+    int day = digits(in, from + 8, 2);
+    int hour = digits(in, from + 11, 2);
+    int minute = digits(in, from + 14, 2);
+    int second = digits(in, from + 17, 2);
+    if (year < 1 || month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))
+        || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return Long.MIN_VALUE;
+    }
+    long seconds = LocalDate.of(year, month, day).toEpochDay() * 86400L + hour * 3600L + minute * 60L + second;
+    return seconds * 1000L;
+  }
+
+  /**
+   * Parses the RFC 3164 timestamp starting at the given buffer index. Well formed timestamps are parsed in place,
+   * anything else goes through {@link #parseRfc3164Time(String)} which reports the errors.
+   */
+  private static long parseRfc3164Time(ByteBuf in, int from, Charset scanCharset) throws OnRecordErrorException {
+    int month = 0;
+    for (int i = 0; i < RFC3164_MONTHS.length && month == 0; i++) {
+      byte[] name = RFC3164_MONTHS[i];
+      if (in.getByte(from) == name[0] && in.getByte(from + 1) == name[1] && in.getByte(from + 2) == name[2]) {
+        month = i + 1;
+      }
+    }
+    // day of month is either two digits or space padded
+    int day = in.getByte(from + 4) == ' ' ? digits(in, from + 5, 1) : digits(in, from + 4, 2);
+    int hour = digits(in, from + 7, 2);
+    int minute = digits(in, from + 10, 2);
+    int second = digits(in, from + 13, 2);
+    if (month == 0 || in.getByte(from + 3) != ' ' || in.getByte(from + 6) != ' '
+        || in.getByte(from + 9) != ':' || in.getByte(from + 12) != ':'
+        || day < 1 || day > Month.of(month).maxLength()
+        || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return parseRfc3164Time(in.toString(from, RFC3164_LEN, scanCharset));
+    }
+    return rfc3164ToMillis(month, day, hour, minute, second);
+  }
+
   protected long parseRfc5424Date(String ts) throws OnRecordErrorException {
     return parseRfc5424Date(timestampCache, ts);
   }
@@ -374,26 +528,37 @@ public class SyslogDecoder extends ByteToMessageDecoder {
    * @return Typical (for Java) milliseconds since the UNIX epoch
    */
   public static long parseRfc3164Time(String ts) throws OnRecordErrorException {
-    LocalDateTime now = LocalDateTime.now();
-    int year = now.getYear();
     ts = TWO_SPACES.matcher(ts).replaceFirst(" ");
-    LocalDateTime date;
+    MonthDay monthDay;
+    LocalTime time;
     try {
-      MonthDay monthDay = MonthDay.parse(ts, rfc3164Format);
-      LocalTime time = LocalTime.parse(ts, rfc3164Format);
-      // this is overly complicated because of the way Java 8 Time API works, as compared to Joda
-      // essentially, we just want to pull year out of "now" and set all other fields based on
-      // what was parsed
-      date = now;
-      // zero out millis since we aren't actually parsing those
-      date = date.with(ChronoField.MILLI_OF_SECOND, 0);
-      // set month and day of month from parsed
-      date = date.withMonth(monthDay.getMonthValue()).withDayOfMonth(monthDay.getDayOfMonth());
-      // set time fields from parsed
-      date = date.withHour(time.getHour()).withMinute(time.getMinute()).withSecond(time.getSecond());
+      monthDay = MonthDay.parse(ts, rfc3164Format);
+      time = LocalTime.parse(ts, rfc3164Format);
     } catch (DateTimeParseException e) {
       throw new OnRecordErrorException(Errors.SYSLOG_10, ts, e);
     }
+    return rfc3164ToMillis(
+        monthDay.getMonthValue(),
+        monthDay.getDayOfMonth(),
+        time.getHour(),
+        time.getMinute(),
+        time.getSecond()
+    );
+  }
+
+  private static long rfc3164ToMillis(int month, int day, int hour, int minute, int second) {
+    LocalDateTime now = LocalDateTime.now();
+    int year = now.getYear();
+    // this is overly complicated because of the way Java 8 Time API works, as compared to Joda
+    // essentially, we just want to pull year out of "now" and set all other fields based on
+    // what was parsed
+    LocalDateTime date = now;
+    // zero out millis since we aren't actually parsing those
+    date = date.with(ChronoField.MILLI_OF_SECOND, 0);
+    // set month and day of month from parsed
+    date = date.withMonth(month).withDayOfMonth(day);
+    // set time fields from parsed
+    date = date.withHour(hour).withMinute(minute).withSecond(second);
     // The RFC3164 is a bit weird date format - it contains day and month, but no year. So we have to somehow guess
     // the year. The current logic is to provide a sliding window - going 11 months to the past and 1 month to the
     // future. If the message is outside of this window, it will have incorrectly guessed year. We go 11 months to the
@@ -15,19 +15,27 @@
  */
 package com.streamsets.pipeline.lib.parser.net.netflow;
 
+import com.google.common.cache.Cache;
 import com.google.common.io.ByteStreams;
 import com.google.common.primitives.Bytes;
 import com.streamsets.pipeline.api.Field;
 import com.streamsets.pipeline.api.Record;
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import com.streamsets.pipeline.lib.parser.net.NetTestUtils;
+import com.streamsets.pipeline.lib.parser.net.netflow.v10.NetflowV10Decoder;
+import com.streamsets.pipeline.lib.parser.net.netflow.v10.NetflowV10Message;
 import com.streamsets.pipeline.lib.parser.net.netflow.v5.NetflowV5Message;
 import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowKind;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowSetTemplate;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.FlowSetTemplateCacheKey;
+import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9Decoder;
 import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9Field;
 import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9FieldType;
 import com.streamsets.pipeline.lib.parser.net.netflow.v9.NetflowV9Message;
 import com.streamsets.pipeline.sdk.RecordCreator;
 import com.streamsets.testing.RandomTestUtils;
 import com.streamsets.testing.ValueAccessor;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.embedded.EmbeddedChannel;
 import org.apache.commons.lang3.RandomUtils;
@@ -37,6 +45,8 @@ import org.junit.Test;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -370,6 +380,122 @@ public class TestNetflowDecoder {
     assertThat(records, hasSize(expectedNumMsgs));
 
   }
+  private static final int IPFIX_TEMPLATE_ID = 256;
+  private static final int IPFIX_ENTERPRISE_NUMBER = 9;
+
+  private static byte[] ipfixMessage(boolean withTemplate, boolean withData) {
+    ByteBuf sets = Unpooled.buffer();
+    if (withTemplate) {
+      sets.writeShort(NetflowV10Decoder.TEMPLATE_SET_ID);
+      sets.writeShort(4 + 4 + 4 * 4 + 4);
+      sets.writeShort(IPFIX_TEMPLATE_ID);
+      sets.writeShort(4);
+      sets.writeShort(8).writeShort(4);
+      sets.writeShort(7).writeShort(2);
+      sets.writeShort(96).writeShort(NetflowV10Decoder.VARIABLE_LENGTH);
+      sets.writeShort(0x8000 | 1).writeShort(2).writeInt(IPFIX_ENTERPRISE_NUMBER);
+    }
+    if (withData) {
+      ByteBuf data = Unpooled.buffer();
+      data.writeBytes(new byte[]{10, 0, 0, 1}).writeShort(80);
+      data.writeByte(4).writeBytes("http".getBytes(StandardCharsets.UTF_8)).writeShort(0x0102);
+      data.writeBytes(new byte[]{10, 0, 0, 2}).writeShort(443);
+      data.writeByte(5).writeBytes("https".getBytes(StandardCharsets.UTF_8)).writeShort(0x0304);
+      // padding
+      data.writeZero(3);
+      sets.writeShort(IPFIX_TEMPLATE_ID);
+      sets.writeShort(4 + data.readableBytes());
+      sets.writeBytes(data);
+    }
+    ByteBuf message = Unpooled.buffer();
+    message.writeShort(10);
+    message.writeShort(NetflowV10Decoder.HEADER_SIZE + sets.readableBytes());
+    message.writeInt(1500000000);
+    message.writeInt(42);
+    message.writeInt(7);
+    message.writeBytes(sets);
+    byte[] bytes = new byte[message.readableBytes()];
+    message.readBytes(bytes);
+    return bytes;
+  }
+
+  @Test
+  public void ipfix() throws Exception {
+    EmbeddedChannel ch = new EmbeddedChannel(makeNetflowDecoder());
+    writeBytesToChannel(ch, ipfixMessage(true, true), RandomTestUtils.getRandom().nextBoolean());
+
+    List<Record> records = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      Object object = ch.readInbound();
+      assertThat(object, instanceOf(NetflowV10Message.class));
+      Record record = RecordCreator.create();
+      ((NetflowV10Message) object).populateRecord(record);
+      records.add(record);
+    }
+    assertNull(ch.readInbound());
+    ch.finish();
+
+    Record record = records.get(1);
+    Field header = record.get("/" + NetflowV9Message.FIELD_PACKET_HEADER);
+    assertThat(header, mapFieldWithEntry(NetflowV9Message.FIELD_VERSION, 10));
+    assertThat(header, mapFieldWithEntry(NetflowV9Message.FIELD_UNIX_SECONDS, 1500000000L));
+    assertThat(header, mapFieldWithEntry(NetflowV9Message.FIELD_SEQUENCE_NUMBER, 42L));
+    assertThat(header, mapFieldWithEntry(NetflowV9Message.FIELD_SOURCE_ID, 7L));
+    assertThat(record.get(), mapFieldWithEntry(NetflowV9Message.FIELD_FLOW_TEMPLATE_ID, IPFIX_TEMPLATE_ID));
+
+    Field values = record.get("/" + NetflowV9Message.FIELD_INTERPRETED_VALUES);
+    assertThat(values, mapFieldWithEntry(NetflowV9FieldType.IPV4_SRC_ADDR.name(), "10.0.0.2"));
+    assertThat(values, mapFieldWithEntry(NetflowV9FieldType.L4_SRC_PORT.name(), 443));
+    assertThat(values, mapFieldWithEntry(NetflowV9FieldType.APPLICATION_NAME.name(), "https"));
+    assertArrayEquals(
+        new byte[]{3, 4},
+        values.getValueAsListMap().get("enterprise_" + IPFIX_ENTERPRISE_NUMBER + "_type_1").getValueAsByteArray()
+    );
+    assertThat(
+        records.get(0).get("/" + NetflowV9Message.FIELD_INTERPRETED_VALUES),
+        mapFieldWithEntry(NetflowV9FieldType.APPLICATION_NAME.name(), "http")
+    );
+  }
+
+  @Test
+  public void templatesSharedAcrossDecoders() throws Exception {
+    Cache<FlowSetTemplateCacheKey, FlowSetTemplate> cache = NetflowV9Decoder.buildTemplateCache(-1, -1);
+    NetflowCommonDecoder templateDecoder = new NetflowCommonDecoder(OutputValuesMode.INTERPRETED_ONLY, () -> cache);
+    NetflowCommonDecoder dataDecoder = new NetflowCommonDecoder(OutputValuesMode.INTERPRETED_ONLY, () -> cache);
+    InetSocketAddress recipient = new InetSocketAddress("127.0.0.1", 2055);
+
+    List<BaseNetflowMessage> messages = new ArrayList<>();
+    templateDecoder.decodeStandaloneBuffer(
+        Unpooled.wrappedBuffer(ipfixMessage(true, false)),
+        messages,
+        new InetSocketAddress("127.0.0.2", 1000),
+        recipient
+    );
+    assertThat(messages, hasSize(0));
+
+    // same exporter, from another port
+    dataDecoder.decodeStandaloneBuffer(
+        Unpooled.wrappedBuffer(ipfixMessage(false, true)),
+        messages,
+        new InetSocketAddress("127.0.0.2", 2000),
+        recipient
+    );
+    assertThat(messages, hasSize(2));
+
+    // another exporter does not see the templates
+    try {
+      dataDecoder.decodeStandaloneBuffer(
+          Unpooled.wrappedBuffer(ipfixMessage(false, true)),
+          messages,
+          new InetSocketAddress("127.0.0.3", 1000),
+          recipient
+      );
+      fail("Expected OnRecordErrorException");
+    } catch (OnRecordErrorException e) {
+      assertThat(e.getErrorCode(), equalTo(Errors.NETFLOW_11));
+    }
+  }
+
   public static void assertNetflowV9MessageAndRecord(
       FlowKind kind,
       NetflowV9Message message,
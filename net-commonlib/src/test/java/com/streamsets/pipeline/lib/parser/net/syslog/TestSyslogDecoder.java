@@ -15,12 +15,15 @@
  */
 package com.streamsets.pipeline.lib.parser.net.syslog;
 
+import com.streamsets.pipeline.api.base.OnRecordErrorException;
 import io.netty.buffer.Unpooled;
 import org.junit.Test;
 
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.Map;
@@ -90,4 +93,83 @@ public class TestSyslogDecoder extends SyslogBaseTestClass {
       assertThat(msg.getRemainingMessage(), equalTo(exp.getRemainingMessage()));
     }
   }
+
+  private SyslogMessage decode(SyslogDecoder decoder, String raw, Charset charset) throws Exception {
+    final List<Object> outputs = new LinkedList<>();
+    decoder.decode(null, Unpooled.copiedBuffer(raw, charset), outputs, getDummyReceiver(), getDummySender());
+    assertThat(outputs.size(), equalTo(1));
+    return (SyslogMessage) outputs.get(0);
+  }
+
+  @Test
+  public void testDecodeTimestampsMatchStringParsing() throws Exception {
+    final String[] rfc5424 = {
+        "1985-04-12T23:20:50.52Z",
+        "1985-04-12T19:20:50.52-04:00",
+        "2003-08-24T05:14:15.000003-07:00",
+        "2012-04-13T11:11:11-08:00",
+        "2012-04-13T08:08:08.0001+00:00",
+        "2016-03-16T20:47:55.889893",
+        "2016-02-29T10:00:00Z",
+        "2015-02-30T10:00:00Z",
+        "2012-04-13T11:11:11.123456789123Z",
+        "2012-04-13T11:11:11X"
+    };
+    final String[] rfc3164 = {
+        "Oct 11 22:14:15",
+        "Feb  5 17:32:18",
+        "Mar 01 00:00:00",
+        "Dec 31 23:59:59"
+    };
+    SyslogDecoder decoder = new SyslogDecoder(StandardCharsets.UTF_8, getSystemClock());
+    for (String ts : rfc5424) {
+      SyslogMessage msg = decode(decoder, "<34>1 " + ts + " host message", StandardCharsets.UTF_8);
+      assertEquals("Problem parsing date string: " + ts, decoder.parseRfc5424Date(ts), msg.getTimestamp());
+      assertEquals("host", msg.getHost());
+      assertEquals("message", msg.getRemainingMessage());
+    }
+    for (String ts : rfc3164) {
+      SyslogMessage msg = decode(decoder, "<34>" + ts + " host message", StandardCharsets.UTF_8);
+      assertEquals("Problem parsing date string: " + ts, SyslogDecoder.parseRfc3164Time(ts), msg.getTimestamp());
+    }
+  }
+
+  @Test
+  public void testDecodeInvalidMessages() throws Exception {
+    SyslogDecoder decoder = new SyslogDecoder(StandardCharsets.UTF_8, getSystemClock());
+    final Map<String, Errors> invalid = new LinkedHashMap<>();
+    invalid.put("", Errors.SYSLOG_01);
+    invalid.put("34>1 host message", Errors.SYSLOG_01);
+    invalid.put("<1234567>1 host message", Errors.SYSLOG_01);
+    invalid.put("<3a>Oct 11 22:14:15 host message", Errors.SYSLOG_01);
+    invalid.put("<34>", Errors.SYSLOG_02);
+    invalid.put("<34>Oct 11 22:14", Errors.SYSLOG_04);
+    invalid.put("<34>Foo 11 22:14:15 host message", Errors.SYSLOG_10);
+    invalid.put("<34>1 2003-10-11T22:14:15.003Z", Errors.SYSLOG_04);
+    invalid.put("<34>1 2003-10-11T22:14:15.003+07 host message", Errors.SYSLOG_08);
+    invalid.put("<34>1 2003-10-11T22:14:15.003Z hostonly", Errors.SYSLOG_03);
+    for (Map.Entry<String, Errors> entry : invalid.entrySet()) {
+      try {
+        decode(decoder, entry.getKey(), StandardCharsets.UTF_8);
+        fail("Expected error for: " + entry.getKey());
+      } catch (OnRecordErrorException ex) {
+        assertEquals(entry.getKey(), entry.getValue(), ex.getErrorCode());
+      }
+    }
+  }
+
+  @Test
+  public void testDecodeCharsets() throws Exception {
+    final String raw = "<34>1 2003-10-11T22:14:15.003Z h\u00f6st m\u00e9ssage \u65e5\u672c";
+    for (Charset charset : new Charset[] {
+        StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16, Charset.forName("Shift_JIS")
+    }) {
+      String expected = new String(raw.getBytes(charset), charset);
+      SyslogMessage msg = decode(new SyslogDecoder(charset, getSystemClock()), raw, charset);
+      assertEquals(charset.name(), expected, msg.getRawMessage());
+      assertEquals(charset.name(), expected.substring(31, 35), msg.getHost());
+      assertEquals(charset.name(), expected.substring(36), msg.getRemainingMessage());
+      assertEquals(charset.name(), 1065910455003L, msg.getTimestamp());
+    }
+  }
 }